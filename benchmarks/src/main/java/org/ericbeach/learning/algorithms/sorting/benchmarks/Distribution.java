@@ -0,0 +1,116 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Shapes of input for the benchmarks, each generated as an array of int keys.
+ *
+ * RANDOM - Uniformly random ints.
+ * SORTED - 0, 1, 2, ..., already in order.
+ * REVERSED - In strictly decreasing order.
+ * FEW_UNIQUE - Random ints drawn from only ten distinct values.
+ * ORGAN_PIPE - Increasing up to the middle, then decreasing again.
+ * SAWTOOTH - Ten increasing runs of equal length, one after another.
+ * ZIPF - Random ranks that follow Zipf's law with an exponent of 1, so that a few values are
+ * very common and most are rare. Ranks are drawn by inverting the continuous approximation of
+ * the distribution, log(k + 1) / log(n + 1), which is close enough for benchmarking and costs
+ * nothing to set up.
+ */
+public enum Distribution {
+  RANDOM {
+    @Override
+    public int[] generate(int size, Random random) {
+      int[] keys = new int[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = random.nextInt();
+      }
+      return keys;
+    }
+  },
+
+  SORTED {
+    @Override
+    public int[] generate(int size, Random random) {
+      int[] keys = new int[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = i;
+      }
+      return keys;
+    }
+  },
+
+  REVERSED {
+    @Override
+    public int[] generate(int size, Random random) {
+      int[] keys = new int[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = size - i;
+      }
+      return keys;
+    }
+  },
+
+  FEW_UNIQUE {
+    @Override
+    public int[] generate(int size, Random random) {
+      int[] keys = new int[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = random.nextInt(FEW_UNIQUE_VALUES);
+      }
+      return keys;
+    }
+  },
+
+  ORGAN_PIPE {
+    @Override
+    public int[] generate(int size, Random random) {
+      int[] keys = new int[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = (i < size / 2) ? i : size - i;
+      }
+      return keys;
+    }
+  },
+
+  SAWTOOTH {
+    @Override
+    public int[] generate(int size, Random random) {
+      int[] keys = new int[size];
+      int toothLength = Math.max(1, size / SAWTOOTH_TEETH);
+      for (int i = 0; i < size; i++) {
+        keys[i] = i % toothLength;
+      }
+      return keys;
+    }
+  },
+
+  ZIPF {
+    @Override
+    public int[] generate(int size, Random random) {
+      int[] keys = new int[size];
+      double logRanks = Math.log(size + 1.0);
+      for (int i = 0; i < size; i++) {
+        keys[i] = (int) Math.exp(random.nextDouble() * logRanks) - 1;
+      }
+      return keys;
+    }
+  };
+
+  /**
+   * The number of distinct values in FEW_UNIQUE input.
+   */
+  private static final int FEW_UNIQUE_VALUES = 10;
+
+  /**
+   * The number of increasing runs in SAWTOOTH input.
+   */
+  private static final int SAWTOOTH_TEETH = 10;
+
+  /**
+   * Generate keys with this distribution.
+   * @param size The number of keys.
+   * @param random The source of randomness, for distributions that need one.
+   * @return The keys.
+   */
+  public abstract int[] generate(int size, Random random);
+}
@@ -0,0 +1,74 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The element types the benchmarks sort. Each turns an int key into an element, keeping the
+ * order of the keys, so that every {@link Distribution} has the same shape for every type.
+ *
+ * INTEGER - The key itself, boxed. Cheap comparisons.
+ * STRING - The key offset to be non-negative and zero padded to ten digits. Comparisons walk
+ * common prefixes, which are long for keys that are close together.
+ * TIMESTAMP - A {@link Timestamp} the key's number of milliseconds after a fixed instant.
+ * Comparisons go through {@link java.util.Date#compareTo} and then compare nanoseconds.
+ */
+public enum ElementType {
+  INTEGER {
+    @Override
+    Comparable<?> element(int key) {
+      return key;
+    }
+  },
+
+  STRING {
+    @Override
+    Comparable<?> element(int key) {
+      String digits = Long.toString((long) key - Integer.MIN_VALUE);
+      StringBuilder builder = new StringBuilder(STRING_LENGTH);
+      for (int i = digits.length(); i < STRING_LENGTH; i++) {
+        builder.append('0');
+      }
+      return builder.append(digits).toString();
+    }
+  },
+
+  TIMESTAMP {
+    @Override
+    Comparable<?> element(int key) {
+      return new Timestamp(TIMESTAMP_BASE_MILLIS + key);
+    }
+  };
+
+  /**
+   * The length of STRING elements; enough digits for any key.
+   */
+  private static final int STRING_LENGTH = 10;
+
+  /**
+   * The instant TIMESTAMP keys are counted from: 2020-01-01T00:00:00Z.
+   */
+  private static final long TIMESTAMP_BASE_MILLIS = 1577836800000L;
+
+  /**
+   * Turn a key into an element of this type.
+   * @param key The key.
+   * @return The element.
+   */
+  abstract Comparable<?> element(int key);
+
+  /**
+   * Turn keys into a list of elements of this type.
+   * @param keys The keys.
+   * @return The elements, in the same order as the keys.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Comparable<Object>> elements(int[] keys) {
+    List<Comparable<Object>> elements = new ArrayList<Comparable<Object>>(keys.length);
+    for (int key : keys) {
+      elements.add((Comparable<Object>) element(key));
+    }
+    return elements;
+  }
+}
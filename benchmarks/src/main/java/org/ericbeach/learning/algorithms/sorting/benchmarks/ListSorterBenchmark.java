@@ -0,0 +1,63 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.ericbeach.learning.algorithms.sorting.ListSorter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the O(n log n) sorters for every size, distribution and element
+ * type.
+ *
+ * Each invocation copies the generated input into a fresh ArrayList and sorts the copy, so the
+ * copy is part of every score. It costs the same for every sorter, and is small next to the
+ * sort for all but the smallest sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ListSorterBenchmark {
+  @Param({"SHELLSORT", "HEAP_SORT", "DARY_HEAP_SORT", "MERGESORT", "ADAPTIVE_MERGESORT",
+      "PARALLEL_MERGESORT", "SAMPLE_SORT", "QUICKSORT", "MULTIWAY_QUICKSORT", "INTROSORT",
+      "NORMALIZED_KEY_RADIX_SORT", "SORTING_ENGINE", "COLLECTIONS_SORT"})
+  private Sorter sorter;
+
+  @Param({"10", "1000", "100000", "10000000"})
+  private int size;
+
+  @Param
+  private Distribution distribution;
+
+  @Param
+  private ElementType elementType;
+
+  private List<Comparable<Object>> input;
+  private ListSorter<Comparable<Object>> listSorter;
+
+  @Setup
+  public void setUp() {
+    input = elementType.elements(distribution.generate(size, new Random(42)));
+    listSorter = sorter.<Comparable<Object>>create();
+  }
+
+  @Benchmark
+  public List<Comparable<Object>> sort() {
+    return listSorter.sort(new ArrayList<Comparable<Object>>(input));
+  }
+}
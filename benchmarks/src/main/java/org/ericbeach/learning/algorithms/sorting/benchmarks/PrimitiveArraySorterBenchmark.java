@@ -0,0 +1,62 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the primitive array sorters, including the vectorized one, on int
+ * and long arrays of every size and distribution.
+ *
+ * The forked JVM loads the Vector API module so that VECTORIZED really is vectorized. Each
+ * invocation sorts a clone of the generated input, so the clone is part of every score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xms2g", "-Xmx2g"})
+public class PrimitiveArraySorterBenchmark {
+  @Param
+  private PrimitiveSorter sorter;
+
+  @Param({"10", "1000", "100000", "10000000"})
+  private int size;
+
+  @Param
+  private Distribution distribution;
+
+  private int[] ints;
+  private long[] longs;
+
+  @Setup
+  public void setUp() {
+    ints = distribution.generate(size, new Random(42));
+    longs = new long[size];
+    for (int i = 0; i < size; i++) {
+      longs[i] = ints[i];
+    }
+  }
+
+  @Benchmark
+  public int[] sortInts() {
+    return sorter.sort(ints.clone());
+  }
+
+  @Benchmark
+  public long[] sortLongs() {
+    return sorter.sort(longs.clone());
+  }
+}
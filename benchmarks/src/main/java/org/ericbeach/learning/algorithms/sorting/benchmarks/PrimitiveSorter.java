@@ -0,0 +1,169 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import java.util.Arrays;
+
+import org.ericbeach.learning.algorithms.sorting.BlockQuicksortArraySorter;
+import org.ericbeach.learning.algorithms.sorting.HeapSortArraySorter;
+import org.ericbeach.learning.algorithms.sorting.IntArraySorter;
+import org.ericbeach.learning.algorithms.sorting.LongArraySorter;
+import org.ericbeach.learning.algorithms.sorting.MergesortArraySorter;
+import org.ericbeach.learning.algorithms.sorting.ParallelRadixArraySorter;
+import org.ericbeach.learning.algorithms.sorting.QuicksortArraySorter;
+import org.ericbeach.learning.algorithms.sorting.RadixArraySorter;
+import org.ericbeach.learning.algorithms.sorting.SampleSortArraySorter;
+import org.ericbeach.learning.algorithms.sorting.ShellsortArraySorter;
+import org.ericbeach.learning.algorithms.sorting.VectorizedArraySorter;
+
+/**
+ * Every sorter of int and long arrays in org.ericbeach.learning.algorithms.sorting, by name,
+ * plus {@link Arrays#sort(int[])} as a baseline.
+ */
+public enum PrimitiveSorter {
+  VECTORIZED {
+    @Override
+    public int[] sort(int[] array) {
+      return VECTORIZED_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return VECTORIZED_SORTER.sort(array);
+    }
+  },
+
+  QUICKSORT {
+    @Override
+    public int[] sort(int[] array) {
+      return QUICKSORT_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return QUICKSORT_SORTER.sort(array);
+    }
+  },
+
+  BLOCK_QUICKSORT {
+    @Override
+    public int[] sort(int[] array) {
+      return BLOCK_QUICKSORT_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return BLOCK_QUICKSORT_SORTER.sort(array);
+    }
+  },
+
+  MERGESORT {
+    @Override
+    public int[] sort(int[] array) {
+      return MERGESORT_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return MERGESORT_SORTER.sort(array);
+    }
+  },
+
+  HEAP_SORT {
+    @Override
+    public int[] sort(int[] array) {
+      return HEAP_SORT_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return HEAP_SORT_SORTER.sort(array);
+    }
+  },
+
+  SHELLSORT {
+    @Override
+    public int[] sort(int[] array) {
+      return SHELLSORT_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return SHELLSORT_SORTER.sort(array);
+    }
+  },
+
+  RADIX {
+    @Override
+    public int[] sort(int[] array) {
+      return RADIX_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return RADIX_SORTER.sort(array);
+    }
+  },
+
+  PARALLEL_RADIX {
+    @Override
+    public int[] sort(int[] array) {
+      return PARALLEL_RADIX_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return PARALLEL_RADIX_SORTER.sort(array);
+    }
+  },
+
+  SAMPLE_SORT {
+    @Override
+    public int[] sort(int[] array) {
+      return SAMPLE_SORT_SORTER.sort(array);
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      return SAMPLE_SORT_SORTER.sort(array);
+    }
+  },
+
+  ARRAYS_SORT {
+    @Override
+    public int[] sort(int[] array) {
+      Arrays.sort(array);
+      return array;
+    }
+
+    @Override
+    public long[] sort(long[] array) {
+      Arrays.sort(array);
+      return array;
+    }
+  };
+
+  private static final VectorizedArraySorter VECTORIZED_SORTER = new VectorizedArraySorter();
+  private static final QuicksortArraySorter QUICKSORT_SORTER = new QuicksortArraySorter();
+  private static final BlockQuicksortArraySorter BLOCK_QUICKSORT_SORTER =
+      new BlockQuicksortArraySorter();
+  private static final MergesortArraySorter MERGESORT_SORTER = new MergesortArraySorter();
+  private static final HeapSortArraySorter HEAP_SORT_SORTER = new HeapSortArraySorter();
+  private static final ShellsortArraySorter SHELLSORT_SORTER = new ShellsortArraySorter();
+  private static final RadixArraySorter RADIX_SORTER = new RadixArraySorter();
+  private static final ParallelRadixArraySorter PARALLEL_RADIX_SORTER =
+      new ParallelRadixArraySorter();
+  private static final SampleSortArraySorter SAMPLE_SORT_SORTER = new SampleSortArraySorter();
+
+  /**
+   * Sort an array of ints in place.
+   * @param array The array.
+   * @return The same array, now sorted.
+   */
+  public abstract int[] sort(int[] array);
+
+  /**
+   * Sort an array of longs in place.
+   * @param array The array.
+   * @return The same array, now sorted.
+   */
+  public abstract long[] sort(long[] array);
+}
@@ -0,0 +1,28 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so that every score comes with its allocation rate.
+ *
+ * Takes the same arguments as the standard JMH runner, for example a regex of the benchmarks to
+ * run, or -p size=1000 to run a single size.
+ */
+public class SortBenchmarks {
+  private SortBenchmarks() {
+  }
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,152 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.ericbeach.learning.algorithms.sorting.AdaptiveMergesortListSorter;
+import org.ericbeach.learning.algorithms.sorting.BubbleSortListSorter;
+import org.ericbeach.learning.algorithms.sorting.DaryHeapSortListSorter;
+import org.ericbeach.learning.algorithms.sorting.HeapSortListSorter;
+import org.ericbeach.learning.algorithms.sorting.InsertionsortListSorter;
+import org.ericbeach.learning.algorithms.sorting.IntrosortListSorter;
+import org.ericbeach.learning.algorithms.sorting.ListSorter;
+import org.ericbeach.learning.algorithms.sorting.ListSorterFactory;
+import org.ericbeach.learning.algorithms.sorting.MergesortListSorter;
+import org.ericbeach.learning.algorithms.sorting.MultiwayQuicksortListSorter;
+import org.ericbeach.learning.algorithms.sorting.NormalizedKeyListSorter;
+import org.ericbeach.learning.algorithms.sorting.ParallelMergesortListSorter;
+import org.ericbeach.learning.algorithms.sorting.QuicksortListSorter;
+import org.ericbeach.learning.algorithms.sorting.SampleSortListSorter;
+import org.ericbeach.learning.algorithms.sorting.SelectionsortListSorter;
+import org.ericbeach.learning.algorithms.sorting.ShellsortListSorter;
+import org.ericbeach.learning.algorithms.sorting.SortingEngine;
+
+/**
+ * Every general purpose sorter in org.ericbeach.learning.algorithms.sorting, by name, plus
+ * {@link Collections#sort} as a baseline.
+ */
+public enum Sorter implements ListSorterFactory {
+  BUBBLE_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new BubbleSortListSorter<T>();
+    }
+  },
+
+  SELECTION_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new SelectionsortListSorter<T>();
+    }
+  },
+
+  INSERTION_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new InsertionsortListSorter<T>();
+    }
+  },
+
+  SHELLSORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new ShellsortListSorter<T>();
+    }
+  },
+
+  HEAP_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new HeapSortListSorter<T>();
+    }
+  },
+
+  DARY_HEAP_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new DaryHeapSortListSorter<T>();
+    }
+  },
+
+  MERGESORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new MergesortListSorter<T>();
+    }
+  },
+
+  ADAPTIVE_MERGESORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new AdaptiveMergesortListSorter<T>();
+    }
+  },
+
+  PARALLEL_MERGESORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new ParallelMergesortListSorter<T>();
+    }
+  },
+
+  NORMALIZED_KEY_RADIX_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new NormalizedKeyListSorter<T>();
+    }
+  },
+
+  SAMPLE_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new SampleSortListSorter<T>();
+    }
+  },
+
+  QUICKSORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new QuicksortListSorter<T>();
+    }
+  },
+
+  MULTIWAY_QUICKSORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new MultiwayQuicksortListSorter<T>();
+    }
+  },
+
+  INTROSORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new IntrosortListSorter<T>();
+    }
+  },
+
+  SORTING_ENGINE {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      final SortingEngine sortingEngine = new SortingEngine();
+      return new ListSorter<T>() {
+        @Override
+        public List<T> sort(List<T> list) {
+          return sortingEngine.sort(list);
+        }
+      };
+    }
+  },
+
+  COLLECTIONS_SORT {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new ListSorter<T>() {
+        @Override
+        public List<T> sort(List<T> list) {
+          Collections.sort(list);
+          return list;
+        }
+      };
+    }
+  };
+}
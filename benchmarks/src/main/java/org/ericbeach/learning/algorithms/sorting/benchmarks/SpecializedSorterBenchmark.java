@@ -0,0 +1,68 @@
+package org.ericbeach.learning.algorithms.sorting.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.ericbeach.learning.algorithms.sorting.MsdRadixStringListSorter;
+import org.ericbeach.learning.algorithms.sorting.RadixIntegerSorter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the sorters that only take one element type:
+ * {@link RadixIntegerSorter} on Integer elements and {@link MsdRadixStringListSorter} on String
+ * elements, with the same sizes and distributions as {@link ListSorterBenchmark} so that the
+ * scores can be compared with it directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SpecializedSorterBenchmark {
+  @Param({"10", "1000", "100000", "10000000"})
+  private int size;
+
+  @Param
+  private Distribution distribution;
+
+  private List<Integer> integers;
+  private List<String> strings;
+  private RadixIntegerSorter radixIntegerSorter;
+  private MsdRadixStringListSorter msdRadixStringListSorter;
+
+  @Setup
+  public void setUp() {
+    int[] keys = distribution.generate(size, new Random(42));
+    integers = new ArrayList<Integer>(keys.length);
+    strings = new ArrayList<String>(keys.length);
+    for (int key : keys) {
+      integers.add((Integer) ElementType.INTEGER.element(key));
+      strings.add((String) ElementType.STRING.element(key));
+    }
+    radixIntegerSorter = new RadixIntegerSorter();
+    msdRadixStringListSorter = new MsdRadixStringListSorter();
+  }
+
+  @Benchmark
+  public List<Integer> radixIntegerSorter() {
+    return radixIntegerSorter.sortIntegers(new ArrayList<Integer>(integers));
+  }
+
+  @Benchmark
+  public List<String> msdRadixStringListSorter() {
+    return msdRadixStringListSorter.sort(new ArrayList<String>(strings));
+  }
+}
@@ -0,0 +1,641 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Performs an adaptive, run-based Merge sort on a List in the style of TimSort.
+ *
+ * A classic merge sort (see {@link MergesortListSorter}) always splits the list all the way down
+ * to single elements, no matter how much order the input already has. This sort instead takes
+ * advantage of order that is already present:
+ * 1. Find runs - Walk the list from left to right looking for "natural runs": stretches that
+ * are already ascending, or strictly descending (which are reversed in place to become
+ * ascending). A list that is already sorted is a single run and is done after one pass.
+ * 2. Extend short runs - Runs shorter than a minimum length (between 16 and 32, chosen so the
+ * number of runs is close to a power of two) are extended with binary insertion sort.
+ * 3. Merge runs - Each run is pushed onto a stack, and adjacent runs on the stack are merged
+ * whenever their lengths stop shrinking geometrically. This keeps merges balanced and the stack
+ * shallow.
+ *
+ * Each merge copies only the shorter of the two runs into a scratch array and merges from
+ * there back into the list's array, so the scratch array never needs to be larger than n/2 and
+ * is reused by every merge. While merging, if one run keeps "winning" several times in a row,
+ * the merge switches to galloping: it searches ahead in that run with exponentially growing
+ * steps followed by a binary search, and copies the whole stretch at once.
+ *
+ * The sort is stable.
+ *
+ * @param <T> Generic type.
+ */
+public class AdaptiveMergesortListSorter <T extends Comparable<? super T>>
+    implements ListSorter<T> {
+  /**
+   * Lists shorter than this are sorted with binary insertion sort alone.
+   */
+  private static final int MIN_MERGE = 32;
+
+  /**
+   * The number of consecutive wins by one run after which merging starts galloping.
+   */
+  private static final int MIN_GALLOP = 7;
+
+  /**
+   * The most runs that can be pending on the stack. Because pending run lengths grow at least
+   * as fast as the Fibonacci numbers, this is enough for any list that fits in an array.
+   */
+  private static final int MAX_PENDING_RUNS = 49;
+
+  @Override
+  public List<T> sort(List<T> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    T[] elements = (T[]) list.toArray(new Comparable<?>[list.size()]);
+    new RunMerger(elements).sort();
+
+    // Write the sorted elements back into the list.
+    ListIterator<T> iterator = list.listIterator();
+    for (T element : elements) {
+      iterator.next();
+      iterator.set(element);
+    }
+    return list;
+  }
+
+  /**
+   * Holds the state of a single sort: the array being sorted, the stack of pending runs, the
+   * scratch array and the current galloping threshold.
+   */
+  private class RunMerger {
+    private final T[] elements;
+    private T[] scratch;
+    private int minGallop = MIN_GALLOP;
+
+    private final int[] runBase = new int[MAX_PENDING_RUNS];
+    private final int[] runLength = new int[MAX_PENDING_RUNS];
+    private int pendingRuns = 0;
+
+    RunMerger(T[] elements) {
+      this.elements = elements;
+    }
+
+    /**
+     * Sort the whole array.
+     */
+    void sort() {
+      int remaining = elements.length;
+
+      // Small arrays are not worth merging; a single binary insertion sort is enough.
+      if (remaining < MIN_MERGE) {
+        int initialRunLength = findRunAndMakeAscending(0, remaining);
+        binaryInsertionSort(0, remaining, initialRunLength);
+        return;
+      }
+
+      int minRun = minRunLength(remaining);
+      int startIndex = 0;
+      while (remaining > 0) {
+        // STEP 1: Find the next natural run.
+        int length = findRunAndMakeAscending(startIndex, startIndex + remaining);
+
+        // STEP 2: If the run is too short, extend it to minRun elements (or the rest of the
+        // array) using binary insertion sort.
+        if (length < minRun) {
+          int forcedLength = Math.min(remaining, minRun);
+          binaryInsertionSort(startIndex, startIndex + forcedLength, startIndex + length);
+          length = forcedLength;
+        }
+
+        // STEP 3: Push the run and merge pending runs until the stack invariants hold.
+        runBase[pendingRuns] = startIndex;
+        runLength[pendingRuns] = length;
+        pendingRuns++;
+        mergeCollapse();
+
+        startIndex += length;
+        remaining -= length;
+      }
+
+      // Merge whatever runs are still pending into a single run.
+      while (pendingRuns > 1) {
+        int runIndex = pendingRuns - 2;
+        if (runIndex > 0 && runLength[runIndex - 1] < runLength[runIndex + 1]) {
+          runIndex--;
+        }
+        mergeAt(runIndex);
+      }
+    }
+
+    /**
+     * Compute the minimum run length for an array of the given size. The result is between
+     * MIN_MERGE / 2 and MIN_MERGE and is chosen so that size / minRun is a power of two, or just
+     * below one, which keeps the final merges balanced.
+     * @param size The number of elements being sorted.
+     * @return The minimum run length.
+     */
+    private int minRunLength(int size) {
+      int lowBitsSet = 0;
+      while (size >= MIN_MERGE) {
+        lowBitsSet |= (size & 1);
+        size >>= 1;
+      }
+      return size + lowBitsSet;
+    }
+
+    /**
+     * Find the length of the run that starts at startIndex. If the run is strictly descending
+     * it is reversed so that every run is returned ascending. Only strictly descending runs
+     * are reversed so that equal elements never change their order.
+     * @param startIndex The index of the first element of the run.
+     * @param endIndex The index one past the last element that may be part of the run.
+     * @return The length of the run.
+     */
+    private int findRunAndMakeAscending(int startIndex, int endIndex) {
+      int runEndIndex = startIndex + 1;
+      if (runEndIndex == endIndex) {
+        return 1;
+      }
+
+      if (elements[runEndIndex++].compareTo(elements[startIndex]) < 0) {
+        // Descending run.
+        while (runEndIndex < endIndex
+            && elements[runEndIndex].compareTo(elements[runEndIndex - 1]) < 0) {
+          runEndIndex++;
+        }
+        reverse(startIndex, runEndIndex - 1);
+      } else {
+        // Ascending run.
+        while (runEndIndex < endIndex
+            && elements[runEndIndex].compareTo(elements[runEndIndex - 1]) >= 0) {
+          runEndIndex++;
+        }
+      }
+      return runEndIndex - startIndex;
+    }
+
+    /**
+     * Reverse a range of the array.
+     * @param startIndex The first index of the range.
+     * @param endIndex The last index of the range.
+     */
+    private void reverse(int startIndex, int endIndex) {
+      while (startIndex < endIndex) {
+        T temp = elements[startIndex];
+        elements[startIndex++] = elements[endIndex];
+        elements[endIndex--] = temp;
+      }
+    }
+
+    /**
+     * Sort a range of the array with insertion sort, using a binary search to find where each
+     * element belongs. The elements before sortedEndIndex are already sorted.
+     * @param startIndex The first index of the range.
+     * @param endIndex The index one past the last element of the range.
+     * @param sortedEndIndex The index of the first element that is not yet sorted.
+     */
+    private void binaryInsertionSort(int startIndex, int endIndex, int sortedEndIndex) {
+      for (int nextIndex = sortedEndIndex; nextIndex < endIndex; nextIndex++) {
+        T pivot = elements[nextIndex];
+
+        // Find the first position whose element is greater than the pivot. Equal elements are
+        // skipped over, which keeps the sort stable.
+        int left = startIndex;
+        int right = nextIndex;
+        while (left < right) {
+          int middle = (left + right) >>> 1;
+          if (pivot.compareTo(elements[middle]) < 0) {
+            right = middle;
+          } else {
+            left = middle + 1;
+          }
+        }
+
+        System.arraycopy(elements, left, elements, left + 1, nextIndex - left);
+        elements[left] = pivot;
+      }
+    }
+
+    /**
+     * Merge adjacent runs on the stack until the stack satisfies, for the lengths A, B and C of
+     * any three consecutive runs (C on top): A > B + C and B > C. Together these make the run
+     * lengths grow at least as fast as the Fibonacci numbers from the top of the stack down.
+     */
+    private void mergeCollapse() {
+      while (pendingRuns > 1) {
+        int runIndex = pendingRuns - 2;
+        if ((runIndex > 0
+                && runLength[runIndex - 1] <= runLength[runIndex] + runLength[runIndex + 1])
+            || (runIndex > 1
+                && runLength[runIndex - 2] <= runLength[runIndex] + runLength[runIndex - 1])) {
+          // Merge the middle run with the smaller of its two neighbours.
+          if (runLength[runIndex - 1] < runLength[runIndex + 1]) {
+            runIndex--;
+          }
+        } else if (runLength[runIndex] > runLength[runIndex + 1]) {
+          return;
+        }
+        mergeAt(runIndex);
+      }
+    }
+
+    /**
+     * Merge the two pending runs at stack positions runIndex and runIndex + 1.
+     * @param runIndex The stack position of the first run. It must be the second or third
+     *     run from the top of the stack.
+     */
+    private void mergeAt(int runIndex) {
+      int base1 = runBase[runIndex];
+      int length1 = runLength[runIndex];
+      int base2 = runBase[runIndex + 1];
+      int length2 = runLength[runIndex + 1];
+
+      // Record the merged run. If the runs were the third and second from the top, slide the
+      // top run down into the freed slot.
+      runLength[runIndex] = length1 + length2;
+      if (runIndex == pendingRuns - 3) {
+        runBase[runIndex + 1] = runBase[runIndex + 2];
+        runLength[runIndex + 1] = runLength[runIndex + 2];
+      }
+      pendingRuns--;
+
+      // Elements at the start of the first run that are no larger than the first element of
+      // the second run are already in place.
+      int inPlace = gallopRight(elements[base2], elements, base1, length1, 0);
+      base1 += inPlace;
+      length1 -= inPlace;
+      if (length1 == 0) {
+        return;
+      }
+
+      // Likewise, elements at the end of the second run that are no smaller than the last
+      // element of the first run are already in place.
+      length2 = gallopLeft(elements[base1 + length1 - 1], elements, base2, length2, length2 - 1);
+      if (length2 == 0) {
+        return;
+      }
+
+      if (length1 <= length2) {
+        mergeLow(base1, length1, base2, length2);
+      } else {
+        mergeHigh(base1, length1, base2, length2);
+      }
+    }
+
+    /**
+     * Find the position at which to insert key into a sorted range, to the left of any
+     * elements equal to it.
+     * @param key The element whose position is searched for.
+     * @param array The array containing the sorted range.
+     * @param base The index of the first element of the range.
+     * @param length The length of the range.
+     * @param hint The offset into the range at which to begin the search.
+     * @return The offset k such that array[base + k - 1] < key <= array[base + k].
+     */
+    private int gallopLeft(T key, T[] array, int base, int length, int hint) {
+      int lastOffset = 0;
+      int offset = 1;
+      if (key.compareTo(array[base + hint]) > 0) {
+        // Gallop right until array[base + hint + lastOffset] < key <= array[base + hint + offset].
+        int maxOffset = length - hint;
+        while (offset < maxOffset && key.compareTo(array[base + hint + offset]) > 0) {
+          lastOffset = offset;
+          offset = (offset << 1) + 1;
+          if (offset <= 0) {
+            offset = maxOffset;
+          }
+        }
+        if (offset > maxOffset) {
+          offset = maxOffset;
+        }
+        lastOffset += hint;
+        offset += hint;
+      } else {
+        // Gallop left until array[base + hint - offset] < key <= array[base + hint - lastOffset].
+        int maxOffset = hint + 1;
+        while (offset < maxOffset && key.compareTo(array[base + hint - offset]) <= 0) {
+          lastOffset = offset;
+          offset = (offset << 1) + 1;
+          if (offset <= 0) {
+            offset = maxOffset;
+          }
+        }
+        if (offset > maxOffset) {
+          offset = maxOffset;
+        }
+        int temp = lastOffset;
+        lastOffset = hint - offset;
+        offset = hint - temp;
+      }
+
+      // Binary search between lastOffset and offset.
+      lastOffset++;
+      while (lastOffset < offset) {
+        int middle = lastOffset + ((offset - lastOffset) >>> 1);
+        if (key.compareTo(array[base + middle]) > 0) {
+          lastOffset = middle + 1;
+        } else {
+          offset = middle;
+        }
+      }
+      return offset;
+    }
+
+    /**
+     * Find the position at which to insert key into a sorted range, to the right of any
+     * elements equal to it.
+     * @param key The element whose position is searched for.
+     * @param array The array containing the sorted range.
+     * @param base The index of the first element of the range.
+     * @param length The length of the range.
+     * @param hint The offset into the range at which to begin the search.
+     * @return The offset k such that array[base + k - 1] <= key < array[base + k].
+     */
+    private int gallopRight(T key, T[] array, int base, int length, int hint) {
+      int lastOffset = 0;
+      int offset = 1;
+      if (key.compareTo(array[base + hint]) < 0) {
+        // Gallop left until array[base + hint - offset] <= key < array[base + hint - lastOffset].
+        int maxOffset = hint + 1;
+        while (offset < maxOffset && key.compareTo(array[base + hint - offset]) < 0) {
+          lastOffset = offset;
+          offset = (offset << 1) + 1;
+          if (offset <= 0) {
+            offset = maxOffset;
+          }
+        }
+        if (offset > maxOffset) {
+          offset = maxOffset;
+        }
+        int temp = lastOffset;
+        lastOffset = hint - offset;
+        offset = hint - temp;
+      } else {
+        // Gallop right until array[base + hint + lastOffset] <= key < array[base + hint + offset].
+        int maxOffset = length - hint;
+        while (offset < maxOffset && key.compareTo(array[base + hint + offset]) >= 0) {
+          lastOffset = offset;
+          offset = (offset << 1) + 1;
+          if (offset <= 0) {
+            offset = maxOffset;
+          }
+        }
+        if (offset > maxOffset) {
+          offset = maxOffset;
+        }
+        lastOffset += hint;
+        offset += hint;
+      }
+
+      // Binary search between lastOffset and offset.
+      lastOffset++;
+      while (lastOffset < offset) {
+        int middle = lastOffset + ((offset - lastOffset) >>> 1);
+        if (key.compareTo(array[base + middle]) < 0) {
+          offset = middle;
+        } else {
+          lastOffset = middle + 1;
+        }
+      }
+      return offset;
+    }
+
+    /**
+     * Merge two adjacent runs from left to right, where the first run is the shorter one. The
+     * first run is copied into the scratch array. The first element of the second run is known
+     * to belong before the first run, and the last element of the first run is known to belong
+     * after the second run.
+     * @param base1 The index of the first element of the first run.
+     * @param length1 The length of the first run.
+     * @param base2 The index of the first element of the second run.
+     * @param length2 The length of the second run.
+     */
+    private void mergeLow(int base1, int length1, int base2, int length2) {
+      T[] temp = ensureScratchCapacity(length1);
+      System.arraycopy(elements, base1, temp, 0, length1);
+
+      int cursor1 = 0;
+      int cursor2 = base2;
+      int destination = base1;
+
+      elements[destination++] = elements[cursor2++];
+      if (--length2 == 0) {
+        System.arraycopy(temp, cursor1, elements, destination, length1);
+        return;
+      }
+      if (length1 == 1) {
+        System.arraycopy(elements, cursor2, elements, destination, length2);
+        elements[destination + length2] = temp[cursor1];
+        return;
+      }
+
+      int gallopThreshold = minGallop;
+      outer:
+      while (true) {
+        // Merge one element at a time until one run starts winning consistently.
+        int wins1 = 0;
+        int wins2 = 0;
+        do {
+          if (elements[cursor2].compareTo(temp[cursor1]) < 0) {
+            elements[destination++] = elements[cursor2++];
+            wins2++;
+            wins1 = 0;
+            if (--length2 == 0) {
+              break outer;
+            }
+          } else {
+            elements[destination++] = temp[cursor1++];
+            wins1++;
+            wins2 = 0;
+            if (--length1 == 1) {
+              break outer;
+            }
+          }
+        } while ((wins1 | wins2) < gallopThreshold);
+
+        // Gallop until neither run is winning by enough to make it worthwhile.
+        do {
+          wins1 = gallopRight(elements[cursor2], temp, cursor1, length1, 0);
+          if (wins1 != 0) {
+            System.arraycopy(temp, cursor1, elements, destination, wins1);
+            destination += wins1;
+            cursor1 += wins1;
+            length1 -= wins1;
+            if (length1 <= 1) {
+              break outer;
+            }
+          }
+          elements[destination++] = elements[cursor2++];
+          if (--length2 == 0) {
+            break outer;
+          }
+
+          wins2 = gallopLeft(temp[cursor1], elements, cursor2, length2, 0);
+          if (wins2 != 0) {
+            System.arraycopy(elements, cursor2, elements, destination, wins2);
+            destination += wins2;
+            cursor2 += wins2;
+            length2 -= wins2;
+            if (length2 == 0) {
+              break outer;
+            }
+          }
+          elements[destination++] = temp[cursor1++];
+          if (--length1 == 1) {
+            break outer;
+          }
+          gallopThreshold--;
+        } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+
+        // Galloping stopped paying off; make it harder to re-enter.
+        if (gallopThreshold < 0) {
+          gallopThreshold = 0;
+        }
+        gallopThreshold += 2;
+      }
+      minGallop = Math.max(1, gallopThreshold);
+
+      if (length1 == 1) {
+        System.arraycopy(elements, cursor2, elements, destination, length2);
+        elements[destination + length2] = temp[cursor1];
+      } else if (length1 == 0) {
+        throw new IllegalArgumentException("compareTo is not consistent with a total order");
+      } else {
+        System.arraycopy(temp, cursor1, elements, destination, length1);
+      }
+    }
+
+    /**
+     * Merge two adjacent runs from right to left, where the second run is the shorter one. The
+     * second run is copied into the scratch array. The first element of the second run is known
+     * to belong before the first run, and the last element of the first run is known to belong
+     * after the second run.
+     * @param base1 The index of the first element of the first run.
+     * @param length1 The length of the first run.
+     * @param base2 The index of the first element of the second run.
+     * @param length2 The length of the second run.
+     */
+    private void mergeHigh(int base1, int length1, int base2, int length2) {
+      T[] temp = ensureScratchCapacity(length2);
+      System.arraycopy(elements, base2, temp, 0, length2);
+
+      int cursor1 = base1 + length1 - 1;
+      int cursor2 = length2 - 1;
+      int destination = base2 + length2 - 1;
+
+      elements[destination--] = elements[cursor1--];
+      if (--length1 == 0) {
+        System.arraycopy(temp, 0, elements, destination - (length2 - 1), length2);
+        return;
+      }
+      if (length2 == 1) {
+        destination -= length1;
+        cursor1 -= length1;
+        System.arraycopy(elements, cursor1 + 1, elements, destination + 1, length1);
+        elements[destination] = temp[cursor2];
+        return;
+      }
+
+      int gallopThreshold = minGallop;
+      outer:
+      while (true) {
+        // Merge one element at a time until one run starts winning consistently.
+        int wins1 = 0;
+        int wins2 = 0;
+        do {
+          if (temp[cursor2].compareTo(elements[cursor1]) < 0) {
+            elements[destination--] = elements[cursor1--];
+            wins1++;
+            wins2 = 0;
+            if (--length1 == 0) {
+              break outer;
+            }
+          } else {
+            elements[destination--] = temp[cursor2--];
+            wins2++;
+            wins1 = 0;
+            if (--length2 == 1) {
+              break outer;
+            }
+          }
+        } while ((wins1 | wins2) < gallopThreshold);
+
+        // Gallop until neither run is winning by enough to make it worthwhile.
+        do {
+          wins1 = length1 - gallopRight(temp[cursor2], elements, base1, length1, length1 - 1);
+          if (wins1 != 0) {
+            destination -= wins1;
+            cursor1 -= wins1;
+            length1 -= wins1;
+            System.arraycopy(elements, cursor1 + 1, elements, destination + 1, wins1);
+            if (length1 == 0) {
+              break outer;
+            }
+          }
+          elements[destination--] = temp[cursor2--];
+          if (--length2 == 1) {
+            break outer;
+          }
+
+          wins2 = length2 - gallopLeft(elements[cursor1], temp, 0, length2, length2 - 1);
+          if (wins2 != 0) {
+            destination -= wins2;
+            cursor2 -= wins2;
+            length2 -= wins2;
+            System.arraycopy(temp, cursor2 + 1, elements, destination + 1, wins2);
+            if (length2 <= 1) {
+              break outer;
+            }
+          }
+          elements[destination--] = elements[cursor1--];
+          if (--length1 == 0) {
+            break outer;
+          }
+          gallopThreshold--;
+        } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+
+        // Galloping stopped paying off; make it harder to re-enter.
+        if (gallopThreshold < 0) {
+          gallopThreshold = 0;
+        }
+        gallopThreshold += 2;
+      }
+      minGallop = Math.max(1, gallopThreshold);
+
+      if (length2 == 1) {
+        destination -= length1;
+        cursor1 -= length1;
+        System.arraycopy(elements, cursor1 + 1, elements, destination + 1, length1);
+        elements[destination] = temp[cursor2];
+      } else if (length2 == 0) {
+        throw new IllegalArgumentException("compareTo is not consistent with a total order");
+      } else {
+        System.arraycopy(temp, 0, elements, destination - (length2 - 1), length2);
+      }
+    }
+
+    /**
+     * Return a scratch array holding at least minCapacity elements, growing the existing one
+     * if needed. The scratch array never grows beyond half the length of the array being
+     * sorted, which is the largest run that is ever copied.
+     * @param minCapacity The number of elements the scratch array must hold.
+     * @return The scratch array.
+     */
+    private T[] ensureScratchCapacity(int minCapacity) {
+      if (scratch == null || scratch.length < minCapacity) {
+        int newCapacity = Integer.highestOneBit(minCapacity);
+        if (newCapacity < minCapacity) {
+          newCapacity <<= 1;
+        }
+        newCapacity = Math.max(minCapacity, Math.min(newCapacity, elements.length >>> 1));
+
+        @SuppressWarnings("unchecked")
+        T[] newScratch = (T[]) new Comparable<?>[newCapacity];
+        scratch = newScratch;
+      }
+      return scratch;
+    }
+  }
+}
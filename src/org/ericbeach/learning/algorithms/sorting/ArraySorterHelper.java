@@ -0,0 +1,72 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Helper class to provide common methods for sorting arrays of primitives.
+ */
+public class ArraySorterHelper {
+  /**
+   * Swap two elements in an int array.
+   * @param array The array from which the two elements will be swapped.
+   * @param leftPos The index of the left element to be swapped.
+   * @param rightPos The index of the right element to be swapped.
+   */
+  public void swap(int[] array, int leftPos, int rightPos) {
+    int temp = array[leftPos];
+    array[leftPos] = array[rightPos];
+    array[rightPos] = temp;
+  }
+
+  /**
+   * Swap two elements in a long array.
+   * @param array The array from which the two elements will be swapped.
+   * @param leftPos The index of the left element to be swapped.
+   * @param rightPos The index of the right element to be swapped.
+   */
+  public void swap(long[] array, int leftPos, int rightPos) {
+    long temp = array[leftPos];
+    array[leftPos] = array[rightPos];
+    array[rightPos] = temp;
+  }
+
+  /**
+   * Swap two elements in a double array.
+   * @param array The array from which the two elements will be swapped.
+   * @param leftPos The index of the left element to be swapped.
+   * @param rightPos The index of the right element to be swapped.
+   */
+  public void swap(double[] array, int leftPos, int rightPos) {
+    double temp = array[leftPos];
+    array[leftPos] = array[rightPos];
+    array[rightPos] = temp;
+  }
+
+  /**
+   * Check whether the left double is strictly smaller than the right double, using the total
+   * order of {@link Double#compare(double, double)} so that -0.0 and NaN sort consistently.
+   * @param left The left value.
+   * @param right The right value.
+   * @return True if left belongs strictly before right.
+   */
+  public boolean isLess(double left, double right) {
+    return Double.compare(left, right) < 0;
+  }
+
+  /**
+   * Verify that fromIndex and toIndex describe a valid range of an array.
+   * @param arrayLength The length of the array.
+   * @param fromIndex The index of the first element in the range (inclusive).
+   * @param toIndex The index one past the last element in the range (exclusive).
+   */
+  public void checkRange(int arrayLength, int fromIndex, int toIndex) {
+    if (fromIndex > toIndex) {
+      throw new IllegalArgumentException(
+          "fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+    }
+    if (fromIndex < 0) {
+      throw new ArrayIndexOutOfBoundsException(fromIndex);
+    }
+    if (toIndex > arrayLength) {
+      throw new ArrayIndexOutOfBoundsException(toIndex);
+    }
+  }
+}
@@ -0,0 +1,462 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Performs BlockQuicksort on arrays of primitive ints, longs and doubles.
+ *
+ * The partitioning of {@link QuicksortArraySorter} decides after every comparison whether to keep
+ * scanning or to stop and swap. On random data the CPU guesses that branch wrong about every
+ * other element, and each wrong guess throws away a pipeline's worth of work. BlockQuicksort
+ * (Edelkamp and Weiss, 2016) takes those decisions out of the control flow:
+ * 1. The pivot is the median of the first, middle and last elements of the range, as in
+ * {@link QuicksortArraySorter}.
+ * 2. A block of {@link #BLOCK_SIZE} elements at the left end of the range is scanned, and the
+ * offset of every element that does not belong before the pivot is written to a buffer. The
+ * offset is written unconditionally and the buffer's length is advanced by the outcome of the
+ * comparison, so the loop contains no branch that depends on the data.
+ * 3. A block at the right end is scanned the same way for elements that do not belong after the
+ * pivot.
+ * 4. As many misplaced elements as both buffers hold are swapped in one pass over the buffers,
+ * which again has no data-dependent branches. A block whose buffer has been used up is done,
+ * and the next block on that side is scanned.
+ * 5. When less than two blocks are left, the rest is scanned as two smaller blocks, and the
+ * misplaced elements that remain on one side are moved to the far end of that side.
+ *
+ * Elements equal to the pivot are treated as misplaced on both sides, so runs of duplicate keys
+ * are split evenly, and ranges of at most {@link SortingNetwork#MAX_SIZE} elements are finished
+ * with a {@link SortingNetwork}. Doubles are mapped onto longs that sort the same way, as in
+ * {@link RadixArraySorter}, so they are ordered like {@link Double#compare(double, double)} and
+ * every NaN comes out as the canonical NaN.
+ *
+ * Each sort allocates two offset buffers of {@link #BLOCK_SIZE} ints, plus one long per element
+ * when sorting doubles.
+ */
+public class BlockQuicksortArraySorter
+    implements IntArraySorter, LongArraySorter, DoubleArraySorter {
+  /**
+   * The number of elements scanned at once on each side. Both offset buffers of this size fit
+   * in the L1 cache alongside the blocks they describe.
+   */
+  static final int BLOCK_SIZE = 128;
+
+  private final ArraySorterHelper arraySorterHelper;
+
+  public BlockQuicksortArraySorter() {
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    if (toIndex - fromIndex > SortingNetwork.MAX_SIZE) {
+      quickSort(array, fromIndex, toIndex - 1, new int[BLOCK_SIZE], new int[BLOCK_SIZE]);
+    } else {
+      SortingNetwork.forSize(toIndex - fromIndex).sort(array, fromIndex);
+    }
+    return array;
+  }
+
+  /**
+   * Perform a quick sort on the range of an array bounded by startIndex and endIndex.
+   * @param array Array to be sorted.
+   * @param startIndex Left most boundary of the range (inclusive).
+   * @param endIndex Right most boundary of the range (inclusive).
+   * @param leftOffsets Buffer for the offsets of misplaced elements in a left block.
+   * @param rightOffsets Buffer for the offsets of misplaced elements in a right block.
+   */
+  private void quickSort(int[] array, int startIndex, int endIndex, int[] leftOffsets,
+      int[] rightOffsets) {
+    while (endIndex - startIndex >= SortingNetwork.MAX_SIZE) {
+      int pivotIndex = partition(array, startIndex, endIndex, leftOffsets, rightOffsets);
+
+      // Recurse into the smaller side and keep looping on the larger side so the stack never
+      // grows deeper than log2(n) frames.
+      if (pivotIndex - startIndex < endIndex - pivotIndex) {
+        quickSort(array, startIndex, pivotIndex - 1, leftOffsets, rightOffsets);
+        startIndex = pivotIndex + 1;
+      } else {
+        quickSort(array, pivotIndex + 1, endIndex, leftOffsets, rightOffsets);
+        endIndex = pivotIndex - 1;
+      }
+    }
+    SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+  }
+
+  /**
+   * Partition the range of the array around a median-of-three pivot, one block at a time.
+   * @param array Array containing the range to partition.
+   * @param leftIndex Left most boundary of the range (inclusive).
+   * @param rightIndex Right most boundary of the range (inclusive).
+   * @param leftOffsets Buffer for the offsets of misplaced elements in a left block.
+   * @param rightOffsets Buffer for the offsets of misplaced elements in a right block.
+   * @return The final index of the pivot element.
+   */
+  private int partition(int[] array, int leftIndex, int rightIndex, int[] leftOffsets,
+      int[] rightOffsets) {
+    // Order the first, middle and last elements so that the median ends up in the rightmost
+    // position, where it serves as the pivot.
+    int middleIndex = leftIndex + ((rightIndex - leftIndex) / 2);
+    if (array[middleIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, middleIndex, leftIndex);
+    }
+    if (array[rightIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, rightIndex, leftIndex);
+    }
+    if (array[middleIndex] < array[rightIndex]) {
+      arraySorterHelper.swap(array, middleIndex, rightIndex);
+    }
+    int pivot = array[rightIndex];
+
+    // Everything before left belongs before the pivot and everything after right belongs after
+    // it. The current left block starts at left and the current right block ends at right.
+    int left = leftIndex;
+    int right = rightIndex - 1;
+    int leftCount = 0;
+    int leftStart = 0;
+    int rightCount = 0;
+    int rightStart = 0;
+    while (right - left + 1 > 2 * BLOCK_SIZE) {
+      if (leftCount == 0) {
+        leftStart = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+          leftOffsets[leftCount] = i;
+          leftCount += (array[left + i] < pivot) ? 0 : 1;
+        }
+      }
+      if (rightCount == 0) {
+        rightStart = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+          rightOffsets[rightCount] = i;
+          rightCount += (pivot < array[right - i]) ? 0 : 1;
+        }
+      }
+
+      int swapCount = Math.min(leftCount, rightCount);
+      swapBlocks(array, left, leftOffsets, leftStart, right, rightOffsets, rightStart, swapCount);
+      leftCount -= swapCount;
+      leftStart += swapCount;
+      rightCount -= swapCount;
+      rightStart += swapCount;
+      if (leftCount == 0) {
+        left += BLOCK_SIZE;
+      }
+      if (rightCount == 0) {
+        right -= BLOCK_SIZE;
+      }
+    }
+
+    // At most one block is still partly unswapped. Split whatever is left of the range into a
+    // left and a right block that exactly cover it, keeping the unswapped block if there is one.
+    int remaining = right - left + 1;
+    int leftSize;
+    int rightSize;
+    if (leftCount == 0 && rightCount == 0) {
+      leftSize = remaining / 2;
+      rightSize = remaining - leftSize;
+    } else if (leftCount == 0) {
+      leftSize = remaining - BLOCK_SIZE;
+      rightSize = BLOCK_SIZE;
+    } else {
+      leftSize = BLOCK_SIZE;
+      rightSize = remaining - BLOCK_SIZE;
+    }
+    if (leftCount == 0) {
+      leftStart = 0;
+      for (int i = 0; i < leftSize; i++) {
+        leftOffsets[leftCount] = i;
+        leftCount += (array[left + i] < pivot) ? 0 : 1;
+      }
+    }
+    if (rightCount == 0) {
+      rightStart = 0;
+      for (int i = 0; i < rightSize; i++) {
+        rightOffsets[rightCount] = i;
+        rightCount += (pivot < array[right - i]) ? 0 : 1;
+      }
+    }
+    int swapCount = Math.min(leftCount, rightCount);
+    swapBlocks(array, left, leftOffsets, leftStart, right, rightOffsets, rightStart, swapCount);
+    leftCount -= swapCount;
+    leftStart += swapCount;
+    rightCount -= swapCount;
+    rightStart += swapCount;
+    if (leftCount == 0) {
+      left += leftSize;
+    }
+    if (rightCount == 0) {
+      right -= rightSize;
+    }
+
+    // Move the misplaced elements left in one block to the end of that block next to the other
+    // side, starting with the one closest to that end, and put the pivot between the two sides.
+    if (leftCount > 0) {
+      while (leftCount > 0) {
+        leftCount--;
+        arraySorterHelper.swap(array, left + leftOffsets[leftStart + leftCount], right);
+        right--;
+      }
+      left = right + 1;
+    } else if (rightCount > 0) {
+      while (rightCount > 0) {
+        rightCount--;
+        arraySorterHelper.swap(array, right - rightOffsets[rightStart + rightCount], left);
+        left++;
+      }
+    }
+    arraySorterHelper.swap(array, left, rightIndex);
+    return left;
+  }
+
+  /**
+   * Swap misplaced elements of a left block with misplaced elements of a right block, pair by
+   * pair. The swaps are done as a single cyclic rotation, which moves each element once rather
+   * than three times.
+   * @param array Array containing both blocks.
+   * @param left The first index of the left block.
+   * @param leftOffsets The offsets of the misplaced elements from the start of the left block.
+   * @param leftStart The position in leftOffsets of the first element to swap.
+   * @param right The last index of the right block.
+   * @param rightOffsets The offsets of the misplaced elements back from the end of the right
+   * block.
+   * @param rightStart The position in rightOffsets of the first element to swap.
+   * @param swapCount The number of pairs to swap.
+   */
+  private void swapBlocks(int[] array, int left, int[] leftOffsets, int leftStart, int right,
+      int[] rightOffsets, int rightStart, int swapCount) {
+    if (swapCount == 0) {
+      return;
+    }
+    int temp = array[left + leftOffsets[leftStart]];
+    array[left + leftOffsets[leftStart]] = array[right - rightOffsets[rightStart]];
+    for (int i = 1; i < swapCount; i++) {
+      array[right - rightOffsets[rightStart + i - 1]] = array[left + leftOffsets[leftStart + i]];
+      array[left + leftOffsets[leftStart + i]] = array[right - rightOffsets[rightStart + i]];
+    }
+    array[right - rightOffsets[rightStart + swapCount - 1]] = temp;
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    if (toIndex - fromIndex > SortingNetwork.MAX_SIZE) {
+      quickSort(array, fromIndex, toIndex - 1, new int[BLOCK_SIZE], new int[BLOCK_SIZE]);
+    } else {
+      SortingNetwork.forSize(toIndex - fromIndex).sort(array, fromIndex);
+    }
+    return array;
+  }
+
+  /**
+   * Perform a quick sort on the range of an array bounded by startIndex and endIndex.
+   * @param array Array to be sorted.
+   * @param startIndex Left most boundary of the range (inclusive).
+   * @param endIndex Right most boundary of the range (inclusive).
+   * @param leftOffsets Buffer for the offsets of misplaced elements in a left block.
+   * @param rightOffsets Buffer for the offsets of misplaced elements in a right block.
+   */
+  private void quickSort(long[] array, int startIndex, int endIndex, int[] leftOffsets,
+      int[] rightOffsets) {
+    while (endIndex - startIndex >= SortingNetwork.MAX_SIZE) {
+      int pivotIndex = partition(array, startIndex, endIndex, leftOffsets, rightOffsets);
+
+      // Recurse into the smaller side and keep looping on the larger side so the stack never
+      // grows deeper than log2(n) frames.
+      if (pivotIndex - startIndex < endIndex - pivotIndex) {
+        quickSort(array, startIndex, pivotIndex - 1, leftOffsets, rightOffsets);
+        startIndex = pivotIndex + 1;
+      } else {
+        quickSort(array, pivotIndex + 1, endIndex, leftOffsets, rightOffsets);
+        endIndex = pivotIndex - 1;
+      }
+    }
+    SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+  }
+
+  /**
+   * Partition the range of the array around a median-of-three pivot, one block at a time.
+   * @param array Array containing the range to partition.
+   * @param leftIndex Left most boundary of the range (inclusive).
+   * @param rightIndex Right most boundary of the range (inclusive).
+   * @param leftOffsets Buffer for the offsets of misplaced elements in a left block.
+   * @param rightOffsets Buffer for the offsets of misplaced elements in a right block.
+   * @return The final index of the pivot element.
+   */
+  private int partition(long[] array, int leftIndex, int rightIndex, int[] leftOffsets,
+      int[] rightOffsets) {
+    // Order the first, middle and last elements so that the median ends up in the rightmost
+    // position, where it serves as the pivot.
+    int middleIndex = leftIndex + ((rightIndex - leftIndex) / 2);
+    if (array[middleIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, middleIndex, leftIndex);
+    }
+    if (array[rightIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, rightIndex, leftIndex);
+    }
+    if (array[middleIndex] < array[rightIndex]) {
+      arraySorterHelper.swap(array, middleIndex, rightIndex);
+    }
+    long pivot = array[rightIndex];
+
+    // Everything before left belongs before the pivot and everything after right belongs after
+    // it. The current left block starts at left and the current right block ends at right.
+    int left = leftIndex;
+    int right = rightIndex - 1;
+    int leftCount = 0;
+    int leftStart = 0;
+    int rightCount = 0;
+    int rightStart = 0;
+    while (right - left + 1 > 2 * BLOCK_SIZE) {
+      if (leftCount == 0) {
+        leftStart = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+          leftOffsets[leftCount] = i;
+          leftCount += (array[left + i] < pivot) ? 0 : 1;
+        }
+      }
+      if (rightCount == 0) {
+        rightStart = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+          rightOffsets[rightCount] = i;
+          rightCount += (pivot < array[right - i]) ? 0 : 1;
+        }
+      }
+
+      int swapCount = Math.min(leftCount, rightCount);
+      swapBlocks(array, left, leftOffsets, leftStart, right, rightOffsets, rightStart, swapCount);
+      leftCount -= swapCount;
+      leftStart += swapCount;
+      rightCount -= swapCount;
+      rightStart += swapCount;
+      if (leftCount == 0) {
+        left += BLOCK_SIZE;
+      }
+      if (rightCount == 0) {
+        right -= BLOCK_SIZE;
+      }
+    }
+
+    // At most one block is still partly unswapped. Split whatever is left of the range into a
+    // left and a right block that exactly cover it, keeping the unswapped block if there is one.
+    int remaining = right - left + 1;
+    int leftSize;
+    int rightSize;
+    if (leftCount == 0 && rightCount == 0) {
+      leftSize = remaining / 2;
+      rightSize = remaining - leftSize;
+    } else if (leftCount == 0) {
+      leftSize = remaining - BLOCK_SIZE;
+      rightSize = BLOCK_SIZE;
+    } else {
+      leftSize = BLOCK_SIZE;
+      rightSize = remaining - BLOCK_SIZE;
+    }
+    if (leftCount == 0) {
+      leftStart = 0;
+      for (int i = 0; i < leftSize; i++) {
+        leftOffsets[leftCount] = i;
+        leftCount += (array[left + i] < pivot) ? 0 : 1;
+      }
+    }
+    if (rightCount == 0) {
+      rightStart = 0;
+      for (int i = 0; i < rightSize; i++) {
+        rightOffsets[rightCount] = i;
+        rightCount += (pivot < array[right - i]) ? 0 : 1;
+      }
+    }
+    int swapCount = Math.min(leftCount, rightCount);
+    swapBlocks(array, left, leftOffsets, leftStart, right, rightOffsets, rightStart, swapCount);
+    leftCount -= swapCount;
+    leftStart += swapCount;
+    rightCount -= swapCount;
+    rightStart += swapCount;
+    if (leftCount == 0) {
+      left += leftSize;
+    }
+    if (rightCount == 0) {
+      right -= rightSize;
+    }
+
+    // Move the misplaced elements left in one block to the end of that block next to the other
+    // side, starting with the one closest to that end, and put the pivot between the two sides.
+    if (leftCount > 0) {
+      while (leftCount > 0) {
+        leftCount--;
+        arraySorterHelper.swap(array, left + leftOffsets[leftStart + leftCount], right);
+        right--;
+      }
+      left = right + 1;
+    } else if (rightCount > 0) {
+      while (rightCount > 0) {
+        rightCount--;
+        arraySorterHelper.swap(array, right - rightOffsets[rightStart + rightCount], left);
+        left++;
+      }
+    }
+    arraySorterHelper.swap(array, left, rightIndex);
+    return left;
+  }
+
+  /**
+   * Swap misplaced elements of a left block with misplaced elements of a right block, pair by
+   * pair. The swaps are done as a single cyclic rotation, which moves each element once rather
+   * than three times.
+   * @param array Array containing both blocks.
+   * @param left The first index of the left block.
+   * @param leftOffsets The offsets of the misplaced elements from the start of the left block.
+   * @param leftStart The position in leftOffsets of the first element to swap.
+   * @param right The last index of the right block.
+   * @param rightOffsets The offsets of the misplaced elements back from the end of the right
+   * block.
+   * @param rightStart The position in rightOffsets of the first element to swap.
+   * @param swapCount The number of pairs to swap.
+   */
+  private void swapBlocks(long[] array, int left, int[] leftOffsets, int leftStart, int right,
+      int[] rightOffsets, int rightStart, int swapCount) {
+    if (swapCount == 0) {
+      return;
+    }
+    long temp = array[left + leftOffsets[leftStart]];
+    array[left + leftOffsets[leftStart]] = array[right - rightOffsets[rightStart]];
+    for (int i = 1; i < swapCount; i++) {
+      array[right - rightOffsets[rightStart + i - 1]] = array[left + leftOffsets[leftStart + i]];
+      array[left + leftOffsets[leftStart + i]] = array[right - rightOffsets[rightStart + i]];
+    }
+    array[right - rightOffsets[rightStart + swapCount - 1]] = temp;
+  }
+
+  @Override
+  public double[] sort(double[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public double[] sort(double[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return array;
+    }
+
+    // Convert each double to a long that sorts the same way, so that the comparisons are plain
+    // long comparisons with no branches of their own, sort the longs and convert back.
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = RadixArraySorter.toSortableLong(array[fromIndex + i]);
+    }
+    sort(keys, 0, size);
+    for (int i = 0; i < size; i++) {
+      array[fromIndex + i] = RadixArraySorter.fromSortableLong(keys[i]);
+    }
+    return array;
+  }
+}
@@ -30,7 +30,10 @@ public class BubbleSortListSorter <T extends Comparable<? super T>> implements L
   }
 
   @Override
-  public List<T> sort(List<T> list) {
+  public List<T> sort(List<T> original) {
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> list = listSorterHelper.stage(original);
+
     // Iterate over the list, starting from the first element going to the last element.
     for (int outer = 1; outer < list.size(); outer++) {
       // In each iteration, perform another iteration from the very beginning of the list
@@ -44,6 +47,7 @@ public class BubbleSortListSorter <T extends Comparable<? super T>> implements L
         }
       }
     }
-    return list;
+    listSorterHelper.unstage(list, original);
+    return original;
   }
 }
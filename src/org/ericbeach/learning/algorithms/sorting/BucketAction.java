@@ -0,0 +1,53 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork-join task that processes every non-empty bucket of a range that has already been
+ * distributed into buckets, each bucket as a task of its own.
+ */
+abstract class BucketAction extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  private final int[] bucketStarts;
+
+  /**
+   * @param bucketStarts The index at which each bucket starts, followed by the index one past
+   * the end of the last bucket.
+   */
+  BucketAction(int[] bucketStarts) {
+    this.bucketStarts = bucketStarts;
+  }
+
+  /**
+   * Process one bucket.
+   * @param bucket The number of the bucket.
+   * @param bucketStart The index of the first element of the bucket (inclusive).
+   * @param bucketEnd The index one past the last element of the bucket (exclusive).
+   */
+  abstract void processBucket(int bucket, int bucketStart, int bucketEnd);
+
+  @Override
+  protected void compute() {
+    List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+    for (int bucket = 0; bucket < bucketStarts.length - 1; bucket++) {
+      final int currentBucket = bucket;
+      final int bucketStart = bucketStarts[bucket];
+      final int bucketEnd = bucketStarts[bucket + 1];
+      if (bucketStart == bucketEnd) {
+        continue;
+      }
+      tasks.add(new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+          processBucket(currentBucket, bucketStart, bucketEnd);
+        }
+      });
+    }
+    invokeAll(tasks);
+  }
+}
@@ -0,0 +1,50 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork-join task that splits a range into a fixed number of contiguous chunks and processes
+ * all of them in parallel.
+ */
+abstract class ChunkedAction extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  private final int fromIndex;
+  private final int size;
+  private final int chunks;
+
+  ChunkedAction(int fromIndex, int size, int chunks) {
+    this.fromIndex = fromIndex;
+    this.size = size;
+    this.chunks = chunks;
+  }
+
+  /**
+   * Process one chunk of the range.
+   * @param chunk The number of the chunk, between 0 and chunks - 1.
+   * @param chunkStart The index of the first element of the chunk (inclusive).
+   * @param chunkEnd The index one past the last element of the chunk (exclusive).
+   */
+  abstract void processChunk(int chunk, int chunkStart, int chunkEnd);
+
+  @Override
+  protected void compute() {
+    List<RecursiveAction> tasks = new ArrayList<RecursiveAction>(chunks);
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      final int currentChunk = chunk;
+      final int chunkStart = fromIndex + (int) (((long) size * chunk) / chunks);
+      final int chunkEnd = fromIndex + (int) (((long) size * (chunk + 1)) / chunks);
+      tasks.add(new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+          processChunk(currentChunk, chunkStart, chunkEnd);
+        }
+      });
+    }
+    invokeAll(tasks);
+  }
+}
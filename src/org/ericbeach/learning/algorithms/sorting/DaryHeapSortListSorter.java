@@ -0,0 +1,125 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Performs a heap sort on a List using a d-ary heap, in which every parent has d children
+ * rather than two.
+ *
+ * The heap and sort phases are the same as in {@link HeapSortListSorter}, with three changes
+ * that matter once the lists get large:
+ * 1. The list is copied into an array up front and written back once sorting is done, so
+ * every access is a plain array access rather than a List call.
+ * 2. The max-heap is built bottom-up (Floyd's method) in O(n) time, and shifting down moves a
+ * "hole" instead of swapping: the element being shifted is held aside, the largest child is
+ * moved up into the hole, and the element is written once into its final slot.
+ * 3. The children of the element at heap position i sit next to each other at positions
+ * (i * d) + 1 to (i * d) + d. A wider heap is shallower, log_d(n) rather than log2(n) levels,
+ * so an element moves fewer times on its way down. Finding the largest child costs d - 1
+ * comparisons per level instead of one, but those children share one or two cache lines,
+ * whereas every level of a binary heap is usually a separate cache miss on large inputs. An
+ * arity of 4 is a good balance and is the default.
+ *
+ * The sort is not stable.
+ *
+ * @param <T> Generic type.
+ */
+public class DaryHeapSortListSorter <T extends Comparable<? super T>> implements ListSorter<T> {
+  /**
+   * The number of children of every parent used unless told otherwise.
+   */
+  public static final int DEFAULT_ARITY = 4;
+
+  private final int arity;
+
+  /**
+   * Create a sorter that uses a 4-ary heap.
+   */
+  public DaryHeapSortListSorter() {
+    this(DEFAULT_ARITY);
+  }
+
+  /**
+   * Create a sorter that uses a heap of the supplied arity.
+   * @param arity The number of children of every parent; at least 2.
+   */
+  public DaryHeapSortListSorter(int arity) {
+    if (arity < 2) {
+      throw new IllegalArgumentException("arity must be at least 2: " + arity);
+    }
+    this.arity = arity;
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    T[] elements = (T[]) list.toArray(new Comparable<?>[list.size()]);
+    heapSort(elements);
+
+    // Write the sorted elements back into the list.
+    ListIterator<T> iterator = list.listIterator();
+    for (T element : elements) {
+      iterator.next();
+      iterator.set(element);
+    }
+    return list;
+  }
+
+  /**
+   * Heap sort an array.
+   * @param elements The array to be sorted.
+   */
+  private void heapSort(T[] elements) {
+    int heapSize = elements.length;
+
+    // STEP 1: Max-heapify the array, starting from the last parent and moving to the root.
+    for (int parentIndex = (heapSize - 2) / arity; parentIndex >= 0; parentIndex--) {
+      shiftDown(elements, parentIndex, elements[parentIndex], heapSize);
+    }
+
+    // STEP 2: Repeatedly move the largest element to the end of the heap, shrink the heap by
+    // one and shift the element that was at the end down from the root.
+    for (int endHeapIndex = heapSize - 1; endHeapIndex > 0; endHeapIndex--) {
+      T value = elements[endHeapIndex];
+      elements[endHeapIndex] = elements[0];
+      shiftDown(elements, 0, value, endHeapIndex);
+    }
+  }
+
+  /**
+   * Shift a value down the heap from a hole until max-heap order is restored.
+   * @param elements The array holding the heap.
+   * @param holeIndex The heap index of the hole that the value starts in.
+   * @param value The value being shifted down.
+   * @param heapSize The number of elements in the heap.
+   */
+  private void shiftDown(T[] elements, int holeIndex, T value, int heapSize) {
+    // Comparing against the last parent, rather than computing a child index first, cannot
+    // overflow however large the heap and arity are.
+    int lastParentIndex = (heapSize < 2) ? -1 : (heapSize - 2) / arity;
+    while (holeIndex <= lastParentIndex) {
+      // Find the largest of the (up to arity) children.
+      int firstChildIndex = (holeIndex * arity) + 1;
+      int endChildIndex = (int) Math.min((long) firstChildIndex + arity, heapSize);
+      int largestChildIndex = firstChildIndex;
+      for (int childIndex = firstChildIndex + 1; childIndex < endChildIndex; childIndex++) {
+        if (elements[largestChildIndex].compareTo(elements[childIndex]) < 0) {
+          largestChildIndex = childIndex;
+        }
+      }
+
+      // Stop once the value is at least as large as every child.
+      if (value.compareTo(elements[largestChildIndex]) >= 0) {
+        break;
+      }
+      elements[holeIndex] = elements[largestChildIndex];
+      holeIndex = largestChildIndex;
+    }
+    elements[holeIndex] = value;
+  }
+}
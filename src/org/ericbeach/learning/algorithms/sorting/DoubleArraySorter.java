@@ -0,0 +1,29 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Interface for all classes that sort an array of primitive doubles in place.
+ *
+ * This is the primitive counterpart to {@link ListSorter}. Sorting a double[] directly avoids
+ * boxing every element and the get/set indirection of a List.
+ *
+ * Doubles are ordered the same way as {@link Double#compare(double, double)}: -0.0 sorts before
+ * 0.0 and NaN sorts after every other value.
+ */
+public interface DoubleArraySorter {
+  /**
+   * Sort an entire array of doubles.
+   * @param array Array of doubles to be sorted.
+   * @return The same array, now sorted.
+   */
+  public double[] sort(double[] array);
+
+  /**
+   * Sort the range of an array from fromIndex (inclusive) to toIndex (exclusive). Elements
+   * outside of the range are left untouched.
+   * @param array Array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   * @return The same array, with the range now sorted.
+   */
+  public double[] sort(double[] array, int fromIndex, int toIndex);
+}
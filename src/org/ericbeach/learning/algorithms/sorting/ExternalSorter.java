@@ -0,0 +1,272 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Performs an external merge sort, which sorts more records than fit in memory by using files
+ * as scratch space.
+ *
+ * Every other sorter needs the whole data set in memory as a List. This sorter only ever holds
+ * one chunk of records at a time, and works as follows:
+ * 1. Run generation - Read records until the memory budget is used up, sort that chunk with an
+ * in-memory {@link ListSorter} and spill it to a temporary file as a sorted "run". Repeat until
+ * the input is exhausted.
+ * 2. Merge - Open up to fanIn runs at once and merge them with a {@link KWayMerger}, which keeps
+ * the head record of every run in a loser tree: repeatedly take the smallest head, write it out
+ * and replace it with the next record of the same run. Each record therefore costs about
+ * log2(k) comparisons to merge, where k is the number of runs being merged.
+ * 3. If there are more runs than fanIn, merge them in groups of fanIn into longer runs first
+ * and repeat until at most fanIn runs remain, which are then merged straight into the output.
+ * If the whole input fits within the memory budget, it is sorted in memory and written directly
+ * to the output without creating any temporary files.
+ *
+ * Records are read and written as length-prefixed bytes through {@link RecordFileReader} and
+ * {@link RecordFileWriter}, which stream files through a file channel a buffer at a time. During
+ * a merge the memory budget is shared out between the buffer of each input run and the output,
+ * so a larger budget also means fewer, larger reads. Runs are written and merged in input order
+ * and ties are broken in favour of the earlier run, so the sort is stable as long as the chunk
+ * sorter is.
+ *
+ * The memory budget is an estimate: a record is assumed to take its encoded length plus
+ * ESTIMATED_RECORD_OVERHEAD bytes on the heap. Temporary run files are deleted as soon as they
+ * have been merged, and in any case before the sort returns or throws.
+ *
+ * @param <T> Generic type.
+ */
+public class ExternalSorter <T extends Comparable<? super T>> {
+  /**
+   * The memory budget, in bytes, used unless told otherwise.
+   */
+  public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+  /**
+   * The number of runs merged at once unless told otherwise.
+   */
+  public static final int DEFAULT_FAN_IN = 64;
+
+  /**
+   * The number of bytes each record is assumed to take on the heap on top of its encoded
+   * length: the list slot pointing to it plus the object header.
+   */
+  static final int ESTIMATED_RECORD_OVERHEAD = 32;
+
+  /**
+   * Buffers used during a merge are never made smaller than this.
+   */
+  private static final int MIN_BUFFER_SIZE = 1 << 12;
+
+  /**
+   * Buffers used during a merge are never made larger than this.
+   */
+  private static final int MAX_BUFFER_SIZE = 1 << 20;
+
+  private final RecordCodec<T> codec;
+  private final ListSorter<T> chunkSorter;
+  private final long memoryBudget;
+  private final int fanIn;
+  private final File tempDirectory;
+
+  /**
+   * Create a sorter with the default memory budget and fan-in that sorts chunks with
+   * {@link AdaptiveMergesortListSorter} and puts its runs in the system temporary directory.
+   * @param codec The codec used to read and write records.
+   */
+  public ExternalSorter(RecordCodec<T> codec) {
+    this(codec, new AdaptiveMergesortListSorter<T>(), DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN,
+        null);
+  }
+
+  /**
+   * Create a sorter.
+   * @param codec The codec used to read and write records.
+   * @param chunkSorter The sorter used to sort each chunk in memory.
+   * @param memoryBudget The approximate number of bytes of records held in memory at once.
+   * @param fanIn The largest number of runs merged at once; at least 2.
+   * @param tempDirectory The directory for run files, or null for the system default.
+   */
+  public ExternalSorter(RecordCodec<T> codec, ListSorter<T> chunkSorter, long memoryBudget,
+      int fanIn, File tempDirectory) {
+    if (codec == null) {
+      throw new NullPointerException("codec");
+    }
+    if (chunkSorter == null) {
+      throw new NullPointerException("chunkSorter");
+    }
+    if (memoryBudget < 1) {
+      throw new IllegalArgumentException("memoryBudget must be positive: " + memoryBudget);
+    }
+    if (fanIn < 2) {
+      throw new IllegalArgumentException("fanIn must be at least 2: " + fanIn);
+    }
+    this.codec = codec;
+    this.chunkSorter = chunkSorter;
+    this.memoryBudget = memoryBudget;
+    this.fanIn = fanIn;
+    this.tempDirectory = tempDirectory;
+  }
+
+  /**
+   * Sort the records of a file written by {@link RecordFileWriter} into another file. The
+   * input file may also be the output file.
+   * @param input The file of unsorted records.
+   * @param output The file that the sorted records are written to.
+   * @throws IOException If a file cannot be read or written.
+   */
+  public void sort(File input, File output) throws IOException {
+    RecordFileReader<T> reader = new RecordFileReader<T>(input, codec);
+    try {
+      sort(reader, output);
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Sort records into a file. The records are written as by {@link RecordFileWriter}.
+   * @param input The unsorted records.
+   * @param output The file that the sorted records are written to.
+   * @throws IOException If a file cannot be read or written.
+   */
+  public void sort(Iterator<T> input, File output) throws IOException {
+    // Every run file created, so that none are left behind if the sort fails part way.
+    List<File> runFiles = new ArrayList<File>();
+    List<File> runs = new ArrayList<File>();
+    try {
+      // Step 1: Sort the input a chunk at a time, spilling each chunk to a run.
+      List<T> chunk = new ArrayList<T>();
+      while (true) {
+        long chunkBytes = 0;
+        while (input.hasNext() && chunkBytes < memoryBudget) {
+          T record = input.next();
+          chunkBytes += codec.encodedLength(record) + ESTIMATED_RECORD_OVERHEAD;
+          chunk.add(record);
+        }
+        // The chunk sorter may return a new list rather than sorting the chunk in place.
+        List<T> sortedChunk = chunkSorter.sort(chunk);
+        if (runs.isEmpty() && !input.hasNext()) {
+          // Everything fit in memory, so there is nothing to merge.
+          writeRecords(sortedChunk.iterator(), output, RecordFileWriter.DEFAULT_BUFFER_SIZE);
+          return;
+        }
+        File run = createRunFile(runFiles);
+        runs.add(run);
+        writeRecords(sortedChunk.iterator(), run, RecordFileWriter.DEFAULT_BUFFER_SIZE);
+        chunk.clear();
+        if (!input.hasNext()) {
+          break;
+        }
+      }
+
+      // Step 2: Merge groups of runs into longer runs until few enough remain.
+      while (runs.size() > fanIn) {
+        List<File> mergedRuns = new ArrayList<File>();
+        for (int i = 0; i < runs.size(); i += fanIn) {
+          List<File> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+          if (group.size() == 1) {
+            mergedRuns.add(group.get(0));
+            continue;
+          }
+          File mergedRun = createRunFile(runFiles);
+          mergedRuns.add(mergedRun);
+          mergeRuns(group, mergedRun);
+          for (File run : group) {
+            deleteRun(run);
+          }
+        }
+        runs = mergedRuns;
+      }
+
+      // Step 3: Merge the remaining runs into the output.
+      mergeRuns(runs, output);
+    } finally {
+      for (File run : runFiles) {
+        deleteRun(run);
+      }
+    }
+  }
+
+  /**
+   * Merge sorted runs into a single sorted file.
+   * @param runs The run files, in input order.
+   * @param output The file to write the merged records to.
+   * @throws IOException If a file cannot be read or written.
+   */
+  private void mergeRuns(List<File> runs, File output) throws IOException {
+    int bufferSize = mergeBufferSize(runs.size());
+    List<RecordFileReader<T>> readers = new ArrayList<RecordFileReader<T>>(runs.size());
+    try {
+      for (File run : runs) {
+        readers.add(new RecordFileReader<T>(run, codec, bufferSize));
+      }
+
+      // The merger breaks ties in favour of the earlier run, which keeps the sort stable.
+      KWayMerger<T> merger = new KWayMerger<T>(readers);
+      RecordFileWriter<T> writer = new RecordFileWriter<T>(output, codec, bufferSize);
+      try {
+        while (merger.hasNext()) {
+          writer.write(merger.next());
+        }
+      } finally {
+        writer.close();
+      }
+    } finally {
+      for (RecordFileReader<T> reader : readers) {
+        reader.close();
+      }
+    }
+  }
+
+  /**
+   * Share the memory budget out between the input buffer of every run and the output buffer.
+   * @param runCount The number of runs being merged.
+   * @return The size of each buffer in bytes.
+   */
+  private int mergeBufferSize(int runCount) {
+    long share = memoryBudget / (runCount + 1);
+    return (int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, share));
+  }
+
+  /**
+   * Write records to a file.
+   * @param records The records.
+   * @param file The file.
+   * @param bufferSize The size of the write buffer.
+   * @throws IOException If the file cannot be written.
+   */
+  private void writeRecords(Iterator<T> records, File file, int bufferSize) throws IOException {
+    RecordFileWriter<T> writer = new RecordFileWriter<T>(file, codec, bufferSize);
+    try {
+      while (records.hasNext()) {
+        writer.write(records.next());
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * Create an empty temporary file for a run.
+   * @param runFiles The list of run files created so far, which the new file is added to.
+   * @return The file.
+   * @throws IOException If the file cannot be created.
+   */
+  private File createRunFile(List<File> runFiles) throws IOException {
+    File run = File.createTempFile("external-sort-run-", ".tmp", tempDirectory);
+    runFiles.add(run);
+    return run;
+  }
+
+  /**
+   * Delete a run file if it still exists.
+   * @param run The file.
+   */
+  private void deleteRun(File run) {
+    if (run.exists() && !run.delete()) {
+      run.deleteOnExit();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Interface for all classes that sort an array of primitive floats in place.
+ *
+ * This is the primitive counterpart to {@link ListSorter}. Sorting a float[] directly avoids
+ * boxing every element and the get/set indirection of a List.
+ *
+ * Floats are ordered the same way as {@link Float#compare(float, float)}: -0.0 sorts before
+ * 0.0 and NaN sorts after every other value.
+ */
+public interface FloatArraySorter {
+  /**
+   * Sort an entire array of floats.
+   * @param array Array of floats to be sorted.
+   * @return The same array, now sorted.
+   */
+  public float[] sort(float[] array);
+
+  /**
+   * Sort the range of an array from fromIndex (inclusive) to toIndex (exclusive). Elements
+   * outside of the range are left untouched.
+   * @param array Array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   * @return The same array, with the range now sorted.
+   */
+  public float[] sort(float[] array, int fromIndex, int toIndex);
+}
@@ -0,0 +1,14 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Interface for all classes that supply the gaps used by shell sort.
+ */
+public interface GapSequence {
+  /**
+   * Return the gaps to shell sort a range of the given size with.
+   * @param size The number of elements to be sorted.
+   * @return The gaps in decreasing order, each smaller than size and the last one 1. Empty if
+   *     size is less than 2.
+   */
+  public int[] gaps(int size);
+}
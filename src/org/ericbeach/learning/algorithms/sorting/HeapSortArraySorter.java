@@ -0,0 +1,182 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Performs a heap sort on arrays of primitive ints, longs and doubles.
+ *
+ * The heap and sort phases are the same as in {@link HeapSortListSorter}, with two changes that
+ * matter once the arrays get large:
+ * 1. The max-heap is built bottom-up (Floyd's method): every parent, starting with the last one
+ * and working back to the root, is shifted down into place. This builds the heap in O(n) time
+ * rather than the O(n log n) of inserting elements one at a time.
+ * 2. Shifting down moves a "hole" instead of swapping: the element being shifted is held aside,
+ * larger children are moved up into the hole, and the element is written once into its final
+ * slot.
+ *
+ * The heap sort is performed in place and allocates no memory.
+ */
+public class HeapSortArraySorter implements IntArraySorter, LongArraySorter, DoubleArraySorter {
+  private final ArraySorterHelper arraySorterHelper;
+
+  public HeapSortArraySorter() {
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int heapSize = toIndex - fromIndex;
+
+    // STEP 1: Max-heapify the range, starting from the last parent and moving to the root.
+    for (int parentIndex = (heapSize / 2) - 1; parentIndex >= 0; parentIndex--) {
+      shiftDown(array, fromIndex, parentIndex, heapSize);
+    }
+
+    // STEP 2: Repeatedly move the largest element to the end of the heap, shrink the heap by
+    // one and restore max-heap order.
+    for (int endHeapIndex = heapSize - 1; endHeapIndex > 0; endHeapIndex--) {
+      arraySorterHelper.swap(array, fromIndex, fromIndex + endHeapIndex);
+      shiftDown(array, fromIndex, 0, endHeapIndex);
+    }
+    return array;
+  }
+
+  /**
+   * Shift an element down a heap stored in a range of the array until max-heap order is
+   * restored.
+   * @param array The array holding the heap.
+   * @param offset The index of the array at which the heap (its root) begins.
+   * @param rootIndex The heap index of the element to shift down.
+   * @param heapSize The number of elements in the heap.
+   */
+  private void shiftDown(int[] array, int offset, int rootIndex, int heapSize) {
+    int value = array[offset + rootIndex];
+    int holeIndex = rootIndex;
+    int childIndex = (holeIndex * 2) + 1;
+    while (childIndex < heapSize) {
+      // Pick the larger of the two children.
+      if (childIndex + 1 < heapSize
+          && array[offset + childIndex] < array[offset + childIndex + 1]) {
+        childIndex++;
+      }
+      // The held element is at least as large as its largest child, so the hole is its slot.
+      if (!(value < array[offset + childIndex])) {
+        break;
+      }
+      array[offset + holeIndex] = array[offset + childIndex];
+      holeIndex = childIndex;
+      childIndex = (holeIndex * 2) + 1;
+    }
+    array[offset + holeIndex] = value;
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int heapSize = toIndex - fromIndex;
+
+    // STEP 1: Max-heapify the range, starting from the last parent and moving to the root.
+    for (int parentIndex = (heapSize / 2) - 1; parentIndex >= 0; parentIndex--) {
+      shiftDown(array, fromIndex, parentIndex, heapSize);
+    }
+
+    // STEP 2: Repeatedly move the largest element to the end of the heap, shrink the heap by
+    // one and restore max-heap order.
+    for (int endHeapIndex = heapSize - 1; endHeapIndex > 0; endHeapIndex--) {
+      arraySorterHelper.swap(array, fromIndex, fromIndex + endHeapIndex);
+      shiftDown(array, fromIndex, 0, endHeapIndex);
+    }
+    return array;
+  }
+
+  /**
+   * Shift an element down a heap stored in a range of the array until max-heap order is
+   * restored.
+   * @param array The array holding the heap.
+   * @param offset The index of the array at which the heap (its root) begins.
+   * @param rootIndex The heap index of the element to shift down.
+   * @param heapSize The number of elements in the heap.
+   */
+  private void shiftDown(long[] array, int offset, int rootIndex, int heapSize) {
+    long value = array[offset + rootIndex];
+    int holeIndex = rootIndex;
+    int childIndex = (holeIndex * 2) + 1;
+    while (childIndex < heapSize) {
+      // Pick the larger of the two children.
+      if (childIndex + 1 < heapSize
+          && array[offset + childIndex] < array[offset + childIndex + 1]) {
+        childIndex++;
+      }
+      // The held element is at least as large as its largest child, so the hole is its slot.
+      if (!(value < array[offset + childIndex])) {
+        break;
+      }
+      array[offset + holeIndex] = array[offset + childIndex];
+      holeIndex = childIndex;
+      childIndex = (holeIndex * 2) + 1;
+    }
+    array[offset + holeIndex] = value;
+  }
+
+  @Override
+  public double[] sort(double[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public double[] sort(double[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int heapSize = toIndex - fromIndex;
+
+    // STEP 1: Max-heapify the range, starting from the last parent and moving to the root.
+    for (int parentIndex = (heapSize / 2) - 1; parentIndex >= 0; parentIndex--) {
+      shiftDown(array, fromIndex, parentIndex, heapSize);
+    }
+
+    // STEP 2: Repeatedly move the largest element to the end of the heap, shrink the heap by
+    // one and restore max-heap order.
+    for (int endHeapIndex = heapSize - 1; endHeapIndex > 0; endHeapIndex--) {
+      arraySorterHelper.swap(array, fromIndex, fromIndex + endHeapIndex);
+      shiftDown(array, fromIndex, 0, endHeapIndex);
+    }
+    return array;
+  }
+
+  /**
+   * Shift an element down a heap stored in a range of the array until max-heap order is
+   * restored.
+   * @param array The array holding the heap.
+   * @param offset The index of the array at which the heap (its root) begins.
+   * @param rootIndex The heap index of the element to shift down.
+   * @param heapSize The number of elements in the heap.
+   */
+  private void shiftDown(double[] array, int offset, int rootIndex, int heapSize) {
+    double value = array[offset + rootIndex];
+    int holeIndex = rootIndex;
+    int childIndex = (holeIndex * 2) + 1;
+    while (childIndex < heapSize) {
+      // Pick the larger of the two children.
+      if (childIndex + 1 < heapSize
+          && arraySorterHelper.isLess(array[offset + childIndex], array[offset + childIndex + 1])) {
+        childIndex++;
+      }
+      // The held element is at least as large as its largest child, so the hole is its slot.
+      if (!(arraySorterHelper.isLess(value, array[offset + childIndex]))) {
+        break;
+      }
+      array[offset + holeIndex] = array[offset + childIndex];
+      holeIndex = childIndex;
+      childIndex = (holeIndex * 2) + 1;
+    }
+    array[offset + holeIndex] = value;
+  }
+}
@@ -8,14 +8,13 @@ import java.util.List;
  * The heap sort is performed in place.
  * 
  * Conceptually, the heapsort algorithm can be broken down into two phases: heap and then sort.
- * At a high level, during the heap phase, a heap is built by adding one element at a time from
- * the input list to the heap. With each new element that is added to the heap, we need to check
- * and ensure that adding the new element didnt break the heap order (i.e., that the new element
- * didnt cause the heap order to be violated--e.g., that in a max-heap the new element didnt
- * place a larger value as a child of a smaller value). If adding the new element to the heap
- * caused the heap-order to be violated, then we need to swap the new and out-of-heap-order
- * element with its parent. We continue this process until the heap order is restored, at which
- * time we add a new element to the heap again.
+ * At a high level, during the heap phase, the heap is built bottom-up (Floyd's method). Every
+ * element in the second half of the list is a leaf and so is already a valid one-element heap.
+ * Working back from the last parent to the root, each parent is shifted down: while it is
+ * smaller than its larger child, it swaps places with that child. Once a parent is shifted
+ * down, the subtree below it is in heap order. Since most elements are near the bottom and only
+ * have a short way to shift, this builds the heap in O(n) time, rather than the O(n log n) of
+ * adding elements to the heap one at a time and shifting each of them up.
  * 
  * At a high level, during the sort phase, the final sorted list is built by repeating the
  * following until no elements are left in the heap and they are all moved into the final
@@ -36,57 +35,68 @@ public class HeapSortListSorter <T extends Comparable<? super T>> implements Lis
 
   @Override
   public List<T> sort(List<T> list) {
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> staged = listSorterHelper.stage(list);
+    heapSort(staged, 0, staged.size() - 1);
+    listSorterHelper.unstage(staged, list);
+    return list;
+  }
+
+  /**
+   * Heap sort the range of a list bounded by startIndex and endIndex. The heap is laid out
+   * starting at startIndex, so the root of the heap is list.get(startIndex) and the children of
+   * the element at heap position i are at heap positions (i * 2) + 1 and (i * 2) + 2.
+   * @param list The list containing the range to be sorted.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   */
+  void heapSort(List<T> list, int startIndex, int endIndex) {
     // STEP 1: Max-Heapify the Heap.
-    // Put the input list into max-heap order, meaning that for each node all child nodes must
+    // Put the range into max-heap order, meaning that for each node all child nodes must
     // be smaller.
-    putIntoMaxHeapOrder(list);
+    putIntoMaxHeapOrder(list, startIndex, endIndex);
 
     // STEP 2: Sort the Heap.
     // Swap the first and last element of the heap, thereby moving an element into its final
     // sorted position. Decrement the boundary of the heap (as one element left the heap for its
     // final sorted position). Shift down the heap to put the heap back into max-heap order.
 
-    // Entire list is in the heap at this point.
-    int endHeapIndex = list.size() - 1;
-    while (endHeapIndex > 0) {
-      listSorterHelper.swap(list, 0, endHeapIndex);
+    // Entire range is in the heap at this point.
+    int endHeapIndex = endIndex;
+    while (endHeapIndex > startIndex) {
+      listSorterHelper.swap(list, startIndex, endHeapIndex);
    
       // With an element moved into final position, its no longer considered part of the heap.
       endHeapIndex--;
 
       // Put heap back into order.
-      shiftDown(list, 0, endHeapIndex);
+      shiftDown(list, startIndex, startIndex, endHeapIndex);
     }
-    return list;
   }
   
   /**
-   * Place a list into max-heap order.
+   * Place a range of a list into max-heap order.
    * @param list The list to be max-heapified.
+   * @param heapStartIndex The index of the list at which the heap (its root) begins.
+   * @param endIndex The last index of the list that is part of the heap.
    */
-  private void putIntoMaxHeapOrder(List<T> list) {
-    // The index of the element to begin shifting up from.
-    // We start by placing two elements into the heap (index 1 is 2 elements) and shift up
-    // as necessary.
-    int startShiftIndex = 1;
-
-    // Begin heapifying the list by shifting up to the root, by starting
-    // from the left child of the root (if it exists). After heapifying
-    // from element 1, move to the next element if it exists and heapify from
-    // there.
-    while (startShiftIndex < list.size()) {
-      shiftUp(list, startShiftIndex);
-      startShiftIndex++;
+  private void putIntoMaxHeapOrder(List<T> list, int heapStartIndex, int endIndex) {
+    // Elements past the last parent are leaves, which are already in max-heap order.
+    // Shift down every parent, starting with the last one and working back to the root.
+    int lastParentIndex = heapStartIndex + ((endIndex - heapStartIndex - 1) / 2);
+    for (int parentIndex = lastParentIndex; parentIndex >= heapStartIndex; parentIndex--) {
+      shiftDown(list, heapStartIndex, parentIndex, endIndex);
     }
   }
   
   /**
    * Put a heap or subsection of it into max-heap order by shifting down.
    * @param list The list to be placed in max-heap order.
+   * @param heapStartIndex The index of the list at which the heap (its root) begins.
    * @param startIndex The index of the list to start shifting down from.
    * @param endIndex The index of the list to stop shifting down at.
    */
-  private void shiftDown(List<T> list, int startIndex, int endIndex) {
+  void shiftDown(List<T> list, int heapStartIndex, int startIndex, int endIndex) {
     int currentRootIndex = startIndex;
     int currentChildIndex = 0;
     int toSwapIndex = 0;
@@ -94,15 +104,15 @@ public class HeapSortListSorter <T extends Comparable<? super T>> implements Lis
     
     // As long as there is a child of the element we are currently evaluating,
     // continue shifting down.
-    // The child element's index is: (currentRootIndex * 2) + 1 
-    while ((currentRootIndex * 2) + 1 <= endIndex) {
+    // The child element's index is computed relative to the start of the heap.
+    while (leftChildIndex(heapStartIndex, currentRootIndex) <= endIndex) {
       // Start by assuming that you're not going to swap any elements. We need to prove that the
       // element currently being evaluated is smaller than either of its parents.
       toSwapIndex = doNotSwap;
 
       // Calculate the index of the left child to see whether the current
       // parent index should swap with one of its children.
-      currentChildIndex = (currentRootIndex * 2) + 1;
+      currentChildIndex = leftChildIndex(heapStartIndex, currentRootIndex);
       
       // See if the parent is less than the left child.
       if (list.get(currentRootIndex).compareTo(list.get(currentChildIndex)) < 0) {
@@ -110,10 +120,11 @@ public class HeapSortListSorter <T extends Comparable<? super T>> implements Lis
       }
       
       // Check whether a right child exists and if it does, whether its bigger than what
-      // we previously planned to swap with, the left child, which has
-      // already been established to be bigger than the parent.
+      // we previously planned to swap with (the left child) or, if we did not plan to swap,
+      // than the parent itself.
+      int largerIndex = (toSwapIndex == doNotSwap) ? currentRootIndex : toSwapIndex;
       if (currentChildIndex + 1 <= endIndex &&
-          list.get(toSwapIndex).compareTo(list.get(currentChildIndex + 1)) < 0) {
+          list.get(largerIndex).compareTo(list.get(currentChildIndex + 1)) < 0) {
         toSwapIndex = currentChildIndex + 1;
       }
       
@@ -131,9 +142,10 @@ public class HeapSortListSorter <T extends Comparable<? super T>> implements Lis
   /**
    * Put a list in max-heap order by shifting up.
    * @param list The list to place in max-heap order by shifting up.
+   * @param heapStartIndex The index of the list at which the heap (its root) begins.
    * @param startShiftIndex The index of the list to start shifting up from.
    */
-  private void shiftUp(List<T> list, int startShiftIndex) {
+  void shiftUp(List<T> list, int heapStartIndex, int startShiftIndex) {
     // The child index to start shifting up from.
     int childIndex = startShiftIndex;
     
@@ -141,8 +153,8 @@ public class HeapSortListSorter <T extends Comparable<? super T>> implements Lis
 
     // As long as the child index is not at the top of the heap, keep
     // working up the tree.
-    while (childIndex > 0) {
-      parentIndex = (childIndex - 1) / 2;
+    while (childIndex > heapStartIndex) {
+      parentIndex = heapStartIndex + ((childIndex - heapStartIndex - 1) / 2);
       
       // If the parent index is less than the child, swap and set the new
       // child index to be the parent index (i.e., the current parent index
@@ -156,4 +168,14 @@ public class HeapSortListSorter <T extends Comparable<? super T>> implements Lis
       }
     }
   }
+
+  /**
+   * Compute the list index of the left child of an element in a heap.
+   * @param heapStartIndex The index of the list at which the heap (its root) begins.
+   * @param parentIndex The list index of the parent element.
+   * @return The list index of the parent's left child.
+   */
+  private int leftChildIndex(int heapStartIndex, int parentIndex) {
+    return heapStartIndex + ((parentIndex - heapStartIndex) * 2) + 1;
+  }
 }
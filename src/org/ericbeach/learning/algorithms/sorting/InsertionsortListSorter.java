@@ -27,19 +27,33 @@ public class InsertionsortListSorter <T extends Comparable<? super T>> implement
   
   @Override
   public List<T> sort(List<T> list) {
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> staged = listSorterHelper.stage(list);
+    insertionSort(staged, 0, staged.size() - 1);
+    listSorterHelper.unstage(staged, list);
+    return list;
+  }
+
+  /**
+   * Insertion sort the range of a list bounded by startIndex and endIndex.
+   * @param list The list containing the range to be sorted.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   */
+  void insertionSort(List<T> list, int startIndex, int endIndex) {
     int innerIndex;
     // The first element starts sorted (it may move later).
-    // Iterate one by one up the list.
-    for (int sortedIndex = 1; sortedIndex < list.size(); sortedIndex++) {
+    // Iterate one by one up the range.
+    for (int sortedIndex = startIndex + 1; sortedIndex <= endIndex; sortedIndex++) {
       innerIndex = sortedIndex;
-      // At each phase as we move up the list, take the next unsorted element (one to the right
-      // of the sorted list boundary) and with that unsorted element, move down the list,
+      // At each phase as we move up the range, take the next unsorted element (one to the right
+      // of the sorted range boundary) and with that unsorted element, move down the range,
       // swapping the element as it goes until that element is in the proper sorted position.
-      while (innerIndex > 0 && list.get(innerIndex - 1).compareTo(list.get(innerIndex)) > 0) {
+      while (innerIndex > startIndex
+          && list.get(innerIndex - 1).compareTo(list.get(innerIndex)) > 0) {
         listSorterHelper.swap(list, innerIndex, innerIndex - 1);
         innerIndex--;
       }
     }
-    return list;
   }
 }
@@ -0,0 +1,226 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps another sorter and records how much work each of its sorts does.
+ *
+ * For every call, the following are recorded into the {@link SortMetrics} of the sorter's name
+ * in a {@link SortMetricsRegistry}:
+ * 1. The number of elements sorted.
+ * 2. The elapsed time in nanoseconds of the bare sorter sorting the list.
+ * 3. The bytes allocated by the calling thread during that sort, where the JVM reports them.
+ * Allocations made by other threads, such as the workers of a parallel sort, are not seen.
+ *
+ * For the first of every countingInterval calls, a copy of the same input is also sorted a second
+ * time to record:
+ * 4. The number of compareTo calls. Each element is wrapped in an object whose compareTo bumps
+ * a shared counter before comparing the elements themselves.
+ * 5. The number of elements written to the list. The wrapped elements are handed to the sorter
+ * in a list that counts calls to set, so a swap done with {@link ListSorterHelper#swap} counts
+ * as two writes. Sorters that copy the list into an array count one write per element when the
+ * sorted array is written back.
+ *
+ * Counting adds a counter update to every comparison and write, so the counting sort is kept
+ * apart from the timed one: the latencies are those of the bare sorter, and the counts are those
+ * of the separate re-sort, not of the timed run. For a sorter that makes random choices, such as
+ * {@link SampleSortListSorter}, the two runs can do different amounts of work. Because the
+ * counting sort has to sort wrapped elements, the sorter is created by a
+ * {@link ListSorterFactory} rather than passed in.
+ *
+ * The re-sort allocates a wrapper per element and does more than the work of the timed sort, so
+ * by default only one call in {@link #DEFAULT_COUNTING_INTERVAL} is counted.
+ *
+ * Whether or not the registry is enabled, the list passed in is sorted and returned, even when
+ * the wrapped sorter returns a new list. While the registry is disabled, sorts are passed
+ * straight to the bare sorter, so the only extra cost is checking the flag.
+ *
+ * @param <T> Generic type.
+ */
+public class InstrumentedListSorter <T extends Comparable<? super T>> implements ListSorter<T> {
+  /**
+   * Comparisons and writes are counted on the first of every this many measured calls, unless
+   * another interval is given.
+   */
+  public static final int DEFAULT_COUNTING_INTERVAL = 64;
+
+  private final String name;
+  private final SortMetricsRegistry registry;
+  private final ListSorter<T> listSorter;
+  private final ListSorter<CountingElement<T>> countingListSorter;
+  private final int countingInterval;
+  private final AtomicLong enabledCalls;
+  private final ThreadMXBean threadMXBean;
+
+  /**
+   * Create an instrumented sorter that counts the comparisons and writes of one call in
+   * {@link #DEFAULT_COUNTING_INTERVAL}.
+   * @param name The name to record the metrics under.
+   * @param listSorterFactory Creates the sorter to be instrumented.
+   * @param registry The registry to record the metrics into.
+   */
+  public InstrumentedListSorter(String name, ListSorterFactory listSorterFactory,
+      SortMetricsRegistry registry) {
+    this(name, listSorterFactory, registry, DEFAULT_COUNTING_INTERVAL);
+  }
+
+  /**
+   * Create an instrumented sorter.
+   * @param name The name to record the metrics under.
+   * @param listSorterFactory Creates the sorter to be instrumented.
+   * @param registry The registry to record the metrics into.
+   * @param countingInterval Comparisons and writes are counted on the first of every this many
+   *     measured calls. 1 counts every call, at the cost of sorting each input twice.
+   */
+  public InstrumentedListSorter(String name, ListSorterFactory listSorterFactory,
+      SortMetricsRegistry registry, int countingInterval) {
+    if (name == null) {
+      throw new NullPointerException("name");
+    }
+    if (listSorterFactory == null) {
+      throw new NullPointerException("listSorterFactory");
+    }
+    if (registry == null) {
+      throw new NullPointerException("registry");
+    }
+    if (countingInterval < 1) {
+      throw new IllegalArgumentException("countingInterval must be positive: " + countingInterval);
+    }
+    this.name = name;
+    this.registry = registry;
+    this.countingInterval = countingInterval;
+    listSorter = listSorterFactory.<T>create();
+    countingListSorter = listSorterFactory.<CountingElement<T>>create();
+    enabledCalls = new AtomicLong();
+    threadMXBean = ManagementFactory.getThreadMXBean();
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    if (!registry.isEnabled()) {
+      return copyBack(listSorter.sort(list), list);
+    }
+
+    // Wrap the input before the timed sort changes its order.
+    boolean counting = (enabledCalls.getAndIncrement() % countingInterval) == 0;
+    LongAdder comparisons = null;
+    CountingList<CountingElement<T>> countingList = null;
+    if (counting) {
+      comparisons = new LongAdder();
+      List<CountingElement<T>> elements = new ArrayList<CountingElement<T>>(list.size());
+      for (T element : list) {
+        elements.add(new CountingElement<T>(element, comparisons));
+      }
+      countingList = new CountingList<CountingElement<T>>(elements);
+    }
+
+    int size = list.size();
+    long allocatedBefore = allocatedBytes();
+    long start = System.nanoTime();
+    List<T> sorted = listSorter.sort(list);
+    long elapsed = System.nanoTime() - start;
+    long allocatedAfter = allocatedBytes();
+    long allocated = (allocatedBefore < 0) ? -1 : allocatedAfter - allocatedBefore;
+    copyBack(sorted, list);
+
+    SortMetrics metrics = registry.getMetrics(name);
+    metrics.recordTiming(size, elapsed, allocated);
+    if (counting) {
+      countingListSorter.sort(countingList);
+      metrics.recordCounts(size, comparisons.sum(), countingList.getWrites());
+    }
+    return list;
+  }
+
+  /**
+   * Copy a sorter's result into the list it was given, unless the sorter sorted that list in
+   * place.
+   * @param sorted The list returned by the sorter.
+   * @param list The list passed to the sorter.
+   * @return The list passed to the sorter, now sorted.
+   */
+  private List<T> copyBack(List<T> sorted, List<T> list) {
+    if (sorted != list) {
+      ListIterator<T> iterator = list.listIterator();
+      for (T element : sorted) {
+        iterator.next();
+        iterator.set(element);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * @return The bytes allocated so far by the current thread, or -1 if the JVM does not report
+   *     them.
+   */
+  private long allocatedBytes() {
+    if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threadMXBean).getCurrentThreadAllocatedBytes();
+    }
+    return -1;
+  }
+
+  /**
+   * An element that counts how often it is compared.
+   * @param <T> Generic type.
+   */
+  private static final class CountingElement <T extends Comparable<? super T>>
+      implements Comparable<CountingElement<T>> {
+    private final T element;
+    private final LongAdder comparisons;
+
+    private CountingElement(T element, LongAdder comparisons) {
+      this.element = element;
+      this.comparisons = comparisons;
+    }
+
+    @Override
+    public int compareTo(CountingElement<T> other) {
+      comparisons.increment();
+      return element.compareTo(other.element);
+    }
+  }
+
+  /**
+   * A fixed-size list that counts the elements written to it.
+   * @param <E> Generic type.
+   */
+  private static final class CountingList <E> extends AbstractList<E> implements RandomAccess {
+    private final List<E> list;
+    private final LongAdder writes;
+
+    private CountingList(List<E> list) {
+      this.list = list;
+      writes = new LongAdder();
+    }
+
+    @Override
+    public E get(int index) {
+      return list.get(index);
+    }
+
+    @Override
+    public E set(int index, E element) {
+      writes.increment();
+      return list.set(index, element);
+    }
+
+    @Override
+    public int size() {
+      return list.size();
+    }
+
+    private long getWrites() {
+      return writes.sum();
+    }
+  }
+}
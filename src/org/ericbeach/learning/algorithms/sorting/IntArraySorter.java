@@ -0,0 +1,26 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Interface for all classes that sort an array of primitive ints in place.
+ *
+ * This is the primitive counterpart to {@link ListSorter}. Sorting a int[] directly avoids
+ * boxing every element and the get/set indirection of a List.
+ */
+public interface IntArraySorter {
+  /**
+   * Sort an entire array of ints.
+   * @param array Array of ints to be sorted.
+   * @return The same array, now sorted.
+   */
+  public int[] sort(int[] array);
+
+  /**
+   * Sort the range of an array from fromIndex (inclusive) to toIndex (exclusive). Elements
+   * outside of the range are left untouched.
+   * @param array Array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   * @return The same array, with the range now sorted.
+   */
+  public int[] sort(int[] array, int fromIndex, int toIndex);
+}
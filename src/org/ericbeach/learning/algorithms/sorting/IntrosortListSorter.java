@@ -0,0 +1,136 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+
+/**
+ * Performs Introsort (introspective sort) on a List.
+ *
+ * Introsort is a quick sort that watches its own recursion depth. It keeps the good average
+ * performance of {@link QuicksortListSorter} while guaranteeing O(n log n) in the worst case:
+ * 1. Pivot - The pivot is the median of three elements (first, middle and last) of the range,
+ * or for large ranges Tukey's "ninther": the median of the medians of three groups of three
+ * elements spread across the range. This keeps sorted, reversed and organ-pipe shaped input
+ * from degrading into the quadratic worst case of always picking the rightmost element.
+ * 2. Partition - Both partition pointers stop on elements equal to the pivot, so runs of equal
+ * elements are split evenly between the two sides.
+ * 3. Depth limit - Every partition uses up one level of a depth budget of 2 * log2(n). If the
+ * budget runs out, the pivots have been consistently bad and the remaining range is sorted with
+ * {@link HeapSortListSorter} instead, which is O(n log n) no matter the input.
+ * 4. Small ranges - Ranges of 16 or fewer elements are finished with
+ * {@link InsertionsortListSorter}, which is faster than partitioning on tiny inputs.
+ *
+ * Only the smaller side of each partition is sorted recursively; the larger side is handled by
+ * looping, so the stack depth stays O(log n) even when the depth limit is never hit.
+ *
+ * @param <T> Generic type.
+ */
+public class IntrosortListSorter <T extends Comparable<? super T>> implements ListSorter<T> {
+  /**
+   * Ranges of this size or smaller are sorted with insertion sort rather than partitioned.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private final ListSorterHelper<T> listSorterHelper;
+  private final HeapSortListSorter<T> heapSortListSorter;
+  private final InsertionsortListSorter<T> insertionsortListSorter;
+
+  public IntrosortListSorter() {
+    listSorterHelper = new ListSorterHelper<T>();
+    heapSortListSorter = new HeapSortListSorter<T>();
+    insertionsortListSorter = new InsertionsortListSorter<T>();
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> staged = listSorterHelper.stage(list);
+    introSort(staged, 0, staged.size() - 1);
+    listSorterHelper.unstage(staged, list);
+    return list;
+  }
+
+  /**
+   * Introsort the range of a list bounded by startIndex and endIndex.
+   * @param list The list containing the range to be sorted.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   */
+  void introSort(List<T> list, int startIndex, int endIndex) {
+    int size = endIndex - startIndex + 1;
+    if (size < 2) {
+      return;
+    }
+    int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(size));
+    introSort(list, startIndex, endIndex, depthLimit);
+  }
+
+  /**
+   * Perform introsort on a range of a list.
+   * See the class comments for details on how introsort works.
+   * @param list List containing the range to be sorted.
+   * @param startIndex Left most boundary of the range.
+   * @param endIndex Right most boundary of the range.
+   * @param depthLimit The number of partitions that may still be made before giving up on
+   *     quick sort and falling back to heap sort.
+   */
+  private void introSort(List<T> list, int startIndex, int endIndex, int depthLimit) {
+    while (endIndex - startIndex >= INSERTION_SORT_THRESHOLD) {
+      // The pivots have been consistently poor, so guarantee O(n log n) with heap sort.
+      if (depthLimit == 0) {
+        heapSortListSorter.heapSort(list, startIndex, endIndex);
+        return;
+      }
+      depthLimit--;
+
+      int pivotIndex = partition(list, startIndex, endIndex);
+
+      // Recurse into the smaller side and keep looping on the larger side.
+      if (pivotIndex - startIndex < endIndex - pivotIndex) {
+        introSort(list, startIndex, pivotIndex - 1, depthLimit);
+        startIndex = pivotIndex + 1;
+      } else {
+        introSort(list, pivotIndex + 1, endIndex, depthLimit);
+        endIndex = pivotIndex - 1;
+      }
+    }
+    insertionsortListSorter.insertionSort(list, startIndex, endIndex);
+  }
+
+  /**
+   * Partition a range of the list around a median-of-three or ninther pivot.
+   * @param list The list containing the range to partition.
+   * @param leftIndex Left most boundary of the range.
+   * @param rightIndex Right most boundary of the range.
+   * @return The final index of the pivot element.
+   */
+  private int partition(List<T> list, int leftIndex, int rightIndex) {
+    // Choose the pivot and move it to the rightmost position, where it stays until the end.
+    int pivotIndex = listSorterHelper.choosePivotIndex(list, leftIndex, rightIndex);
+    listSorterHelper.swap(list, pivotIndex, rightIndex);
+    T pivot = list.get(rightIndex);
+
+    int left = leftIndex - 1;
+    int right = rightIndex;
+    while (true) {
+      // Find the first element on the left that does not belong before the pivot. The pivot
+      // itself stops this scan.
+      do {
+        left++;
+      } while (list.get(left).compareTo(pivot) < 0);
+
+      // Find the first element on the right that does not belong after the pivot.
+      do {
+        right--;
+      } while (right > leftIndex && pivot.compareTo(list.get(right)) < 0);
+
+      if (left >= right) {
+        break;
+      }
+      listSorterHelper.swap(list, left, right);
+    }
+
+    // Move the pivot into its final position.
+    listSorterHelper.swap(list, left, rightIndex);
+    return left;
+  }
+}
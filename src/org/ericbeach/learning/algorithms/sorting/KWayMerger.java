@@ -0,0 +1,183 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Merges any number of sorted Iterators into a single sorted Iterator.
+ *
+ * {@link MergesortListSorter} merges two lists at a time. Merging k inputs that way, or by
+ * scanning the heads of all k inputs for the smallest, costs up to k comparisons per element.
+ * This merger instead keeps the heads of the inputs in a "loser tree" (a tournament tree):
+ * 1. Each input is a leaf. Every internal node holds the loser of the match played between the
+ * winners of its two subtrees, and the overall winner, the smallest head, is kept above the
+ * root.
+ * 2. Taking the winner advances its input. The new head only has to replay the matches on the
+ * path from its own leaf to the root, against the losers stored there, so each element costs
+ * about log2(k) comparisons.
+ * Compared with a binary heap, a replay compares against a single stored loser at each level
+ * rather than against both children, which halves the comparisons.
+ *
+ * The merge is lazy: only the head of each input is held, and inputs are read only when their
+ * head is taken. Equal elements are returned in the order of the inputs they came from, so
+ * merging the runs of a stable sort in order keeps it stable. Optionally, elements equal to the
+ * previously returned element are skipped, in which case the first of each group of equal
+ * elements is returned.
+ *
+ * @param <T> Generic type.
+ */
+public class KWayMerger <T extends Comparable<? super T>> implements Iterator<T> {
+  private final List<Iterator<? extends T>> inputs;
+  private final boolean deduplicate;
+
+  /**
+   * The current head of every input, or null once the input is exhausted.
+   */
+  private final List<T> heads;
+
+  /**
+   * The loser tree. Index 0 holds the index of the winning input, index 1 is the root and the
+   * children of node n are nodes 2n and 2n + 1. Input i plays at the (virtual) leaf k + i.
+   */
+  private final int[] tree;
+
+  /**
+   * Whether each input has run out of elements. An exhausted input loses every match.
+   */
+  private final boolean[] exhausted;
+
+  /**
+   * Create a merger that returns every element of the inputs.
+   * @param inputs The sorted inputs. They are read from, and must not be used by the caller
+   *     while merging.
+   */
+  public KWayMerger(List<? extends Iterator<? extends T>> inputs) {
+    this(inputs, false);
+  }
+
+  /**
+   * Create a merger.
+   * @param inputs The sorted inputs. They are read from, and must not be used by the caller
+   *     while merging.
+   * @param deduplicate Whether to skip elements equal to the previously returned element.
+   */
+  public KWayMerger(List<? extends Iterator<? extends T>> inputs, boolean deduplicate) {
+    if (inputs == null) {
+      throw new NullPointerException("inputs");
+    }
+    this.inputs = new ArrayList<Iterator<? extends T>>(inputs);
+    this.deduplicate = deduplicate;
+
+    int k = this.inputs.size();
+    heads = new ArrayList<T>(k);
+    exhausted = new boolean[k];
+    for (int i = 0; i < k; i++) {
+      heads.add(null);
+      advance(i);
+    }
+    tree = new int[Math.max(k, 1)];
+    if (k > 0) {
+      buildTree();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !inputs.isEmpty() && !exhausted[tree[0]];
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T result = heads.get(tree[0]);
+    replayFrom(tree[0]);
+    if (deduplicate) {
+      while (hasNext() && heads.get(tree[0]).compareTo(result) == 0) {
+        replayFrom(tree[0]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Play every match of the tournament from the leaves up, storing the loser at each node.
+   */
+  private void buildTree() {
+    int k = inputs.size();
+    // winners[n] is the input that won the subtree rooted at node n.
+    int[] winners = new int[2 * k];
+    for (int i = 0; i < k; i++) {
+      winners[k + i] = i;
+    }
+    for (int node = k - 1; node >= 1; node--) {
+      int left = winners[2 * node];
+      int right = winners[(2 * node) + 1];
+      if (beats(left, right)) {
+        winners[node] = left;
+        tree[node] = right;
+      } else {
+        winners[node] = right;
+        tree[node] = left;
+      }
+    }
+    tree[0] = winners[1];
+  }
+
+  /**
+   * Advance an input and replay its matches on the path from its leaf to the root.
+   * @param input The index of the input whose head was taken.
+   */
+  private void replayFrom(int input) {
+    advance(input);
+    int winner = input;
+    for (int node = (inputs.size() + input) / 2; node >= 1; node /= 2) {
+      if (beats(tree[node], winner)) {
+        int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  /**
+   * Read the next head of an input, marking the input as exhausted if there is none.
+   * @param input The index of the input.
+   */
+  private void advance(int input) {
+    Iterator<? extends T> iterator = inputs.get(input);
+    if (iterator.hasNext()) {
+      heads.set(input, iterator.next());
+    } else {
+      heads.set(input, null);
+      exhausted[input] = true;
+    }
+  }
+
+  /**
+   * Decide whether the head of one input wins its match against the head of another. Ties go
+   * to the input with the lower index, which is what makes the merge stable.
+   * @param first The index of the first input.
+   * @param second The index of the second input.
+   * @return True if the first input's head should be returned before the second's.
+   */
+  private boolean beats(int first, int second) {
+    if (exhausted[first]) {
+      return false;
+    }
+    if (exhausted[second]) {
+      return true;
+    }
+    int comparison = heads.get(first).compareTo(heads.get(second));
+    return comparison < 0 || (comparison == 0 && first < second);
+  }
+}
@@ -0,0 +1,137 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Function;
+
+/**
+ * Sorts a List by a key extracted from each element, extracting every key exactly once.
+ *
+ * The other sorters call compareTo on the elements themselves, so when computing the ordering
+ * of two elements does real work (parsing, normalizing, walking a composite object), that work
+ * is repeated for every one of the n * log(n) comparisons. This sorter uses the
+ * "decorate-sort-undecorate" idiom (also known as the Schwartzian transform) instead:
+ * 1. Decorate - Extract the key of every element once and pair it with the element's index.
+ * 2. Sort - Sort the (key, index) pairs with any {@link ListSorter}. Only the cached keys are
+ * compared, and pairs with equal keys are ordered by index, so the result is stable even if
+ * the sorter used is not.
+ * 3. Undecorate - Read the indices off the sorted pairs and write the elements back into the
+ * list in that order in a single pass.
+ *
+ * When the key is a primitive long, {@link LongKeyedListSorter} avoids the pairs altogether.
+ *
+ * @param <T> Generic type of the elements.
+ * @param <K> Generic type of the keys.
+ */
+public class KeyedListSorter <T, K extends Comparable<? super K>> implements ListSorter<T> {
+  private final Function<? super T, ? extends K> keyExtractor;
+  private final ListSorter<KeyedIndex<K>> indexSorter;
+
+  /**
+   * Create a sorter that sorts the keys with {@link AdaptiveMergesortListSorter}.
+   * @param keyExtractor The function that computes the key of an element.
+   */
+  public KeyedListSorter(Function<? super T, ? extends K> keyExtractor) {
+    this(keyExtractor, new AdaptiveMergesortListSorter<KeyedIndex<K>>());
+  }
+
+  /**
+   * Create a sorter that sorts the keys with the supplied sorter.
+   * @param keyExtractor The function that computes the key of an element.
+   * @param indexSorter The sorter used to sort the (key, index) pairs.
+   */
+  public KeyedListSorter(Function<? super T, ? extends K> keyExtractor,
+      ListSorter<KeyedIndex<K>> indexSorter) {
+    if (keyExtractor == null) {
+      throw new NullPointerException("keyExtractor");
+    }
+    if (indexSorter == null) {
+      throw new NullPointerException("indexSorter");
+    }
+    this.keyExtractor = keyExtractor;
+    this.indexSorter = indexSorter;
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+
+    // Step 1: Extract every key exactly once.
+    List<KeyedIndex<K>> keyedIndices = new ArrayList<KeyedIndex<K>>(list.size());
+    int index = 0;
+    for (T element : list) {
+      keyedIndices.add(new KeyedIndex<K>(keyExtractor.apply(element), index++));
+    }
+
+    // Step 2: Sort the keys, carrying the indices along.
+    keyedIndices = indexSorter.sort(keyedIndices);
+
+    // Step 3: Apply the permutation to the list.
+    int[] permutation = new int[keyedIndices.size()];
+    index = 0;
+    for (KeyedIndex<K> keyedIndex : keyedIndices) {
+      permutation[index++] = keyedIndex.index;
+    }
+    applyPermutation(list, permutation);
+    return list;
+  }
+
+  /**
+   * Reorder a list so that its i-th element becomes the element that was at permutation[i].
+   * @param list The list to reorder.
+   * @param permutation The original index of each element in its new position.
+   * @param <T> Generic type.
+   */
+  static <T> void applyPermutation(List<T> list, int[] permutation) {
+    Object[] elements = list.toArray();
+    ListIterator<T> iterator = list.listIterator();
+    for (int originalIndex : permutation) {
+      iterator.next();
+      @SuppressWarnings("unchecked")
+      T element = (T) elements[originalIndex];
+      iterator.set(element);
+    }
+  }
+
+  /**
+   * A cached key together with the index of the element it was extracted from. Keys are
+   * compared first and indices break ties.
+   * @param <K> Generic type of the key.
+   */
+  public static final class KeyedIndex <K extends Comparable<? super K>>
+      implements Comparable<KeyedIndex<K>> {
+    private final K key;
+    private final int index;
+
+    KeyedIndex(K key, int index) {
+      this.key = key;
+      this.index = index;
+    }
+
+    /**
+     * @return The cached key.
+     */
+    public K getKey() {
+      return key;
+    }
+
+    /**
+     * @return The index of the element the key was extracted from.
+     */
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public int compareTo(KeyedIndex<K> other) {
+      int comparison = key.compareTo(other.key);
+      if (comparison != 0) {
+        return comparison;
+      }
+      return (index < other.index) ? -1 : ((index == other.index) ? 0 : 1);
+    }
+  }
+}
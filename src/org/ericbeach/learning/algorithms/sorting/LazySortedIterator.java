@@ -0,0 +1,139 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the elements of a list in sorted order, sorting only as much of the list as has
+ * been read.
+ *
+ * Callers often sort a large list only to read the first page of it. This iterator performs an
+ * incremental quicksort instead, which does just enough partitioning to produce the next element
+ * each time next() is called:
+ * 1. A stack holds the runs of pivots that are already in their final place, with the first run
+ * on top. Everything between the next position to be returned and the run on top of the stack
+ * is smaller than that run's pivot, but not yet in order.
+ * 2. While that unsorted range is larger than a sorting network, it is partitioned three ways
+ * with the same partitioning and pivot choice as {@link MultiwayQuicksortListSorter}: the
+ * median of three, or for large ranges Tukey's ninther. The run of elements equal to the pivot,
+ * which is closer to the front, is pushed.
+ * 3. Once the range is small enough it is sorted with a {@link SortingNetwork}. Its elements and
+ * the run after it are now final and are returned one by one without further work.
+ *
+ * The larger ranges left behind on the stack are never touched until the iterator reaches them.
+ * Reading the first k of n elements therefore costs O(n + k log k) on average rather than the
+ * O(n log n) of sorting the whole list, and reading all of them costs the same as quicksort.
+ * Because every copy of the pivot becomes final in the same partition, many copies of one value
+ * make the iteration cheaper rather than quadratic.
+ *
+ * The iterator works on its own copy of the list, so the list passed in is never changed. The
+ * sort is not stable.
+ *
+ * @param <T> Generic type.
+ */
+public class LazySortedIterator <T extends Comparable<? super T>> implements Iterator<T> {
+  private final ListSorterHelper<T> listSorterHelper;
+  private final List<T> list;
+
+  /**
+   * The runs of pivots in their final place, with the first at the top. Each run is the index
+   * of its first element in runStartStack and the index one past its last element in
+   * runEndStack. The bottom entry is an empty run at the size of the list, standing for a pivot
+   * just past the end.
+   */
+  private int[] runStartStack;
+  private int[] runEndStack;
+  private int runStackSize;
+
+  /**
+   * The position of the next element to return.
+   */
+  private int nextIndex;
+
+  /**
+   * The elements before this position are in their final place.
+   */
+  private int sortedEndIndex;
+
+  /**
+   * Create an iterator over the elements of a list in sorted order.
+   * @param list The list, which is copied and left unchanged.
+   */
+  public LazySortedIterator(List<T> list) {
+    listSorterHelper = new ListSorterHelper<T>();
+    this.list = new ArrayList<T>(list);
+    runStartStack = new int[16];
+    runEndStack = new int[16];
+    push(this.list.size(), this.list.size());
+  }
+
+  @Override
+  public boolean hasNext() {
+    return nextIndex < list.size();
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    if (nextIndex >= sortedEndIndex) {
+      sortNextRange();
+    }
+    return list.get(nextIndex++);
+  }
+
+  /**
+   * Return a sequential stream over the elements this iterator has not returned yet. The
+   * stream reports itself as sorted, and pulls elements from the iterator only as they are
+   * consumed, so a stream cut short with limit() sorts no more than it has to.
+   * @return The stream.
+   */
+  public Stream<T> stream() {
+    Spliterator<T> spliterator = Spliterators.spliterator(this, list.size() - nextIndex,
+        Spliterator.ORDERED | Spliterator.SORTED);
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  /**
+   * Partition the list from the next position until the unsorted range in front of the run on
+   * top of the stack is small, then sort that range so that it and the run are final.
+   */
+  private void sortNextRange() {
+    int runStart = runStartStack[runStackSize - 1];
+    int runEnd = runEndStack[runStackSize - 1];
+    while (runStart - nextIndex > SortingNetwork.MAX_SIZE) {
+      T pivot = list.get(listSorterHelper.choosePivotIndex(list, nextIndex, runStart - 1));
+      int[] equalRun = listSorterHelper.partitionThreeWay(list, nextIndex, runStart - 1, pivot);
+      runStart = equalRun[0];
+      runEnd = equalRun[1] + 1;
+      push(runStart, runEnd);
+    }
+
+    SortingNetwork.forSize(runStart - nextIndex).sort(list, nextIndex);
+    runStackSize--;
+    sortedEndIndex = runEnd;
+  }
+
+  /**
+   * Push a run of pivots onto the stack, growing it if needed.
+   * @param runStart The index of the first element of the run.
+   * @param runEnd The index one past the last element of the run.
+   */
+  private void push(int runStart, int runEnd) {
+    if (runStackSize == runStartStack.length) {
+      runStartStack = Arrays.copyOf(runStartStack, runStackSize * 2);
+      runEndStack = Arrays.copyOf(runEndStack, runStackSize * 2);
+    }
+    runStartStack[runStackSize] = runStart;
+    runEndStack[runStackSize] = runEnd;
+    runStackSize++;
+  }
+}
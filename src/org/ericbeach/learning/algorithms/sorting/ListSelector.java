@@ -0,0 +1,162 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+
+/**
+ * Finds the n-th smallest element of a List, or its k smallest elements, without sorting the
+ * whole list.
+ *
+ * Selection uses introselect, the selection counterpart of {@link IntrosortListSorter}:
+ * 1. Quickselect - Partition the range around a median-of-three pivot into elements smaller
+ * than, equal to and larger than the pivot, exactly as a quick sort would. The wanted position
+ * falls into only one of the three parts, so only that part is looked at again. On average the
+ * ranges shrink geometrically and the total work is linear.
+ * 2. Depth limit - Every partition uses up one level of a budget of 2 * log2(n). If the budget
+ * runs out, the pivots have been consistently poor and the pivot is instead chosen with Blum,
+ * Floyd, Pratt, Rivest and Tarjan's "median of medians": sort groups of five, gather the
+ * medians of the groups and select the median of those recursively. That pivot is guaranteed
+ * to have at least 30% of the range on either side of it, so the remaining work is linear in
+ * the worst case too.
+ * 3. Small ranges - Ranges of 16 or fewer elements are finished with insertion sort.
+ * Partitioning into three parts means that lists with many duplicates cannot make the search
+ * stall on a run of elements equal to the pivot.
+ *
+ * Partial sorting selects the k-th smallest element, which leaves the k smallest elements in
+ * front of it in some order, and then sorts only those k elements with introsort.
+ *
+ * @param <T> Generic type.
+ */
+public class ListSelector <T extends Comparable<? super T>> {
+  /**
+   * Ranges of this size or smaller are sorted with insertion sort rather than partitioned.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  /**
+   * The size of the groups whose medians are gathered by the median of medians.
+   */
+  private static final int GROUP_SIZE = 5;
+
+  private final ListSorterHelper<T> listSorterHelper;
+  private final InsertionsortListSorter<T> insertionsortListSorter;
+  private final IntrosortListSorter<T> introsortListSorter;
+
+  public ListSelector() {
+    listSorterHelper = new ListSorterHelper<T>();
+    insertionsortListSorter = new InsertionsortListSorter<T>();
+    introsortListSorter = new IntrosortListSorter<T>();
+  }
+
+  /**
+   * Find the element that would be at index n if the list were sorted. The list is rearranged
+   * so that this element is at index n, every element before it is less than or equal to it
+   * and every element after it is greater than or equal to it.
+   * @param list The list to select from.
+   * @param n The index in sorted order of the element to find.
+   * @return The n-th smallest element, counting from 0.
+   */
+  public T select(List<T> list, int n) {
+    if (n < 0 || n >= list.size()) {
+      throw new IndexOutOfBoundsException("n: " + n + ", size: " + list.size());
+    }
+    List<T> staged = listSorterHelper.stage(list);
+    selectInStaged(staged, n);
+    listSorterHelper.unstage(staged, list);
+    return staged.get(n);
+  }
+
+  /**
+   * Rearrange a list so that its first k elements are its k smallest elements in sorted order.
+   * The order of the remaining elements is unspecified.
+   * @param list The list to partially sort.
+   * @param k The number of smallest elements to sort, between 0 and the size of the list.
+   * @return The same list, with its first k elements sorted.
+   */
+  public List<T> partialSort(List<T> list, int k) {
+    if (k < 0 || k > list.size()) {
+      throw new IndexOutOfBoundsException("k: " + k + ", size: " + list.size());
+    }
+    if (k == 0) {
+      return list;
+    }
+    // The k-th smallest element ends up in its final position with the rest of the k smallest
+    // in front of it, so only those are left to sort.
+    List<T> staged = listSorterHelper.stage(list);
+    selectInStaged(staged, k - 1);
+    introsortListSorter.introSort(staged, 0, k - 2);
+    listSorterHelper.unstage(staged, list);
+    return list;
+  }
+
+  /**
+   * Perform introselect on a whole list that supports fast random access.
+   * @param list The list, as returned by {@link ListSorterHelper#stage(List)}.
+   * @param n The index in sorted order of the element to find.
+   */
+  private void selectInStaged(List<T> list, int n) {
+    int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(list.size()));
+    select(list, 0, list.size() - 1, n, depthLimit);
+  }
+
+  /**
+   * Perform introselect on a range of a list.
+   * See the class comments for details on how introselect works.
+   * @param list List containing the range.
+   * @param startIndex Left most boundary of the range.
+   * @param endIndex Right most boundary of the range.
+   * @param n The index that must end up holding the right element; within the range.
+   * @param depthLimit The number of partitions around a cheap pivot that may still be made
+   *     before switching to the median of medians.
+   */
+  private void select(List<T> list, int startIndex, int endIndex, int n, int depthLimit) {
+    while (endIndex - startIndex >= INSERTION_SORT_THRESHOLD) {
+      int pivotIndex;
+      if (depthLimit == 0) {
+        pivotIndex = medianOfMedians(list, startIndex, endIndex);
+      } else {
+        depthLimit--;
+        pivotIndex = listSorterHelper.medianOfThree(list, startIndex,
+            startIndex + ((endIndex - startIndex) / 2), endIndex);
+      }
+      int[] equalRun =
+          listSorterHelper.partitionThreeWay(list, startIndex, endIndex, list.get(pivotIndex));
+      int lessEnd = equalRun[0];
+      int greaterStart = equalRun[1];
+
+      // Carry on in whichever part holds index n. If it is among the elements equal to the
+      // pivot, it already holds the right element.
+      if (n < lessEnd) {
+        endIndex = lessEnd - 1;
+      } else if (n > greaterStart) {
+        startIndex = greaterStart + 1;
+      } else {
+        return;
+      }
+    }
+    insertionsortListSorter.insertionSort(list, startIndex, endIndex);
+  }
+
+  /**
+   * Find a pivot that is guaranteed to split a range reasonably evenly by taking the median of
+   * the medians of groups of five elements. The medians are gathered at the start of the range.
+   * @param list List containing the range.
+   * @param startIndex Left most boundary of the range.
+   * @param endIndex Right most boundary of the range.
+   * @return The index of the pivot.
+   */
+  private int medianOfMedians(List<T> list, int startIndex, int endIndex) {
+    int medianCount = 0;
+    for (int groupStart = startIndex; groupStart <= endIndex; groupStart += GROUP_SIZE) {
+      int groupEnd = Math.min(groupStart + GROUP_SIZE - 1, endIndex);
+      insertionsortListSorter.insertionSort(list, groupStart, groupEnd);
+      listSorterHelper.swap(list, startIndex + medianCount,
+          groupStart + ((groupEnd - groupStart) / 2));
+      medianCount++;
+    }
+
+    // Select the median of the medians, again without relying on lucky pivots.
+    int middle = startIndex + ((medianCount - 1) / 2);
+    select(list, startIndex, startIndex + medianCount - 1, middle, 0);
+    return middle;
+  }
+}
@@ -0,0 +1,13 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Interface for all classes that create list sorters for any element type.
+ */
+public interface ListSorterFactory {
+  /**
+   * Create a sorter for lists of the given element type.
+   * @param <T> Generic type.
+   * @return A new sorter.
+   */
+  public <T extends Comparable<? super T>> ListSorter<T> create();
+}
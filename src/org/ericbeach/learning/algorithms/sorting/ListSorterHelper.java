@@ -1,12 +1,20 @@
 package org.ericbeach.learning.algorithms.sorting;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
 
 /**
  * Helper class to provide common methods for sorting a list.
  * @param <T>
  */
 public class ListSorterHelper<T extends Comparable<? super T>> {
+  /**
+   * Ranges larger than this use the ninther rather than the median of three as the pivot.
+   */
+  private static final int NINTHER_THRESHOLD = 40;
+
   /**
    * Swap two elements in a list.
    * @param list The list from which the two elements will be swapped.
@@ -18,4 +26,118 @@ public class ListSorterHelper<T extends Comparable<? super T>> {
     list.set(leftPos, list.get(rightPos));
     list.set(rightPos, temp);
   }
+
+  /**
+   * Choose the index of the pivot for a range: the median of three for small ranges and the
+   * ninther for large ones.
+   * @param list The list containing the range.
+   * @param leftIndex Left most boundary of the range.
+   * @param rightIndex Right most boundary of the range.
+   * @return The index of the chosen pivot.
+   */
+  public int choosePivotIndex(List<T> list, int leftIndex, int rightIndex) {
+    int middleIndex = leftIndex + ((rightIndex - leftIndex) / 2);
+    if (rightIndex - leftIndex + 1 <= NINTHER_THRESHOLD) {
+      return medianOfThree(list, leftIndex, middleIndex, rightIndex);
+    }
+
+    int eighth = (rightIndex - leftIndex + 1) / 8;
+    int lowMedian = medianOfThree(list, leftIndex, leftIndex + eighth, leftIndex + (2 * eighth));
+    int middleMedian = medianOfThree(list, middleIndex - eighth, middleIndex,
+        middleIndex + eighth);
+    int highMedian = medianOfThree(list, rightIndex - (2 * eighth), rightIndex - eighth,
+        rightIndex);
+    return medianOfThree(list, lowMedian, middleMedian, highMedian);
+  }
+
+  /**
+   * Return the index of the median of three elements of a list.
+   * @param list The list containing the elements.
+   * @param first The index of the first element.
+   * @param second The index of the second element.
+   * @param third The index of the third element.
+   * @return The index of whichever element is the median.
+   */
+  public int medianOfThree(List<T> list, int first, int second, int third) {
+    T firstValue = list.get(first);
+    T secondValue = list.get(second);
+    T thirdValue = list.get(third);
+    if (firstValue.compareTo(secondValue) < 0) {
+      if (secondValue.compareTo(thirdValue) < 0) {
+        return second;
+      }
+      return firstValue.compareTo(thirdValue) < 0 ? third : first;
+    }
+    if (firstValue.compareTo(thirdValue) < 0) {
+      return first;
+    }
+    return secondValue.compareTo(thirdValue) < 0 ? third : second;
+  }
+
+  /**
+   * Partition a range of a list three ways (Dijkstra's "Dutch national flag"): elements smaller
+   * than the pivot to the left, elements equal to it in the middle and elements larger than it
+   * to the right. The middle run is then in its final position.
+   * @param list The list containing the range.
+   * @param startIndex Left most boundary of the range.
+   * @param endIndex Right most boundary of the range.
+   * @param pivot The value to partition around, which must be in the range.
+   * @return The first and last index of the run equal to the pivot.
+   */
+  int[] partitionThreeWay(List<T> list, int startIndex, int endIndex, T pivot) {
+    // Invariant: [startIndex, lessEnd) < pivot, [lessEnd, current) == pivot,
+    // [current, greaterStart] is unexamined and (greaterStart, endIndex] > pivot.
+    int lessEnd = startIndex;
+    int current = startIndex;
+    int greaterStart = endIndex;
+    while (current <= greaterStart) {
+      int comparison = list.get(current).compareTo(pivot);
+      if (comparison < 0) {
+        swap(list, lessEnd++, current++);
+      } else if (comparison > 0) {
+        swap(list, current, greaterStart--);
+      } else {
+        current++;
+      }
+    }
+    return new int[] {lessEnd, greaterStart};
+  }
+
+  /**
+   * Return a list with fast random access holding the same elements as the supplied list, for
+   * a sorter to work on in place of it.
+   *
+   * The sorters read and write elements by index, which takes constant time on an ArrayList
+   * but linear time on a LinkedList, turning even an O(n log n) sort quadratic. A list that
+   * implements {@link RandomAccess} is returned as is. Any other list is copied into an array
+   * in a single pass and a fixed-size list view of that array is returned instead; once the
+   * sort is done, {@link #unstage(List, List)} copies the result back.
+   * @param list The list that is about to be sorted.
+   * @return The list itself if it supports fast random access, or else an array-backed copy.
+   */
+  public List<T> stage(List<T> list) {
+    if (list instanceof RandomAccess) {
+      return list;
+    }
+    @SuppressWarnings("unchecked")
+    T[] elements = (T[]) list.toArray(new Comparable<?>[list.size()]);
+    return Arrays.asList(elements);
+  }
+
+  /**
+   * Copy the elements of a list returned by {@link #stage(List)} back into the original list in
+   * a single pass, if staging made a copy.
+   * @param staged The list returned by stage.
+   * @param list The list that was passed to stage.
+   */
+  public void unstage(List<T> staged, List<T> list) {
+    if (staged == list) {
+      return;
+    }
+    ListIterator<T> iterator = list.listIterator();
+    for (T element : staged) {
+      iterator.next();
+      iterator.set(element);
+    }
+  }
 }
@@ -0,0 +1,26 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Interface for all classes that sort an array of primitive longs in place.
+ *
+ * This is the primitive counterpart to {@link ListSorter}. Sorting a long[] directly avoids
+ * boxing every element and the get/set indirection of a List.
+ */
+public interface LongArraySorter {
+  /**
+   * Sort an entire array of longs.
+   * @param array Array of longs to be sorted.
+   * @return The same array, now sorted.
+   */
+  public long[] sort(long[] array);
+
+  /**
+   * Sort the range of an array from fromIndex (inclusive) to toIndex (exclusive). Elements
+   * outside of the range are left untouched.
+   * @param array Array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   * @return The same array, with the range now sorted.
+   */
+  public long[] sort(long[] array, int fromIndex, int toIndex);
+}
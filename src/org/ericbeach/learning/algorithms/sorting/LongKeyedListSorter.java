@@ -0,0 +1,53 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorts a List by a primitive long key extracted from each element, extracting every key
+ * exactly once.
+ *
+ * This is the primitive counterpart of {@link KeyedListSorter}. Many keys boil down to a long
+ * (timestamps in milliseconds, IDs, fixed-point amounts), and then no (key, index) objects are
+ * needed at all:
+ * 1. Extract every key once into a long[].
+ * 2. Radix sort the keys with {@link RadixArraySorter#sortIndices(long[])}, which never calls
+ * compareTo and yields the order of the original indices. Passes over bytes that all keys share
+ * are skipped, so keys drawn from a narrow range are cheap.
+ * 3. Write the elements back into the list in that order in a single pass.
+ *
+ * The sort is stable.
+ *
+ * @param <T> Generic type.
+ */
+public class LongKeyedListSorter <T> implements ListSorter<T> {
+  private final ToLongFunction<? super T> keyExtractor;
+  private final RadixArraySorter radixArraySorter;
+
+  /**
+   * Create a sorter.
+   * @param keyExtractor The function that computes the key of an element.
+   */
+  public LongKeyedListSorter(ToLongFunction<? super T> keyExtractor) {
+    if (keyExtractor == null) {
+      throw new NullPointerException("keyExtractor");
+    }
+    this.keyExtractor = keyExtractor;
+    radixArraySorter = new RadixArraySorter();
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+
+    long[] keys = new long[list.size()];
+    int index = 0;
+    for (T element : list) {
+      keys[index++] = keyExtractor.applyAsLong(element);
+    }
+    KeyedListSorter.applyPermutation(list, radixArraySorter.sortIndices(keys));
+    return list;
+  }
+}
@@ -0,0 +1,252 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Performs Merge sort on arrays of primitive ints, longs and doubles.
+ *
+ * The divide and merge phases are the same as in {@link MergesortListSorter}, but the sort
+ * works on the array in place and uses a single scratch array, allocated once per call and
+ * sized to half of the range, for every merge. During a merge only the left half is copied
+ * into the scratch array; the right half is read directly from the array since the merged
+ * output can never overtake it.
+ *
+ * Two further shortcuts are taken:
+ * 1. Ranges of at most {@link SortingNetwork#MAX_SIZE} elements are sorted with a
+ * {@link SortingNetwork} rather than split all the way down to one element. Equal primitives
+ * cannot be told apart, so the network does not affect stability.
+ * 2. If the last element of the left half is no larger than the first element of the right
+ * half, the two halves are already in order and the merge is skipped.
+ *
+ * The sort is stable.
+ */
+public class MergesortArraySorter implements IntArraySorter, LongArraySorter, DoubleArraySorter {
+  private final ArraySorterHelper arraySorterHelper;
+
+  public MergesortArraySorter() {
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size <= SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(size).sort(array, fromIndex);
+      return array;
+    }
+    int[] scratch = new int[(size + 1) / 2];
+    mergeSort(array, scratch, fromIndex, toIndex - 1);
+    return array;
+  }
+
+  /**
+   * Sort the range of an array between two indices using the merge sort algorithm.
+   * @param array The array to be sorted.
+   * @param scratch Scratch space large enough to hold the left half of the range.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   */
+  private void mergeSort(int[] array, int[] scratch, int startIndex, int endIndex) {
+    // BASE CASE: The range is small enough to be sorted directly.
+    if (endIndex - startIndex < SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+      return;
+    }
+
+    // RECURSIVE CASE: Sort each half, then merge the halves together.
+    int middleIndex = startIndex + ((endIndex - startIndex) / 2);
+    mergeSort(array, scratch, startIndex, middleIndex);
+    mergeSort(array, scratch, middleIndex + 1, endIndex);
+
+    // The halves are already in order relative to each other, so there is nothing to merge.
+    if (!(array[middleIndex + 1] < array[middleIndex])) {
+      return;
+    }
+    merge(array, scratch, startIndex, middleIndex, endIndex);
+  }
+
+  /**
+   * Merge the two adjacent, individually sorted ranges [startIndex, middleIndex] and
+   * [middleIndex + 1, endIndex] of an array.
+   * @param array The array containing both ranges.
+   * @param scratch Scratch space large enough to hold the left range.
+   * @param startIndex The first index of the left range.
+   * @param middleIndex The last index of the left range.
+   * @param endIndex The last index of the right range.
+   */
+  private void merge(int[] array, int[] scratch, int startIndex, int middleIndex,
+      int endIndex) {
+    int leftLength = middleIndex - startIndex + 1;
+    System.arraycopy(array, startIndex, scratch, 0, leftLength);
+
+    int leftIndex = 0;
+    int rightIndex = middleIndex + 1;
+    int mergedIndex = startIndex;
+    while (leftIndex < leftLength && rightIndex <= endIndex) {
+      // Take from the right only when strictly smaller so that equal elements keep their
+      // original order.
+      if (array[rightIndex] < scratch[leftIndex]) {
+        array[mergedIndex++] = array[rightIndex++];
+      } else {
+        array[mergedIndex++] = scratch[leftIndex++];
+      }
+    }
+
+    // Whatever remains of the right range is already in place; only the left needs copying.
+    System.arraycopy(scratch, leftIndex, array, mergedIndex, leftLength - leftIndex);
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size <= SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(size).sort(array, fromIndex);
+      return array;
+    }
+    long[] scratch = new long[(size + 1) / 2];
+    mergeSort(array, scratch, fromIndex, toIndex - 1);
+    return array;
+  }
+
+  /**
+   * Sort the range of an array between two indices using the merge sort algorithm.
+   * @param array The array to be sorted.
+   * @param scratch Scratch space large enough to hold the left half of the range.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   */
+  private void mergeSort(long[] array, long[] scratch, int startIndex, int endIndex) {
+    // BASE CASE: The range is small enough to be sorted directly.
+    if (endIndex - startIndex < SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+      return;
+    }
+
+    // RECURSIVE CASE: Sort each half, then merge the halves together.
+    int middleIndex = startIndex + ((endIndex - startIndex) / 2);
+    mergeSort(array, scratch, startIndex, middleIndex);
+    mergeSort(array, scratch, middleIndex + 1, endIndex);
+
+    // The halves are already in order relative to each other, so there is nothing to merge.
+    if (!(array[middleIndex + 1] < array[middleIndex])) {
+      return;
+    }
+    merge(array, scratch, startIndex, middleIndex, endIndex);
+  }
+
+  /**
+   * Merge the two adjacent, individually sorted ranges [startIndex, middleIndex] and
+   * [middleIndex + 1, endIndex] of an array.
+   * @param array The array containing both ranges.
+   * @param scratch Scratch space large enough to hold the left range.
+   * @param startIndex The first index of the left range.
+   * @param middleIndex The last index of the left range.
+   * @param endIndex The last index of the right range.
+   */
+  private void merge(long[] array, long[] scratch, int startIndex, int middleIndex,
+      int endIndex) {
+    int leftLength = middleIndex - startIndex + 1;
+    System.arraycopy(array, startIndex, scratch, 0, leftLength);
+
+    int leftIndex = 0;
+    int rightIndex = middleIndex + 1;
+    int mergedIndex = startIndex;
+    while (leftIndex < leftLength && rightIndex <= endIndex) {
+      // Take from the right only when strictly smaller so that equal elements keep their
+      // original order.
+      if (array[rightIndex] < scratch[leftIndex]) {
+        array[mergedIndex++] = array[rightIndex++];
+      } else {
+        array[mergedIndex++] = scratch[leftIndex++];
+      }
+    }
+
+    // Whatever remains of the right range is already in place; only the left needs copying.
+    System.arraycopy(scratch, leftIndex, array, mergedIndex, leftLength - leftIndex);
+  }
+
+  @Override
+  public double[] sort(double[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public double[] sort(double[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size <= SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(size).sort(array, fromIndex);
+      return array;
+    }
+    double[] scratch = new double[(size + 1) / 2];
+    mergeSort(array, scratch, fromIndex, toIndex - 1);
+    return array;
+  }
+
+  /**
+   * Sort the range of an array between two indices using the merge sort algorithm.
+   * @param array The array to be sorted.
+   * @param scratch Scratch space large enough to hold the left half of the range.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   */
+  private void mergeSort(double[] array, double[] scratch, int startIndex, int endIndex) {
+    // BASE CASE: The range is small enough to be sorted directly.
+    if (endIndex - startIndex < SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+      return;
+    }
+
+    // RECURSIVE CASE: Sort each half, then merge the halves together.
+    int middleIndex = startIndex + ((endIndex - startIndex) / 2);
+    mergeSort(array, scratch, startIndex, middleIndex);
+    mergeSort(array, scratch, middleIndex + 1, endIndex);
+
+    // The halves are already in order relative to each other, so there is nothing to merge.
+    if (!(arraySorterHelper.isLess(array[middleIndex + 1], array[middleIndex]))) {
+      return;
+    }
+    merge(array, scratch, startIndex, middleIndex, endIndex);
+  }
+
+  /**
+   * Merge the two adjacent, individually sorted ranges [startIndex, middleIndex] and
+   * [middleIndex + 1, endIndex] of an array.
+   * @param array The array containing both ranges.
+   * @param scratch Scratch space large enough to hold the left range.
+   * @param startIndex The first index of the left range.
+   * @param middleIndex The last index of the left range.
+   * @param endIndex The last index of the right range.
+   */
+  private void merge(double[] array, double[] scratch, int startIndex, int middleIndex,
+      int endIndex) {
+    int leftLength = middleIndex - startIndex + 1;
+    System.arraycopy(array, startIndex, scratch, 0, leftLength);
+
+    int leftIndex = 0;
+    int rightIndex = middleIndex + 1;
+    int mergedIndex = startIndex;
+    while (leftIndex < leftLength && rightIndex <= endIndex) {
+      // Take from the right only when strictly smaller so that equal elements keep their
+      // original order.
+      if (arraySorterHelper.isLess(array[rightIndex], scratch[leftIndex])) {
+        array[mergedIndex++] = array[rightIndex++];
+      } else {
+        array[mergedIndex++] = scratch[leftIndex++];
+      }
+    }
+
+    // Whatever remains of the right range is already in place; only the left needs copying.
+    System.arraycopy(scratch, leftIndex, array, mergedIndex, leftLength - leftIndex);
+  }
+}
@@ -24,102 +24,101 @@ import java.util.List;
  * [2, 6],   [1, 5],   [4, 6],   [2, 3]
  * [1, 2, 5, 6],       [2, 3, 4, 6]
  * [1, 2, 2, 3, 4, 5, 6]
+ *
+ * In practice the divide phase stops at sublists of {@link SortingNetwork#MAX_SIZE} or fewer
+ * elements, which are sorted directly with a {@link SortingNetwork}. Ties in the network are
+ * broken by original position, so the sort stays stable.
+ *
+ * The sublists are ranges of a single copy of the list rather than lists of their own. Each
+ * range is sorted in place, and each merge copies the left range into the same slice of one
+ * auxiliary buffer and merges it with the right range back into the copy. The list passed in
+ * is left unchanged, and the sorted copy is returned.
  * @param <T> Generic type.
  */
 public class MergesortListSorter <T extends Comparable<? super T>> implements ListSorter<T> {
   
   @Override
   public List<T> sort(List<T> list) { 
-    List<T> sorted = mergeSort(list, 0, list.size() - 1);
+    List<T> sorted = new ArrayList<T>(list);
+    if (sorted.isEmpty()) {
+      return sorted;
+    }
+    List<T> buffer = new ArrayList<T>(sorted);
+    mergeSort(sorted, buffer, 0, sorted.size() - 1);
     return sorted;
   }
   
   /**
-   * Sort a list of elements between two indices using the merge sort algorithm.
+   * Sort a range of a list in place using the merge sort algorithm.
    * @param list The list of items to be sorted.
+   * @param buffer The auxiliary buffer, the same size as the list.
    * @param startIndex The first index of the list to be sorted.
    * @param endIndex The last index of the list to be sorted.
-   * @return List sorted via the merge sort algorithm.
    */
-  private List<T> mergeSort(List<T> list, int startIndex, int endIndex) {
-    // BASE CASE: There is only one element in list that is comprised from startIndex to endIndex,
-    // which means that this list is sorted. Since the one element list is sorted, we return
-    // a list containing only this element.
-    if (endIndex == startIndex) {
-      List<T> result = new ArrayList<T>();
-      result.add(list.get(startIndex));
-      return result;
+  private void mergeSort(List<T> list, List<T> buffer, int startIndex, int endIndex) {
+    // BASE CASE: The range is small enough to be sorted by a sorting network rather than
+    // divided any further. A single element is already sorted.
+    if (endIndex - startIndex < SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(endIndex - startIndex + 1).sortStably(list, startIndex);
+      return;
     }
 
-    // RECURSIVE CASE: There is more than one element in the list comprised from startIndex to
-    // endIndex, so divide the list in half and call merge sort on each half of the list.
-    // In other words, split the current list (formed from startIndex to endIndex) into half,
-    // thereby making two lists and sort each of those new lists with merge sort.
+    // RECURSIVE CASE: There is more than one element in the range from startIndex to endIndex,
+    // so divide the range in half and call merge sort on each half.
     int middleIndex = startIndex + ((endIndex - startIndex) / 2);
-    List<T> leftList = mergeSort(list, startIndex, middleIndex);
-    List<T> rightList = mergeSort(list, middleIndex + 1, endIndex);
+    mergeSort(list, buffer, startIndex, middleIndex);
+    mergeSort(list, buffer, middleIndex + 1, endIndex);
 
-    // Merge the left and right sublist, now sorted by merge sort, to get a larger list. Return
-    // that larger list and you're done.
+    // Merge the left and right halves, now sorted by merge sort, into one sorted range.
     // This is where the recursive magic happens.
-    // The sorted list is the merger of the left and right lists.
-    return merge(leftList, rightList);
+    merge(list, buffer, startIndex, middleIndex, endIndex);
   }
   
-  
   /**
-   * Merge two individually sorted lists together in order.
-   * A crucial assumption necessary for this method to work is that the supplied left and right
-   * lists are in-and-of themselves already sorted. In merge sort, we can assume this as you
-   * will never attempt to merge lists that are in-and-of themselves not sorted. The purpose
-   * of the merge is to merge two sorted lists.
+   * Merge the two adjacent, individually sorted ranges [startIndex, middleIndex] and
+   * [middleIndex + 1, endIndex] of a list together in order.
+   * A crucial assumption necessary for this method to work is that the two ranges are
+   * in-and-of themselves already sorted. In merge sort, we can assume this as you will never
+   * attempt to merge ranges that are in-and-of themselves not sorted.
    * 
-   * In other words, take in the following left and right list: 
+   * In other words, take in the following left and right ranges: 
    * [2, 6],   [1, 5]
-   * and return the following merged list:
+   * and leave the following merged range in their place:
    * [1, 2, 5, 6]
    * 
-   * @param leftList
-   * @param rightList
-   * @return
+   * @param list The list containing both ranges.
+   * @param buffer The auxiliary buffer. Only the slice [startIndex, middleIndex] is used.
+   * @param startIndex The first index of the left range.
+   * @param middleIndex The last index of the left range.
+   * @param endIndex The last index of the right range.
    */
-  private List<T> merge(List<T> leftList, List<T> rightList) {
-    // Create the list that will contain the result (i.e., merge) of the two lists.
-    List<T> mergedList = new ArrayList<T>();
+  private void merge(List<T> list, List<T> buffer, int startIndex, int middleIndex,
+      int endIndex) {
+    // Move the left range out of the way, so that merged elements can be written over it.
+    for (int i = startIndex; i <= middleIndex; i++) {
+      buffer.set(i, list.get(i));
+    }
 
-    // As long as either the left or the right list has items remaining in it that have not been
-    // merged, continue removing the elements in order and building up the merged list.
-    while (leftList.size() > 0 || rightList.size() > 0) {
-      // Case 1: Both lists have elements remaining.
-      if (leftList.size() > 0 && rightList.size() > 0) {
-        if (leftList.get(0).compareTo(rightList.get(0)) < 0) {
-          // Left list contains next smallest element, so remove it and add it to the merged list.
-          mergedList.add(leftList.remove(0));
-        } else {
-          // Right list contains next smallest element, so remove it and add it to the merged list.
-          mergedList.add(rightList.remove(0));
-        }
-        continue;
-      }
-      
-      // Case 2: Only the left list has elements remaining (we would not get to this point
-      // in the code if the rightList.size() > 0), so the next smallest elements must be in the
-      // left list.
-      if (leftList.size() > 0) {
-        // Remove the next element in the left list, which will be the next smallest element, and
-        // add it to the merged list.
-        mergedList.add(leftList.remove(0));
-        continue;
-      }
-      
-      // Case 3: Only the right list has elements remaining
-      if (rightList.size() > 0) {
-        // Remove the next element in the right list, which will be the next smallest element, and
-        // add it to the merged list.
-        mergedList.add(rightList.remove(0));
-        continue;
+    // Track the next unmerged element of each range and the next position to write to.
+    int leftIndex = startIndex;
+    int rightIndex = middleIndex + 1;
+    int mergedIndex = startIndex;
+
+    // As long as both ranges have elements remaining, take the smaller of their next elements.
+    while (leftIndex <= middleIndex && rightIndex <= endIndex) {
+      if (list.get(rightIndex).compareTo(buffer.get(leftIndex)) < 0) {
+        // Right range contains next smallest element.
+        list.set(mergedIndex++, list.get(rightIndex++));
+      } else {
+        // Left range contains next smallest element. Ties are taken from the left so that
+        // equal elements keep their original order.
+        list.set(mergedIndex++, buffer.get(leftIndex++));
       }
     }
-    return mergedList;
+
+    // Whatever remains of the right range is already in place; only the left needs copying.
+    while (leftIndex <= middleIndex) {
+      list.set(mergedIndex++, buffer.get(leftIndex++));
+    }
   }
 }
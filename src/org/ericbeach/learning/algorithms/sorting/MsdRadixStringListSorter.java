@@ -0,0 +1,277 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Performs a most significant digit (MSD) Radix sort on a list of Strings.
+ *
+ * Comparison sorts compare whole strings, so when many strings share a long prefix (URLs, file
+ * paths) the same prefix characters are compared over and over. An MSD radix sort instead looks
+ * at one digit of every string per level, partitions the strings into buckets by that digit and
+ * then sorts each bucket by the next digit. Characters before the current digit are never read
+ * again.
+ *
+ * The strings are ordered exactly as {@link String#compareTo(String)} orders them, which compares
+ * UTF-16 chars. To keep the number of buckets small, each char is split into two byte-sized
+ * digits (high byte first), giving 256 buckets per level plus one extra bucket, which sorts
+ * first, for strings that have already ended.
+ *
+ * Large buckets are partitioned in place with the "American flag" variant of MSD radix sort:
+ * 1. Read the digit of every string in the bucket once, caching it in an array, and count how
+ * many strings fall into each sub-bucket.
+ * 2. Turn the counts into the start and end of every sub-bucket.
+ * 3. Cycle strings into their sub-buckets with swaps, so no second array of strings is needed.
+ * 4. Recurse into every sub-bucket except the one for ended strings, which are all equal.
+ *
+ * Once a bucket becomes small, the per-level counting costs more than it saves, so the bucket
+ * is finished with Bentley and Sedgewick's multikey quicksort: a three-way quick sort on the
+ * char at the current depth, which moves on to the next char only for the strings that are
+ * equal to the pivot's char.
+ */
+public class MsdRadixStringListSorter implements ListSorter<String> {
+  /**
+   * Buckets of this size or smaller are sorted with multikey quicksort.
+   */
+  private static final int MULTIKEY_QUICKSORT_THRESHOLD = 32;
+
+  /**
+   * Ranges of this size or smaller are sorted with insertion sort by multikey quicksort.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 8;
+
+  /**
+   * The number of buckets per level: one for each byte value plus one for ended strings.
+   */
+  private static final int BUCKETS = 257;
+
+  /**
+   * Returned as the char at a position past the end of a string; sorts before every char.
+   */
+  private static final int END_OF_STRING = -1;
+
+  @Override
+  public List<String> sort(List<String> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+
+    String[] strings = list.toArray(new String[list.size()]);
+    int[] digits = new int[strings.length];
+    msdSort(strings, digits, 0, strings.length - 1, 0);
+
+    // Write the sorted strings back into the list.
+    ListIterator<String> iterator = list.listIterator();
+    for (String string : strings) {
+      iterator.next();
+      iterator.set(string);
+    }
+    return list;
+  }
+
+  /**
+   * Sort a range of strings that all share the same first digitIndex digits.
+   * @param strings The array of strings.
+   * @param digits Scratch space for caching the current digit of each string.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   * @param digitIndex The digit to partition on. Digit 2k is the high byte of char k and digit
+   *     2k + 1 is its low byte.
+   */
+  private void msdSort(String[] strings, int[] digits, int startIndex, int endIndex,
+      int digitIndex) {
+    if (endIndex - startIndex < MULTIKEY_QUICKSORT_THRESHOLD) {
+      // Strings in this range share their first digitIndex / 2 chars, and possibly the high
+      // byte of the next char, which multikey quicksort will simply find to be equal.
+      multikeyQuickSort(strings, startIndex, endIndex, digitIndex / 2);
+      return;
+    }
+
+    // Step 1: Read each string's digit once and count the size of each bucket. While every
+    // string shares the same digit there is nothing to partition, so move straight on to the
+    // next digit rather than recursing once per shared digit.
+    int size = endIndex - startIndex + 1;
+    int[] bucketEnds = new int[BUCKETS];
+    while (true) {
+      for (int i = startIndex; i <= endIndex; i++) {
+        int digit = digitAt(strings[i], digitIndex);
+        digits[i] = digit;
+        bucketEnds[digit]++;
+      }
+      int sharedDigit = digits[startIndex];
+      if (bucketEnds[sharedDigit] != size) {
+        break;
+      }
+      if (sharedDigit == 0) {
+        // Every string has ended, so they are all equal.
+        return;
+      }
+      bucketEnds[sharedDigit] = 0;
+      digitIndex++;
+    }
+
+    // Step 2: Turn the counts into the start and (exclusive) end of each bucket.
+    int[] bucketStarts = new int[BUCKETS];
+    int next = startIndex;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      bucketStarts[bucket] = next;
+      next += bucketEnds[bucket];
+      bucketEnds[bucket] = next;
+    }
+
+    // Step 3: Cycle each string into its bucket, tracking the next free slot of each bucket.
+    int[] nextFree = bucketStarts.clone();
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      while (nextFree[bucket] < bucketEnds[bucket]) {
+        int position = nextFree[bucket];
+        String string = strings[position];
+        int digit = digits[position];
+        // Keep swapping the string in hand into its own bucket until a string belonging to
+        // the current bucket turns up.
+        while (digit != bucket) {
+          int target = nextFree[digit]++;
+          String displaced = strings[target];
+          int displacedDigit = digits[target];
+          strings[target] = string;
+          digits[target] = digit;
+          string = displaced;
+          digit = displacedDigit;
+        }
+        strings[position] = string;
+        digits[position] = digit;
+        nextFree[bucket]++;
+      }
+    }
+
+    // Step 4: Sort each bucket by the next digit. Bucket 0 holds strings that have ended, which
+    // are all equal to each other.
+    for (int bucket = 1; bucket < BUCKETS; bucket++) {
+      if (bucketEnds[bucket] - bucketStarts[bucket] > 1) {
+        msdSort(strings, digits, bucketStarts[bucket], bucketEnds[bucket] - 1, digitIndex + 1);
+      }
+    }
+  }
+
+  /**
+   * Sort a range of strings that all share the same first depth chars with multikey
+   * quicksort.
+   * @param strings The array of strings.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   * @param depth The index of the char to partition on.
+   */
+  private void multikeyQuickSort(String[] strings, int startIndex, int endIndex, int depth) {
+    while (endIndex - startIndex >= INSERTION_SORT_THRESHOLD) {
+      int pivot = charAt(strings[startIndex + ((endIndex - startIndex) / 2)], depth);
+
+      // Three-way partition on the char at this depth: [startIndex, lessEnd) < pivot,
+      // [lessEnd, current) == pivot and (greaterStart, endIndex] > pivot.
+      int lessEnd = startIndex;
+      int current = startIndex;
+      int greaterStart = endIndex;
+      while (current <= greaterStart) {
+        int c = charAt(strings[current], depth);
+        if (c < pivot) {
+          swap(strings, lessEnd++, current++);
+        } else if (c > pivot) {
+          swap(strings, current, greaterStart--);
+        } else {
+          current++;
+        }
+      }
+
+      multikeyQuickSort(strings, startIndex, lessEnd - 1, depth);
+      multikeyQuickSort(strings, greaterStart + 1, endIndex, depth);
+
+      // Strings equal to the pivot at this depth continue with the next char, unless they
+      // have all ended, in which case they are equal.
+      if (pivot == END_OF_STRING) {
+        return;
+      }
+      startIndex = lessEnd;
+      endIndex = greaterStart;
+      depth++;
+    }
+    insertionSort(strings, startIndex, endIndex, depth);
+  }
+
+  /**
+   * Sort a small range of strings that share the same first depth chars with insertion sort,
+   * comparing only from the char at depth onwards.
+   * @param strings The array of strings.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   * @param depth The number of leading chars known to be equal.
+   */
+  private void insertionSort(String[] strings, int startIndex, int endIndex, int depth) {
+    for (int sortedIndex = startIndex + 1; sortedIndex <= endIndex; sortedIndex++) {
+      String value = strings[sortedIndex];
+      int innerIndex = sortedIndex - 1;
+      while (innerIndex >= startIndex && compareFrom(value, strings[innerIndex], depth) < 0) {
+        strings[innerIndex + 1] = strings[innerIndex];
+        innerIndex--;
+      }
+      strings[innerIndex + 1] = value;
+    }
+  }
+
+  /**
+   * Compare two strings, skipping the first depth chars, which are known to be equal.
+   * @param left The left string.
+   * @param right The right string.
+   * @param depth The number of leading chars to skip.
+   * @return A negative number, zero or a positive number as left is less than, equal to or
+   *     greater than right.
+   */
+  private int compareFrom(String left, String right, int depth) {
+    int length = Math.min(left.length(), right.length());
+    for (int i = depth; i < length; i++) {
+      char leftChar = left.charAt(i);
+      char rightChar = right.charAt(i);
+      if (leftChar != rightChar) {
+        return leftChar - rightChar;
+      }
+    }
+    return left.length() - right.length();
+  }
+
+  /**
+   * Return a byte-sized digit of a string, shifted up by one so that 0 means the string has
+   * ended.
+   * @param string The string.
+   * @param digitIndex The digit. Digit 2k is the high byte of char k and digit 2k + 1 is its
+   *     low byte.
+   * @return The bucket for the digit, between 0 and 256.
+   */
+  private int digitAt(String string, int digitIndex) {
+    int charIndex = digitIndex >> 1;
+    if (charIndex >= string.length()) {
+      return 0;
+    }
+    char c = string.charAt(charIndex);
+    int digit = ((digitIndex & 1) == 0) ? (c >>> Byte.SIZE) : (c & 0xFF);
+    return digit + 1;
+  }
+
+  /**
+   * Return the char of a string at a position, or END_OF_STRING if the string is shorter.
+   * @param string The string.
+   * @param index The position.
+   * @return The char, or END_OF_STRING.
+   */
+  private int charAt(String string, int index) {
+    return index < string.length() ? string.charAt(index) : END_OF_STRING;
+  }
+
+  /**
+   * Swap two strings in an array.
+   * @param strings The array.
+   * @param leftPos The index of the left string.
+   * @param rightPos The index of the right string.
+   */
+  private void swap(String[] strings, int leftPos, int rightPos) {
+    String temp = strings[leftPos];
+    strings[leftPos] = strings[rightPos];
+    strings[rightPos] = temp;
+  }
+}
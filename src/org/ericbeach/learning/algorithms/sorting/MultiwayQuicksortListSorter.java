@@ -0,0 +1,215 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+
+/**
+ * Performs Quicksort on a List, partitioning into three parts rather than two.
+ *
+ * {@link QuicksortListSorter} splits each range into "smaller than the pivot" and "not smaller
+ * than the pivot", so every element equal to the pivot ends up on one side and gets partitioned
+ * again and again. When the list only has a handful of distinct values (status codes, tenant
+ * IDs and so on) most of the work is spent re-partitioning equal elements. This sorter offers
+ * two partitioning schemes, selectable per call, that avoid that:
+ *
+ * THREE_WAY (Dijkstra's "Dutch national flag" partitioning) - Walk the range once, keeping three
+ * regions: elements smaller than the pivot on the left, elements equal to the pivot in the
+ * middle and elements larger than the pivot on the right. The equal region is already in its
+ * final position and is never looked at again, so a list with k distinct values is sorted in
+ * about n * log(k) comparisons; a list of all-equal elements takes a single pass.
+ *
+ * DUAL_PIVOT (Yaroslavskiy's partitioning, as used by the JDK for primitives) - Pick two pivots
+ * p <= q and split the range into three parts: smaller than p, between p and q, and larger than
+ * q. Each pass does more useful work than a single-pivot pass, and if the two pivots are equal
+ * the middle part consists entirely of elements equal to them and is skipped.
+ *
+ * Both schemes finish small ranges with insertion sort. As in {@link IntrosortListSorter}, the
+ * three-way pivot is the median of three for small ranges and Tukey's ninther for large ones,
+ * and every partition uses up one level of a depth budget of 2 * log2(n). If the budget runs
+ * out, the pivots have been consistently poor and the remaining range is heap sorted, so
+ * neither scheme can degrade into quadratic time on input such as organ pipes.
+ *
+ * @param <T> Generic type.
+ */
+public class MultiwayQuicksortListSorter <T extends Comparable<? super T>>
+    implements ListSorter<T> {
+  /**
+   * The ways in which a range can be partitioned into three parts.
+   */
+  public enum PartitionScheme {
+    /**
+     * A single pivot, splitting into smaller, equal and larger elements.
+     */
+    THREE_WAY,
+
+    /**
+     * Two pivots, splitting into elements smaller than the first, between the two, and larger
+     * than the second.
+     */
+    DUAL_PIVOT
+  }
+
+  /**
+   * Ranges of this size or smaller are sorted with insertion sort rather than partitioned.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private final ListSorterHelper<T> listSorterHelper;
+  private final HeapSortListSorter<T> heapSortListSorter;
+  private final InsertionsortListSorter<T> insertionsortListSorter;
+  private final PartitionScheme defaultScheme;
+
+  /**
+   * Create a sorter that uses three-way partitioning unless told otherwise.
+   */
+  public MultiwayQuicksortListSorter() {
+    this(PartitionScheme.THREE_WAY);
+  }
+
+  /**
+   * Create a sorter that uses the supplied partitioning scheme unless told otherwise.
+   * @param defaultScheme The scheme used by {@link #sort(List)}.
+   */
+  public MultiwayQuicksortListSorter(PartitionScheme defaultScheme) {
+    if (defaultScheme == null) {
+      throw new NullPointerException("defaultScheme");
+    }
+    listSorterHelper = new ListSorterHelper<T>();
+    heapSortListSorter = new HeapSortListSorter<T>();
+    insertionsortListSorter = new InsertionsortListSorter<T>();
+    this.defaultScheme = defaultScheme;
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    return sort(list, defaultScheme);
+  }
+
+  /**
+   * Sort a list using the supplied partitioning scheme.
+   * @param list List of objects to be sorted.
+   * @param scheme The partitioning scheme to use for this call.
+   * @return Sorted list.
+   */
+  public List<T> sort(List<T> list, PartitionScheme scheme) {
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> staged = listSorterHelper.stage(list);
+    int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(Math.max(1, staged.size())));
+    switch (scheme) {
+      case THREE_WAY:
+        threeWayQuickSort(staged, 0, staged.size() - 1, depthLimit);
+        break;
+      case DUAL_PIVOT:
+        dualPivotQuickSort(staged, 0, staged.size() - 1, depthLimit);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown partition scheme: " + scheme);
+    }
+    listSorterHelper.unstage(staged, list);
+    return list;
+  }
+
+  /**
+   * Perform a quick sort with three-way partitioning on a range of the list.
+   * @param list List containing the range to be sorted.
+   * @param startIndex Left most boundary of the range.
+   * @param endIndex Right most boundary of the range.
+   * @param depthLimit The number of partitions that may still be made before giving up on
+   *     quick sort and falling back to heap sort.
+   */
+  private void threeWayQuickSort(List<T> list, int startIndex, int endIndex, int depthLimit) {
+    while (endIndex - startIndex >= INSERTION_SORT_THRESHOLD) {
+      // The pivots have been consistently poor, so guarantee O(n log n) with heap sort.
+      if (depthLimit == 0) {
+        heapSortListSorter.heapSort(list, startIndex, endIndex);
+        return;
+      }
+      depthLimit--;
+      T pivot = list.get(listSorterHelper.choosePivotIndex(list, startIndex, endIndex));
+      int[] equalRun = listSorterHelper.partitionThreeWay(list, startIndex, endIndex, pivot);
+      int lessEnd = equalRun[0];
+      int greaterStart = equalRun[1];
+
+      // The elements equal to the pivot are in their final position. Recurse into the smaller
+      // of the two remaining parts and loop on the larger.
+      if (lessEnd - startIndex < endIndex - greaterStart) {
+        threeWayQuickSort(list, startIndex, lessEnd - 1, depthLimit);
+        startIndex = greaterStart + 1;
+      } else {
+        threeWayQuickSort(list, greaterStart + 1, endIndex, depthLimit);
+        endIndex = lessEnd - 1;
+      }
+    }
+    insertionsortListSorter.insertionSort(list, startIndex, endIndex);
+  }
+
+  /**
+   * Perform a dual-pivot quick sort on a range of the list.
+   * @param list List containing the range to be sorted.
+   * @param startIndex Left most boundary of the range.
+   * @param endIndex Right most boundary of the range.
+   * @param depthLimit The number of partitions that may still be made before giving up on
+   *     quick sort and falling back to heap sort.
+   */
+  private void dualPivotQuickSort(List<T> list, int startIndex, int endIndex, int depthLimit) {
+    if (endIndex - startIndex < INSERTION_SORT_THRESHOLD) {
+      insertionsortListSorter.insertionSort(list, startIndex, endIndex);
+      return;
+    }
+    if (depthLimit == 0) {
+      heapSortListSorter.heapSort(list, startIndex, endIndex);
+      return;
+    }
+    depthLimit--;
+
+    // Sort five evenly spaced elements and use the second and fourth as the pivots, moving
+    // them to the two ends of the range.
+    int seventh = (endIndex - startIndex + 1) / 7;
+    int middle = startIndex + ((endIndex - startIndex) / 2);
+    int[] samples = new int[] {middle - (2 * seventh), middle - seventh, middle,
+        middle + seventh, middle + (2 * seventh)};
+    for (int i = 1; i < samples.length; i++) {
+      for (int j = i; j > 0
+          && list.get(samples[j]).compareTo(list.get(samples[j - 1])) < 0; j--) {
+        listSorterHelper.swap(list, samples[j], samples[j - 1]);
+      }
+    }
+    listSorterHelper.swap(list, startIndex, samples[1]);
+    listSorterHelper.swap(list, endIndex, samples[3]);
+    T lowPivot = list.get(startIndex);
+    T highPivot = list.get(endIndex);
+
+    // Invariant: (startIndex, lessEnd) < lowPivot, [lessEnd, current) is between the pivots,
+    // [current, greaterStart] is unexamined and (greaterStart, endIndex) > highPivot.
+    int lessEnd = startIndex + 1;
+    int greaterStart = endIndex - 1;
+    for (int current = lessEnd; current <= greaterStart; current++) {
+      if (list.get(current).compareTo(lowPivot) < 0) {
+        listSorterHelper.swap(list, current, lessEnd++);
+      } else if (list.get(current).compareTo(highPivot) > 0) {
+        // Skip over elements at the right end that already belong there.
+        while (current < greaterStart && list.get(greaterStart).compareTo(highPivot) > 0) {
+          greaterStart--;
+        }
+        listSorterHelper.swap(list, current, greaterStart--);
+        if (list.get(current).compareTo(lowPivot) < 0) {
+          listSorterHelper.swap(list, current, lessEnd++);
+        }
+      }
+    }
+
+    // Move the pivots into their final positions.
+    lessEnd--;
+    greaterStart++;
+    listSorterHelper.swap(list, startIndex, lessEnd);
+    listSorterHelper.swap(list, endIndex, greaterStart);
+
+    dualPivotQuickSort(list, startIndex, lessEnd - 1, depthLimit);
+    dualPivotQuickSort(list, greaterStart + 1, endIndex, depthLimit);
+
+    // If the pivots are equal, every element between them is equal to both and is already in
+    // its final position.
+    if (lowPivot.compareTo(highPivot) < 0) {
+      dualPivotQuickSort(list, lessEnd + 1, greaterStart - 1, depthLimit);
+    }
+  }
+}
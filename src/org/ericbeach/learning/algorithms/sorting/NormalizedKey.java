@@ -0,0 +1,186 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes values as normalized keys: byte strings that, compared as unsigned bytes from the
+ * first onwards, are ordered exactly as the values' compareTo orders them.
+ *
+ * A radix sort needs keys made of digits, and only ints and longs come that way. Encoding a
+ * value as a normalized key once turns any supported value into such a key, which
+ * {@link NormalizedKeyListSorter} can then radix sort and {@link OffHeapRecordSorter} can sort
+ * in place. The encodings are:
+ * 1. Integer and Long - The value in big-endian order with its sign bit flipped, so that
+ * negative values come before positive ones when the bytes are read as unsigned.
+ * 2. Double - The value mapped onto a long that sorts the same way as
+ * {@link Double#compare(double, double)}, as in {@link RadixArraySorter}, then encoded like a
+ * Long. -0.0 comes before 0.0 and NaN comes last.
+ * 3. String - Every UTF-16 char in turn, which is the order of {@link String#compareTo(String)},
+ * followed by the terminator 0x00. Chars are written in one to three bytes so that common text
+ * stays short while the order of the chars is kept: chars below ONE_BYTE_LIMIT as one byte
+ * from 0x01 to 0x7F, chars below TWO_BYTE_LIMIT as two bytes starting between 0x80 and 0xBF,
+ * and all other chars as THREE_BYTE_MARKER followed by the char itself, high byte first. Since
+ * no char starts with 0x00, a string that is a prefix of another sorts first, even when more
+ * values follow it in a tuple.
+ * 4. Timestamp - The milliseconds of {@link Timestamp#getTime()} encoded like a Long, then the
+ * nanoseconds of {@link Timestamp#getNanos()} encoded like an Integer, matching
+ * {@link Timestamp#compareTo(Timestamp)}.
+ * 5. Tuples, given as an Object[] or a List - The encodings of the elements one after another,
+ * which orders tuples by their first element, then by their second, and so on. Every encoding
+ * above either has a fixed length or is terminated, so a tuple's elements never run into each
+ * other. Tuples compared with each other must hold the same types in the same positions, just
+ * as compareTo would throw a ClassCastException for mismatched types.
+ */
+public final class NormalizedKey {
+  /**
+   * The byte written after the last char of a string.
+   */
+  private static final int STRING_TERMINATOR = 0x00;
+
+  /**
+   * Chars below this are written as a single byte, offset by one to stay clear of the
+   * terminator.
+   */
+  private static final int ONE_BYTE_LIMIT = 0x7F;
+
+  /**
+   * Chars below this are written as two bytes, the first of which has its top bits set to 10.
+   */
+  private static final int TWO_BYTE_LIMIT = ONE_BYTE_LIMIT + 0x4000;
+
+  /**
+   * The first byte of a char written as three bytes.
+   */
+  private static final int THREE_BYTE_MARKER = 0xC0;
+
+  /**
+   * The initial capacity of the buffer a key is built in.
+   */
+  private static final int INITIAL_CAPACITY = 32;
+
+  private NormalizedKey() {
+  }
+
+  /**
+   * Encode a value as a normalized key.
+   * @param value An Integer, Long, Double, String or Timestamp, or a tuple of them as an
+   *     Object[] or a List.
+   * @return The normalized key.
+   */
+  public static byte[] encode(Object value) {
+    KeyBuffer out = new KeyBuffer();
+    encode(value, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Append the normalized key of a value to a buffer.
+   * @param value The value.
+   * @param out The buffer.
+   */
+  private static void encode(Object value, KeyBuffer out) {
+    if (value == null) {
+      throw new NullPointerException("value");
+    }
+    if (value instanceof Integer) {
+      writeInt((Integer) value, out);
+    } else if (value instanceof Long) {
+      writeLong((Long) value, out);
+    } else if (value instanceof Double) {
+      writeLong(RadixArraySorter.toSortableLong((Double) value), out);
+    } else if (value instanceof String) {
+      writeString((String) value, out);
+    } else if (value instanceof Timestamp) {
+      Timestamp timestamp = (Timestamp) value;
+      writeLong(timestamp.getTime(), out);
+      writeInt(timestamp.getNanos(), out);
+    } else if (value instanceof Object[]) {
+      for (Object element : (Object[]) value) {
+        encode(element, out);
+      }
+    } else if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        encode(element, out);
+      }
+    } else {
+      throw new IllegalArgumentException(
+          "value must be a supported type: " + value.getClass().getName());
+    }
+  }
+
+  /**
+   * Write an int big-endian with its sign bit flipped.
+   * @param value The int.
+   * @param out The buffer.
+   */
+  private static void writeInt(int value, KeyBuffer out) {
+    int bits = value ^ Integer.MIN_VALUE;
+    for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      out.write(bits >>> shift);
+    }
+  }
+
+  /**
+   * Write a long big-endian with its sign bit flipped.
+   * @param value The long.
+   * @param out The buffer.
+   */
+  private static void writeLong(long value, KeyBuffer out) {
+    long bits = value ^ Long.MIN_VALUE;
+    for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      out.write((int) (bits >>> shift));
+    }
+  }
+
+  /**
+   * Write the chars of a string in order-preserving one to three byte form and terminate it.
+   * @param value The string.
+   * @param out The buffer.
+   */
+  private static void writeString(String value, KeyBuffer out) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < ONE_BYTE_LIMIT) {
+        out.write(c + 1);
+      } else if (c < TWO_BYTE_LIMIT) {
+        int offset = c - ONE_BYTE_LIMIT;
+        out.write(0x80 | (offset >>> Byte.SIZE));
+        out.write(offset);
+      } else {
+        out.write(THREE_BYTE_MARKER);
+        out.write(c >>> Byte.SIZE);
+        out.write(c);
+      }
+    }
+    out.write(STRING_TERMINATOR);
+  }
+
+  /**
+   * A growable array of bytes that a key is built in. Unlike a ByteArrayOutputStream it takes
+   * no lock for every byte written.
+   */
+  private static final class KeyBuffer {
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    /**
+     * Append a byte.
+     * @param value The byte, in its lowest 8 bits.
+     */
+    void write(int value) {
+      if (length == bytes.length) {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+      }
+      bytes[length++] = (byte) value;
+    }
+
+    /**
+     * @return A copy of the bytes written so far.
+     */
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, length);
+    }
+  }
+}
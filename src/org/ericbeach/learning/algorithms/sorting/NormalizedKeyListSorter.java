@@ -0,0 +1,195 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sorts a List with a most significant digit (MSD) Radix sort on the {@link NormalizedKey} of
+ * each element, so that Strings, Timestamps and composite keys can be radix sorted just like
+ * ints.
+ *
+ * The sort works as follows:
+ * 1. Encode - Compute the key of every element once and encode it as a normalized key, whose
+ * unsigned bytes are ordered as the key's compareTo orders keys.
+ * 2. Sort - MSD radix sort the indices of the elements by their keys, one byte per level, as
+ * {@link MsdRadixStringListSorter} does with the bytes of a string's chars: count the byte of
+ * every key in the bucket, skip straight to the next byte while all keys share it, otherwise
+ * distribute the indices into 256 sub-buckets plus one, sorting first, for keys that have
+ * ended, and recurse into each sub-bucket. Bytes before the current one are never read again.
+ * The indices are distributed through a second array rather than swapped into place, which
+ * keeps equal keys in their original order.
+ * 3. Small buckets are finished with insertion sort, comparing keys as unsigned bytes from the
+ * current byte onwards.
+ * 4. Write the elements back into the list in the sorted order in a single pass.
+ *
+ * The key of an element is the element itself unless a key extractor is supplied, and must be
+ * one of the types {@link NormalizedKey#encode(Object)} supports. The sort is stable.
+ *
+ * @param <T> Generic type.
+ */
+public class NormalizedKeyListSorter <T> implements ListSorter<T> {
+  /**
+   * Buckets of this size or smaller are sorted with insertion sort.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  /**
+   * The number of buckets per level: one for each byte value plus one for ended keys.
+   */
+  private static final int BUCKETS = 257;
+
+  private final Function<? super T, ?> keyExtractor;
+
+  /**
+   * Create a sorter that uses each element as its own key.
+   */
+  public NormalizedKeyListSorter() {
+    this(Function.identity());
+  }
+
+  /**
+   * Create a sorter.
+   * @param keyExtractor The function that computes the key of an element.
+   */
+  public NormalizedKeyListSorter(Function<? super T, ?> keyExtractor) {
+    if (keyExtractor == null) {
+      throw new NullPointerException("keyExtractor");
+    }
+    this.keyExtractor = keyExtractor;
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+
+    // Step 1: Encode every key once.
+    byte[][] keys = new byte[list.size()][];
+    int[] order = new int[keys.length];
+    int index = 0;
+    for (T element : list) {
+      keys[index] = NormalizedKey.encode(keyExtractor.apply(element));
+      order[index] = index;
+      index++;
+    }
+
+    // Steps 2 and 3: Sort the indices by key.
+    msdSort(keys, order, new int[order.length], new int[order.length], 0, order.length, 0);
+
+    // Step 4: Apply the permutation to the list.
+    KeyedListSorter.applyPermutation(list, order);
+    return list;
+  }
+
+  /**
+   * Sort a range of indices whose keys all share the same first byteIndex bytes.
+   * @param keys The normalized key of every element.
+   * @param order The indices of the elements, in the order being sorted.
+   * @param buffer Scratch space the size of order for distributing indices.
+   * @param digits Scratch space the size of order for caching the current byte of each key.
+   * @param startIndex The first index of the range to be sorted (inclusive).
+   * @param endIndex The index one past the last of the range to be sorted (exclusive).
+   * @param byteIndex The byte of the keys to partition on.
+   */
+  private void msdSort(byte[][] keys, int[] order, int[] buffer, int[] digits, int startIndex,
+      int endIndex, int byteIndex) {
+    int size = endIndex - startIndex;
+    if (size <= INSERTION_SORT_THRESHOLD) {
+      insertionSort(keys, order, startIndex, endIndex, byteIndex);
+      return;
+    }
+
+    // Read each key's byte once and count the size of each bucket. While every key shares the
+    // same byte there is nothing to partition, so move straight on to the next byte rather than
+    // recursing once per shared byte.
+    int[] bucketStarts = new int[BUCKETS + 1];
+    while (true) {
+      for (int i = startIndex; i < endIndex; i++) {
+        int digit = digitAt(keys[order[i]], byteIndex);
+        digits[i] = digit;
+        bucketStarts[digit + 1]++;
+      }
+      int sharedDigit = digits[startIndex];
+      if (bucketStarts[sharedDigit + 1] != size) {
+        break;
+      }
+      if (sharedDigit == 0) {
+        // Every key has ended, so they are all equal.
+        return;
+      }
+      bucketStarts[sharedDigit + 1] = 0;
+      byteIndex++;
+    }
+
+    // Turn the counts into the start of each bucket, followed by the end of the last one.
+    bucketStarts[0] = startIndex;
+    for (int bucket = 1; bucket <= BUCKETS; bucket++) {
+      bucketStarts[bucket] += bucketStarts[bucket - 1];
+    }
+
+    // Distribute the indices into their buckets in order, then copy them back.
+    int[] nextFree = Arrays.copyOf(bucketStarts, BUCKETS);
+    for (int i = startIndex; i < endIndex; i++) {
+      buffer[nextFree[digits[i]]++] = order[i];
+    }
+    System.arraycopy(buffer, startIndex, order, startIndex, size);
+
+    // Sort each bucket by the next byte. Bucket 0 holds keys that have ended, which are all
+    // equal to each other.
+    for (int bucket = 1; bucket < BUCKETS; bucket++) {
+      if (bucketStarts[bucket + 1] - bucketStarts[bucket] > 1) {
+        msdSort(keys, order, buffer, digits, bucketStarts[bucket], bucketStarts[bucket + 1],
+            byteIndex + 1);
+      }
+    }
+  }
+
+  /**
+   * Sort a small range of indices whose keys share the same first byteIndex bytes with
+   * insertion sort, comparing keys only from that byte onwards.
+   * @param keys The normalized key of every element.
+   * @param order The indices of the elements, in the order being sorted.
+   * @param startIndex The first index of the range to be sorted (inclusive).
+   * @param endIndex The index one past the last of the range to be sorted (exclusive).
+   * @param byteIndex The number of leading bytes known to be equal.
+   */
+  private void insertionSort(byte[][] keys, int[] order, int startIndex, int endIndex,
+      int byteIndex) {
+    for (int sortedIndex = startIndex + 1; sortedIndex < endIndex; sortedIndex++) {
+      int value = order[sortedIndex];
+      byte[] key = keys[value];
+      int innerIndex = sortedIndex - 1;
+      while (innerIndex >= startIndex && compareFrom(key, keys[order[innerIndex]], byteIndex) < 0) {
+        order[innerIndex + 1] = order[innerIndex];
+        innerIndex--;
+      }
+      order[innerIndex + 1] = value;
+    }
+  }
+
+  /**
+   * Compare two keys as unsigned bytes, skipping the first byteIndex bytes, which are known to
+   * be equal.
+   * @param left The left key.
+   * @param right The right key.
+   * @param byteIndex The number of leading bytes to skip.
+   * @return A negative number, zero or a positive number as left is less than, equal to or
+   *     greater than right.
+   */
+  private int compareFrom(byte[] left, byte[] right, int byteIndex) {
+    return Arrays.compareUnsigned(left, Math.min(byteIndex, left.length), left.length, right,
+        Math.min(byteIndex, right.length), right.length);
+  }
+
+  /**
+   * Return a byte of a key, shifted up by one so that 0 means the key has ended.
+   * @param key The key.
+   * @param byteIndex The index of the byte.
+   * @return The bucket for the byte, between 0 and 256.
+   */
+  private int digitAt(byte[] key, int byteIndex) {
+    return (byteIndex < key.length) ? (key[byteIndex] & 0xFF) + 1 : 0;
+  }
+}
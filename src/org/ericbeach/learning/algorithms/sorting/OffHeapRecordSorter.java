@@ -0,0 +1,372 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Sorts fixed-width binary records in place inside a ByteBuffer, typically a direct one, without
+ * turning any record into a Java object.
+ *
+ * Every record is recordLength bytes long and holds its key at keyOffset, keyLength bytes long;
+ * the rest of the record is payload that travels with the key. The records are the bytes from
+ * the buffer's position to its limit, which must be a whole number of records, and the position
+ * and limit are left as they were. Keys are compared as unsigned bytes, most significant first,
+ * which is the order of big-endian unsigned integers and of fixed-length keys encoded with
+ * {@link NormalizedKey}. There are two ways to sort:
+ * 1. {@link #radixSort(ByteBuffer, ByteBuffer)} performs a least significant digit Radix sort on
+ * the key bytes, as {@link RadixArraySorter} does on the bytes of an int. Every pass counts one
+ * key byte of every record and then copies whole records into a scratch buffer of the same size
+ * in bucket order, so it takes keyLength passes over the data, minus any in which every record
+ * has the same byte. It is stable, and the best choice for short keys.
+ * 2. {@link #sort(ByteBuffer, RecordKeyComparator)} performs Quicksort with the pivot and
+ * partitioning of {@link QuicksortArraySorter}, comparing keys in place and swapping whole
+ * records through a single temporary array. It needs no scratch buffer, works with any key
+ * order a {@link RecordKeyComparator} can express, and suits long keys that usually differ
+ * early. It is not stable.
+ *
+ * A foreign memory segment can be sorted through the ByteBuffer view it provides, as long as
+ * the segment is no larger than a ByteBuffer can address.
+ */
+public class OffHeapRecordSorter {
+  /**
+   * Ranges of this many records or fewer are finished with insertion sort.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  /**
+   * The number of distinct values a single byte can take, and hence the number of buckets.
+   */
+  private static final int RADIX = 256;
+
+  /**
+   * Compares keys as unsigned bytes, most significant first, eight bytes at a time.
+   */
+  private static final RecordKeyComparator UNSIGNED_BYTE_ORDER = new RecordKeyComparator() {
+    @Override
+    public int compare(ByteBuffer buffer, int leftKeyIndex, int rightKeyIndex, int keyLength) {
+      int i = 0;
+      for (; i + Long.BYTES <= keyLength; i += Long.BYTES) {
+        long left = buffer.getLong(leftKeyIndex + i);
+        long right = buffer.getLong(rightKeyIndex + i);
+        if (left != right) {
+          return Long.compareUnsigned(left, right);
+        }
+      }
+      for (; i < keyLength; i++) {
+        int left = buffer.get(leftKeyIndex + i) & 0xFF;
+        int right = buffer.get(rightKeyIndex + i) & 0xFF;
+        if (left != right) {
+          return left - right;
+        }
+      }
+      return 0;
+    }
+  };
+
+  private final int recordLength;
+  private final int keyOffset;
+  private final int keyLength;
+
+  /**
+   * Create a sorter for records of a fixed layout.
+   * @param recordLength The length of every record in bytes.
+   * @param keyOffset The offset of the key from the start of its record.
+   * @param keyLength The length of the key in bytes.
+   */
+  public OffHeapRecordSorter(int recordLength, int keyOffset, int keyLength) {
+    if (recordLength < 1) {
+      throw new IllegalArgumentException("recordLength must be positive: " + recordLength);
+    }
+    if (keyOffset < 0) {
+      throw new IllegalArgumentException("keyOffset must not be negative: " + keyOffset);
+    }
+    if (keyLength < 1) {
+      throw new IllegalArgumentException("keyLength must be positive: " + keyLength);
+    }
+    if (keyOffset > recordLength - keyLength) {
+      throw new IllegalArgumentException("key must lie within the record: keyOffset("
+          + keyOffset + ") + keyLength(" + keyLength + ") > recordLength(" + recordLength + ")");
+    }
+    this.recordLength = recordLength;
+    this.keyOffset = keyOffset;
+    this.keyLength = keyLength;
+  }
+
+  /**
+   * Sort the records in a buffer by their key bytes with Quicksort.
+   * @param buffer The buffer holding the records between its position and limit.
+   * @return The same buffer, now sorted.
+   */
+  public ByteBuffer sort(ByteBuffer buffer) {
+    return sort(buffer, UNSIGNED_BYTE_ORDER);
+  }
+
+  /**
+   * Sort the records in a buffer with Quicksort, in the order given by a comparator.
+   * @param buffer The buffer holding the records between its position and limit.
+   * @param comparator The comparator applied to the keys.
+   * @return The same buffer, now sorted.
+   */
+  public ByteBuffer sort(ByteBuffer buffer, RecordKeyComparator comparator) {
+    if (comparator == null) {
+      throw new NullPointerException("comparator");
+    }
+    int recordCount = recordCount(buffer);
+    if (recordCount < 2) {
+      return buffer;
+    }
+
+    // Absolute reads of a duplicate leave the caller's buffer untouched, and a fixed byte order
+    // means the comparator never has to look at how the caller set it.
+    ByteBuffer records = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    byte[] temp = new byte[recordLength];
+    quickSort(records, buffer.position(), 0, recordCount - 1, comparator, temp);
+    return buffer;
+  }
+
+  /**
+   * Sort the records in a buffer by their key bytes with Radix sort, using a newly allocated
+   * direct scratch buffer.
+   * @param buffer The buffer holding the records between its position and limit.
+   * @return The same buffer, now sorted.
+   */
+  public ByteBuffer radixSort(ByteBuffer buffer) {
+    return radixSort(buffer, ByteBuffer.allocateDirect(buffer.remaining()));
+  }
+
+  /**
+   * Sort the records in a buffer by their key bytes with Radix sort. Records with equal keys
+   * keep their original order.
+   * @param buffer The buffer holding the records between its position and limit.
+   * @param scratch A buffer with at least as many bytes remaining as the records take up. Its
+   *     contents from its position onwards are overwritten.
+   * @return The same buffer, now sorted.
+   */
+  public ByteBuffer radixSort(ByteBuffer buffer, ByteBuffer scratch) {
+    if (scratch == null) {
+      throw new NullPointerException("scratch");
+    }
+    int recordCount = recordCount(buffer);
+    int size = buffer.remaining();
+    if (scratch.remaining() < size) {
+      throw new IllegalArgumentException(
+          "scratch must have room for " + size + " bytes: " + scratch.remaining());
+    }
+    if (recordCount < 2) {
+      return buffer;
+    }
+
+    // Count every key byte of every record at once, so passes in which all records share a
+    // byte can be skipped.
+    int[][] counts = new int[keyLength][RADIX];
+    int firstKeyIndex = buffer.position() + keyOffset;
+    for (int record = 0; record < recordCount; record++) {
+      int keyIndex = firstKeyIndex + (record * recordLength);
+      for (int pass = 0; pass < keyLength; pass++) {
+        counts[pass][buffer.get(keyIndex + pass) & 0xFF]++;
+      }
+    }
+
+    ByteBuffer source = buffer;
+    int sourceStart = buffer.position();
+    ByteBuffer destination = scratch;
+    int destinationStart = scratch.position();
+    int[] offsets = new int[RADIX];
+    // The least significant byte comes last in the key, so it is sorted on first.
+    for (int pass = keyLength - 1; pass >= 0; pass--) {
+      int[] passCounts = counts[pass];
+      if (isSingleBucket(passCounts, recordCount)) {
+        continue;
+      }
+
+      // Turn the counts into the index at which the next record of each bucket is written.
+      int next = destinationStart;
+      for (int bucket = 0; bucket < RADIX; bucket++) {
+        offsets[bucket] = next;
+        next += passCounts[bucket] * recordLength;
+      }
+
+      // Copy every record into its bucket, in order, so the sort stays stable.
+      int passKeyOffset = keyOffset + pass;
+      for (int record = 0; record < recordCount; record++) {
+        int recordIndex = sourceStart + (record * recordLength);
+        int bucket = source.get(recordIndex + passKeyOffset) & 0xFF;
+        destination.put(offsets[bucket], source, recordIndex, recordLength);
+        offsets[bucket] += recordLength;
+      }
+
+      // The buffer just written becomes the source of the next pass.
+      ByteBuffer swapBuffer = source;
+      int swapStart = sourceStart;
+      source = destination;
+      sourceStart = destinationStart;
+      destination = swapBuffer;
+      destinationStart = swapStart;
+    }
+
+    // After an odd number of passes the sorted records are in the scratch buffer.
+    if (source != buffer) {
+      buffer.put(buffer.position(), source, sourceStart, size);
+    }
+    return buffer;
+  }
+
+  /**
+   * Check that the bytes between a buffer's position and limit are a whole number of records.
+   * @param buffer The buffer.
+   * @return The number of records.
+   */
+  private int recordCount(ByteBuffer buffer) {
+    if (buffer == null) {
+      throw new NullPointerException("buffer");
+    }
+    if (buffer.remaining() % recordLength != 0) {
+      throw new IllegalArgumentException("buffer must hold whole records of " + recordLength
+          + " bytes: " + buffer.remaining());
+    }
+    return buffer.remaining() / recordLength;
+  }
+
+  /**
+   * Check whether every record falls into the same bucket.
+   * @param counts The number of records in each bucket.
+   * @param recordCount The total number of records.
+   * @return True if one bucket holds every record.
+   */
+  private boolean isSingleBucket(int[] counts, int recordCount) {
+    for (int count : counts) {
+      if (count != 0) {
+        return count == recordCount;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Perform a quick sort on the records bounded by startRecord and endRecord.
+   * @param records The buffer holding the records.
+   * @param start The index in the buffer of the first byte of record 0.
+   * @param startRecord Left most boundary of the range (inclusive).
+   * @param endRecord Right most boundary of the range (inclusive).
+   * @param comparator The comparator applied to the keys.
+   * @param temp A temporary array of recordLength bytes.
+   */
+  private void quickSort(ByteBuffer records, int start, int startRecord, int endRecord,
+      RecordKeyComparator comparator, byte[] temp) {
+    while (endRecord - startRecord >= INSERTION_SORT_THRESHOLD) {
+      int pivotRecord = partition(records, start, startRecord, endRecord, comparator, temp);
+
+      // Recurse into the smaller side and keep looping on the larger side so the stack never
+      // grows deeper than log2(n) frames.
+      if (pivotRecord - startRecord < endRecord - pivotRecord) {
+        quickSort(records, start, startRecord, pivotRecord - 1, comparator, temp);
+        startRecord = pivotRecord + 1;
+      } else {
+        quickSort(records, start, pivotRecord + 1, endRecord, comparator, temp);
+        endRecord = pivotRecord - 1;
+      }
+    }
+    insertionSort(records, start, startRecord, endRecord, comparator, temp);
+  }
+
+  /**
+   * Partition the records around a median-of-three pivot.
+   * @param records The buffer holding the records.
+   * @param start The index in the buffer of the first byte of record 0.
+   * @param leftRecord Left most boundary of the range (inclusive).
+   * @param rightRecord Right most boundary of the range (inclusive).
+   * @param comparator The comparator applied to the keys.
+   * @param temp A temporary array of recordLength bytes.
+   * @return The final position of the pivot record.
+   */
+  private int partition(ByteBuffer records, int start, int leftRecord, int rightRecord,
+      RecordKeyComparator comparator, byte[] temp) {
+    // Order the first, middle and last records so that the median ends up in the rightmost
+    // position, where it serves as the pivot. The leftmost record is then no larger than the
+    // pivot and acts as a sentinel that stops the right pointer.
+    int middleRecord = leftRecord + ((rightRecord - leftRecord) / 2);
+    if (compare(records, start, middleRecord, leftRecord, comparator) < 0) {
+      swap(records, start, middleRecord, leftRecord, temp);
+    }
+    if (compare(records, start, rightRecord, leftRecord, comparator) < 0) {
+      swap(records, start, rightRecord, leftRecord, temp);
+    }
+    if (compare(records, start, middleRecord, rightRecord, comparator) < 0) {
+      swap(records, start, middleRecord, rightRecord, temp);
+    }
+
+    // The pivot stays in the rightmost position until the very end, so it is compared in place.
+    int left = leftRecord - 1;
+    int right = rightRecord;
+    while (true) {
+      do {
+        left++;
+      } while (compare(records, start, left, rightRecord, comparator) < 0);
+
+      do {
+        right--;
+      } while (compare(records, start, rightRecord, right, comparator) < 0);
+
+      if (left >= right) {
+        break;
+      }
+      swap(records, start, left, right, temp);
+    }
+
+    // Move the pivot into its final position.
+    swap(records, start, left, rightRecord, temp);
+    return left;
+  }
+
+  /**
+   * Sort a small range of records with insertion sort.
+   * @param records The buffer holding the records.
+   * @param start The index in the buffer of the first byte of record 0.
+   * @param startRecord Left most boundary of the range (inclusive).
+   * @param endRecord Right most boundary of the range (inclusive).
+   * @param comparator The comparator applied to the keys.
+   * @param temp A temporary array of recordLength bytes.
+   */
+  private void insertionSort(ByteBuffer records, int start, int startRecord, int endRecord,
+      RecordKeyComparator comparator, byte[] temp) {
+    for (int sortedRecord = startRecord + 1; sortedRecord <= endRecord; sortedRecord++) {
+      int record = sortedRecord;
+      while (record > startRecord && compare(records, start, record, record - 1, comparator) < 0) {
+        swap(records, start, record, record - 1, temp);
+        record--;
+      }
+    }
+  }
+
+  /**
+   * Compare the keys of two records.
+   * @param records The buffer holding the records.
+   * @param start The index in the buffer of the first byte of record 0.
+   * @param leftRecord The left record.
+   * @param rightRecord The right record.
+   * @param comparator The comparator applied to the keys.
+   * @return The comparator's result.
+   */
+  private int compare(ByteBuffer records, int start, int leftRecord, int rightRecord,
+      RecordKeyComparator comparator) {
+    return comparator.compare(records, start + (leftRecord * recordLength) + keyOffset,
+        start + (rightRecord * recordLength) + keyOffset, keyLength);
+  }
+
+  /**
+   * Swap two records.
+   * @param records The buffer holding the records.
+   * @param start The index in the buffer of the first byte of record 0.
+   * @param leftRecord The left record.
+   * @param rightRecord The right record.
+   * @param temp A temporary array of recordLength bytes.
+   */
+  private void swap(ByteBuffer records, int start, int leftRecord, int rightRecord,
+      byte[] temp) {
+    int leftIndex = start + (leftRecord * recordLength);
+    int rightIndex = start + (rightRecord * recordLength);
+    records.get(leftIndex, temp);
+    records.put(leftIndex, records, rightIndex, recordLength);
+    records.put(rightIndex, temp);
+  }
+}
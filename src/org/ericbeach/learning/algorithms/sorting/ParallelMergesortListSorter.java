@@ -0,0 +1,201 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Performs Merge sort on a List using a fork-join pool so that both halves of every split can be
+ * sorted at the same time on different threads.
+ *
+ * The divide and merge phases are the same as in {@link MergesortListSorter}. The difference is
+ * that each split hands its two halves to the pool as separate tasks and waits for both to
+ * finish before merging them. Once a task's range falls to or below the sequential threshold,
+ * forking any further would cost more than it saves, so the range is merge sorted on the
+ * current thread instead.
+ *
+ * The list is copied into an array up front, and a single auxiliary buffer of the same size is
+ * allocated once and shared by every task. Tasks never touch overlapping ranges, so each merge
+ * can safely use the slice of the buffer that lines up with its own range. Once sorting is done
+ * the array is written back into the list in a single pass.
+ *
+ * The sort is stable.
+ *
+ * @param <T> Generic type.
+ */
+public class ParallelMergesortListSorter <T extends Comparable<? super T>>
+    implements ListSorter<T> {
+  /**
+   * Ranges of this size or smaller are sorted on the current thread by default.
+   */
+  public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8192;
+
+  /**
+   * Ranges of this size or smaller are sorted with insertion sort rather than divided.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private final ForkJoinPool pool;
+  private final int sequentialThreshold;
+
+  /**
+   * Create a sorter that runs on the common fork-join pool.
+   */
+  public ParallelMergesortListSorter() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   */
+  public ParallelMergesortListSorter(ForkJoinPool pool) {
+    this(pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   * @param sequentialThreshold Ranges of this size or smaller are not split into further tasks.
+   */
+  public ParallelMergesortListSorter(ForkJoinPool pool, int sequentialThreshold) {
+    if (pool == null) {
+      throw new NullPointerException("pool");
+    }
+    if (sequentialThreshold < 1) {
+      throw new IllegalArgumentException(
+          "sequentialThreshold must be positive: " + sequentialThreshold);
+    }
+    this.pool = pool;
+    this.sequentialThreshold = sequentialThreshold;
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    T[] elements = (T[]) list.toArray(new Comparable<?>[list.size()]);
+    @SuppressWarnings("unchecked")
+    T[] buffer = (T[]) new Comparable<?>[elements.length];
+    pool.invoke(new MergesortTask(elements, buffer, 0, elements.length - 1));
+
+    // Write the sorted elements back into the list.
+    ListIterator<T> iterator = list.listIterator();
+    for (T element : elements) {
+      iterator.next();
+      iterator.set(element);
+    }
+    return list;
+  }
+
+  /**
+   * Sort a range of the array on the current thread using the merge sort algorithm.
+   * @param elements The array to be sorted.
+   * @param buffer The shared auxiliary buffer.
+   * @param startIndex The first index of the range to be sorted.
+   * @param endIndex The last index of the range to be sorted.
+   */
+  private void mergeSort(T[] elements, T[] buffer, int startIndex, int endIndex) {
+    // BASE CASE: The range is small enough to be sorted directly.
+    if (endIndex - startIndex < INSERTION_SORT_THRESHOLD) {
+      insertionSort(elements, startIndex, endIndex);
+      return;
+    }
+
+    // RECURSIVE CASE: Sort each half, then merge the halves together.
+    int middleIndex = startIndex + ((endIndex - startIndex) / 2);
+    mergeSort(elements, buffer, startIndex, middleIndex);
+    mergeSort(elements, buffer, middleIndex + 1, endIndex);
+    merge(elements, buffer, startIndex, middleIndex, endIndex);
+  }
+
+  /**
+   * Merge the two adjacent, individually sorted ranges [startIndex, middleIndex] and
+   * [middleIndex + 1, endIndex] of the array.
+   * @param elements The array containing both ranges.
+   * @param buffer The shared auxiliary buffer. Only the slice [startIndex, middleIndex] is used.
+   * @param startIndex The first index of the left range.
+   * @param middleIndex The last index of the left range.
+   * @param endIndex The last index of the right range.
+   */
+  private void merge(T[] elements, T[] buffer, int startIndex, int middleIndex, int endIndex) {
+    // The halves are already in order relative to each other, so there is nothing to merge.
+    if (elements[middleIndex].compareTo(elements[middleIndex + 1]) <= 0) {
+      return;
+    }
+
+    System.arraycopy(elements, startIndex, buffer, startIndex, middleIndex - startIndex + 1);
+
+    int leftIndex = startIndex;
+    int rightIndex = middleIndex + 1;
+    int mergedIndex = startIndex;
+    while (leftIndex <= middleIndex && rightIndex <= endIndex) {
+      // Take from the right only when strictly smaller so that equal elements keep their
+      // original order.
+      if (elements[rightIndex].compareTo(buffer[leftIndex]) < 0) {
+        elements[mergedIndex++] = elements[rightIndex++];
+      } else {
+        elements[mergedIndex++] = buffer[leftIndex++];
+      }
+    }
+
+    // Whatever remains of the right range is already in place; only the left needs copying.
+    System.arraycopy(buffer, leftIndex, elements, mergedIndex, middleIndex - leftIndex + 1);
+  }
+
+  /**
+   * Sort a small range of the array with insertion sort.
+   * @param elements Array containing the range to be sorted.
+   * @param startIndex Left most boundary of the range (inclusive).
+   * @param endIndex Right most boundary of the range (inclusive).
+   */
+  private void insertionSort(T[] elements, int startIndex, int endIndex) {
+    for (int sortedIndex = startIndex + 1; sortedIndex <= endIndex; sortedIndex++) {
+      T value = elements[sortedIndex];
+      int innerIndex = sortedIndex - 1;
+      while (innerIndex >= startIndex && value.compareTo(elements[innerIndex]) < 0) {
+        elements[innerIndex + 1] = elements[innerIndex];
+        innerIndex--;
+      }
+      elements[innerIndex + 1] = value;
+    }
+  }
+
+  /**
+   * A fork-join task that merge sorts one range of the array.
+   */
+  private class MergesortTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final T[] elements;
+    private final T[] buffer;
+    private final int startIndex;
+    private final int endIndex;
+
+    MergesortTask(T[] elements, T[] buffer, int startIndex, int endIndex) {
+      this.elements = elements;
+      this.buffer = buffer;
+      this.startIndex = startIndex;
+      this.endIndex = endIndex;
+    }
+
+    @Override
+    protected void compute() {
+      // BASE CASE: Splitting further is not worth the overhead of another task.
+      if (endIndex - startIndex < sequentialThreshold) {
+        mergeSort(elements, buffer, startIndex, endIndex);
+        return;
+      }
+
+      // RECURSIVE CASE: Sort both halves concurrently, then merge them on this thread.
+      int middleIndex = startIndex + ((endIndex - startIndex) / 2);
+      invokeAll(new MergesortTask(elements, buffer, startIndex, middleIndex),
+          new MergesortTask(elements, buffer, middleIndex + 1, endIndex));
+      merge(elements, buffer, startIndex, middleIndex, endIndex);
+    }
+  }
+}
@@ -0,0 +1,309 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Performs a least significant digit (LSD) Radix sort on arrays of primitive ints and longs
+ * using several threads.
+ *
+ * The byte-wide passes are the same as in {@link RadixArraySorter}, but each pass is spread
+ * across the threads of a fork-join pool:
+ * 1. Partition - The range is divided into one contiguous chunk per thread.
+ * 2. Count - Every thread builds its own 256-bucket histogram for its chunk, so no counter is
+ * ever shared between threads.
+ * 3. Prefix sum - The per-thread histograms are combined, bucket by bucket and within a bucket
+ * chunk by chunk, into the exact position at which each thread writes its first key of each
+ * bucket. Keys from an earlier chunk always land before keys of the same bucket from a later
+ * chunk, which keeps every pass stable.
+ * 4. Scatter - Every thread copies its chunk's keys into the second buffer at those positions.
+ * Since the positions never overlap, no locking is needed.
+ * Before the first pass, one parallel counting step over every byte position finds the passes
+ * in which all keys share a byte so that they can be skipped, just as the sequential sort
+ * does.
+ *
+ * Ranges at or below the sequential threshold are handed to {@link RadixArraySorter}, since the
+ * cost of coordinating threads outweighs the gain on small inputs.
+ */
+public class ParallelRadixArraySorter implements IntArraySorter, LongArraySorter {
+  /**
+   * Ranges of this size or smaller are sorted on the calling thread by default.
+   */
+  public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 16;
+
+  /**
+   * Chunks are never made smaller than this, even if the pool has threads to spare.
+   */
+  private static final int MIN_CHUNK_SIZE = 1 << 12;
+
+  /**
+   * The number of distinct values a single byte can take, and hence the number of buckets.
+   */
+  private static final int RADIX = 256;
+
+  private final ForkJoinPool pool;
+  private final int sequentialThreshold;
+  private final RadixArraySorter radixArraySorter;
+  private final ArraySorterHelper arraySorterHelper;
+
+  /**
+   * Create a sorter that runs on the common fork-join pool.
+   */
+  public ParallelRadixArraySorter() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   */
+  public ParallelRadixArraySorter(ForkJoinPool pool) {
+    this(pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   * @param sequentialThreshold Ranges of this size or smaller are sorted on the calling thread.
+   */
+  public ParallelRadixArraySorter(ForkJoinPool pool, int sequentialThreshold) {
+    if (pool == null) {
+      throw new NullPointerException("pool");
+    }
+    if (sequentialThreshold < 1) {
+      throw new IllegalArgumentException(
+          "sequentialThreshold must be positive: " + sequentialThreshold);
+    }
+    this.pool = pool;
+    this.sequentialThreshold = sequentialThreshold;
+    radixArraySorter = new RadixArraySorter();
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    final int size = toIndex - fromIndex;
+    if (size <= sequentialThreshold) {
+      return radixArraySorter.sort(array, fromIndex, toIndex);
+    }
+
+    final int passes = Integer.SIZE / Byte.SIZE;
+    final int chunks = chunkCount(size);
+    final int[][] histograms = new int[chunks][passes * RADIX];
+
+    // Find the passes that can be skipped by counting every byte position in parallel.
+    final int[] initialSource = array;
+    pool.invoke(new ChunkedAction(fromIndex, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] histogram = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          int value = initialSource[i];
+          for (int pass = 0; pass < passes; pass++) {
+            histogram[(pass * RADIX) + radixArraySorter.intDigit(value, pass, passes)]++;
+          }
+        }
+      }
+    });
+    boolean[] skipPass = findSkippablePasses(histograms, passes, size);
+
+    int[] source = array;
+    int sourceOffset = fromIndex;
+    int[] destination = new int[size];
+    int destinationOffset = 0;
+    for (int pass = 0; pass < passes; pass++) {
+      if (skipPass[pass]) {
+        continue;
+      }
+
+      final int[] passSource = source;
+      final int passSourceOffset = sourceOffset;
+      final int[] passDestination = destination;
+      final int passDestinationOffset = destinationOffset;
+      final int currentPass = pass;
+
+      // Step 2: Each thread counts its own chunk for this byte.
+      pool.invoke(new ChunkedAction(passSourceOffset, size, chunks) {
+        @Override
+        void processChunk(int chunk, int chunkStart, int chunkEnd) {
+          int[] histogram = histograms[chunk];
+          Arrays.fill(histogram, 0, RADIX, 0);
+          for (int i = chunkStart; i < chunkEnd; i++) {
+            histogram[radixArraySorter.intDigit(passSource[i], currentPass, passes)]++;
+          }
+        }
+      });
+
+      // Step 3: Turn the per-thread counts into per-thread write positions.
+      computeWriteOffsets(histograms, passDestinationOffset);
+
+      // Step 4: Each thread scatters its own chunk.
+      pool.invoke(new ChunkedAction(passSourceOffset, size, chunks) {
+        @Override
+        void processChunk(int chunk, int chunkStart, int chunkEnd) {
+          int[] offsets = histograms[chunk];
+          for (int i = chunkStart; i < chunkEnd; i++) {
+            int value = passSource[i];
+            passDestination[offsets[radixArraySorter.intDigit(value, currentPass, passes)]++] =
+                value;
+          }
+        }
+      });
+
+      // The buffer just written becomes the source of the next pass.
+      source = passDestination;
+      sourceOffset = passDestinationOffset;
+      destination = passSource;
+      destinationOffset = passSourceOffset;
+    }
+
+    // After an odd number of passes the sorted keys are in the buffer.
+    if (source != array) {
+      System.arraycopy(source, sourceOffset, array, fromIndex, size);
+    }
+    return array;
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    final int size = toIndex - fromIndex;
+    if (size <= sequentialThreshold) {
+      return radixArraySorter.sort(array, fromIndex, toIndex);
+    }
+
+    final int passes = Long.SIZE / Byte.SIZE;
+    final int chunks = chunkCount(size);
+    final int[][] histograms = new int[chunks][passes * RADIX];
+
+    final long[] initialSource = array;
+    pool.invoke(new ChunkedAction(fromIndex, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] histogram = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          long value = initialSource[i];
+          for (int pass = 0; pass < passes; pass++) {
+            histogram[(pass * RADIX) + radixArraySorter.longDigit(value, pass, passes)]++;
+          }
+        }
+      }
+    });
+    boolean[] skipPass = findSkippablePasses(histograms, passes, size);
+
+    long[] source = array;
+    int sourceOffset = fromIndex;
+    long[] destination = new long[size];
+    int destinationOffset = 0;
+    for (int pass = 0; pass < passes; pass++) {
+      if (skipPass[pass]) {
+        continue;
+      }
+
+      final long[] passSource = source;
+      final int passSourceOffset = sourceOffset;
+      final long[] passDestination = destination;
+      final int passDestinationOffset = destinationOffset;
+      final int currentPass = pass;
+
+      pool.invoke(new ChunkedAction(passSourceOffset, size, chunks) {
+        @Override
+        void processChunk(int chunk, int chunkStart, int chunkEnd) {
+          int[] histogram = histograms[chunk];
+          Arrays.fill(histogram, 0, RADIX, 0);
+          for (int i = chunkStart; i < chunkEnd; i++) {
+            histogram[radixArraySorter.longDigit(passSource[i], currentPass, passes)]++;
+          }
+        }
+      });
+
+      computeWriteOffsets(histograms, passDestinationOffset);
+
+      pool.invoke(new ChunkedAction(passSourceOffset, size, chunks) {
+        @Override
+        void processChunk(int chunk, int chunkStart, int chunkEnd) {
+          int[] offsets = histograms[chunk];
+          for (int i = chunkStart; i < chunkEnd; i++) {
+            long value = passSource[i];
+            passDestination[offsets[radixArraySorter.longDigit(value, currentPass, passes)]++] =
+                value;
+          }
+        }
+      });
+
+      source = passDestination;
+      sourceOffset = passDestinationOffset;
+      destination = passSource;
+      destinationOffset = passSourceOffset;
+    }
+
+    if (source != array) {
+      System.arraycopy(source, sourceOffset, array, fromIndex, size);
+    }
+    return array;
+  }
+
+  /**
+   * Decide how many chunks to split a range into: one per thread of the pool, unless that
+   * would make the chunks smaller than MIN_CHUNK_SIZE.
+   * @param size The number of elements being sorted.
+   * @return The number of chunks, at least 1.
+   */
+  private int chunkCount(int size) {
+    return Math.max(1, Math.min(pool.getParallelism(), size / MIN_CHUNK_SIZE));
+  }
+
+  /**
+   * Sum the per-chunk histograms of every byte position and find the positions at which all
+   * keys fall into the same bucket.
+   * @param histograms The per-chunk histograms, holding RADIX counts for each byte position.
+   * @param passes The number of byte positions.
+   * @param size The total number of keys.
+   * @return For each byte position, whether its pass can be skipped.
+   */
+  private boolean[] findSkippablePasses(int[][] histograms, int passes, int size) {
+    boolean[] skipPass = new boolean[passes];
+    for (int pass = 0; pass < passes; pass++) {
+      for (int bucket = 0; bucket < RADIX; bucket++) {
+        int total = 0;
+        for (int[] histogram : histograms) {
+          total += histogram[(pass * RADIX) + bucket];
+        }
+        if (total == size) {
+          skipPass[pass] = true;
+          break;
+        }
+      }
+    }
+    return skipPass;
+  }
+
+  /**
+   * Replace the per-chunk counts of a pass with the position at which each chunk writes its
+   * next key of each bucket. Buckets are laid out in order, and within a bucket the chunks are
+   * laid out in order, so the scatter is stable.
+   * @param histograms The per-chunk counts, in the first RADIX slots of each histogram.
+   * @param destinationOffset The index in the destination at which the sorted range starts.
+   */
+  private void computeWriteOffsets(int[][] histograms, int destinationOffset) {
+    int next = destinationOffset;
+    for (int bucket = 0; bucket < RADIX; bucket++) {
+      for (int[] histogram : histograms) {
+        int count = histogram[bucket];
+        histogram[bucket] = next;
+        next += count;
+      }
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Performs Quicksort on arrays of primitive ints, longs and doubles.
+ *
+ * This follows the same Pivot, Partition and Recursive steps as {@link QuicksortListSorter}, but
+ * works directly on the array so no element is ever boxed. A few refinements keep it practical
+ * on real data:
+ * 1. The pivot is the median of the first, middle and last elements of the range, so sorted and
+ * reversed input no longer produce the worst case.
+ * 2. Both partition pointers stop on elements equal to the pivot, so runs of duplicate keys are
+ * split evenly instead of all landing on one side.
+ * 3. Only the smaller partition is sorted recursively; the larger one is handled by looping,
+ * which bounds the recursion depth to O(log n).
+ * 4. Ranges of at most {@link SortingNetwork#MAX_SIZE} elements are finished with a
+ * {@link SortingNetwork}, whose compare-exchanges have no data-dependent branches.
+ *
+ * No memory is allocated while sorting.
+ */
+public class QuicksortArraySorter implements IntArraySorter, LongArraySorter, DoubleArraySorter {
+  private final ArraySorterHelper arraySorterHelper;
+
+  public QuicksortArraySorter() {
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    quickSort(array, fromIndex, toIndex - 1);
+    return array;
+  }
+
+  /**
+   * Perform a quick sort on the range of an array bounded by startIndex and endIndex.
+   * @param array Array to be sorted.
+   * @param startIndex Left most boundary of the range (inclusive).
+   * @param endIndex Right most boundary of the range (inclusive).
+   */
+  private void quickSort(int[] array, int startIndex, int endIndex) {
+    while (endIndex - startIndex >= SortingNetwork.MAX_SIZE) {
+      int pivotIndex = partition(array, startIndex, endIndex);
+
+      // Recurse into the smaller side and keep looping on the larger side so the stack never
+      // grows deeper than log2(n) frames.
+      if (pivotIndex - startIndex < endIndex - pivotIndex) {
+        quickSort(array, startIndex, pivotIndex - 1);
+        startIndex = pivotIndex + 1;
+      } else {
+        quickSort(array, pivotIndex + 1, endIndex);
+        endIndex = pivotIndex - 1;
+      }
+    }
+    SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+  }
+
+  /**
+   * Partition the range of the array around a median-of-three pivot.
+   * @param array Array containing the range to partition.
+   * @param leftIndex Left most boundary of the range (inclusive).
+   * @param rightIndex Right most boundary of the range (inclusive).
+   * @return The final index of the pivot element.
+   */
+  private int partition(int[] array, int leftIndex, int rightIndex) {
+    // Order the first, middle and last elements so that the median ends up in the rightmost
+    // position, where it serves as the pivot. The leftmost element is then no larger than the
+    // pivot and acts as a sentinel that stops the right pointer.
+    int middleIndex = leftIndex + ((rightIndex - leftIndex) / 2);
+    if (array[middleIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, middleIndex, leftIndex);
+    }
+    if (array[rightIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, rightIndex, leftIndex);
+    }
+    if (array[middleIndex] < array[rightIndex]) {
+      arraySorterHelper.swap(array, middleIndex, rightIndex);
+    }
+    int pivot = array[rightIndex];
+
+    int left = leftIndex - 1;
+    int right = rightIndex;
+    while (true) {
+      // Find the first element on the left that does not belong before the pivot. The pivot
+      // itself stops this scan.
+      do {
+        left++;
+      } while (array[left] < pivot);
+
+      // Find the first element on the right that does not belong after the pivot.
+      do {
+        right--;
+      } while (pivot < array[right]);
+
+      if (left >= right) {
+        break;
+      }
+      arraySorterHelper.swap(array, left, right);
+    }
+
+    // Move the pivot into its final position.
+    arraySorterHelper.swap(array, left, rightIndex);
+    return left;
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    quickSort(array, fromIndex, toIndex - 1);
+    return array;
+  }
+
+  /**
+   * Perform a quick sort on the range of an array bounded by startIndex and endIndex.
+   * @param array Array to be sorted.
+   * @param startIndex Left most boundary of the range (inclusive).
+   * @param endIndex Right most boundary of the range (inclusive).
+   */
+  private void quickSort(long[] array, int startIndex, int endIndex) {
+    while (endIndex - startIndex >= SortingNetwork.MAX_SIZE) {
+      int pivotIndex = partition(array, startIndex, endIndex);
+
+      // Recurse into the smaller side and keep looping on the larger side so the stack never
+      // grows deeper than log2(n) frames.
+      if (pivotIndex - startIndex < endIndex - pivotIndex) {
+        quickSort(array, startIndex, pivotIndex - 1);
+        startIndex = pivotIndex + 1;
+      } else {
+        quickSort(array, pivotIndex + 1, endIndex);
+        endIndex = pivotIndex - 1;
+      }
+    }
+    SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+  }
+
+  /**
+   * Partition the range of the array around a median-of-three pivot.
+   * @param array Array containing the range to partition.
+   * @param leftIndex Left most boundary of the range (inclusive).
+   * @param rightIndex Right most boundary of the range (inclusive).
+   * @return The final index of the pivot element.
+   */
+  private int partition(long[] array, int leftIndex, int rightIndex) {
+    // Order the first, middle and last elements so that the median ends up in the rightmost
+    // position, where it serves as the pivot. The leftmost element is then no larger than the
+    // pivot and acts as a sentinel that stops the right pointer.
+    int middleIndex = leftIndex + ((rightIndex - leftIndex) / 2);
+    if (array[middleIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, middleIndex, leftIndex);
+    }
+    if (array[rightIndex] < array[leftIndex]) {
+      arraySorterHelper.swap(array, rightIndex, leftIndex);
+    }
+    if (array[middleIndex] < array[rightIndex]) {
+      arraySorterHelper.swap(array, middleIndex, rightIndex);
+    }
+    long pivot = array[rightIndex];
+
+    int left = leftIndex - 1;
+    int right = rightIndex;
+    while (true) {
+      // Find the first element on the left that does not belong before the pivot. The pivot
+      // itself stops this scan.
+      do {
+        left++;
+      } while (array[left] < pivot);
+
+      // Find the first element on the right that does not belong after the pivot.
+      do {
+        right--;
+      } while (pivot < array[right]);
+
+      if (left >= right) {
+        break;
+      }
+      arraySorterHelper.swap(array, left, right);
+    }
+
+    // Move the pivot into its final position.
+    arraySorterHelper.swap(array, left, rightIndex);
+    return left;
+  }
+
+  @Override
+  public double[] sort(double[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public double[] sort(double[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    quickSort(array, fromIndex, toIndex - 1);
+    return array;
+  }
+
+  /**
+   * Perform a quick sort on the range of an array bounded by startIndex and endIndex.
+   * @param array Array to be sorted.
+   * @param startIndex Left most boundary of the range (inclusive).
+   * @param endIndex Right most boundary of the range (inclusive).
+   */
+  private void quickSort(double[] array, int startIndex, int endIndex) {
+    while (endIndex - startIndex >= SortingNetwork.MAX_SIZE) {
+      int pivotIndex = partition(array, startIndex, endIndex);
+
+      // Recurse into the smaller side and keep looping on the larger side so the stack never
+      // grows deeper than log2(n) frames.
+      if (pivotIndex - startIndex < endIndex - pivotIndex) {
+        quickSort(array, startIndex, pivotIndex - 1);
+        startIndex = pivotIndex + 1;
+      } else {
+        quickSort(array, pivotIndex + 1, endIndex);
+        endIndex = pivotIndex - 1;
+      }
+    }
+    SortingNetwork.forSize(endIndex - startIndex + 1).sort(array, startIndex);
+  }
+
+  /**
+   * Partition the range of the array around a median-of-three pivot.
+   * @param array Array containing the range to partition.
+   * @param leftIndex Left most boundary of the range (inclusive).
+   * @param rightIndex Right most boundary of the range (inclusive).
+   * @return The final index of the pivot element.
+   */
+  private int partition(double[] array, int leftIndex, int rightIndex) {
+    // Order the first, middle and last elements so that the median ends up in the rightmost
+    // position, where it serves as the pivot. The leftmost element is then no larger than the
+    // pivot and acts as a sentinel that stops the right pointer.
+    int middleIndex = leftIndex + ((rightIndex - leftIndex) / 2);
+    if (arraySorterHelper.isLess(array[middleIndex], array[leftIndex])) {
+      arraySorterHelper.swap(array, middleIndex, leftIndex);
+    }
+    if (arraySorterHelper.isLess(array[rightIndex], array[leftIndex])) {
+      arraySorterHelper.swap(array, rightIndex, leftIndex);
+    }
+    if (arraySorterHelper.isLess(array[middleIndex], array[rightIndex])) {
+      arraySorterHelper.swap(array, middleIndex, rightIndex);
+    }
+    double pivot = array[rightIndex];
+
+    int left = leftIndex - 1;
+    int right = rightIndex;
+    while (true) {
+      // Find the first element on the left that does not belong before the pivot. The pivot
+      // itself stops this scan.
+      do {
+        left++;
+      } while (arraySorterHelper.isLess(array[left], pivot));
+
+      // Find the first element on the right that does not belong after the pivot.
+      do {
+        right--;
+      } while (arraySorterHelper.isLess(pivot, array[right]));
+
+      if (left >= right) {
+        break;
+      }
+      arraySorterHelper.swap(array, left, right);
+    }
+
+    // Move the pivot into its final position.
+    arraySorterHelper.swap(array, left, rightIndex);
+    return left;
+  }
+}
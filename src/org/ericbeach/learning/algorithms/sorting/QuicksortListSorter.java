@@ -15,7 +15,8 @@ import java.util.List;
  * In other words, recursively apply quick sort to each of the two separate partitioned lists
  * created from the just-completed partition step (i.e., call quick sort on the left half of the
  * partitioned list and call quick sort on the right half of the partitioned list). The base case
- * of the recursion are lists of size zero or one, which never need to be sorted.
+ * of the recursion are lists of at most {@link SortingNetwork#MAX_SIZE} elements, which are
+ * sorted with a {@link SortingNetwork} rather than partitioned all the way down to one element.
  * 
  * @param <T> Generic type.
  */
@@ -28,7 +29,10 @@ public class QuicksortListSorter <T extends Comparable<? super T>> implements Li
   
   @Override
   public List<T> sort(List<T> list) {
-    quickSort(list, 0, list.size() - 1);
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> staged = listSorterHelper.stage(list);
+    quickSort(staged, 0, staged.size() - 1);
+    listSorterHelper.unstage(staged, list);
     return list;
   }
   
@@ -47,6 +51,13 @@ public class QuicksortListSorter <T extends Comparable<? super T>> implements Li
       return;
     }
 
+    // BASE CASE: List is small enough for a sorting network, which sorts it without the calls
+    // and unpredictable branches of partitioning it further.
+    if (endIndex - startIndex < SortingNetwork.MAX_SIZE) {
+      SortingNetwork.forSize(endIndex - startIndex + 1).sort(list, startIndex);
+      return;
+    }
+
     // RECURSIVE CASE: The current list can still be divided (i.e., partitioned) into sublists.
     // Partition the lists into two lists and return the index of the element
     // that served as the pivot (i.e., the element that divided the two lists). The two lists
@@ -0,0 +1,367 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Performs a least significant digit (LSD) Radix sort on arrays of primitive ints, longs,
+ * floats and doubles.
+ *
+ * Unlike the decimal digits historically used by {@link RadixIntegerSorter}, each "digit" here is
+ * a whole byte (base 256), so an int or float is sorted in at most 4 passes and a long or double
+ * in at most 8. The sort works as follows:
+ * 1. Count - In a single read of the input, count how many keys fall into each of the 256
+ * buckets for every byte position at once.
+ * 2. Skip - Any byte position at which every key falls into the same bucket cannot change the
+ * order, so its pass is skipped entirely. Keys that only use their low bytes (small counters,
+ * timestamps within a narrow window) therefore cost only as many passes as they have
+ * varying bytes.
+ * 3. Scatter - For each remaining byte, from least to most significant, turn that byte's counts
+ * into starting offsets with a running (prefix) sum and copy every key into its bucket's next
+ * free slot in a second buffer.
+ * The next pass reads from that buffer and writes back into the original, so a single buffer
+ * the size of the range is "ping-ponged" between passes instead of allocating fresh buckets
+ * every time. Because each pass is stable, after the most significant byte the keys are fully
+ * sorted.
+ *
+ * Signed values are handled by flipping the sign bit of the most significant byte, which maps
+ * negative numbers below positive ones. Floats and doubles are first converted to an int or
+ * long whose ordering matches {@link Float#compare(float, float)} and
+ * {@link Double#compare(double, double)}: the raw bits of a positive value already order
+ * correctly, while a negative value needs all of its bits other than the sign flipped so that
+ * larger magnitudes sort lower.
+ */
+public class RadixArraySorter
+    implements IntArraySorter, LongArraySorter, FloatArraySorter, DoubleArraySorter {
+  /**
+   * The number of distinct values a single byte can take, and hence the number of buckets.
+   */
+  private static final int RADIX = 256;
+
+  /**
+   * Mask used to pull the current byte out of a key.
+   */
+  private static final int BYTE_MASK = 0xFF;
+
+  /**
+   * XOR-ing the most significant byte with this maps signed ordering onto unsigned ordering.
+   */
+  private static final int SIGN_FLIP = 0x80;
+
+  private final ArraySorterHelper arraySorterHelper;
+
+  public RadixArraySorter() {
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    if (toIndex - fromIndex < 2) {
+      return array;
+    }
+    sortSignedInts(array, fromIndex, toIndex, new int[toIndex - fromIndex]);
+    return array;
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    if (toIndex - fromIndex < 2) {
+      return array;
+    }
+    sortSignedLongs(array, fromIndex, toIndex, new long[toIndex - fromIndex]);
+    return array;
+  }
+
+  @Override
+  public float[] sort(float[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public float[] sort(float[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return array;
+    }
+
+    // Convert each float to an int that sorts the same way, sort the ints and convert back.
+    int[] keys = new int[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = toSortableInt(array[fromIndex + i]);
+    }
+    sortSignedInts(keys, 0, size, new int[size]);
+    for (int i = 0; i < size; i++) {
+      array[fromIndex + i] = fromSortableInt(keys[i]);
+    }
+    return array;
+  }
+
+  @Override
+  public double[] sort(double[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public double[] sort(double[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return array;
+    }
+
+    // Convert each double to a long that sorts the same way, sort the longs and convert back.
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = toSortableLong(array[fromIndex + i]);
+    }
+    sortSignedLongs(keys, 0, size, new long[size]);
+    for (int i = 0; i < size; i++) {
+      array[fromIndex + i] = fromSortableLong(keys[i]);
+    }
+    return array;
+  }
+
+  /**
+   * Work out the order in which a set of signed long keys would be sorted, without moving the
+   * keys themselves. Equal keys keep their original relative order.
+   * @param keys The keys. The array is not modified.
+   * @return An array of indices into keys such that keys[result[0]], keys[result[1]], ... is
+   *     sorted.
+   */
+  public int[] sortIndices(long[] keys) {
+    int size = keys.length;
+    int passes = Long.SIZE / Byte.SIZE;
+    int[] indices = new int[size];
+    for (int i = 0; i < size; i++) {
+      indices[i] = i;
+    }
+    if (size < 2) {
+      return indices;
+    }
+
+    // The same passes as sortSignedLongs, but every key carries its original index with it.
+    int[][] counts = new int[passes][RADIX + 1];
+    for (long value : keys) {
+      for (int pass = 0; pass < passes; pass++) {
+        counts[pass][longDigit(value, pass, passes) + 1]++;
+      }
+    }
+
+    long[] sourceKeys = keys;
+    int[] sourceIndices = indices;
+    long[] destinationKeys = new long[size];
+    int[] destinationIndices = new int[size];
+    for (int pass = 0; pass < passes; pass++) {
+      int[] passCounts = counts[pass];
+      if (passCounts[longDigit(sourceKeys[0], pass, passes) + 1] == size) {
+        continue;
+      }
+
+      for (int bucket = 0; bucket < RADIX; bucket++) {
+        passCounts[bucket + 1] += passCounts[bucket];
+      }
+      for (int i = 0; i < size; i++) {
+        int target = passCounts[longDigit(sourceKeys[i], pass, passes)]++;
+        destinationKeys[target] = sourceKeys[i];
+        destinationIndices[target] = sourceIndices[i];
+      }
+
+      // The caller's keys are never written to, so the first pass gets a fresh buffer.
+      long[] swapKeys = (sourceKeys == keys) ? new long[size] : sourceKeys;
+      sourceKeys = destinationKeys;
+      destinationKeys = swapKeys;
+      int[] swapIndices = sourceIndices;
+      sourceIndices = destinationIndices;
+      destinationIndices = swapIndices;
+    }
+    return sourceIndices;
+  }
+
+  /**
+   * Radix sort a range of signed ints using the supplied buffer as the ping-pong target.
+   * @param array The array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted (inclusive).
+   * @param toIndex The index one past the last element to be sorted (exclusive).
+   * @param buffer A buffer at least as long as the range.
+   */
+  private void sortSignedInts(int[] array, int fromIndex, int toIndex, int[] buffer) {
+    int size = toIndex - fromIndex;
+    int passes = Integer.SIZE / Byte.SIZE;
+
+    // Step 1: Count the keys that fall into each bucket of every byte position in one read.
+    // Counts are stored one slot to the right so that the prefix sum below yields each bucket's
+    // starting offset.
+    int[][] counts = new int[passes][RADIX + 1];
+    for (int i = fromIndex; i < toIndex; i++) {
+      int value = array[i];
+      for (int pass = 0; pass < passes; pass++) {
+        counts[pass][intDigit(value, pass, passes) + 1]++;
+      }
+    }
+
+    int[] source = array;
+    int sourceOffset = fromIndex;
+    int[] destination = buffer;
+    int destinationOffset = 0;
+    for (int pass = 0; pass < passes; pass++) {
+      // Step 2: Skip the pass if every key shares this byte.
+      int[] passCounts = counts[pass];
+      if (passCounts[intDigit(source[sourceOffset], pass, passes) + 1] == size) {
+        continue;
+      }
+
+      // Step 3: Turn the counts into starting offsets and scatter the keys into their buckets,
+      // preserving their relative order.
+      for (int bucket = 0; bucket < RADIX; bucket++) {
+        passCounts[bucket + 1] += passCounts[bucket];
+      }
+      for (int i = sourceOffset; i < sourceOffset + size; i++) {
+        int bucket = intDigit(source[i], pass, passes);
+        destination[destinationOffset + passCounts[bucket]++] = source[i];
+      }
+
+      // The buffer just written becomes the source of the next pass.
+      int[] swapArray = source;
+      source = destination;
+      destination = swapArray;
+      int swapOffset = sourceOffset;
+      sourceOffset = destinationOffset;
+      destinationOffset = swapOffset;
+    }
+
+    // After an odd number of passes the sorted keys are in the buffer.
+    if (source != array) {
+      System.arraycopy(source, sourceOffset, array, fromIndex, size);
+    }
+  }
+
+  /**
+   * Radix sort a range of signed longs using the supplied buffer as the ping-pong target.
+   * @param array The array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted (inclusive).
+   * @param toIndex The index one past the last element to be sorted (exclusive).
+   * @param buffer A buffer at least as long as the range.
+   */
+  private void sortSignedLongs(long[] array, int fromIndex, int toIndex, long[] buffer) {
+    int size = toIndex - fromIndex;
+    int passes = Long.SIZE / Byte.SIZE;
+
+    int[][] counts = new int[passes][RADIX + 1];
+    for (int i = fromIndex; i < toIndex; i++) {
+      long value = array[i];
+      for (int pass = 0; pass < passes; pass++) {
+        counts[pass][longDigit(value, pass, passes) + 1]++;
+      }
+    }
+
+    long[] source = array;
+    int sourceOffset = fromIndex;
+    long[] destination = buffer;
+    int destinationOffset = 0;
+    for (int pass = 0; pass < passes; pass++) {
+      int[] passCounts = counts[pass];
+      if (passCounts[longDigit(source[sourceOffset], pass, passes) + 1] == size) {
+        continue;
+      }
+
+      for (int bucket = 0; bucket < RADIX; bucket++) {
+        passCounts[bucket + 1] += passCounts[bucket];
+      }
+      for (int i = sourceOffset; i < sourceOffset + size; i++) {
+        int bucket = longDigit(source[i], pass, passes);
+        destination[destinationOffset + passCounts[bucket]++] = source[i];
+      }
+
+      long[] swapArray = source;
+      source = destination;
+      destination = swapArray;
+      int swapOffset = sourceOffset;
+      sourceOffset = destinationOffset;
+      destinationOffset = swapOffset;
+    }
+
+    if (source != array) {
+      System.arraycopy(source, sourceOffset, array, fromIndex, size);
+    }
+  }
+
+  /**
+   * Extract one byte of a signed int as an unsigned bucket number, flipping the sign bit when
+   * extracting the most significant byte.
+   * @param value The key.
+   * @param pass The byte position, 0 being the least significant.
+   * @param passes The total number of byte positions in the key.
+   * @return The bucket, between 0 and 255.
+   */
+  int intDigit(int value, int pass, int passes) {
+    int digit = (value >>> (pass * Byte.SIZE)) & BYTE_MASK;
+    return (pass == passes - 1) ? digit ^ SIGN_FLIP : digit;
+  }
+
+  /**
+   * Extract one byte of a signed long as an unsigned bucket number, flipping the sign bit when
+   * extracting the most significant byte.
+   * @param value The key.
+   * @param pass The byte position, 0 being the least significant.
+   * @param passes The total number of byte positions in the key.
+   * @return The bucket, between 0 and 255.
+   */
+  int longDigit(long value, int pass, int passes) {
+    int digit = ((int) (value >>> (pass * Byte.SIZE))) & BYTE_MASK;
+    return (pass == passes - 1) ? digit ^ SIGN_FLIP : digit;
+  }
+
+  /**
+   * Map a float onto a signed int such that comparing the ints gives the same result as
+   * {@link Float#compare(float, float)} on the floats.
+   * @param value The float to convert.
+   * @return An int with the same ordering as the float.
+   */
+  static int toSortableInt(float value) {
+    int bits = Float.floatToIntBits(value);
+    // Negative floats have all of their magnitude bits flipped so larger magnitudes sort
+    // lower. The sign bit itself is left as is since the ints are compared as signed.
+    return bits ^ ((bits >> (Integer.SIZE - 1)) & Integer.MAX_VALUE);
+  }
+
+  /**
+   * Reverse the mapping done by {@link #toSortableInt(float)}.
+   * @param key The sortable int.
+   * @return The original float.
+   */
+  static float fromSortableInt(int key) {
+    return Float.intBitsToFloat(key ^ ((key >> (Integer.SIZE - 1)) & Integer.MAX_VALUE));
+  }
+
+  /**
+   * Map a double onto a signed long such that comparing the longs gives the same result as
+   * {@link Double#compare(double, double)} on the doubles.
+   * @param value The double to convert.
+   * @return A long with the same ordering as the double.
+   */
+  static long toSortableLong(double value) {
+    long bits = Double.doubleToLongBits(value);
+    // Negative doubles have all of their magnitude bits flipped so larger magnitudes sort
+    // lower. The sign bit itself is left as is since the longs are compared as signed.
+    return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+  }
+
+  /**
+   * Reverse the mapping done by {@link #toSortableLong(double)}.
+   * @param key The sortable long.
+   * @return The original double.
+   */
+  static double fromSortableLong(long key) {
+    return Double.longBitsToDouble(key ^ ((key >> (Long.SIZE - 1)) & Long.MAX_VALUE));
+  }
+}
@@ -1,47 +1,61 @@
 package org.ericbeach.learning.algorithms.sorting;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Performs Radix sort on a list of integers.
+ *
+ * The integers are unboxed into an int[] once, sorted by {@link RadixArraySorter} with base-256
+ * counting passes over a single ping-pong buffer, and written back into the list. Negative
+ * integers sort below positive ones and the caller no longer needs to know how many digits the
+ * largest value has.
  */
 public class RadixIntegerSorter {
+  private final RadixArraySorter radixArraySorter;
+
+  public RadixIntegerSorter() {
+    radixArraySorter = new RadixArraySorter();
+  }
+
   /**
-   * Perform a Radix sort on array of integers.
-   * @param list
-   * @param maxDigits
-   * @return
+   * Perform a Radix sort on a list of integers.
+   * @param list The integers to be sorted. The list is sorted in place.
+   * @return The same list, now sorted.
    */
-  public ArrayList<Integer> sortIntegers(ArrayList<Integer> list, int maxDigits) {
-    int nextPosToSort = 1;
-    final int base = 10;
-    int exp = 1;
+  public List<Integer> sortIntegers(List<Integer> list) {
+    // Step 1: Unbox the integers into a primitive array.
+    int[] keys = new int[list.size()];
+    int index = 0;
+    for (Integer value : list) {
+      keys[index++] = value;
+    }
 
-    // Step 1: Perform the sort operation for each digit.
-    while (nextPosToSort <= maxDigits) {
-      
-      // Step 1.A: Create buckets for each digit.
-      ArrayList<ArrayList<Integer>> buckets = new ArrayList<ArrayList<Integer>>();
-      for (int i = 0; i < base; i++) {
-        buckets.add(new ArrayList<Integer>()); 
-      }
-      
-      // Step 1.B: Place each number into the appropriate bucket.
-      for (int i = 0; i < list.size(); i++) {
-        int elemDestinationBucketIndex = (list.get(i) / exp) % base;
-        buckets.get(elemDestinationBucketIndex).add(list.get(i));
-      }
-      exp *= base;
+    // Step 2: Sort the primitive array.
+    radixArraySorter.sort(keys);
 
-      // Step 1.C: Unwind the bucketed array.
-      int finalListIndex = 0;
-      for (int bIndex = 0; bIndex < base; bIndex++) {
-        for (int i = 0; i < buckets.get(bIndex).size(); i++, finalListIndex++) {
-          list.set(finalListIndex, buckets.get(bIndex).get(i));
-        }
-      }
-      nextPosToSort++;
+    // Step 3: Write the sorted integers back into the list.
+    ListIterator<Integer> iterator = list.listIterator();
+    for (int key : keys) {
+      iterator.next();
+      iterator.set(key);
     }
     return list;
   }
+
+  /**
+   * Perform a Radix sort on array of integers.
+   * @param list The integers to be sorted. The list is sorted in place.
+   * @param maxDigits Ignored. The number of passes is now derived from the keys themselves.
+   * @return The same list, now sorted.
+   * @deprecated Use {@link #sortIntegers(List)}, which does not need the number of digits.
+   *     maxDigits is now ignored: every digit of every value is sorted on, so values with more
+   *     than maxDigits digits are no longer left out of order.
+   */
+  @Deprecated
+  public ArrayList<Integer> sortIntegers(ArrayList<Integer> list, int maxDigits) {
+    sortIntegers((List<Integer>) list);
+    return list;
+  }
 }
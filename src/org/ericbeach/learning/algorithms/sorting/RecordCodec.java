@@ -0,0 +1,32 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for all classes that turn records into bytes and back, so that they can be written
+ * to and read from record files.
+ * @param <T> Generic type.
+ */
+public interface RecordCodec <T> {
+  /**
+   * Return the number of bytes that {@link #encode(Object, ByteBuffer)} writes for a record.
+   * @param record The record.
+   * @return The encoded length in bytes.
+   */
+  public int encodedLength(T record);
+
+  /**
+   * Write a record into a buffer, starting at the buffer's position. Exactly
+   * {@link #encodedLength(Object)} bytes must be written.
+   * @param record The record.
+   * @param buffer The buffer, with at least encodedLength(record) bytes remaining.
+   */
+  public void encode(T record, ByteBuffer buffer);
+
+  /**
+   * Read a record back from a buffer.
+   * @param buffer A buffer whose remaining bytes are exactly those written by encode.
+   * @return The decoded record.
+   */
+  public T decode(ByteBuffer buffer);
+}
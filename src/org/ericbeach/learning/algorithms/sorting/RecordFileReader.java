@@ -0,0 +1,140 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the records of a file written by {@link RecordFileWriter}, one at a time.
+ *
+ * The file is read a buffer at a time through a file channel, so only the buffer and the
+ * current record are ever held in memory, however large the file is. Since
+ * {@link Iterator#next()} cannot throw a checked exception, read errors are reported as
+ * {@link UncheckedIOException}.
+ *
+ * @param <T> Generic type.
+ */
+public class RecordFileReader <T> implements Iterator<T>, Closeable {
+  /**
+   * The size of the read buffer used unless told otherwise.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final RecordCodec<T> codec;
+  private ByteBuffer buffer;
+  private boolean endOfFile;
+
+  /**
+   * Create a reader for a file.
+   * @param file The file to read.
+   * @param codec The codec used to decode records.
+   * @throws IOException If the file cannot be opened.
+   */
+  public RecordFileReader(File file, RecordCodec<T> codec) throws IOException {
+    this(file, codec, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Create a reader for a file.
+   * @param file The file to read.
+   * @param codec The codec used to decode records.
+   * @param bufferSize The number of bytes read from the file at a time.
+   * @throws IOException If the file cannot be opened.
+   */
+  public RecordFileReader(File file, RecordCodec<T> codec, int bufferSize) throws IOException {
+    if (codec == null) {
+      throw new NullPointerException("codec");
+    }
+    if (bufferSize < RecordFileWriter.LENGTH_PREFIX_SIZE) {
+      throw new IllegalArgumentException("bufferSize is too small: " + bufferSize);
+    }
+    this.codec = codec;
+    buffer = ByteBuffer.allocateDirect(bufferSize);
+    buffer.flip();
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      return fill(RecordFileWriter.LENGTH_PREFIX_SIZE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      int length = buffer.getInt();
+      if (!fill(length)) {
+        throw new EOFException("Truncated record of " + length + " bytes");
+      }
+
+      // Hand the codec a view of exactly this record's bytes.
+      ByteBuffer record = buffer.slice();
+      record.limit(length);
+      buffer.position(buffer.position() + length);
+      return codec.decode(record);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Make sure that at least the requested number of bytes are available in the buffer, reading
+   * more of the file and growing the buffer if necessary.
+   * @param bytes The number of bytes needed.
+   * @return True if the bytes are available, false if the file ended before any of them could
+   *     be read.
+   * @throws IOException If the file cannot be read or ends part way through the bytes.
+   */
+  private boolean fill(int bytes) throws IOException {
+    if (buffer.remaining() >= bytes) {
+      return true;
+    }
+    if (buffer.capacity() < bytes) {
+      ByteBuffer larger = ByteBuffer.allocateDirect(bytes);
+      larger.put(buffer);
+      larger.flip();
+      buffer = larger;
+    }
+
+    boolean empty = !buffer.hasRemaining();
+    buffer.compact();
+    while (buffer.position() < bytes && !endOfFile) {
+      if (channel.read(buffer) < 0) {
+        endOfFile = true;
+      }
+    }
+    buffer.flip();
+    if (buffer.remaining() >= bytes) {
+      return true;
+    }
+    if (empty && !buffer.hasRemaining()) {
+      return false;
+    }
+    throw new EOFException("File ends part way through a record");
+  }
+}
@@ -0,0 +1,122 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes records to a file, each one as a 4-byte length followed by the bytes produced by a
+ * {@link RecordCodec}.
+ *
+ * Records are gathered in a direct buffer and handed to the file channel a buffer at a time,
+ * so writing many small records costs few system calls. The file can be read back with
+ * {@link RecordFileReader}.
+ *
+ * @param <T> Generic type.
+ */
+public class RecordFileWriter <T> implements Closeable {
+  /**
+   * The size of the write buffer used unless told otherwise.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The number of bytes used to store the length of each record.
+   */
+  static final int LENGTH_PREFIX_SIZE = Integer.SIZE / Byte.SIZE;
+
+  private final FileChannel channel;
+  private final RecordCodec<T> codec;
+  private final ByteBuffer buffer;
+
+  /**
+   * Create a writer that replaces the contents of a file.
+   * @param file The file to write.
+   * @param codec The codec used to encode records.
+   * @throws IOException If the file cannot be opened.
+   */
+  public RecordFileWriter(File file, RecordCodec<T> codec) throws IOException {
+    this(file, codec, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Create a writer that replaces the contents of a file.
+   * @param file The file to write.
+   * @param codec The codec used to encode records.
+   * @param bufferSize The number of bytes buffered before they are written to the file.
+   * @throws IOException If the file cannot be opened.
+   */
+  public RecordFileWriter(File file, RecordCodec<T> codec, int bufferSize) throws IOException {
+    if (codec == null) {
+      throw new NullPointerException("codec");
+    }
+    if (bufferSize < LENGTH_PREFIX_SIZE) {
+      throw new IllegalArgumentException("bufferSize is too small: " + bufferSize);
+    }
+    this.codec = codec;
+    buffer = ByteBuffer.allocateDirect(bufferSize);
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Append a record to the file.
+   * @param record The record.
+   * @throws IOException If the buffered records cannot be written.
+   */
+  public void write(T record) throws IOException {
+    int length = codec.encodedLength(record);
+    int framedLength = LENGTH_PREFIX_SIZE + length;
+    if (buffer.remaining() < framedLength) {
+      flush();
+    }
+
+    // A record too large for the buffer is encoded into a buffer of its own.
+    ByteBuffer target = (buffer.capacity() < framedLength)
+        ? ByteBuffer.allocate(framedLength) : buffer;
+    target.putInt(length);
+    int start = target.position();
+    codec.encode(record, target);
+    if (target.position() - start != length) {
+      throw new IllegalStateException("Codec wrote " + (target.position() - start)
+          + " bytes but promised " + length);
+    }
+    if (target != buffer) {
+      target.flip();
+      writeFully(target);
+    }
+  }
+
+  /**
+   * Write any buffered records to the file.
+   * @throws IOException If the records cannot be written.
+   */
+  public void flush() throws IOException {
+    buffer.flip();
+    writeFully(buffer);
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Write every remaining byte of a buffer to the file.
+   * @param source The buffer to write.
+   * @throws IOException If the bytes cannot be written.
+   */
+  private void writeFully(ByteBuffer source) throws IOException {
+    while (source.hasRemaining()) {
+      channel.write(source);
+    }
+  }
+}
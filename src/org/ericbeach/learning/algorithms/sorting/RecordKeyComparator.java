@@ -0,0 +1,20 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for all classes that compare the keys of two fixed-width records stored in the same
+ * buffer, reading them in place.
+ */
+public interface RecordKeyComparator {
+  /**
+   * Compare two keys.
+   * @param buffer The buffer holding both records. Its byte order is big-endian.
+   * @param leftKeyIndex The absolute index in the buffer of the first byte of the left key.
+   * @param rightKeyIndex The absolute index in the buffer of the first byte of the right key.
+   * @param keyLength The length of each key in bytes.
+   * @return A negative number, zero or a positive number as the left key is less than, equal to
+   *     or greater than the right key.
+   */
+  public int compare(ByteBuffer buffer, int leftKeyIndex, int rightKeyIndex, int keyLength);
+}
@@ -0,0 +1,367 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Performs a parallel Sample sort on arrays of primitive ints and longs.
+ *
+ * A parallel merge sort ends with merges that are done by fewer and fewer threads, the last one
+ * by a single thread over the whole array. Sample sort does its splitting up front instead, so
+ * every phase keeps every thread busy:
+ * 1. Sample - A random sample of {@link #OVERSAMPLING} elements per bucket is sorted, and
+ * evenly spaced elements of it are picked as splitters. The oversampling makes it unlikely that
+ * any bucket ends up much larger than the others.
+ * 2. Classify - The range is divided into one contiguous chunk per thread, and every thread
+ * finds the bucket of each element of its chunk. The splitters are stored as an implicit binary
+ * search tree in breadth-first (Eytzinger) order, so finding a bucket takes log2(buckets)
+ * steps that each turn one comparison into the next tree index with arithmetic rather than a
+ * branch. Each bucket has a twin for elements equal to its upper splitter, so that a value
+ * repeated throughout the input gathers in a bucket of its own, which needs no sorting.
+ * 3. Prefix sum - The per-thread bucket counts are combined into the position at which each
+ * thread writes its first element of each bucket, as in {@link ParallelRadixArraySorter}.
+ * 4. Scatter - Every thread copies its chunk's elements into a buffer at those positions.
+ * 5. Sort - Every bucket is sorted by a separate task with {@link BlockQuicksortArraySorter} and
+ * copied back into the array. There are several buckets per thread, so a thread that finishes
+ * a small bucket early picks up another instead of waiting.
+ *
+ * Ranges at or below the sequential threshold are handed to {@link BlockQuicksortArraySorter}
+ * directly. Sorting allocates a buffer the size of the range plus one byte per element.
+ */
+public class SampleSortArraySorter implements IntArraySorter, LongArraySorter {
+  /**
+   * Ranges of this size or smaller are sorted on the calling thread by default.
+   */
+  public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 16;
+
+  /**
+   * The number of sample elements drawn for each bucket.
+   */
+  static final int OVERSAMPLING = 16;
+
+  /**
+   * The number of buckets aimed for per thread of the pool.
+   */
+  private static final int BUCKETS_PER_THREAD = 4;
+
+  /**
+   * The depth of the deepest splitter tree. Twice its number of buckets must fit in a byte.
+   */
+  private static final int MAX_TREE_LEVELS = 7;
+
+  /**
+   * Buckets and chunks are never made smaller than this on average.
+   */
+  private static final int MIN_CHUNK_SIZE = 1 << 12;
+
+  private final ForkJoinPool pool;
+  private final int sequentialThreshold;
+  private final BlockQuicksortArraySorter blockQuicksortArraySorter;
+  private final ArraySorterHelper arraySorterHelper;
+
+  /**
+   * Create a sorter that runs on the common fork-join pool.
+   */
+  public SampleSortArraySorter() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   */
+  public SampleSortArraySorter(ForkJoinPool pool) {
+    this(pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   * @param sequentialThreshold Ranges of this size or smaller are sorted on the calling thread.
+   */
+  public SampleSortArraySorter(ForkJoinPool pool, int sequentialThreshold) {
+    if (pool == null) {
+      throw new NullPointerException("pool");
+    }
+    if (sequentialThreshold < 1) {
+      throw new IllegalArgumentException(
+          "sequentialThreshold must be positive: " + sequentialThreshold);
+    }
+    this.pool = pool;
+    this.sequentialThreshold = sequentialThreshold;
+    blockQuicksortArraySorter = new BlockQuicksortArraySorter();
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(final int[] array, final int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    final int size = toIndex - fromIndex;
+    if (size <= sequentialThreshold) {
+      return blockQuicksortArraySorter.sort(array, fromIndex, toIndex);
+    }
+
+    // Step 1: Pick the splitters from a sorted random sample.
+    final int levels = treeLevels(size);
+    final int bucketCount = 1 << levels;
+    int[] sample = new int[OVERSAMPLING * bucketCount];
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < sample.length; i++) {
+      sample[i] = array[fromIndex + random.nextInt(size)];
+    }
+    blockQuicksortArraySorter.sort(sample);
+    final int[] splitters = new int[bucketCount];
+    for (int i = 0; i < bucketCount - 1; i++) {
+      splitters[i] = sample[((i + 1) * OVERSAMPLING) - 1];
+    }
+    // The last bucket has no upper splitter. Repeating the one below it makes sure nothing is
+    // ever taken to be equal to it.
+    splitters[bucketCount - 1] = splitters[bucketCount - 2];
+    final int[] tree = new int[bucketCount];
+    buildTree(tree, splitters, 1, 0);
+
+    // Step 2: Each thread classifies its own chunk, remembering every element's bucket.
+    final int chunks = chunkCount(size);
+    final int[][] histograms = new int[chunks][2 * bucketCount];
+    final byte[] buckets = new byte[size];
+    pool.invoke(new ChunkedAction(fromIndex, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] histogram = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          int bucket = classify(tree, splitters, levels, array[i]);
+          buckets[i - fromIndex] = (byte) bucket;
+          histogram[bucket]++;
+        }
+      }
+    });
+
+    // Step 3: Turn the per-thread counts into per-thread write positions.
+    final int[] bucketStarts = computeWriteOffsets(histograms);
+
+    // Step 4: Each thread scatters its own chunk.
+    final int[] buffer = new int[size];
+    pool.invoke(new ChunkedAction(fromIndex, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] offsets = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          buffer[offsets[buckets[i - fromIndex] & 0xFF]++] = array[i];
+        }
+      }
+    });
+
+    // Step 5: Sort every bucket and copy it back. The twin buckets hold equal elements only.
+    pool.invoke(new BucketAction(bucketStarts) {
+      @Override
+      void processBucket(int bucket, int bucketStart, int bucketEnd) {
+        if ((bucket & 1) == 0) {
+          blockQuicksortArraySorter.sort(buffer, bucketStart, bucketEnd);
+        }
+        System.arraycopy(buffer, bucketStart, array, fromIndex + bucketStart,
+            bucketEnd - bucketStart);
+      }
+    });
+    return array;
+  }
+
+  /**
+   * Lay sorted splitters out as a complete binary search tree in breadth-first order, so that
+   * the children of the node at index i are at 2i and 2i + 1. Index 0 is unused.
+   * @param tree The tree, with one slot per bucket.
+   * @param splitters The sorted splitters.
+   * @param node The index of the subtree's root in the tree.
+   * @param nextSplitter The index of the smallest splitter not yet placed in the tree.
+   * @return The index of the smallest splitter not yet placed once the subtree is filled.
+   */
+  private int buildTree(int[] tree, int[] splitters, int node, int nextSplitter) {
+    if (node < tree.length) {
+      nextSplitter = buildTree(tree, splitters, 2 * node, nextSplitter);
+      tree[node] = splitters[nextSplitter++];
+      nextSplitter = buildTree(tree, splitters, (2 * node) + 1, nextSplitter);
+    }
+    return nextSplitter;
+  }
+
+  /**
+   * Find the bucket of a value. Bucket 2b holds the values above splitter b - 1 and below
+   * splitter b, and bucket 2b + 1 holds the values equal to splitter b.
+   * @param tree The splitters as a breadth-first binary search tree.
+   * @param splitters The sorted splitters.
+   * @param levels The depth of the tree.
+   * @param value The value.
+   * @return The bucket of the value.
+   */
+  private int classify(int[] tree, int[] splitters, int levels, int value) {
+    int node = 1;
+    for (int level = 0; level < levels; level++) {
+      node = (2 * node) + ((tree[node] < value) ? 1 : 0);
+    }
+    int bucket = node - (1 << levels);
+    return (2 * bucket) + ((splitters[bucket] == value) ? 1 : 0);
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(final long[] array, final int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    final int size = toIndex - fromIndex;
+    if (size <= sequentialThreshold) {
+      return blockQuicksortArraySorter.sort(array, fromIndex, toIndex);
+    }
+
+    // Step 1: Pick the splitters from a sorted random sample.
+    final int levels = treeLevels(size);
+    final int bucketCount = 1 << levels;
+    long[] sample = new long[OVERSAMPLING * bucketCount];
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < sample.length; i++) {
+      sample[i] = array[fromIndex + random.nextInt(size)];
+    }
+    blockQuicksortArraySorter.sort(sample);
+    final long[] splitters = new long[bucketCount];
+    for (int i = 0; i < bucketCount - 1; i++) {
+      splitters[i] = sample[((i + 1) * OVERSAMPLING) - 1];
+    }
+    // The last bucket has no upper splitter. Repeating the one below it makes sure nothing is
+    // ever taken to be equal to it.
+    splitters[bucketCount - 1] = splitters[bucketCount - 2];
+    final long[] tree = new long[bucketCount];
+    buildTree(tree, splitters, 1, 0);
+
+    // Step 2: Each thread classifies its own chunk, remembering every element's bucket.
+    final int chunks = chunkCount(size);
+    final int[][] histograms = new int[chunks][2 * bucketCount];
+    final byte[] buckets = new byte[size];
+    pool.invoke(new ChunkedAction(fromIndex, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] histogram = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          int bucket = classify(tree, splitters, levels, array[i]);
+          buckets[i - fromIndex] = (byte) bucket;
+          histogram[bucket]++;
+        }
+      }
+    });
+
+    // Step 3: Turn the per-thread counts into per-thread write positions.
+    final int[] bucketStarts = computeWriteOffsets(histograms);
+
+    // Step 4: Each thread scatters its own chunk.
+    final long[] buffer = new long[size];
+    pool.invoke(new ChunkedAction(fromIndex, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] offsets = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          buffer[offsets[buckets[i - fromIndex] & 0xFF]++] = array[i];
+        }
+      }
+    });
+
+    // Step 5: Sort every bucket and copy it back. The twin buckets hold equal elements only.
+    pool.invoke(new BucketAction(bucketStarts) {
+      @Override
+      void processBucket(int bucket, int bucketStart, int bucketEnd) {
+        if ((bucket & 1) == 0) {
+          blockQuicksortArraySorter.sort(buffer, bucketStart, bucketEnd);
+        }
+        System.arraycopy(buffer, bucketStart, array, fromIndex + bucketStart,
+            bucketEnd - bucketStart);
+      }
+    });
+    return array;
+  }
+
+  /**
+   * Lay sorted splitters out as a complete binary search tree in breadth-first order, so that
+   * the children of the node at index i are at 2i and 2i + 1. Index 0 is unused.
+   * @param tree The tree, with one slot per bucket.
+   * @param splitters The sorted splitters.
+   * @param node The index of the subtree's root in the tree.
+   * @param nextSplitter The index of the smallest splitter not yet placed in the tree.
+   * @return The index of the smallest splitter not yet placed once the subtree is filled.
+   */
+  private int buildTree(long[] tree, long[] splitters, int node, int nextSplitter) {
+    if (node < tree.length) {
+      nextSplitter = buildTree(tree, splitters, 2 * node, nextSplitter);
+      tree[node] = splitters[nextSplitter++];
+      nextSplitter = buildTree(tree, splitters, (2 * node) + 1, nextSplitter);
+    }
+    return nextSplitter;
+  }
+
+  /**
+   * Find the bucket of a value. Bucket 2b holds the values above splitter b - 1 and below
+   * splitter b, and bucket 2b + 1 holds the values equal to splitter b.
+   * @param tree The splitters as a breadth-first binary search tree.
+   * @param splitters The sorted splitters.
+   * @param levels The depth of the tree.
+   * @param value The value.
+   * @return The bucket of the value.
+   */
+  private int classify(long[] tree, long[] splitters, int levels, long value) {
+    int node = 1;
+    for (int level = 0; level < levels; level++) {
+      node = (2 * node) + ((tree[node] < value) ? 1 : 0);
+    }
+    int bucket = node - (1 << levels);
+    return (2 * bucket) + ((splitters[bucket] == value) ? 1 : 0);
+  }
+
+  /**
+   * Decide how deep a splitter tree to use: deep enough for several buckets per thread of the
+   * pool, unless that would make the buckets smaller than MIN_CHUNK_SIZE on average.
+   * @param size The number of elements being sorted.
+   * @return The depth of the tree, between 1 and MAX_TREE_LEVELS.
+   */
+  private int treeLevels(int size) {
+    int buckets = Math.max(2,
+        Math.min(pool.getParallelism() * BUCKETS_PER_THREAD, size / MIN_CHUNK_SIZE));
+    int levels = Integer.SIZE - Integer.numberOfLeadingZeros(buckets - 1);
+    return Math.max(1, Math.min(MAX_TREE_LEVELS, levels));
+  }
+
+  /**
+   * Decide how many chunks to split a range into: one per thread of the pool, unless that
+   * would make the chunks smaller than MIN_CHUNK_SIZE.
+   * @param size The number of elements being sorted.
+   * @return The number of chunks, at least 1.
+   */
+  private int chunkCount(int size) {
+    return Math.max(1, Math.min(pool.getParallelism(), size / MIN_CHUNK_SIZE));
+  }
+
+  /**
+   * Replace the per-chunk bucket counts with the position at which each chunk writes its next
+   * element of each bucket. Buckets are laid out in order, and within a bucket the chunks are
+   * laid out in order.
+   * @param histograms The per-chunk counts of each bucket.
+   * @return The position at which each bucket starts, followed by the total size.
+   */
+  private int[] computeWriteOffsets(int[][] histograms) {
+    int bucketCount = histograms[0].length;
+    int[] bucketStarts = new int[bucketCount + 1];
+    int next = 0;
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      bucketStarts[bucket] = next;
+      for (int[] histogram : histograms) {
+        int count = histogram[bucket];
+        histogram[bucket] = next;
+        next += count;
+      }
+    }
+    bucketStarts[bucketCount] = next;
+    return bucketStarts;
+  }
+}
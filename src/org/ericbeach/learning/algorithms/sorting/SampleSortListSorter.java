@@ -0,0 +1,298 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Performs a parallel Sample sort on a List.
+ *
+ * The phases are the same as in {@link SampleSortArraySorter}:
+ * 1. Sample - A random sample of {@link SampleSortArraySorter#OVERSAMPLING} elements per bucket
+ * is sorted, and evenly spaced elements of it are picked as splitters.
+ * 2. Classify - Every thread finds the bucket of each element of its own chunk of the list by
+ * walking the splitters laid out as a breadth-first binary search tree, turning each
+ * comparison into the next tree index with arithmetic. Each bucket has a twin for elements
+ * equal to its upper splitter, which needs no sorting.
+ * 3. Prefix sum - The per-thread bucket counts are combined into per-thread write positions.
+ * 4. Scatter - Every thread copies its chunk's elements into a buffer at those positions.
+ * Elements from an earlier chunk always land before elements of the same bucket from a later
+ * chunk.
+ * 5. Sort - Every bucket is sorted by a separate task with a single-threaded sorter from the
+ * bucket sorter factory, {@link MergesortListSorter} unless another is supplied.
+ *
+ * The list is copied into an array up front and written back in a single pass at the end, as
+ * in {@link ParallelMergesortListSorter}. Since the scatter keeps equal elements in their
+ * original order, the sort is stable whenever the bucket sorter is.
+ *
+ * Lists at or below the sequential threshold are sorted by the bucket sorter directly. Either
+ * way the list passed in is sorted and returned, even when the bucket sorter returns a new list.
+ *
+ * @param <T> Generic type.
+ */
+public class SampleSortListSorter <T extends Comparable<? super T>> implements ListSorter<T> {
+  /**
+   * Lists of this size or smaller are sorted on the calling thread by default.
+   */
+  public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8192;
+
+  /**
+   * The number of buckets aimed for per thread of the pool.
+   */
+  private static final int BUCKETS_PER_THREAD = 4;
+
+  /**
+   * The depth of the deepest splitter tree. Twice its number of buckets must fit in a byte.
+   */
+  private static final int MAX_TREE_LEVELS = 7;
+
+  /**
+   * Buckets and chunks are never made smaller than this on average.
+   */
+  private static final int MIN_CHUNK_SIZE = 1 << 10;
+
+  /**
+   * Creates the stable {@link MergesortListSorter} used to sort buckets by default.
+   */
+  private static final ListSorterFactory MERGESORT_FACTORY = new ListSorterFactory() {
+    @Override
+    public <E extends Comparable<? super E>> ListSorter<E> create() {
+      return new MergesortListSorter<E>();
+    }
+  };
+
+  private final ForkJoinPool pool;
+  private final int sequentialThreshold;
+  private final ListSorterFactory bucketSorterFactory;
+
+  /**
+   * Create a sorter that runs on the common fork-join pool.
+   */
+  public SampleSortListSorter() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   */
+  public SampleSortListSorter(ForkJoinPool pool) {
+    this(pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   * @param sequentialThreshold Lists of this size or smaller are sorted on the calling thread.
+   */
+  public SampleSortListSorter(ForkJoinPool pool, int sequentialThreshold) {
+    this(pool, sequentialThreshold, MERGESORT_FACTORY);
+  }
+
+  /**
+   * Create a sorter that runs on the supplied pool.
+   * @param pool The pool that sorting tasks are submitted to.
+   * @param sequentialThreshold Lists of this size or smaller are sorted on the calling thread.
+   * @param bucketSorterFactory Creates the single-threaded sorter for each bucket.
+   */
+  public SampleSortListSorter(ForkJoinPool pool, int sequentialThreshold,
+      ListSorterFactory bucketSorterFactory) {
+    if (pool == null) {
+      throw new NullPointerException("pool");
+    }
+    if (bucketSorterFactory == null) {
+      throw new NullPointerException("bucketSorterFactory");
+    }
+    if (sequentialThreshold < 1) {
+      throw new IllegalArgumentException(
+          "sequentialThreshold must be positive: " + sequentialThreshold);
+    }
+    this.pool = pool;
+    this.sequentialThreshold = sequentialThreshold;
+    this.bucketSorterFactory = bucketSorterFactory;
+  }
+
+  @Override
+  public List<T> sort(List<T> list) {
+    final int size = list.size();
+    if (size <= sequentialThreshold) {
+      List<T> sorted = bucketSorterFactory.<T>create().sort(list);
+      // Sorters that return a new list leave the list itself unsorted, so copy it back.
+      if (sorted != list) {
+        ListIterator<T> iterator = list.listIterator();
+        for (T element : sorted) {
+          iterator.next();
+          iterator.set(element);
+        }
+      }
+      return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    final T[] elements = (T[]) list.toArray(new Comparable<?>[size]);
+
+    // Step 1: Pick the splitters from a sorted random sample.
+    final int levels = treeLevels(size);
+    final int bucketCount = 1 << levels;
+    @SuppressWarnings("unchecked")
+    T[] sample = (T[]) new Comparable<?>[SampleSortArraySorter.OVERSAMPLING * bucketCount];
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < sample.length; i++) {
+      sample[i] = elements[random.nextInt(size)];
+    }
+    List<T> sortedSample = bucketSorterFactory.<T>create().sort(Arrays.asList(sample));
+    @SuppressWarnings("unchecked")
+    final T[] splitters = (T[]) new Comparable<?>[bucketCount];
+    for (int i = 0; i < bucketCount - 1; i++) {
+      splitters[i] = sortedSample.get(((i + 1) * SampleSortArraySorter.OVERSAMPLING) - 1);
+    }
+    // The last bucket has no upper splitter. Repeating the one below it makes sure nothing is
+    // ever taken to be equal to it.
+    splitters[bucketCount - 1] = splitters[bucketCount - 2];
+    @SuppressWarnings("unchecked")
+    final T[] tree = (T[]) new Comparable<?>[bucketCount];
+    buildTree(tree, splitters, 1, 0);
+
+    // Step 2: Each thread classifies its own chunk, remembering every element's bucket.
+    final int chunks = chunkCount(size);
+    final int[][] histograms = new int[chunks][2 * bucketCount];
+    final byte[] buckets = new byte[size];
+    pool.invoke(new ChunkedAction(0, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] histogram = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          int bucket = classify(tree, splitters, levels, elements[i]);
+          buckets[i] = (byte) bucket;
+          histogram[bucket]++;
+        }
+      }
+    });
+
+    // Step 3: Turn the per-thread counts into per-thread write positions.
+    final int[] bucketStarts = computeWriteOffsets(histograms);
+
+    // Step 4: Each thread scatters its own chunk.
+    @SuppressWarnings("unchecked")
+    final T[] buffer = (T[]) new Comparable<?>[size];
+    pool.invoke(new ChunkedAction(0, size, chunks) {
+      @Override
+      void processChunk(int chunk, int chunkStart, int chunkEnd) {
+        int[] offsets = histograms[chunk];
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          buffer[offsets[buckets[i] & 0xFF]++] = elements[i];
+        }
+      }
+    });
+
+    // Step 5: Sort every bucket. The twin buckets hold equal elements only.
+    pool.invoke(new BucketAction(bucketStarts) {
+      @Override
+      void processBucket(int bucket, int bucketStart, int bucketEnd) {
+        if ((bucket & 1) == 0) {
+          List<T> bucketList = Arrays.asList(buffer).subList(bucketStart, bucketEnd);
+          List<T> sortedBucket = bucketSorterFactory.<T>create().sort(bucketList);
+          // Sorters that return a new list leave the bucket itself unsorted, so copy it back.
+          if (sortedBucket != bucketList) {
+            int index = bucketStart;
+            for (T element : sortedBucket) {
+              buffer[index++] = element;
+            }
+          }
+        }
+      }
+    });
+
+    // Write the sorted elements back into the list.
+    ListIterator<T> iterator = list.listIterator();
+    for (T element : buffer) {
+      iterator.next();
+      iterator.set(element);
+    }
+    return list;
+  }
+
+  /**
+   * Lay sorted splitters out as a complete binary search tree in breadth-first order, so that
+   * the children of the node at index i are at 2i and 2i + 1. Index 0 is unused.
+   * @param tree The tree, with one slot per bucket.
+   * @param splitters The sorted splitters.
+   * @param node The index of the subtree's root in the tree.
+   * @param nextSplitter The index of the smallest splitter not yet placed in the tree.
+   * @return The index of the smallest splitter not yet placed once the subtree is filled.
+   */
+  private int buildTree(T[] tree, T[] splitters, int node, int nextSplitter) {
+    if (node < tree.length) {
+      nextSplitter = buildTree(tree, splitters, 2 * node, nextSplitter);
+      tree[node] = splitters[nextSplitter++];
+      nextSplitter = buildTree(tree, splitters, (2 * node) + 1, nextSplitter);
+    }
+    return nextSplitter;
+  }
+
+  /**
+   * Find the bucket of an element. Bucket 2b holds the elements above splitter b - 1 and below
+   * splitter b, and bucket 2b + 1 holds the elements equal to splitter b.
+   * @param tree The splitters as a breadth-first binary search tree.
+   * @param splitters The sorted splitters.
+   * @param levels The depth of the tree.
+   * @param element The element.
+   * @return The bucket of the element.
+   */
+  private int classify(T[] tree, T[] splitters, int levels, T element) {
+    int node = 1;
+    for (int level = 0; level < levels; level++) {
+      node = (2 * node) + ((tree[node].compareTo(element) < 0) ? 1 : 0);
+    }
+    int bucket = node - (1 << levels);
+    return (2 * bucket) + ((splitters[bucket].compareTo(element) == 0) ? 1 : 0);
+  }
+
+  /**
+   * Decide how deep a splitter tree to use: deep enough for several buckets per thread of the
+   * pool, unless that would make the buckets smaller than MIN_CHUNK_SIZE on average.
+   * @param size The number of elements being sorted.
+   * @return The depth of the tree, between 1 and MAX_TREE_LEVELS.
+   */
+  private int treeLevels(int size) {
+    int buckets = Math.max(2,
+        Math.min(pool.getParallelism() * BUCKETS_PER_THREAD, size / MIN_CHUNK_SIZE));
+    int levels = Integer.SIZE - Integer.numberOfLeadingZeros(buckets - 1);
+    return Math.max(1, Math.min(MAX_TREE_LEVELS, levels));
+  }
+
+  /**
+   * Decide how many chunks to split the list into: one per thread of the pool, unless that
+   * would make the chunks smaller than MIN_CHUNK_SIZE.
+   * @param size The number of elements being sorted.
+   * @return The number of chunks, at least 1.
+   */
+  private int chunkCount(int size) {
+    return Math.max(1, Math.min(pool.getParallelism(), size / MIN_CHUNK_SIZE));
+  }
+
+  /**
+   * Replace the per-chunk bucket counts with the position at which each chunk writes its next
+   * element of each bucket. Buckets are laid out in order, and within a bucket the chunks are
+   * laid out in order, which keeps equal elements in their original order.
+   * @param histograms The per-chunk counts of each bucket.
+   * @return The position at which each bucket starts, followed by the total size.
+   */
+  private int[] computeWriteOffsets(int[][] histograms) {
+    int bucketCount = histograms[0].length;
+    int[] bucketStarts = new int[bucketCount + 1];
+    int next = 0;
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      bucketStarts[bucket] = next;
+      for (int[] histogram : histograms) {
+        int count = histogram[bucket];
+        histogram[bucket] = next;
+        next += count;
+      }
+    }
+    bucketStarts[bucketCount] = next;
+    return bucketStarts;
+  }
+}
@@ -38,7 +38,10 @@ public class SelectionsortListSorter <T extends Comparable<? super T>> implement
   }
 
   @Override
-  public List<T> sort(List<T> list) {
+  public List<T> sort(List<T> original) {
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> list = helper.stage(original);
+
     // Initially, no elements are sorted.
     int sortedIndex = 0;
 
@@ -63,6 +66,7 @@ public class SelectionsortListSorter <T extends Comparable<? super T>> implement
       helper.swap(list, sortedIndex, smallestUnsortedIndex);
       sortedIndex++;
     }
-    return list;
+    helper.unstage(list, original);
+    return original;
   }
 }
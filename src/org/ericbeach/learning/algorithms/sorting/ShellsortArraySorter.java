@@ -0,0 +1,143 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Performs shell sort on arrays of primitive ints, longs and doubles.
+ *
+ * Shell sort insertion sorts interleaved sublists of elements that are h positions apart,
+ * for a decreasing sequence of h values ending in 1. The gaps come from a {@link GapSequence},
+ * Ciura's sequence by default, and each insertion pass shifts elements rather than swapping
+ * them and stops as soon as the element being inserted is in order.
+ *
+ * The sort is performed in place and allocates no memory other than the array of gaps.
+ */
+public class ShellsortArraySorter implements IntArraySorter, LongArraySorter, DoubleArraySorter {
+  private final ArraySorterHelper arraySorterHelper;
+  private final GapSequence gapSequence;
+
+  /**
+   * Create a sorter that uses Ciura's gap sequence.
+   */
+  public ShellsortArraySorter() {
+    this(StandardGapSequence.CIURA);
+  }
+
+  /**
+   * Create a sorter that uses the supplied gap sequence.
+   * @param gapSequence The gap sequence.
+   */
+  public ShellsortArraySorter(GapSequence gapSequence) {
+    if (gapSequence == null) {
+      throw new NullPointerException("gapSequence");
+    }
+    arraySorterHelper = new ArraySorterHelper();
+    this.gapSequence = gapSequence;
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    for (int hIncrement : gapSequence.gaps(toIndex - fromIndex)) {
+      hSort(array, fromIndex, toIndex, hIncrement);
+    }
+    return array;
+  }
+
+  /**
+   * Insertion sort all of the h-incremented sublists of a range at once.
+   * @param array The array to be sorted.
+   * @param fromIndex The index of the first element of the range (inclusive).
+   * @param toIndex The index one past the last element of the range (exclusive).
+   * @param hIncrement The distance between elements of the same sublist.
+   */
+  private void hSort(int[] array, int fromIndex, int toIndex, int hIncrement) {
+    for (int nextUnsortedPos = fromIndex + hIncrement;
+        nextUnsortedPos < toIndex;
+        nextUnsortedPos++) {
+      int value = array[nextUnsortedPos];
+      int holePos = nextUnsortedPos;
+      while (holePos - hIncrement >= fromIndex
+          && value < array[holePos - hIncrement]) {
+        array[holePos] = array[holePos - hIncrement];
+        holePos -= hIncrement;
+      }
+      array[holePos] = value;
+    }
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    for (int hIncrement : gapSequence.gaps(toIndex - fromIndex)) {
+      hSort(array, fromIndex, toIndex, hIncrement);
+    }
+    return array;
+  }
+
+  /**
+   * Insertion sort all of the h-incremented sublists of a range at once.
+   * @param array The array to be sorted.
+   * @param fromIndex The index of the first element of the range (inclusive).
+   * @param toIndex The index one past the last element of the range (exclusive).
+   * @param hIncrement The distance between elements of the same sublist.
+   */
+  private void hSort(long[] array, int fromIndex, int toIndex, int hIncrement) {
+    for (int nextUnsortedPos = fromIndex + hIncrement;
+        nextUnsortedPos < toIndex;
+        nextUnsortedPos++) {
+      long value = array[nextUnsortedPos];
+      int holePos = nextUnsortedPos;
+      while (holePos - hIncrement >= fromIndex
+          && value < array[holePos - hIncrement]) {
+        array[holePos] = array[holePos - hIncrement];
+        holePos -= hIncrement;
+      }
+      array[holePos] = value;
+    }
+  }
+
+  @Override
+  public double[] sort(double[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public double[] sort(double[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    for (int hIncrement : gapSequence.gaps(toIndex - fromIndex)) {
+      hSort(array, fromIndex, toIndex, hIncrement);
+    }
+    return array;
+  }
+
+  /**
+   * Insertion sort all of the h-incremented sublists of a range at once.
+   * @param array The array to be sorted.
+   * @param fromIndex The index of the first element of the range (inclusive).
+   * @param toIndex The index one past the last element of the range (exclusive).
+   * @param hIncrement The distance between elements of the same sublist.
+   */
+  private void hSort(double[] array, int fromIndex, int toIndex, int hIncrement) {
+    for (int nextUnsortedPos = fromIndex + hIncrement;
+        nextUnsortedPos < toIndex;
+        nextUnsortedPos++) {
+      double value = array[nextUnsortedPos];
+      int holePos = nextUnsortedPos;
+      while (holePos - hIncrement >= fromIndex
+          && arraySorterHelper.isLess(value, array[holePos - hIncrement])) {
+        array[holePos] = array[holePos - hIncrement];
+        holePos -= hIncrement;
+      }
+      array[holePos] = value;
+    }
+  }
+}
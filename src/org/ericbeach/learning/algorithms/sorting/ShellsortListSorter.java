@@ -4,60 +4,81 @@ import java.util.List;
 
 /**
  * Performs shell sort on a list.
+ *
+ * Shell sort insertion sorts interleaved sublists of elements that are h positions apart, for a
+ * decreasing sequence of h values (the gaps) ending in 1. The early passes with large gaps move
+ * elements a long way in few steps, so that by the final pass, a plain insertion sort, the list
+ * is nearly sorted and little work is left. How well this works depends on the
+ * {@link GapSequence}; see {@link StandardGapSequence} for the choices. Ciura's sequence is the
+ * default.
+ *
+ * Each h-sort pass walks the list once, inserting every element into its own sublist. Rather
+ * than swapping the element backwards one step at a time, the element is held aside, larger
+ * elements of its sublist are shifted h positions up, and the element is written once into the
+ * hole that is left. The shifting stops at the first element of the sublist that is not larger,
+ * since everything before it is already in order.
+ *
+ * The sort is performed in place and needs no extra memory, which makes it a reasonable choice
+ * for mid-sized inputs when memory is tight. {@link ShellsortArraySorter} is the counterpart for
+ * arrays of primitives.
+ *
  * @param <T> Generic type.
  */
 public class ShellsortListSorter <T extends Comparable<? super T>> implements ListSorter<T> {
   private final ListSorterHelper<T> listSorterHelper;
+  private final GapSequence gapSequence;
 
+  /**
+   * Create a sorter that uses Ciura's gap sequence.
+   */
   public ShellsortListSorter() {
+    this(StandardGapSequence.CIURA);
+  }
+
+  /**
+   * Create a sorter that uses the supplied gap sequence.
+   * @param gapSequence The gap sequence.
+   */
+  public ShellsortListSorter(GapSequence gapSequence) {
+    if (gapSequence == null) {
+      throw new NullPointerException("gapSequence");
+    }
     listSorterHelper = new ListSorterHelper<T>();
+    this.gapSequence = gapSequence;
   }
-  
+
   @Override
   public List<T> sort(List<T> list) {
-    /**
-     * Computes the h-value for sublists and delegates sorting each subsequent
-     * sublist.
-     */
-    for (int hIncrement = list.size() / 2; hIncrement > 0; hIncrement /= 2) {
-      hSort(list, hIncrement);
+    // Sort an array-backed copy if the list does not support fast random access.
+    List<T> staged = listSorterHelper.stage(list);
+
+    // h-sort the list with every gap, the last of which is 1.
+    for (int hIncrement : gapSequence.gaps(staged.size())) {
+      hSort(staged, hIncrement);
     }
+    listSorterHelper.unstage(staged, list);
     return list;
   }
-  
+
   /**
+   * Insertion sort all of the h-incremented sublists of the list at once.
    * @param list The list to be sorted.
-   * @param hIncrement The current h-value for the overall list (i.e., the
-   *     increment that delimets the sublists)
-   */
-  private void hSort(List<T> list, int hIncrement) {  
-    for (int startPos = 0; startPos < hIncrement; startPos++) {
-      insertionSort(list, startPos, hIncrement);
-    }
-  }
-  
-  /**
-   * Perform insertion sort on the h-incremented sublist.
-   * @param list The entire list, including the sublist to be sorted. In each
-   *     invocation of this method, only a sublist gets sorted.
-   * @param startPos The position of the first element in the sublist to be
-   *     sorted.
-   * @param sublistOffset The h-increment or sublist offset (i.e., how many
-   *     positions to jump in the master list in order to get to the next
-   *     element in the sublist).
+   * @param hIncrement The current h-value for the overall list (i.e., the increment that
+   *     delimits the sublists).
    */
-  private void insertionSort(List<T> list, int startPos, int sublistOffset) {
-    for (int nextUnsortedPos = startPos + sublistOffset;
-        nextUnsortedPos < list.size();
-        nextUnsortedPos += sublistOffset) {
-      
-      for (int nextPosToCheck = nextUnsortedPos;
-          nextPosToCheck > startPos;
-           nextPosToCheck -= sublistOffset) {
-        if (list.get(nextPosToCheck).compareTo(
-                list.get(nextPosToCheck - sublistOffset)) < 0) {
-          listSorterHelper.swap(list, nextPosToCheck, nextPosToCheck - sublistOffset);
-        }
+  private void hSort(List<T> list, int hIncrement) {
+    for (int nextUnsortedPos = hIncrement; nextUnsortedPos < list.size(); nextUnsortedPos++) {
+      T value = list.get(nextUnsortedPos);
+
+      // Shift the larger elements of the sublist up by one step, stopping at the first element
+      // that is in order, and drop the value into the hole left behind.
+      int holePos = nextUnsortedPos;
+      while (holePos >= hIncrement && value.compareTo(list.get(holePos - hIncrement)) < 0) {
+        list.set(holePos, list.get(holePos - hIncrement));
+        holePos -= hIncrement;
+      }
+      if (holePos != nextUnsortedPos) {
+        list.set(holePos, value);
       }
     }
   }
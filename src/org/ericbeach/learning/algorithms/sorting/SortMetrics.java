@@ -0,0 +1,200 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals and a latency histogram for every sort call made by one instrumented sorter.
+ * The comparison and write totals cover only the calls that were counted, which
+ * {@link #getCountedCalls()} and {@link #getCountedElements()} give.
+ *
+ * All counters are {@link LongAdder}s, which spread concurrent updates over several cells
+ * instead of contending on one, so recording a call never takes a lock. Latencies are counted
+ * in a histogram with one bucket per power of two: bucket b holds calls that took between 2^b
+ * and 2^(b+1) - 1 nanoseconds. That keeps the histogram to 64 counters whatever the range of
+ * latencies, at the cost of only knowing each latency to within a factor of two.
+ */
+public class SortMetrics {
+  /**
+   * The number of latency buckets; one for each bit of a long.
+   */
+  private static final int BUCKETS = Long.SIZE;
+
+  private final String name;
+  private final LongAdder calls;
+  private final LongAdder elements;
+  private final LongAdder countedCalls;
+  private final LongAdder countedElements;
+  private final LongAdder comparisons;
+  private final LongAdder writes;
+  private final LongAdder nanos;
+  private final LongAdder allocatedBytes;
+  private final AtomicLongArray latencyHistogram;
+
+  SortMetrics(String name) {
+    this.name = name;
+    calls = new LongAdder();
+    elements = new LongAdder();
+    countedCalls = new LongAdder();
+    countedElements = new LongAdder();
+    comparisons = new LongAdder();
+    writes = new LongAdder();
+    nanos = new LongAdder();
+    allocatedBytes = new LongAdder();
+    latencyHistogram = new AtomicLongArray(BUCKETS);
+  }
+
+  /**
+   * Record the time taken by one sort call.
+   * @param size The number of elements sorted.
+   * @param callNanos The elapsed time in nanoseconds.
+   * @param callAllocatedBytes The bytes allocated by the calling thread, or a negative number if
+   *     unknown.
+   */
+  void recordTiming(int size, long callNanos, long callAllocatedBytes) {
+    calls.increment();
+    elements.add(size);
+    nanos.add(callNanos);
+    if (callAllocatedBytes > 0) {
+      allocatedBytes.add(callAllocatedBytes);
+    }
+    latencyHistogram.incrementAndGet(bucket(callNanos));
+  }
+
+  /**
+   * Record the comparisons and writes counted for one sort call.
+   * @param size The number of elements sorted.
+   * @param callComparisons The number of compareTo calls made.
+   * @param callWrites The number of elements written to the list.
+   */
+  void recordCounts(int size, long callComparisons, long callWrites) {
+    countedCalls.increment();
+    countedElements.add(size);
+    comparisons.add(callComparisons);
+    writes.add(callWrites);
+  }
+
+  /**
+   * @return The name of the sorter these metrics belong to.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The number of sort calls recorded.
+   */
+  public long getCalls() {
+    return calls.sum();
+  }
+
+  /**
+   * @return The total number of elements sorted.
+   */
+  public long getElements() {
+    return elements.sum();
+  }
+
+  /**
+   * @return The number of sort calls whose comparisons and writes were counted.
+   */
+  public long getCountedCalls() {
+    return countedCalls.sum();
+  }
+
+  /**
+   * @return The total number of elements sorted by the calls that were counted.
+   */
+  public long getCountedElements() {
+    return countedElements.sum();
+  }
+
+  /**
+   * @return The total number of compareTo calls made by the calls that were counted.
+   */
+  public long getComparisons() {
+    return comparisons.sum();
+  }
+
+  /**
+   * @return The total number of elements written to the lists being sorted by the calls that
+   *     were counted. Every swap is two writes.
+   */
+  public long getWrites() {
+    return writes.sum();
+  }
+
+  /**
+   * @return The total time spent sorting, in nanoseconds.
+   */
+  public long getNanos() {
+    return nanos.sum();
+  }
+
+  /**
+   * @return The total bytes allocated by the calling threads while sorting, or 0 if the JVM
+   *     does not report allocations.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes.sum();
+  }
+
+  /**
+   * @return A copy of the latency histogram, where entry b counts the calls that took between
+   *     2^b and 2^(b+1) - 1 nanoseconds (entry 0 also counts calls that took 0 nanoseconds).
+   */
+  public long[] getLatencyHistogram() {
+    long[] histogram = new long[BUCKETS];
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      histogram[bucket] = latencyHistogram.get(bucket);
+    }
+    return histogram;
+  }
+
+  /**
+   * Estimate a latency percentile from the histogram.
+   * @param percentile The percentile, between 0 and 100.
+   * @return An upper bound, in nanoseconds, on the latency that the given percentage of calls
+   *     stayed within, or 0 if no calls have been recorded.
+   */
+  public long getLatencyPercentile(double percentile) {
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+    }
+    long[] histogram = getLatencyHistogram();
+    long total = 0;
+    for (long count : histogram) {
+      total += count;
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long wanted = (long) Math.ceil((percentile / 100.0) * total);
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += histogram[bucket];
+      if (seen >= wanted && seen > 0) {
+        return (bucket == BUCKETS - 1) ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public String toString() {
+    return "SortMetrics[name=" + name + ", calls=" + getCalls() + ", elements=" + getElements()
+        + ", countedCalls=" + getCountedCalls() + ", countedElements=" + getCountedElements()
+        + ", comparisons=" + getComparisons() + ", writes=" + getWrites() + ", nanos="
+        + getNanos() + ", allocatedBytes=" + getAllocatedBytes() + "]";
+  }
+
+  /**
+   * Return the histogram bucket of a latency.
+   * @param latencyNanos The latency in nanoseconds.
+   * @return The index of the highest set bit, or 0 for latencies below 2.
+   */
+  private int bucket(long latencyNanos) {
+    return (latencyNanos < 2) ? 0 : (Long.SIZE - 1) - Long.numberOfLeadingZeros(latencyNanos);
+  }
+}
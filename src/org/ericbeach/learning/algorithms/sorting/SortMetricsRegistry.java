@@ -0,0 +1,81 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the {@link SortMetrics} of every instrumented sorter, keyed by name, and a switch that
+ * turns instrumentation on and off for all of them at once.
+ *
+ * While the registry is disabled, an {@link InstrumentedListSorter} costs a single read of a
+ * volatile flag on top of the sorter it wraps. The flag can be flipped at any time, for example
+ * to take measurements from a running system for a short while.
+ */
+public class SortMetricsRegistry {
+  private final ConcurrentMap<String, SortMetrics> metricsByName;
+  private volatile boolean enabled;
+
+  /**
+   * Create an enabled registry.
+   */
+  public SortMetricsRegistry() {
+    this(true);
+  }
+
+  /**
+   * Create a registry.
+   * @param enabled Whether sorts are measured to begin with.
+   */
+  public SortMetricsRegistry(boolean enabled) {
+    metricsByName = new ConcurrentHashMap<String, SortMetrics>();
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return Whether sorts are currently measured.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Turn measuring on or off for every sorter using this registry.
+   * @param enabled Whether sorts should be measured.
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Return the metrics for a sorter, creating them if this is the first time the name is seen.
+   * @param name The name of the sorter.
+   * @return The metrics.
+   */
+  public SortMetrics getMetrics(String name) {
+    SortMetrics metrics = metricsByName.get(name);
+    if (metrics == null) {
+      SortMetrics created = new SortMetrics(name);
+      metrics = metricsByName.putIfAbsent(name, created);
+      if (metrics == null) {
+        metrics = created;
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * @return The metrics of every sorter seen so far.
+   */
+  public List<SortMetrics> getAllMetrics() {
+    return new ArrayList<SortMetrics>(metricsByName.values());
+  }
+
+  /**
+   * Throw away every sorter's metrics.
+   */
+  public void clear() {
+    metricsByName.clear();
+  }
+}
@@ -0,0 +1,378 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorts a List with whichever of the sorters in this package suits the input best, so that
+ * callers do not need to pick an algorithm by hand.
+ *
+ * Before sorting, the engine makes a plan:
+ * 1. Scan - One pass over the list counts the places where neighbouring elements descend,
+ * ascend or are equal, and checks whether every element is an Integer, a Long or a String. The
+ * number of descents plus one is the number of ascending runs, a direct measure of how sorted
+ * the list already is. The pass costs n - 1 comparisons, which is small next to the
+ * n * log2(n) of the sort itself.
+ * 2. Sample - Up to 256 evenly spaced elements, picked up during the same pass, are sorted and
+ * the distinct values among them counted, to estimate how much of the list is duplicates.
+ * 3. Decide - The first rule that matches picks the algorithm:
+ * - A list with no descents is already sorted and is left alone.
+ * - A list with no ascents is reversed in place, as long as it has no equal neighbours or the
+ * caller does not need a stable sort (reversing would swap equal elements).
+ * - Small lists are insertion sorted.
+ * - Lists made up entirely of Integers or Longs are radix sorted, and lists of Strings are MSD
+ * radix sorted. These never call compareTo and are stable, and they put the list's own element
+ * objects back in sorted order rather than boxing new ones.
+ * - Lists made of a few long runs go to the run-adaptive merge sort, which merges the existing
+ * runs rather than sorting from scratch.
+ * - If a stable sort is needed, a merge sort is used, in parallel for very large lists.
+ * - Otherwise, lists with many duplicates use three-way quick sort, and everything else uses
+ * introsort.
+ *
+ * The plan is returned as a {@link Decision}, which records the figures above and the algorithm
+ * chosen, so it can be logged or checked before it is carried out. Planning walks the list with
+ * its iterator, so a list without fast random access, such as a LinkedList, is not copied until
+ * it is sorted.
+ */
+public class SortingEngine {
+  /**
+   * The algorithms the engine can choose from.
+   */
+  public enum Algorithm {
+    /**
+     * The list is already sorted; nothing is done.
+     */
+    ALREADY_SORTED,
+
+    /**
+     * The list is in descending order and is reversed in place.
+     */
+    REVERSE,
+
+    /**
+     * {@link InsertionsortListSorter}.
+     */
+    INSERTION_SORT,
+
+    /**
+     * {@link LongKeyedListSorter} keyed on the value of each Integer, for lists of Integers.
+     */
+    INTEGER_RADIX_SORT,
+
+    /**
+     * {@link LongKeyedListSorter} for lists of Longs.
+     */
+    LONG_RADIX_SORT,
+
+    /**
+     * {@link MsdRadixStringListSorter} for lists of Strings.
+     */
+    STRING_RADIX_SORT,
+
+    /**
+     * {@link AdaptiveMergesortListSorter}.
+     */
+    ADAPTIVE_MERGESORT,
+
+    /**
+     * {@link ParallelMergesortListSorter}.
+     */
+    PARALLEL_MERGESORT,
+
+    /**
+     * {@link MultiwayQuicksortListSorter} with three-way partitioning.
+     */
+    THREE_WAY_QUICKSORT,
+
+    /**
+     * {@link IntrosortListSorter}.
+     */
+    INTROSORT
+  }
+
+  /**
+   * Lists of this size or smaller are insertion sorted.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  /**
+   * Lists of primitive wrappers or Strings smaller than this are not worth radix sorting.
+   */
+  private static final int RADIX_SORT_THRESHOLD = 256;
+
+  /**
+   * Stable sorts of lists of this size or larger are done in parallel.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 17;
+
+  /**
+   * Lists with no more than one run per this many elements are considered nearly sorted.
+   */
+  private static final int ELEMENTS_PER_RUN_THRESHOLD = 32;
+
+  /**
+   * Lists whose sample is at least this fraction duplicates use three-way partitioning.
+   */
+  private static final double DUPLICATE_RATIO_THRESHOLD = 0.5;
+
+  /**
+   * The largest number of elements sampled to estimate the duplicate ratio.
+   */
+  private static final int SAMPLE_SIZE = 256;
+
+  /**
+   * Work out how a list would be sorted, without changing it.
+   * @param list The list to be sorted.
+   * @param stable Whether elements that compare equal must keep their relative order.
+   * @param <T> Generic type.
+   * @return The decision made.
+   */
+  public <T extends Comparable<? super T>> Decision plan(List<T> list, boolean stable) {
+    // Step 1: Scan the neighbours once, picking up the sample on the way.
+    int size = list.size();
+    int descents = 0;
+    int ascents = 0;
+    int equalPairs = 0;
+    boolean allIntegers = true;
+    boolean allLongs = true;
+    boolean allStrings = true;
+    int sampleSize = Math.min(size, SAMPLE_SIZE);
+    List<T> sample = new ArrayList<T>(sampleSize);
+    int index = 0;
+    T previous = null;
+    for (T current : list) {
+      Class<?> elementClass = current.getClass();
+      allIntegers &= (elementClass == Integer.class);
+      allLongs &= (elementClass == Long.class);
+      allStrings &= (elementClass == String.class);
+      if (previous != null) {
+        int comparison = previous.compareTo(current);
+        if (comparison > 0) {
+          descents++;
+        } else if (comparison < 0) {
+          ascents++;
+        } else {
+          equalPairs++;
+        }
+      }
+      if (sample.size() < sampleSize
+          && index == (int) (((long) sample.size() * size) / sampleSize)) {
+        sample.add(current);
+      }
+      previous = current;
+      index++;
+    }
+    int runCount = descents + 1;
+
+    // Step 2: Estimate the duplicate ratio from the evenly spaced sample.
+    double duplicateRatio = estimateDuplicateRatio(sample);
+
+    // Step 3: Decide.
+    Algorithm algorithm;
+    if (descents == 0) {
+      algorithm = Algorithm.ALREADY_SORTED;
+    } else if (ascents == 0 && (equalPairs == 0 || !stable)) {
+      algorithm = Algorithm.REVERSE;
+    } else if (size <= INSERTION_SORT_THRESHOLD) {
+      algorithm = Algorithm.INSERTION_SORT;
+    } else if (allIntegers && size >= RADIX_SORT_THRESHOLD) {
+      algorithm = Algorithm.INTEGER_RADIX_SORT;
+    } else if (allLongs && size >= RADIX_SORT_THRESHOLD) {
+      algorithm = Algorithm.LONG_RADIX_SORT;
+    } else if (allStrings && size >= RADIX_SORT_THRESHOLD) {
+      algorithm = Algorithm.STRING_RADIX_SORT;
+    } else if (runCount <= size / ELEMENTS_PER_RUN_THRESHOLD) {
+      algorithm = Algorithm.ADAPTIVE_MERGESORT;
+    } else if (stable) {
+      algorithm = (size >= PARALLEL_THRESHOLD)
+          ? Algorithm.PARALLEL_MERGESORT : Algorithm.ADAPTIVE_MERGESORT;
+    } else if (duplicateRatio >= DUPLICATE_RATIO_THRESHOLD) {
+      algorithm = Algorithm.THREE_WAY_QUICKSORT;
+    } else {
+      algorithm = Algorithm.INTROSORT;
+    }
+    return new Decision(algorithm, size, runCount, duplicateRatio, stable);
+  }
+
+  /**
+   * Sort a list stably with the algorithm that suits it best.
+   * @param list The list to be sorted.
+   * @param <T> Generic type.
+   * @return The same list, now sorted.
+   */
+  public <T extends Comparable<? super T>> List<T> sort(List<T> list) {
+    return sort(list, true);
+  }
+
+  /**
+   * Sort a list with the algorithm that suits it best.
+   * @param list The list to be sorted.
+   * @param stable Whether elements that compare equal must keep their relative order.
+   * @param <T> Generic type.
+   * @return The same list, now sorted.
+   */
+  public <T extends Comparable<? super T>> List<T> sort(List<T> list, boolean stable) {
+    return sort(list, plan(list, stable));
+  }
+
+  /**
+   * Sort a list as decided by an earlier call to {@link #plan(List, boolean)}.
+   * @param list The list to be sorted. It must not have changed since it was planned.
+   * @param decision The decision returned by plan for this list.
+   * @param <T> Generic type.
+   * @return The same list, now sorted.
+   */
+  public <T extends Comparable<? super T>> List<T> sort(List<T> list, Decision decision) {
+    if (decision.getSize() != list.size()) {
+      throw new IllegalArgumentException("The decision was made for a list of "
+          + decision.getSize() + " elements, not " + list.size());
+    }
+    ListSorterHelper<T> listSorterHelper = new ListSorterHelper<T>();
+    List<T> staged = listSorterHelper.stage(list);
+    execute(staged, decision);
+    listSorterHelper.unstage(staged, list);
+    return list;
+  }
+
+  /**
+   * Estimate the fraction of a list that duplicates some other element by counting the
+   * distinct values in an evenly spaced sample of it.
+   * @param sample The sample, which is sorted in place.
+   * @param <T> Generic type.
+   * @return A number between 0 (all distinct) and close to 1 (all equal).
+   */
+  private <T extends Comparable<? super T>> double estimateDuplicateRatio(List<T> sample) {
+    int sampleSize = sample.size();
+    if (sampleSize < 2) {
+      return 0.0;
+    }
+    new IntrosortListSorter<T>().sort(sample);
+
+    int distinct = 1;
+    for (int i = 1; i < sampleSize; i++) {
+      if (sample.get(i - 1).compareTo(sample.get(i)) != 0) {
+        distinct++;
+      }
+    }
+    return 1.0 - ((double) distinct / sampleSize);
+  }
+
+  /**
+   * Carry out a decision on a list that supports fast random access.
+   * @param list The list to be sorted.
+   * @param decision The decision.
+   * @param <T> Generic type.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends Comparable<? super T>> void execute(List<T> list, Decision decision) {
+    switch (decision.getAlgorithm()) {
+      case ALREADY_SORTED:
+        break;
+      case REVERSE:
+        Collections.reverse(list);
+        break;
+      case INSERTION_SORT:
+        new InsertionsortListSorter<T>().sort(list);
+        break;
+      case INTEGER_RADIX_SORT:
+        // The plan checked that every element is an Integer. Sorting the Integers by key
+        // rather than unboxing them keeps the original objects in the list.
+        new LongKeyedListSorter<Integer>(new ToLongFunction<Integer>() {
+          @Override
+          public long applyAsLong(Integer value) {
+            return value;
+          }
+        }).sort((List<Integer>) list);
+        break;
+      case LONG_RADIX_SORT:
+        new LongKeyedListSorter<Long>(new ToLongFunction<Long>() {
+          @Override
+          public long applyAsLong(Long value) {
+            return value;
+          }
+        }).sort((List<Long>) list);
+        break;
+      case STRING_RADIX_SORT:
+        new MsdRadixStringListSorter().sort((List<String>) list);
+        break;
+      case ADAPTIVE_MERGESORT:
+        new AdaptiveMergesortListSorter<T>().sort(list);
+        break;
+      case PARALLEL_MERGESORT:
+        new ParallelMergesortListSorter<T>().sort(list);
+        break;
+      case THREE_WAY_QUICKSORT:
+        new MultiwayQuicksortListSorter<T>(
+            MultiwayQuicksortListSorter.PartitionScheme.THREE_WAY).sort(list);
+        break;
+      case INTROSORT:
+        new IntrosortListSorter<T>().sort(list);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown algorithm: " + decision.getAlgorithm());
+    }
+  }
+
+  /**
+   * The algorithm chosen for a list, together with the figures that led to the choice.
+   */
+  public static final class Decision {
+    private final Algorithm algorithm;
+    private final int size;
+    private final int runCount;
+    private final double duplicateRatio;
+    private final boolean stable;
+
+    Decision(Algorithm algorithm, int size, int runCount, double duplicateRatio,
+        boolean stable) {
+      this.algorithm = algorithm;
+      this.size = size;
+      this.runCount = runCount;
+      this.duplicateRatio = duplicateRatio;
+      this.stable = stable;
+    }
+
+    /**
+     * @return The algorithm chosen.
+     */
+    public Algorithm getAlgorithm() {
+      return algorithm;
+    }
+
+    /**
+     * @return The number of elements in the list.
+     */
+    public int getSize() {
+      return size;
+    }
+
+    /**
+     * @return The number of ascending runs in the list; 1 if it is already sorted.
+     */
+    public int getRunCount() {
+      return runCount;
+    }
+
+    /**
+     * @return The estimated fraction of the list that duplicates other elements.
+     */
+    public double getDuplicateRatio() {
+      return duplicateRatio;
+    }
+
+    /**
+     * @return Whether a stable sort was asked for.
+     */
+    public boolean isStable() {
+      return stable;
+    }
+
+    @Override
+    public String toString() {
+      return "Decision[algorithm=" + algorithm + ", size=" + size + ", runCount=" + runCount
+          + ", duplicateRatio=" + duplicateRatio + ", stable=" + stable + "]";
+    }
+  }
+}
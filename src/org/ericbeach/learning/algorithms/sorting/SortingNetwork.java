@@ -0,0 +1,360 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.List;
+
+/**
+ * A sorting network: a fixed sequence of compare-exchange operations that sorts any input of
+ * one particular size.
+ *
+ * Each compare-exchange looks at two positions, low and high, and leaves the smaller value at low
+ * and the larger at high. Which positions are compared never depends on the data, so a network
+ * has none of the unpredictable branches of insertion sort or quicksort on tiny inputs, and
+ * each compare-exchange is written with conditional selects (Math.min/max for ints and longs)
+ * that the JIT compiles to branch-free instructions. That makes networks a good base case for
+ * recursive sorts, which otherwise spend most of their time on tiny subproblems.
+ *
+ * The networks here have the fewest comparators known for every size up to {@link #MAX_SIZE}:
+ * 1, 3, 5, 9, 12, 16, 19, 25, 29, 35, 39, 45, 51, 56 and 60 for 2 to 16 inputs. Up to 12 inputs
+ * these counts are proven optimal. The 15-input network is the 16-input network with its last
+ * input removed. Every network was checked with the 0-1 principle: a network sorts every input
+ * if and only if it sorts every sequence of 0s and 1s.
+ *
+ * Networks are not stable, since a compare-exchange does not know where its two values came
+ * from. {@link #sortStably(List, int)} makes them stable by breaking ties between equal
+ * elements by their original positions.
+ */
+public final class SortingNetwork {
+  /**
+   * The largest input size with a network.
+   */
+  public static final int MAX_SIZE = 16;
+
+  /**
+   * The comparators of the network for each size, layer by layer, as pairs of low and high
+   * positions. Comparators within a layer touch disjoint positions.
+   */
+  private static final int[][] COMPARATORS = new int[][] {
+    {},
+    {},
+    // 2 inputs: 1 comparator in 1 layer.
+    {
+      0, 1
+    },
+    // 3 inputs: 3 comparators in 3 layers.
+    {
+      0, 2,
+      0, 1,
+      1, 2
+    },
+    // 4 inputs: 5 comparators in 3 layers.
+    {
+      0, 2, 1, 3,
+      0, 1, 2, 3,
+      1, 2
+    },
+    // 5 inputs: 9 comparators in 5 layers.
+    {
+      0, 3, 1, 4,
+      0, 2, 1, 3,
+      0, 1, 2, 4,
+      1, 2, 3, 4,
+      2, 3
+    },
+    // 6 inputs: 12 comparators in 5 layers.
+    {
+      0, 5, 1, 3, 2, 4,
+      1, 2, 3, 4,
+      0, 3, 2, 5,
+      0, 1, 2, 3, 4, 5,
+      1, 2, 3, 4
+    },
+    // 7 inputs: 16 comparators in 6 layers.
+    {
+      0, 6, 2, 3, 4, 5,
+      0, 2, 1, 4, 3, 6,
+      0, 1, 2, 5, 3, 4,
+      1, 2, 4, 6,
+      2, 3, 4, 5,
+      1, 2, 3, 4, 5, 6
+    },
+    // 8 inputs: 19 comparators in 6 layers.
+    {
+      0, 2, 1, 3, 4, 6, 5, 7,
+      0, 4, 1, 5, 2, 6, 3, 7,
+      0, 1, 2, 3, 4, 5, 6, 7,
+      2, 4, 3, 5,
+      1, 4, 3, 6,
+      1, 2, 3, 4, 5, 6
+    },
+    // 9 inputs: 25 comparators in 7 layers.
+    {
+      0, 3, 1, 7, 2, 5, 4, 8,
+      0, 7, 2, 4, 3, 8, 5, 6,
+      0, 2, 1, 3, 4, 5, 7, 8,
+      1, 4, 3, 6, 5, 7,
+      0, 1, 2, 4, 3, 5, 6, 8,
+      2, 3, 4, 5, 6, 7,
+      1, 2, 3, 4, 5, 6
+    },
+    // 10 inputs: 29 comparators in 8 layers.
+    {
+      0, 8, 1, 9, 2, 7, 3, 5, 4, 6,
+      0, 2, 1, 4, 5, 8, 7, 9,
+      0, 3, 2, 4, 5, 7, 6, 9,
+      0, 1, 3, 6, 8, 9,
+      1, 5, 2, 3, 4, 8, 6, 7,
+      1, 2, 3, 5, 4, 6, 7, 8,
+      2, 3, 4, 5, 6, 7,
+      3, 4, 5, 6
+    },
+    // 11 inputs: 35 comparators in 8 layers.
+    {
+      0, 9, 1, 6, 2, 4, 3, 7, 5, 8,
+      0, 1, 3, 5, 4, 10, 6, 9, 7, 8,
+      1, 3, 2, 5, 4, 7, 8, 10,
+      0, 4, 1, 2, 3, 7, 5, 9, 6, 8,
+      0, 1, 2, 6, 4, 5, 7, 8, 9, 10,
+      2, 4, 3, 6, 5, 7, 8, 9,
+      1, 2, 3, 4, 5, 6, 7, 8,
+      2, 3, 4, 5, 6, 7
+    },
+    // 12 inputs: 39 comparators in 9 layers.
+    {
+      0, 8, 1, 7, 2, 6, 3, 11, 4, 10, 5, 9,
+      0, 1, 2, 5, 3, 4, 6, 9, 7, 8, 10, 11,
+      0, 2, 1, 6, 5, 10, 9, 11,
+      0, 3, 1, 2, 4, 6, 5, 7, 8, 11, 9, 10,
+      1, 4, 3, 5, 6, 8, 7, 10,
+      1, 3, 2, 5, 6, 9, 8, 10,
+      2, 3, 4, 5, 6, 7, 8, 9,
+      4, 6, 5, 7,
+      3, 4, 5, 6, 7, 8
+    },
+    // 13 inputs: 45 comparators in 10 layers.
+    {
+      0, 12, 1, 10, 2, 9, 3, 7, 5, 11, 6, 8,
+      1, 6, 2, 3, 4, 11, 7, 9, 8, 10,
+      0, 4, 1, 2, 3, 6, 7, 8, 9, 10, 11, 12,
+      4, 6, 5, 9, 8, 11, 10, 12,
+      0, 5, 3, 8, 4, 7, 6, 11, 9, 10,
+      0, 1, 2, 5, 6, 9, 7, 8, 10, 11,
+      1, 3, 2, 4, 5, 6, 9, 10,
+      1, 2, 3, 4, 5, 7, 6, 8,
+      2, 3, 4, 5, 6, 7, 8, 9,
+      3, 4, 5, 6
+    },
+    // 14 inputs: 51 comparators in 10 layers.
+    {
+      0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13,
+      0, 2, 1, 3, 4, 8, 5, 9, 10, 12, 11, 13,
+      0, 4, 1, 2, 3, 7, 5, 8, 6, 10, 9, 13, 11, 12,
+      0, 6, 1, 5, 3, 9, 4, 10, 7, 13, 8, 12,
+      2, 10, 3, 11, 4, 6, 7, 9,
+      1, 3, 2, 8, 5, 11, 6, 7, 10, 12,
+      1, 4, 2, 6, 3, 5, 7, 11, 8, 10, 9, 12,
+      2, 4, 3, 6, 5, 8, 7, 10, 9, 11,
+      3, 4, 5, 6, 7, 8, 9, 10,
+      6, 7
+    },
+    // 15 inputs: 56 comparators in 10 layers.
+    {
+      0, 13, 1, 12, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10,
+      0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 8, 14, 11, 12,
+      0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13,
+      0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 12, 14,
+      1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 13, 14,
+      1, 4, 2, 6, 5, 8, 7, 10, 9, 13, 11, 14,
+      2, 4, 3, 6, 9, 12, 11, 13,
+      3, 5, 6, 8, 7, 9, 10, 12,
+      3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+      6, 7, 8, 9
+    },
+    // 16 inputs: 60 comparators in 10 layers.
+    {
+      0, 13, 1, 12, 2, 15, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10,
+      0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 8, 14, 10, 15, 11, 12,
+      0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 14, 15,
+      0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 12, 14, 13, 15,
+      1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 13, 14,
+      1, 4, 2, 6, 5, 8, 7, 10, 9, 13, 11, 14,
+      2, 4, 3, 6, 9, 12, 11, 13,
+      3, 5, 6, 8, 7, 9, 10, 12,
+      3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+      6, 7, 8, 9
+    }
+  };
+
+  /**
+   * The number of bits {@link #sortStably(List, int)} uses for the original position of an
+   * element.
+   */
+  private static final int POSITION_BITS = 4;
+
+  private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+
+  /**
+   * Every element at its own position: nibble j holds j.
+   */
+  private static final long INITIAL_POSITIONS = 0xFEDCBA9876543210L;
+
+  private static final SortingNetwork[] NETWORKS = createNetworks();
+
+  private final int size;
+  private final int[] lows;
+  private final int[] highs;
+  private final ArraySorterHelper arraySorterHelper;
+
+  private SortingNetwork(int size, int[] comparators) {
+    this.size = size;
+    lows = new int[comparators.length / 2];
+    highs = new int[comparators.length / 2];
+    for (int i = 0; i < lows.length; i++) {
+      lows[i] = comparators[2 * i];
+      highs[i] = comparators[(2 * i) + 1];
+    }
+    arraySorterHelper = new ArraySorterHelper();
+  }
+
+  /**
+   * Return the network for an input size.
+   * @param size The number of elements to sort, from 0 to {@link #MAX_SIZE}.
+   * @return The network.
+   */
+  public static SortingNetwork forSize(int size) {
+    if (size < 0 || size > MAX_SIZE) {
+      throw new IllegalArgumentException("size must be between 0 and " + MAX_SIZE + ": " + size);
+    }
+    return NETWORKS[size];
+  }
+
+  /**
+   * @return The number of elements the network sorts.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return The number of compare-exchange operations in the network.
+   */
+  public int comparatorCount() {
+    return lows.length;
+  }
+
+  /**
+   * Sort the size() ints starting at fromIndex.
+   * @param array Array containing the elements to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   */
+  public void sort(int[] array, int fromIndex) {
+    for (int i = 0; i < lows.length; i++) {
+      int lowIndex = fromIndex + lows[i];
+      int highIndex = fromIndex + highs[i];
+      int low = array[lowIndex];
+      int high = array[highIndex];
+      array[lowIndex] = Math.min(low, high);
+      array[highIndex] = Math.max(low, high);
+    }
+  }
+
+  /**
+   * Sort the size() longs starting at fromIndex.
+   * @param array Array containing the elements to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   */
+  public void sort(long[] array, int fromIndex) {
+    for (int i = 0; i < lows.length; i++) {
+      int lowIndex = fromIndex + lows[i];
+      int highIndex = fromIndex + highs[i];
+      long low = array[lowIndex];
+      long high = array[highIndex];
+      array[lowIndex] = Math.min(low, high);
+      array[highIndex] = Math.max(low, high);
+    }
+  }
+
+  /**
+   * Sort the size() doubles starting at fromIndex, in the order of
+   * {@link Double#compare(double, double)}.
+   * @param array Array containing the elements to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   */
+  public void sort(double[] array, int fromIndex) {
+    for (int i = 0; i < lows.length; i++) {
+      int lowIndex = fromIndex + lows[i];
+      int highIndex = fromIndex + highs[i];
+      double low = array[lowIndex];
+      double high = array[highIndex];
+      // Math.min and Math.max do not order -0.0 and NaN the way Double.compare does.
+      boolean exchange = arraySorterHelper.isLess(high, low);
+      array[lowIndex] = exchange ? high : low;
+      array[highIndex] = exchange ? low : high;
+    }
+  }
+
+  /**
+   * Sort the size() elements of a list starting at fromIndex. Equal elements may change their
+   * relative order. The compare-exchanges read and write the list directly, so nothing is
+   * allocated.
+   * @param <T> Generic type.
+   * @param list List containing the elements to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   */
+  public <T extends Comparable<? super T>> void sort(List<T> list, int fromIndex) {
+    for (int i = 0; i < lows.length; i++) {
+      int lowIndex = fromIndex + lows[i];
+      int highIndex = fromIndex + highs[i];
+      T low = list.get(lowIndex);
+      T high = list.get(highIndex);
+      if (low.compareTo(high) > 0) {
+        list.set(lowIndex, high);
+        list.set(highIndex, low);
+      }
+    }
+  }
+
+  /**
+   * Sort the size() elements of a list starting at fromIndex, keeping equal elements in their
+   * original order. Every element carries its original position, and when two elements compare
+   * equal the one from the later position is treated as the larger. With no two elements equal
+   * any more, there is only one sorted order, and it is the stable one.
+   *
+   * A position fits in 4 bits, so the positions of all {@link #MAX_SIZE} elements are kept in
+   * one long rather than an array, and the list is sorted without allocating.
+   * @param <T> Generic type.
+   * @param list List containing the elements to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   */
+  public <T extends Comparable<? super T>> void sortStably(List<T> list, int fromIndex) {
+    // Nibble j holds the original position of the element now at fromIndex + j.
+    long positions = INITIAL_POSITIONS;
+    for (int i = 0; i < lows.length; i++) {
+      int lowShift = POSITION_BITS * lows[i];
+      int highShift = POSITION_BITS * highs[i];
+      long lowPosition = (positions >>> lowShift) & POSITION_MASK;
+      long highPosition = (positions >>> highShift) & POSITION_MASK;
+      int lowIndex = fromIndex + lows[i];
+      int highIndex = fromIndex + highs[i];
+      T low = list.get(lowIndex);
+      T high = list.get(highIndex);
+      int comparison = low.compareTo(high);
+      if (comparison > 0 || (comparison == 0 && lowPosition > highPosition)) {
+        list.set(lowIndex, high);
+        list.set(highIndex, low);
+        long difference = lowPosition ^ highPosition;
+        positions ^= (difference << lowShift) | (difference << highShift);
+      }
+    }
+  }
+
+  /**
+   * @return The network for every size from 0 to MAX_SIZE.
+   */
+  private static SortingNetwork[] createNetworks() {
+    SortingNetwork[] networks = new SortingNetwork[MAX_SIZE + 1];
+    for (int size = 0; size <= MAX_SIZE; size++) {
+      networks[size] = new SortingNetwork(size, COMPARATORS[size]);
+    }
+    return networks;
+  }
+}
@@ -0,0 +1,144 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Well known gap sequences for shell sort.
+ *
+ * The gap sequence decides how far elements can move in the early passes and so how much work
+ * is left for the final pass with a gap of 1, which is a plain insertion sort. Halving the size
+ * of the list every time, as in Shell's original paper, can leave the odd and even positions
+ * untouched by each other until the last pass, which makes the worst case O(n^2). The other
+ * sequences avoid that and do much better in practice:
+ *
+ * SHELL - n / 2, n / 4, ..., 1. Worst case O(n^2).
+ * KNUTH - 1, 4, 13, 40, ..., each gap being 3h + 1, and no larger than a third of the size.
+ * Worst case O(n^(3/2)).
+ * SEDGEWICK - 1, 8, 23, 77, 281, ..., 4^k + 3 * 2^(k-1) + 1. Worst case O(n^(4/3)).
+ * TOKUDA - 1, 4, 9, 20, 46, 103, ..., the ceiling of (9^k - 4^k) / (5 * 4^(k-1)). Grows by a
+ * factor of about 2.25 and does very well in practice.
+ * CIURA - 1, 4, 10, 23, 57, 132, 301, 701, 1750, found experimentally to need the fewest
+ * comparisons on random input, extended beyond 1750 by multiplying by 2.25. The best general
+ * choice and the default.
+ * PRATT - Every number of the form 2^p * 3^q. Worst case O(n log^2 n), the best known bound for
+ * shell sort, but it has so many gaps that it is usually slower in practice.
+ */
+public enum StandardGapSequence implements GapSequence {
+  SHELL {
+    @Override
+    public int[] gaps(int size) {
+      List<Integer> gaps = new ArrayList<Integer>();
+      for (int gap = size / 2; gap > 0; gap /= 2) {
+        gaps.add(gap);
+      }
+      return toArray(gaps);
+    }
+  },
+
+  KNUTH {
+    @Override
+    public int[] gaps(int size) {
+      List<Integer> gaps = new ArrayList<Integer>();
+      if (size > 1) {
+        gaps.add(1);
+      }
+      for (long gap = 4; gap <= size / 3; gap = (gap * 3) + 1) {
+        gaps.add((int) gap);
+      }
+      return toDecreasingArray(gaps);
+    }
+  },
+
+  SEDGEWICK {
+    @Override
+    public int[] gaps(int size) {
+      List<Integer> gaps = new ArrayList<Integer>();
+      if (size > 1) {
+        gaps.add(1);
+      }
+      for (int k = 1; ; k++) {
+        long gap = (1L << (2 * k)) + (3L << (k - 1)) + 1;
+        if (gap >= size) {
+          break;
+        }
+        gaps.add((int) gap);
+      }
+      return toDecreasingArray(gaps);
+    }
+  },
+
+  TOKUDA {
+    @Override
+    public int[] gaps(int size) {
+      List<Integer> gaps = new ArrayList<Integer>();
+      // h(k) = (9 * 2.25^(k-1) - 4) / 5, rounded up.
+      double growth = 1.0;
+      while (true) {
+        long gap = (long) Math.ceil(((9.0 * growth) - 4.0) / 5.0);
+        if (gap >= size) {
+          break;
+        }
+        gaps.add((int) gap);
+        growth *= 2.25;
+      }
+      return toDecreasingArray(gaps);
+    }
+  },
+
+  CIURA {
+    @Override
+    public int[] gaps(int size) {
+      List<Integer> gaps = new ArrayList<Integer>();
+      long gap = 1;
+      for (int i = 0; gap < size; i++) {
+        gaps.add((int) gap);
+        gap = (i + 1 < CIURA_GAPS.length) ? CIURA_GAPS[i + 1] : (long) (gap * 2.25);
+      }
+      return toDecreasingArray(gaps);
+    }
+  },
+
+  PRATT {
+    @Override
+    public int[] gaps(int size) {
+      List<Integer> gaps = new ArrayList<Integer>();
+      for (long powerOfTwo = 1; powerOfTwo < size; powerOfTwo *= 2) {
+        for (long gap = powerOfTwo; gap < size; gap *= 3) {
+          gaps.add((int) gap);
+        }
+      }
+      Collections.sort(gaps);
+      return toDecreasingArray(gaps);
+    }
+  };
+
+  /**
+   * Ciura's experimentally found gaps.
+   */
+  private static final int[] CIURA_GAPS = new int[] {1, 4, 10, 23, 57, 132, 301, 701, 1750};
+
+  /**
+   * Copy a list of gaps into an array in the same order.
+   * @param gaps The gaps.
+   * @return The gaps as an array.
+   */
+  private static int[] toArray(List<Integer> gaps) {
+    int[] result = new int[gaps.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = gaps.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * Copy a list of gaps in increasing order into an array in decreasing order.
+   * @param gaps The gaps in increasing order.
+   * @return The gaps as an array in decreasing order.
+   */
+  private static int[] toDecreasingArray(List<Integer> gaps) {
+    Collections.reverse(gaps);
+    return toArray(gaps);
+  }
+}
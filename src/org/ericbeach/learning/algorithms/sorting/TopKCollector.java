@@ -0,0 +1,81 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the k smallest elements of a stream of elements of any length, holding no more than
+ * k of them at a time.
+ *
+ * The collected elements are kept in a max-heap of size k, laid out in a list exactly like the
+ * heap of {@link HeapSortListSorter}, whose shift up and shift down steps maintain it:
+ * 1. While fewer than k elements have been seen, every element is added to the end of the heap
+ * and shifted up into place.
+ * 2. After that, the root of the heap is the largest of the k smallest elements seen so far.
+ * A new element that is not smaller than the root cannot be among the k smallest and is
+ * dropped after a single comparison. A smaller one replaces the root and is shifted down.
+ * Collecting n elements therefore takes O(n log k) time and O(k) memory, and when k is much
+ * smaller than n most elements cost one comparison.
+ *
+ * @param <T> Generic type.
+ */
+public class TopKCollector <T extends Comparable<? super T>> {
+  private final int k;
+  private final List<T> heap;
+  private final HeapSortListSorter<T> heapSortListSorter;
+
+  /**
+   * Create a collector.
+   * @param k The number of smallest elements to keep.
+   */
+  public TopKCollector(int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k must not be negative: " + k);
+    }
+    this.k = k;
+    heap = new ArrayList<T>(k);
+    heapSortListSorter = new HeapSortListSorter<T>();
+  }
+
+  /**
+   * Offer an element to the collector, which keeps it if it is among the k smallest so far.
+   * @param element The element.
+   */
+  public void offer(T element) {
+    if (heap.size() < k) {
+      heap.add(element);
+      heapSortListSorter.shiftUp(heap, 0, heap.size() - 1);
+    } else if (k > 0 && element.compareTo(heap.get(0)) < 0) {
+      heap.set(0, element);
+      heapSortListSorter.shiftDown(heap, 0, 0, k - 1);
+    }
+  }
+
+  /**
+   * Offer every element of a collection or other iterable to the collector.
+   * @param elements The elements.
+   */
+  public void offerAll(Iterable<? extends T> elements) {
+    for (T element : elements) {
+      offer(element);
+    }
+  }
+
+  /**
+   * @return The number of elements currently held, at most k.
+   */
+  public int size() {
+    return heap.size();
+  }
+
+  /**
+   * Return the k smallest elements offered so far, or all of them if fewer than k were
+   * offered, in sorted order. The collector can carry on collecting afterwards.
+   * @return A new list of the smallest elements in sorted order.
+   */
+  public List<T> toSortedList() {
+    List<T> sorted = new ArrayList<T>(heap);
+    heapSortListSorter.heapSort(sorted, 0, sorted.size() - 1);
+    return sorted;
+  }
+}
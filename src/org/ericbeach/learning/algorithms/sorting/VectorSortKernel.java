@@ -0,0 +1,596 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The parts of {@link VectorizedArraySorter} that use the incubating Vector API
+ * (jdk.incubator.vector). They live in a class of their own so that nothing touches the Vector
+ * API unless {@link VectorizedArraySorter} has found the module to be present.
+ *
+ * The sort is a quicksort with three vectorized pieces:
+ * 1. Partitioning compares a whole vector of elements with the pivot at once and uses the
+ * resulting mask to pick a precomputed permutation that packs the elements going left into the
+ * low lanes and those going right into the high lanes. See {@link #partition}.
+ * 2. Ranges of up to SMALL_SORT_VECTORS vectors are sorted in registers: each vector by a
+ * bitonic sorting network over its lanes, built from min, max and lane permutations.
+ * 3. The sorted vectors are then combined with bitonic merges: one vector is reversed against
+ * the other, a single min/max step splits them into a low and a high half, and the last levels
+ * of the bitonic network sort each half.
+ *
+ * Equal keys are handled by splitting off every copy of the pivot whenever it turns out to be
+ * the smallest value in its range, and a depth limit hands pathological ranges to heap sort as
+ * in introsort, so the worst case stays O(n log n). Each sort allocates a scratch array the
+ * size of the range to partition into.
+ *
+ * 256-bit vectors are used throughout, which is 8 ints or 4 longs. That keeps the tables of
+ * packing permutations to 256 and 16 entries.
+ */
+final class VectorSortKernel {
+  /**
+   * The number of vectors sorted in registers once a range is small enough.
+   */
+  private static final int SMALL_SORT_VECTORS = 4;
+
+  private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_256;
+  private static final int INT_LANES = INT_SPECIES.length();
+  private static final VectorShuffle<Integer>[] INT_PACK_LEFT = packLeftShuffles(INT_SPECIES);
+  private static final VectorShuffle<Integer> INT_REVERSE = reverseShuffle(INT_SPECIES);
+  private static final VectorShuffle<Integer>[] INT_SORT_PARTNERS = sortPartners(INT_SPECIES);
+  private static final VectorMask<Integer>[] INT_SORT_TAKE_MAX = sortTakeMax(INT_SPECIES);
+  private static final int INT_MERGE_STAGES = log2(INT_LANES);
+
+  private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_256;
+  private static final int LONG_LANES = LONG_SPECIES.length();
+  private static final VectorShuffle<Long>[] LONG_PACK_LEFT = packLeftShuffles(LONG_SPECIES);
+  private static final VectorShuffle<Long> LONG_REVERSE = reverseShuffle(LONG_SPECIES);
+  private static final VectorShuffle<Long>[] LONG_SORT_PARTNERS = sortPartners(LONG_SPECIES);
+  private static final VectorMask<Long>[] LONG_SORT_TAKE_MAX = sortTakeMax(LONG_SPECIES);
+  private static final int LONG_MERGE_STAGES = log2(LONG_LANES);
+
+  private final HeapSortArraySorter heapSortArraySorter;
+
+  VectorSortKernel() {
+    heapSortArraySorter = new HeapSortArraySorter();
+  }
+
+  /**
+   * @return Whether the hardware runs 256-bit vectors natively. Where it does not, the Vector
+   *     API falls back to emulating them in Java, which is much slower than a scalar sort.
+   */
+  static boolean isSupported() {
+    return IntVector.SPECIES_PREFERRED.vectorBitSize() >= INT_SPECIES.vectorBitSize();
+  }
+
+  /**
+   * Sort the range of an array of ints from fromIndex (inclusive) to toIndex (exclusive).
+   * @param array Array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   */
+  void sort(int[] array, int fromIndex, int toIndex) {
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return;
+    }
+    int[] scratch = new int[size];
+    int[] block = new int[SMALL_SORT_VECTORS * INT_LANES];
+    quickSort(array, scratch, block, fromIndex, toIndex, depthLimit(size));
+  }
+
+  /**
+   * Quicksort a range with vectorized partitioning, finishing small ranges with
+   * {@link #smallSort(int[], int[], int, int)}.
+   * @param array Array containing the range to be sorted.
+   * @param scratch Array at least as long as the range, to partition into.
+   * @param block Array to hold a small range while it is sorted in registers.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   * @param depthLimit The number of partitioning levels left before giving up on quicksort.
+   */
+  private void quickSort(int[] array, int[] scratch, int[] block, int fromIndex, int toIndex,
+      int depthLimit) {
+    while (toIndex - fromIndex > block.length) {
+      if (depthLimit-- == 0) {
+        heapSortArraySorter.sort(array, fromIndex, toIndex);
+        return;
+      }
+
+      int pivot = medianOfThree(array[fromIndex], array[(fromIndex + toIndex) >>> 1],
+          array[toIndex - 1]);
+      int splitIndex = partition(array, scratch, fromIndex, toIndex, pivot, false);
+      if (splitIndex == fromIndex) {
+        // Nothing is smaller than the pivot, so it is the smallest value in the range. Split
+        // off every copy of it instead; they are already in their final place.
+        fromIndex = partition(array, scratch, fromIndex, toIndex, pivot, true);
+        continue;
+      }
+
+      // Recurse into the smaller side and keep looping on the larger side.
+      if (splitIndex - fromIndex < toIndex - splitIndex) {
+        quickSort(array, scratch, block, fromIndex, splitIndex, depthLimit);
+        fromIndex = splitIndex;
+      } else {
+        quickSort(array, scratch, block, splitIndex, toIndex, depthLimit);
+        toIndex = splitIndex;
+      }
+    }
+    smallSort(array, block, fromIndex, toIndex);
+  }
+
+  /**
+   * Partition a range around a pivot, a vector at a time.
+   *
+   * Each vector is compared with the pivot and its lanes are permuted so that those going left
+   * come first. The whole vector is then stored twice into the scratch array: once at the left
+   * end of the free space and once at the right end. Only the lanes that belong on each side are
+   * kept, since the write pointers advance by just those, and the rest is overwritten later. As
+   * long as at least two vectors of free space remain, the two stores cannot overlap; the last
+   * few elements are partitioned one at a time. The scratch range is then copied back.
+   * @param array Array containing the range to partition.
+   * @param scratch Array at least as long as the range, to partition into.
+   * @param fromIndex The index of the first element of the range.
+   * @param toIndex The index one past the last element of the range.
+   * @param pivot The value to partition around.
+   * @param orEqual Whether elements equal to the pivot go left rather than right.
+   * @return The index of the first element of the right side.
+   */
+  private int partition(int[] array, int[] scratch, int fromIndex, int toIndex, int pivot,
+      boolean orEqual) {
+    IntVector pivots = IntVector.broadcast(INT_SPECIES, pivot);
+    int left = 0;
+    int right = toIndex - fromIndex;
+    int index = fromIndex;
+    for (; toIndex - index >= 2 * INT_LANES; index += INT_LANES) {
+      IntVector vector = IntVector.fromArray(INT_SPECIES, array, index);
+      // The comparison is spelled out in both forms since the JIT only compiles it to a
+      // vector instruction when the operator is a constant.
+      VectorMask<Integer> leftLanes = orEqual ? vector.compare(VectorOperators.LE, pivots)
+          : vector.compare(VectorOperators.LT, pivots);
+      IntVector packed = vector.rearrange(INT_PACK_LEFT[(int) leftLanes.toLong()]);
+      packed.intoArray(scratch, left);
+      packed.intoArray(scratch, right - INT_LANES);
+      int leftCount = leftLanes.trueCount();
+      left += leftCount;
+      right -= INT_LANES - leftCount;
+    }
+    for (; index < toIndex; index++) {
+      int value = array[index];
+      if (value < pivot || (orEqual && value == pivot)) {
+        scratch[left++] = value;
+      } else {
+        scratch[--right] = value;
+      }
+    }
+    System.arraycopy(scratch, 0, array, fromIndex, toIndex - fromIndex);
+    return fromIndex + left;
+  }
+
+  /**
+   * Sort a range of at most SMALL_SORT_VECTORS vectors entirely in registers.
+   *
+   * The range is padded out to whole vectors with the largest value, which sorts to the end and
+   * is not copied back. Each vector is sorted on its own, pairs of vectors are merged and then
+   * the two sorted pairs are merged, all with bitonic networks.
+   * @param array Array containing the range to be sorted.
+   * @param block Array of SMALL_SORT_VECTORS vectors to sort the range in.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   */
+  private void smallSort(int[] array, int[] block, int fromIndex, int toIndex) {
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return;
+    }
+    System.arraycopy(array, fromIndex, block, 0, size);
+    Arrays.fill(block, size, block.length, Integer.MAX_VALUE);
+
+    IntVector vector0 = sortVector(IntVector.fromArray(INT_SPECIES, block, 0));
+    IntVector vector1 = sortVector(IntVector.fromArray(INT_SPECIES, block, INT_LANES));
+    IntVector vector2 = sortVector(IntVector.fromArray(INT_SPECIES, block, 2 * INT_LANES));
+    IntVector vector3 = sortVector(IntVector.fromArray(INT_SPECIES, block, 3 * INT_LANES));
+
+    // Merge each pair: reversing the second vector makes the pair bitonic, and after one
+    // compare-exchange between them the smaller half is in the first vector.
+    IntVector reversed = vector1.rearrange(INT_REVERSE);
+    IntVector low = vector0.min(reversed);
+    IntVector high = vector0.max(reversed);
+    vector0 = mergeVector(low);
+    vector1 = mergeVector(high);
+
+    reversed = vector3.rearrange(INT_REVERSE);
+    low = vector2.min(reversed);
+    high = vector2.max(reversed);
+    vector2 = mergeVector(low);
+    vector3 = mergeVector(high);
+
+    // Merge the two sorted pairs the same way, with one more level of compare-exchanges.
+    IntVector reversed3 = vector3.rearrange(INT_REVERSE);
+    IntVector reversed2 = vector2.rearrange(INT_REVERSE);
+    IntVector low0 = vector0.min(reversed3);
+    IntVector high0 = vector0.max(reversed3);
+    IntVector low1 = vector1.min(reversed2);
+    IntVector high1 = vector1.max(reversed2);
+    mergeVector(low0.min(low1)).intoArray(block, 0);
+    mergeVector(low0.max(low1)).intoArray(block, INT_LANES);
+    mergeVector(high0.min(high1)).intoArray(block, 2 * INT_LANES);
+    mergeVector(high0.max(high1)).intoArray(block, 3 * INT_LANES);
+
+    System.arraycopy(block, 0, array, fromIndex, size);
+  }
+
+  /**
+   * Sort the lanes of a vector with a bitonic sorting network.
+   * @param vector The vector to sort.
+   * @return The sorted vector.
+   */
+  private IntVector sortVector(IntVector vector) {
+    for (int stage = 0; stage < INT_SORT_PARTNERS.length; stage++) {
+      vector = compareExchange(vector, INT_SORT_PARTNERS[stage], INT_SORT_TAKE_MAX[stage]);
+    }
+    return vector;
+  }
+
+  /**
+   * Sort the lanes of a bitonic vector with the last levels of the bitonic sorting network.
+   * @param vector The bitonic vector to sort.
+   * @return The sorted vector.
+   */
+  private IntVector mergeVector(IntVector vector) {
+    for (int stage = INT_SORT_PARTNERS.length - INT_MERGE_STAGES;
+        stage < INT_SORT_PARTNERS.length; stage++) {
+      vector = compareExchange(vector, INT_SORT_PARTNERS[stage], INT_SORT_TAKE_MAX[stage]);
+    }
+    return vector;
+  }
+
+  /**
+   * Compare each lane with its partner lane and keep the smaller or larger of the two.
+   * @param vector The vector.
+   * @param partners The partner of each lane.
+   * @param takeMax The lanes that keep the larger value.
+   * @return The vector after the compare-exchange.
+   */
+  private IntVector compareExchange(IntVector vector, VectorShuffle<Integer> partners,
+      VectorMask<Integer> takeMax) {
+    IntVector partner = vector.rearrange(partners);
+    return vector.min(partner).blend(vector.max(partner), takeMax);
+  }
+
+  /**
+   * Return the median of three values.
+   * @param first The first value.
+   * @param second The second value.
+   * @param third The third value.
+   * @return The median.
+   */
+  private int medianOfThree(int first, int second, int third) {
+    return Math.max(Math.min(first, second), Math.min(Math.max(first, second), third));
+  }
+
+  /**
+   * Sort the range of an array of longs from fromIndex (inclusive) to toIndex (exclusive).
+   * @param array Array containing the range to be sorted.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   */
+  void sort(long[] array, int fromIndex, int toIndex) {
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return;
+    }
+    long[] scratch = new long[size];
+    long[] block = new long[SMALL_SORT_VECTORS * LONG_LANES];
+    quickSort(array, scratch, block, fromIndex, toIndex, depthLimit(size));
+  }
+
+  /**
+   * Quicksort a range with vectorized partitioning, finishing small ranges with
+   * {@link #smallSort(long[], long[], int, int)}.
+   * @param array Array containing the range to be sorted.
+   * @param scratch Array at least as long as the range, to partition into.
+   * @param block Array to hold a small range while it is sorted in registers.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   * @param depthLimit The number of partitioning levels left before giving up on quicksort.
+   */
+  private void quickSort(long[] array, long[] scratch, long[] block, int fromIndex, int toIndex,
+      int depthLimit) {
+    while (toIndex - fromIndex > block.length) {
+      if (depthLimit-- == 0) {
+        heapSortArraySorter.sort(array, fromIndex, toIndex);
+        return;
+      }
+
+      long pivot = medianOfThree(array[fromIndex], array[(fromIndex + toIndex) >>> 1],
+          array[toIndex - 1]);
+      int splitIndex = partition(array, scratch, fromIndex, toIndex, pivot, false);
+      if (splitIndex == fromIndex) {
+        // Nothing is smaller than the pivot, so it is the smallest value in the range. Split
+        // off every copy of it instead; they are already in their final place.
+        fromIndex = partition(array, scratch, fromIndex, toIndex, pivot, true);
+        continue;
+      }
+
+      // Recurse into the smaller side and keep looping on the larger side.
+      if (splitIndex - fromIndex < toIndex - splitIndex) {
+        quickSort(array, scratch, block, fromIndex, splitIndex, depthLimit);
+        fromIndex = splitIndex;
+      } else {
+        quickSort(array, scratch, block, splitIndex, toIndex, depthLimit);
+        toIndex = splitIndex;
+      }
+    }
+    smallSort(array, block, fromIndex, toIndex);
+  }
+
+  /**
+   * Partition a range around a pivot, a vector at a time.
+   *
+   * Each vector is compared with the pivot and its lanes are permuted so that those going left
+   * come first. The whole vector is then stored twice into the scratch array: once at the left
+   * end of the free space and once at the right end. Only the lanes that belong on each side are
+   * kept, since the write pointers advance by just those, and the rest is overwritten later. As
+   * long as at least two vectors of free space remain, the two stores cannot overlap; the last
+   * few elements are partitioned one at a time. The scratch range is then copied back.
+   * @param array Array containing the range to partition.
+   * @param scratch Array at least as long as the range, to partition into.
+   * @param fromIndex The index of the first element of the range.
+   * @param toIndex The index one past the last element of the range.
+   * @param pivot The value to partition around.
+   * @param orEqual Whether elements equal to the pivot go left rather than right.
+   * @return The index of the first element of the right side.
+   */
+  private int partition(long[] array, long[] scratch, int fromIndex, int toIndex, long pivot,
+      boolean orEqual) {
+    LongVector pivots = LongVector.broadcast(LONG_SPECIES, pivot);
+    int left = 0;
+    int right = toIndex - fromIndex;
+    int index = fromIndex;
+    for (; toIndex - index >= 2 * LONG_LANES; index += LONG_LANES) {
+      LongVector vector = LongVector.fromArray(LONG_SPECIES, array, index);
+      // The comparison is spelled out in both forms since the JIT only compiles it to a
+      // vector instruction when the operator is a constant.
+      VectorMask<Long> leftLanes = orEqual ? vector.compare(VectorOperators.LE, pivots)
+          : vector.compare(VectorOperators.LT, pivots);
+      LongVector packed = vector.rearrange(LONG_PACK_LEFT[(int) leftLanes.toLong()]);
+      packed.intoArray(scratch, left);
+      packed.intoArray(scratch, right - LONG_LANES);
+      int leftCount = leftLanes.trueCount();
+      left += leftCount;
+      right -= LONG_LANES - leftCount;
+    }
+    for (; index < toIndex; index++) {
+      long value = array[index];
+      if (value < pivot || (orEqual && value == pivot)) {
+        scratch[left++] = value;
+      } else {
+        scratch[--right] = value;
+      }
+    }
+    System.arraycopy(scratch, 0, array, fromIndex, toIndex - fromIndex);
+    return fromIndex + left;
+  }
+
+  /**
+   * Sort a range of at most SMALL_SORT_VECTORS vectors entirely in registers.
+   *
+   * The range is padded out to whole vectors with the largest value, which sorts to the end and
+   * is not copied back. Each vector is sorted on its own, pairs of vectors are merged and then
+   * the two sorted pairs are merged, all with bitonic networks.
+   * @param array Array containing the range to be sorted.
+   * @param block Array of SMALL_SORT_VECTORS vectors to sort the range in.
+   * @param fromIndex The index of the first element to be sorted.
+   * @param toIndex The index one past the last element to be sorted.
+   */
+  private void smallSort(long[] array, long[] block, int fromIndex, int toIndex) {
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return;
+    }
+    System.arraycopy(array, fromIndex, block, 0, size);
+    Arrays.fill(block, size, block.length, Long.MAX_VALUE);
+
+    LongVector vector0 = sortVector(LongVector.fromArray(LONG_SPECIES, block, 0));
+    LongVector vector1 = sortVector(LongVector.fromArray(LONG_SPECIES, block, LONG_LANES));
+    LongVector vector2 = sortVector(LongVector.fromArray(LONG_SPECIES, block, 2 * LONG_LANES));
+    LongVector vector3 = sortVector(LongVector.fromArray(LONG_SPECIES, block, 3 * LONG_LANES));
+
+    // Merge each pair: reversing the second vector makes the pair bitonic, and after one
+    // compare-exchange between them the smaller half is in the first vector.
+    LongVector reversed = vector1.rearrange(LONG_REVERSE);
+    LongVector low = vector0.min(reversed);
+    LongVector high = vector0.max(reversed);
+    vector0 = mergeVector(low);
+    vector1 = mergeVector(high);
+
+    reversed = vector3.rearrange(LONG_REVERSE);
+    low = vector2.min(reversed);
+    high = vector2.max(reversed);
+    vector2 = mergeVector(low);
+    vector3 = mergeVector(high);
+
+    // Merge the two sorted pairs the same way, with one more level of compare-exchanges.
+    LongVector reversed3 = vector3.rearrange(LONG_REVERSE);
+    LongVector reversed2 = vector2.rearrange(LONG_REVERSE);
+    LongVector low0 = vector0.min(reversed3);
+    LongVector high0 = vector0.max(reversed3);
+    LongVector low1 = vector1.min(reversed2);
+    LongVector high1 = vector1.max(reversed2);
+    mergeVector(low0.min(low1)).intoArray(block, 0);
+    mergeVector(low0.max(low1)).intoArray(block, LONG_LANES);
+    mergeVector(high0.min(high1)).intoArray(block, 2 * LONG_LANES);
+    mergeVector(high0.max(high1)).intoArray(block, 3 * LONG_LANES);
+
+    System.arraycopy(block, 0, array, fromIndex, size);
+  }
+
+  /**
+   * Sort the lanes of a vector with a bitonic sorting network.
+   * @param vector The vector to sort.
+   * @return The sorted vector.
+   */
+  private LongVector sortVector(LongVector vector) {
+    for (int stage = 0; stage < LONG_SORT_PARTNERS.length; stage++) {
+      vector = compareExchange(vector, LONG_SORT_PARTNERS[stage], LONG_SORT_TAKE_MAX[stage]);
+    }
+    return vector;
+  }
+
+  /**
+   * Sort the lanes of a bitonic vector with the last levels of the bitonic sorting network.
+   * @param vector The bitonic vector to sort.
+   * @return The sorted vector.
+   */
+  private LongVector mergeVector(LongVector vector) {
+    for (int stage = LONG_SORT_PARTNERS.length - LONG_MERGE_STAGES;
+        stage < LONG_SORT_PARTNERS.length; stage++) {
+      vector = compareExchange(vector, LONG_SORT_PARTNERS[stage], LONG_SORT_TAKE_MAX[stage]);
+    }
+    return vector;
+  }
+
+  /**
+   * Compare each lane with its partner lane and keep the smaller or larger of the two.
+   * @param vector The vector.
+   * @param partners The partner of each lane.
+   * @param takeMax The lanes that keep the larger value.
+   * @return The vector after the compare-exchange.
+   */
+  private LongVector compareExchange(LongVector vector, VectorShuffle<Long> partners,
+      VectorMask<Long> takeMax) {
+    LongVector partner = vector.rearrange(partners);
+    return vector.min(partner).blend(vector.max(partner), takeMax);
+  }
+
+  /**
+   * Return the median of three values.
+   * @param first The first value.
+   * @param second The second value.
+   * @param third The third value.
+   * @return The median.
+   */
+  private long medianOfThree(long first, long second, long third) {
+    return Math.max(Math.min(first, second), Math.min(Math.max(first, second), third));
+  }
+
+  /**
+   * Return the number of partitioning levels allowed before falling back to heap sort.
+   * @param size The size of the range to be sorted.
+   * @return Twice the base 2 logarithm of the size.
+   */
+  private int depthLimit(int size) {
+    return 2 * log2(size);
+  }
+
+  /**
+   * @param value A positive number.
+   * @return The base 2 logarithm of the value, rounded down.
+   */
+  private static int log2(int value) {
+    return (Integer.SIZE - 1) - Integer.numberOfLeadingZeros(value);
+  }
+
+  /**
+   * Build the permutations that pack the lanes selected by a mask into the low lanes, in order,
+   * followed by the other lanes. Entry m of the table is for the mask whose bits are m.
+   * @param <E> The lane type.
+   * @param species The vector species.
+   * @return The permutations, one for each possible mask.
+   */
+  @SuppressWarnings("unchecked")
+  private static <E> VectorShuffle<E>[] packLeftShuffles(VectorSpecies<E> species) {
+    int lanes = species.length();
+    VectorShuffle<E>[] shuffles = (VectorShuffle<E>[]) new VectorShuffle<?>[1 << lanes];
+    int[] sourceLanes = new int[lanes];
+    for (int maskBits = 0; maskBits < shuffles.length; maskBits++) {
+      int next = 0;
+      for (int lane = 0; lane < lanes; lane++) {
+        if ((maskBits & (1 << lane)) != 0) {
+          sourceLanes[next++] = lane;
+        }
+      }
+      for (int lane = 0; lane < lanes; lane++) {
+        if ((maskBits & (1 << lane)) == 0) {
+          sourceLanes[next++] = lane;
+        }
+      }
+      shuffles[maskBits] = VectorShuffle.fromArray(species, sourceLanes, 0);
+    }
+    return shuffles;
+  }
+
+  /**
+   * @param <E> The lane type.
+   * @param species The vector species.
+   * @return The permutation that reverses the lanes of a vector.
+   */
+  private static <E> VectorShuffle<E> reverseShuffle(VectorSpecies<E> species) {
+    int lanes = species.length();
+    int[] sourceLanes = new int[lanes];
+    for (int lane = 0; lane < lanes; lane++) {
+      sourceLanes[lane] = lanes - 1 - lane;
+    }
+    return VectorShuffle.fromArray(species, sourceLanes, 0);
+  }
+
+  /**
+   * Build the partner permutation of every stage of a bitonic sorting network over the lanes.
+   * Stages go through block sizes k = 2, 4, ..., lanes and, within each block size, distances
+   * j = k / 2, k / 4, ..., 1; every lane is compared with the lane j away from it. The last
+   * log2(lanes) stages, with k equal to the number of lanes, form a bitonic merge.
+   * @param <E> The lane type.
+   * @param species The vector species.
+   * @return The permutations, in the order the stages are applied.
+   */
+  @SuppressWarnings("unchecked")
+  private static <E> VectorShuffle<E>[] sortPartners(VectorSpecies<E> species) {
+    int lanes = species.length();
+    List<VectorShuffle<E>> partners = new ArrayList<VectorShuffle<E>>();
+    int[] sourceLanes = new int[lanes];
+    for (int blockSize = 2; blockSize <= lanes; blockSize *= 2) {
+      for (int distance = blockSize / 2; distance > 0; distance /= 2) {
+        for (int lane = 0; lane < lanes; lane++) {
+          sourceLanes[lane] = lane ^ distance;
+        }
+        partners.add(VectorShuffle.fromArray(species, sourceLanes, 0));
+      }
+    }
+    return partners.toArray((VectorShuffle<E>[]) new VectorShuffle<?>[partners.size()]);
+  }
+
+  /**
+   * Build the lanes that keep the larger value at every stage of the bitonic sorting network
+   * described in {@link #sortPartners}. Within blocks of size k that should end up ascending,
+   * the upper lane of each compared pair keeps the larger value; in descending blocks the lower
+   * one does. Blocks alternate between ascending and descending, starting with ascending.
+   * @param <E> The lane type.
+   * @param species The vector species.
+   * @return The masks, in the order the stages are applied.
+   */
+  @SuppressWarnings("unchecked")
+  private static <E> VectorMask<E>[] sortTakeMax(VectorSpecies<E> species) {
+    int lanes = species.length();
+    List<VectorMask<E>> takeMax = new ArrayList<VectorMask<E>>();
+    boolean[] laneTakesMax = new boolean[lanes];
+    for (int blockSize = 2; blockSize <= lanes; blockSize *= 2) {
+      for (int distance = blockSize / 2; distance > 0; distance /= 2) {
+        for (int lane = 0; lane < lanes; lane++) {
+          boolean upperLane = (lane & distance) != 0;
+          boolean descendingBlock = (lane & blockSize) != 0;
+          laneTakesMax[lane] = upperLane != descendingBlock;
+        }
+        takeMax.add(VectorMask.fromArray(species, laneTakesMax, 0));
+      }
+    }
+    return takeMax.toArray((VectorMask<E>[]) new VectorMask<?>[takeMax.size()]);
+  }
+}
@@ -0,0 +1,152 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Sorts arrays of primitive ints, longs, floats and doubles using the SIMD units of the CPU
+ * through the incubating Vector API.
+ *
+ * A comparison sort such as {@link QuicksortArraySorter} looks at one element at a time, which
+ * leaves most of a modern CPU's vector units idle. This sorter compares 8 ints or 4 longs per
+ * instruction instead, partitioning with vector compares and lane permutations and sorting
+ * small ranges entirely in registers with bitonic sorting networks and merges. See
+ * {@link VectorSortKernel} for how.
+ *
+ * The Vector API lives in the jdk.incubator.vector module, which the JVM only loads when asked
+ * to with --add-modules jdk.incubator.vector. When the module is missing, or the hardware has no
+ * 256-bit vectors and the API would have to emulate them, this sorter falls back to
+ * {@link QuicksortArraySorter}. {@link #isVectorized()} tells which is in use.
+ *
+ * Floats and doubles are first mapped onto ints and longs that sort the same way, as in
+ * {@link RadixArraySorter}, so they are ordered like {@link Float#compare(float, float)} and
+ * {@link Double#compare(double, double)}. Every NaN comes out as the canonical NaN.
+ */
+public class VectorizedArraySorter
+    implements IntArraySorter, LongArraySorter, FloatArraySorter, DoubleArraySorter {
+  /**
+   * The name of the module holding the Vector API.
+   */
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+  private final ArraySorterHelper arraySorterHelper;
+  private final QuicksortArraySorter quicksortArraySorter;
+  private final VectorSortKernel vectorSortKernel;
+
+  /**
+   * Create a sorter that uses the Vector API if it is available.
+   */
+  public VectorizedArraySorter() {
+    this(isVectorApiAvailable());
+  }
+
+  /**
+   * Create a sorter.
+   * @param vectorized Whether to use the Vector API, which must be available if so.
+   */
+  VectorizedArraySorter(boolean vectorized) {
+    arraySorterHelper = new ArraySorterHelper();
+    quicksortArraySorter = new QuicksortArraySorter();
+    vectorSortKernel = vectorized ? new VectorSortKernel() : null;
+  }
+
+  /**
+   * @return Whether the Vector API module is loaded and the hardware supports 256-bit vectors.
+   */
+  public static boolean isVectorApiAvailable() {
+    if (!ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+      return false;
+    }
+    try {
+      return VectorSortKernel.isSupported();
+    } catch (LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * @return Whether this sorter uses the Vector API rather than falling back to a scalar sort.
+   */
+  public boolean isVectorized() {
+    return vectorSortKernel != null;
+  }
+
+  @Override
+  public int[] sort(int[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public int[] sort(int[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    if (vectorSortKernel != null) {
+      vectorSortKernel.sort(array, fromIndex, toIndex);
+    } else {
+      quicksortArraySorter.sort(array, fromIndex, toIndex);
+    }
+    return array;
+  }
+
+  @Override
+  public long[] sort(long[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public long[] sort(long[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    if (vectorSortKernel != null) {
+      vectorSortKernel.sort(array, fromIndex, toIndex);
+    } else {
+      quicksortArraySorter.sort(array, fromIndex, toIndex);
+    }
+    return array;
+  }
+
+  @Override
+  public float[] sort(float[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public float[] sort(float[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return array;
+    }
+
+    // Convert each float to an int that sorts the same way, sort the ints and convert back.
+    int[] keys = new int[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = RadixArraySorter.toSortableInt(array[fromIndex + i]);
+    }
+    sort(keys, 0, size);
+    for (int i = 0; i < size; i++) {
+      array[fromIndex + i] = RadixArraySorter.fromSortableInt(keys[i]);
+    }
+    return array;
+  }
+
+  @Override
+  public double[] sort(double[] array) {
+    return sort(array, 0, array.length);
+  }
+
+  @Override
+  public double[] sort(double[] array, int fromIndex, int toIndex) {
+    arraySorterHelper.checkRange(array.length, fromIndex, toIndex);
+    int size = toIndex - fromIndex;
+    if (size < 2) {
+      return array;
+    }
+
+    // Convert each double to a long that sorts the same way, sort the longs and convert back.
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = RadixArraySorter.toSortableLong(array[fromIndex + i]);
+    }
+    sort(keys, 0, size);
+    for (int i = 0; i < size; i++) {
+      array[fromIndex + i] = RadixArraySorter.fromSortableLong(keys[i]);
+    }
+    return array;
+  }
+}
@@ -0,0 +1,137 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Sets up tests on int, long and double arrays that can be shared among different primitive
+ * array sorting algorithms.
+ */
+public abstract class AbstractArraySorterTest extends TestCase {
+  private int[] unsortedIntArray;
+  private int[] sortedIntArray;
+
+  private long[] unsortedLongArray;
+  private long[] sortedLongArray;
+
+  private double[] unsortedDoubleArray;
+  private double[] sortedDoubleArray;
+
+  private Random random;
+
+  protected void setUp() throws Exception {
+    unsortedIntArray = new int[] {100, 50, -120, 9000, 14, -200, 60, Integer.MIN_VALUE,
+        Integer.MAX_VALUE, 0, 14};
+    sortedIntArray = new int[] {Integer.MIN_VALUE, -200, -120, 0, 14, 14, 50, 60, 100, 9000,
+        Integer.MAX_VALUE};
+
+    unsortedLongArray = new long[] {1386037882000L, -1386037876000L, 1386037886000L,
+        Long.MAX_VALUE, 0L, Long.MIN_VALUE, 1386037881000L};
+    sortedLongArray = new long[] {Long.MIN_VALUE, -1386037876000L, 0L, 1386037881000L,
+        1386037882000L, 1386037886000L, Long.MAX_VALUE};
+
+    unsortedDoubleArray = new double[] {3.5, Double.NaN, -0.0, 0.0, -2.25,
+        Double.NEGATIVE_INFINITY, 1e-300, Double.POSITIVE_INFINITY, -1e300, 3.5};
+    sortedDoubleArray = new double[] {Double.NEGATIVE_INFINITY, -1e300, -2.25, -0.0, 0.0,
+        1e-300, 3.5, 3.5, Double.POSITIVE_INFINITY, Double.NaN};
+
+    random = new Random(42);
+  }
+
+  protected void tearDown() throws Exception {
+    unsortedIntArray = null;
+    sortedIntArray = null;
+
+    unsortedLongArray = null;
+    sortedLongArray = null;
+
+    unsortedDoubleArray = null;
+    sortedDoubleArray = null;
+
+    random = null;
+  }
+
+  protected abstract IntArraySorter createIntArraySorter();
+
+  protected abstract LongArraySorter createLongArraySorter();
+
+  protected abstract DoubleArraySorter createDoubleArraySorter();
+
+  public void testSortEmptyAndSingleInts() {
+    IntArraySorter sorter = createIntArraySorter();
+    assertEquals(0, sorter.sort(new int[0]).length);
+    assertTrue(Arrays.equals(new int[] {7}, sorter.sort(new int[] {7})));
+  }
+
+  public void testSortSimpleInts() {
+    int[] result = createIntArraySorter().sort(unsortedIntArray);
+    assertTrue(Arrays.equals(sortedIntArray, result));
+  }
+
+  public void testSortIntRange() {
+    int[] array = new int[] {9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+    createIntArraySorter().sort(array, 2, 7);
+    assertTrue(Arrays.equals(new int[] {9, 8, 3, 4, 5, 6, 7, 2, 1, 0}, array));
+  }
+
+  public void testSortInvalidIntRange() {
+    final IntArraySorter sorter = createIntArraySorter();
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> sorter.sort(new int[4], 3, 2));
+    AbstractListSorterTest.assertRejects(ArrayIndexOutOfBoundsException.class,
+        () -> sorter.sort(new int[4], 0, 5));
+  }
+
+  public void testSortLargeInts() {
+    IntArraySorter sorter = createIntArraySorter();
+
+    int[] randomInts = new int[5000];
+    int[] fewUniqueInts = new int[5000];
+    int[] sortedInts = new int[5000];
+    int[] reversedInts = new int[5000];
+    for (int i = 0; i < randomInts.length; i++) {
+      randomInts[i] = random.nextInt();
+      fewUniqueInts[i] = random.nextInt(4) - 2;
+      sortedInts[i] = i;
+      reversedInts[i] = -i;
+    }
+
+    for (int[] input : new int[][] {randomInts, fewUniqueInts, sortedInts, reversedInts}) {
+      int[] expected = input.clone();
+      Arrays.sort(expected);
+      assertTrue(Arrays.equals(expected, sorter.sort(input)));
+    }
+  }
+
+  public void testSortSimpleLongs() {
+    long[] result = createLongArraySorter().sort(unsortedLongArray);
+    assertTrue(Arrays.equals(sortedLongArray, result));
+  }
+
+  public void testSortLargeLongs() {
+    long[] input = new long[5000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = random.nextLong();
+    }
+    long[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, createLongArraySorter().sort(input)));
+  }
+
+  public void testSortSimpleDoubles() {
+    double[] result = createDoubleArraySorter().sort(unsortedDoubleArray);
+    assertTrue(Arrays.equals(sortedDoubleArray, result));
+  }
+
+  public void testSortLargeDoubles() {
+    double[] input = new double[5000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = random.nextGaussian() * 1000;
+    }
+    double[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, createDoubleArraySorter().sort(input)));
+  }
+}
@@ -4,8 +4,11 @@ import junit.framework.TestCase;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Sets up tests on string and integer lists that can be shared among
@@ -206,4 +209,82 @@ public abstract class AbstractListSorterTest extends TestCase {
       assertEquals(expected.next(), actual.next());
     }
   }
+
+  public void testSortEmptyList() {
+    ListSorter<Integer> sorter = createListSorter();
+    assertTrue(sorter.sort(new ArrayList<Integer>()).isEmpty());
+  }
+
+  public void testSortLinkedList() {
+    List<Integer> list = new LinkedList<Integer>(randomIntegers(new Random(42), 2000, 500));
+    assertSortsLikeCollectionsSort(this.<Integer>createListSorter(), list);
+  }
+
+  /**
+   * Check that a sorter puts a list into the same order as {@link Collections#sort(List)}.
+   * @param sorter The sorter under test.
+   * @param list The list to sort.
+   */
+  protected static <T extends Comparable<? super T>> void assertSortsLikeCollectionsSort(
+      ListSorter<T> sorter, List<T> list) {
+    assertSortsLikeCollectionsSort(null, sorter, list);
+  }
+
+  /**
+   * Check that a sorter puts a list into the same order as {@link Collections#sort(List)}.
+   * @param message The message to report on failure, or null.
+   * @param sorter The sorter under test.
+   * @param list The list to sort.
+   */
+  protected static <T extends Comparable<? super T>> void assertSortsLikeCollectionsSort(
+      String message, ListSorter<T> sorter, List<T> list) {
+    List<T> expected = new ArrayList<T>(list);
+    Collections.sort(expected);
+    assertEquals(message, expected, sorter.sort(list));
+  }
+
+  /**
+   * Check that an action fails with the given exception.
+   * @param expected The type of exception the action should throw.
+   * @param action The action, such as a constructor call with an invalid argument.
+   */
+  protected static void assertRejects(Class<? extends RuntimeException> expected,
+      Runnable action) {
+    try {
+      action.run();
+    } catch (RuntimeException e) {
+      if (expected.isInstance(e)) {
+        return;
+      }
+      throw e;
+    }
+    fail("Expected a " + expected.getSimpleName());
+  }
+
+  /**
+   * @param random The source of the values.
+   * @param size The number of values.
+   * @param bound The bound on the values, which are between 0 (inclusive) and bound (exclusive).
+   * @return A list of random Integers.
+   */
+  protected static List<Integer> randomIntegers(Random random, int size, int bound) {
+    List<Integer> list = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(random.nextInt(bound));
+    }
+    return list;
+  }
+
+  /**
+   * @param size The number of values.
+   * @return A list that rises from 0 to size / 2 and falls back again, which defeats a pivot
+   *     chosen as the median of the first, middle and last elements.
+   */
+  protected static List<Integer> organPipeIntegers(int size) {
+    List<Integer> list = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(i < size / 2 ? i : size - i);
+    }
+    return list;
+  }
 }
@@ -0,0 +1,87 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the adaptive, run-based Mergesort implementation.
+ */
+public class AdaptiveMergesortListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new AdaptiveMergesortListSorter<T>();
+  }
+
+  public void testSortLargeRandomList() {
+    assertSortsLikeCollectionsSort(this.<Integer>createListSorter(),
+        randomIntegers(new Random(42), 20000, Integer.MAX_VALUE));
+  }
+
+  public void testSortAroundMinimumRunLength() {
+    // Lists shorter than 32 are binary insertion sorted alone; longer ones are cut into runs
+    // of a minimum length. Organ pipes give one ascending run and one descending run to reverse.
+    Random random = new Random(42);
+    ListSorter<Integer> sorter = createListSorter();
+    for (int size : new int[] {31, 32, 33, 63, 64, 65, 1000}) {
+      assertSortsLikeCollectionsSort("size " + size, sorter, randomIntegers(random, size, 10));
+      assertSortsLikeCollectionsSort("size " + size, sorter, organPipeIntegers(size));
+    }
+  }
+
+  public void testSortPresortedRuns() {
+    // Ascending and descending runs of varying length, with occasional out of order elements,
+    // make the sort both reverse runs and gallop while merging.
+    Random random = new Random(7);
+    List<Integer> list = new ArrayList<Integer>();
+    int value = 0;
+    while (list.size() < 20000) {
+      int runLength = 1 + random.nextInt(2000);
+      int step = random.nextBoolean() ? 1 : -1;
+      for (int i = 0; i < runLength; i++) {
+        value += step * random.nextInt(3);
+        list.add(random.nextInt(100) == 0 ? random.nextInt() : value);
+      }
+    }
+    assertSortsLikeCollectionsSort(this.<Integer>createListSorter(), list);
+  }
+
+  public void testSortIsStable() {
+    Random random = new Random(11);
+    List<StableKey> list = new ArrayList<StableKey>();
+    for (int i = 0; i < 5000; i++) {
+      list.add(new StableKey(random.nextInt(20), i));
+    }
+
+    ListSorter<StableKey> sorter = createListSorter();
+    List<StableKey> result = sorter.sort(list);
+
+    for (int i = 1; i < result.size(); i++) {
+      StableKey previous = result.get(i - 1);
+      StableKey current = result.get(i);
+      assertTrue(previous.key <= current.key);
+      if (previous.key == current.key) {
+        assertTrue(previous.originalPosition < current.originalPosition);
+      }
+    }
+  }
+
+  /**
+   * An element that compares only on its key, remembering where it started so that the test
+   * can check that equal keys keep their original order.
+   */
+  private static class StableKey implements Comparable<StableKey> {
+    private final int key;
+    private final int originalPosition;
+
+    StableKey(int key, int originalPosition) {
+      this.key = key;
+      this.originalPosition = originalPosition;
+    }
+
+    @Override
+    public int compareTo(StableKey other) {
+      return Integer.compare(key, other.key);
+    }
+  }
+}
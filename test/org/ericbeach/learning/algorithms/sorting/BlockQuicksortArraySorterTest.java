@@ -0,0 +1,81 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the primitive array block quick sort implementation.
+ */
+public class BlockQuicksortArraySorterTest extends AbstractArraySorterTest {
+  @Override
+  protected IntArraySorter createIntArraySorter() {
+    return new BlockQuicksortArraySorter();
+  }
+
+  @Override
+  protected LongArraySorter createLongArraySorter() {
+    return new BlockQuicksortArraySorter();
+  }
+
+  @Override
+  protected DoubleArraySorter createDoubleArraySorter() {
+    return new BlockQuicksortArraySorter();
+  }
+
+  public void testSortIntsAroundBlockBoundaries() {
+    Random random = new Random(42);
+    BlockQuicksortArraySorter sorter = new BlockQuicksortArraySorter();
+    for (int size = 0; size <= 4 * BlockQuicksortArraySorter.BLOCK_SIZE + 1; size++) {
+      for (int bound : new int[] {1, 2, 10, Integer.MAX_VALUE}) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+          array[i] = (bound == Integer.MAX_VALUE) ? random.nextInt() : random.nextInt(bound);
+        }
+        assertSortsInts(sorter, array);
+      }
+    }
+  }
+
+  public void testSortLargeIntsOfEveryShape() {
+    Random random = new Random(42);
+    BlockQuicksortArraySorter sorter = new BlockQuicksortArraySorter();
+    int size = 100000;
+    int[] random100 = new int[size];
+    int[] equal = new int[size];
+    int[] ascending = new int[size];
+    int[] descending = new int[size];
+    int[] organPipe = new int[size];
+    for (int i = 0; i < size; i++) {
+      random100[i] = random.nextInt(100);
+      equal[i] = 7;
+      ascending[i] = i;
+      descending[i] = size - i;
+      organPipe[i] = Math.min(i, size - i);
+    }
+    assertSortsInts(sorter, random100);
+    assertSortsInts(sorter, equal);
+    assertSortsInts(sorter, ascending);
+    assertSortsInts(sorter, descending);
+    assertSortsInts(sorter, organPipe);
+  }
+
+  public void testSortLongsWithExtremeValues() {
+    Random random = new Random(42);
+    BlockQuicksortArraySorter sorter = new BlockQuicksortArraySorter();
+    long[] array = new long[10000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = random.nextLong();
+    }
+    array[10] = Long.MIN_VALUE;
+    array[20] = Long.MAX_VALUE;
+    long[] expected = array.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, sorter.sort(array)));
+  }
+
+  private void assertSortsInts(IntArraySorter sorter, int[] array) {
+    int[] expected = array.clone();
+    Arrays.sort(expected);
+    assertTrue("size " + array.length, Arrays.equals(expected, sorter.sort(array)));
+  }
+}
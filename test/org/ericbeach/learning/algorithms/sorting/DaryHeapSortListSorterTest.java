@@ -0,0 +1,49 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the d-ary heap sort implementation.
+ */
+public class DaryHeapSortListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new DaryHeapSortListSorter<T>();
+  }
+
+  public void testSortRandomListsWithEveryArity() {
+    Random random = new Random(42);
+    for (int arity = 2; arity <= 8; arity++) {
+      ListSorter<Integer> sorter = new DaryHeapSortListSorter<Integer>(arity);
+      for (int size : new int[] {2, 3, 9, 100, 5000}) {
+        assertSortsLikeCollectionsSort("arity " + arity, sorter,
+            randomIntegers(random, size, 100));
+      }
+    }
+  }
+
+  public void testSortAroundHeapLevelBoundaries() {
+    // Sizes on either side of a full level leave the last parent with one child or with all of
+    // its children.
+    for (int arity = 2; arity <= 8; arity++) {
+      ListSorter<Integer> sorter = new DaryHeapSortListSorter<Integer>(arity);
+      int fullLevels = 1 + arity + (arity * arity);
+      for (int size : new int[] {arity, arity + 1, arity + 2, fullLevels - 1, fullLevels,
+          fullLevels + 1}) {
+        String message = "arity " + arity + ", size " + size;
+        assertSortsLikeCollectionsSort(message, sorter, organPipeIntegers(size));
+        List<Integer> reversed = new ArrayList<Integer>();
+        for (int i = size; i > 0; i--) {
+          reversed.add(i);
+        }
+        assertSortsLikeCollectionsSort(message, sorter, reversed);
+      }
+    }
+  }
+
+  public void testInvalidArity() {
+    assertRejects(IllegalArgumentException.class, () -> new DaryHeapSortListSorter<Integer>(1));
+  }
+}
@@ -0,0 +1,185 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the external merge sort implementation.
+ */
+public class ExternalSorterTest extends TestCase {
+  private File tempDirectory;
+  private Random random;
+
+  protected void setUp() throws Exception {
+    tempDirectory = Files.createTempDirectory("external-sorter-test").toFile();
+    random = new Random(42);
+  }
+
+  protected void tearDown() throws Exception {
+    for (File file : tempDirectory.listFiles()) {
+      file.delete();
+    }
+    tempDirectory.delete();
+    tempDirectory = null;
+    random = null;
+  }
+
+  public void testSortInMemory() throws IOException {
+    List<Integer> input = randomIntegers(1000);
+    File output = new File(tempDirectory, "sorted");
+    new ExternalSorter<Integer>(new IntegerCodec()).sort(input.iterator(), output);
+
+    Collections.sort(input);
+    assertEquals(input, readRecords(output, new IntegerCodec()));
+  }
+
+  public void testSortWithManyRunsAndMergePasses() throws IOException {
+    // A budget of 100 records per chunk and a fan-in of 3 gives 100 runs and several passes.
+    List<Integer> input = randomIntegers(10000);
+    File output = new File(tempDirectory, "sorted");
+    long budget = 100 * (4 + ExternalSorter.ESTIMATED_RECORD_OVERHEAD);
+    new ExternalSorter<Integer>(new IntegerCodec(), new QuicksortListSorter<Integer>(), budget,
+        3, tempDirectory).sort(input.iterator(), output);
+
+    Collections.sort(input);
+    assertEquals(input, readRecords(output, new IntegerCodec()));
+    // Only the output should be left behind.
+    assertEquals(1, tempDirectory.listFiles().length);
+  }
+
+  public void testSortWithChunkSorterReturningNewList() throws IOException {
+    // MergesortListSorter returns a new sorted list and leaves the chunk as it was, both for
+    // the chunks spilled to runs and for input that fits in memory.
+    for (int count : new int[] {10000, 50}) {
+      List<Integer> input = randomIntegers(count);
+      File output = new File(tempDirectory, "sorted-" + count);
+      long budget = 100 * (4 + ExternalSorter.ESTIMATED_RECORD_OVERHEAD);
+      new ExternalSorter<Integer>(new IntegerCodec(), new MergesortListSorter<Integer>(), budget,
+          3, tempDirectory).sort(input.iterator(), output);
+
+      Collections.sort(input);
+      assertEquals(input, readRecords(output, new IntegerCodec()));
+    }
+  }
+
+  public void testSortFileInPlace() throws IOException {
+    List<String> input = new ArrayList<String>();
+    for (int i = 0; i < 2000; i++) {
+      input.add("key-" + random.nextInt(500) + "-\u00e9");
+    }
+    File file = new File(tempDirectory, "records");
+    RecordFileWriter<String> writer = new RecordFileWriter<String>(file, new StringCodec());
+    for (String value : input) {
+      writer.write(value);
+    }
+    writer.close();
+
+    new ExternalSorter<String>(new StringCodec(), new AdaptiveMergesortListSorter<String>(),
+        4096, 4, tempDirectory).sort(file, file);
+
+    Collections.sort(input);
+    assertEquals(input, readRecords(file, new StringCodec()));
+  }
+
+  public void testSortEmptyInput() throws IOException {
+    File output = new File(tempDirectory, "sorted");
+    new ExternalSorter<Integer>(new IntegerCodec()).sort(
+        new ArrayList<Integer>().iterator(), output);
+    assertTrue(readRecords(output, new IntegerCodec()).isEmpty());
+  }
+
+  public void testRecordLargerThanBuffer() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      builder.append('x');
+    }
+    File file = new File(tempDirectory, "records");
+    RecordFileWriter<String> writer = new RecordFileWriter<String>(file, new StringCodec(), 64);
+    writer.write("small");
+    writer.write(builder.toString());
+    writer.write("");
+    writer.close();
+
+    RecordFileReader<String> reader = new RecordFileReader<String>(file, new StringCodec(), 64);
+    try {
+      assertEquals("small", reader.next());
+      assertEquals(builder.toString(), reader.next());
+      assertEquals("", reader.next());
+      assertFalse(reader.hasNext());
+    } finally {
+      reader.close();
+    }
+  }
+
+  public void testInvalidFanIn() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> new ExternalSorter<Integer>(new IntegerCodec(), new QuicksortListSorter<Integer>(),
+            1024, 1, null));
+  }
+
+  private List<Integer> randomIntegers(int count) {
+    List<Integer> list = new ArrayList<Integer>();
+    for (int i = 0; i < count; i++) {
+      list.add(random.nextInt(5000) - 2500);
+    }
+    return list;
+  }
+
+  private <T> List<T> readRecords(File file, RecordCodec<T> codec) throws IOException {
+    List<T> records = new ArrayList<T>();
+    RecordFileReader<T> reader = new RecordFileReader<T>(file, codec);
+    try {
+      while (reader.hasNext()) {
+        records.add(reader.next());
+      }
+    } finally {
+      reader.close();
+    }
+    return records;
+  }
+
+  private static class IntegerCodec implements RecordCodec<Integer> {
+    @Override
+    public int encodedLength(Integer record) {
+      return Integer.SIZE / Byte.SIZE;
+    }
+
+    @Override
+    public void encode(Integer record, ByteBuffer buffer) {
+      buffer.putInt(record);
+    }
+
+    @Override
+    public Integer decode(ByteBuffer buffer) {
+      return buffer.getInt();
+    }
+  }
+
+  private static class StringCodec implements RecordCodec<String> {
+    @Override
+    public int encodedLength(String record) {
+      return record.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public void encode(String record, ByteBuffer buffer) {
+      buffer.put(record.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String decode(ByteBuffer buffer) {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Tests the sorting functionality of the primitive array heap sort implementation.
+ */
+public class HeapSortArraySorterTest extends AbstractArraySorterTest {
+  @Override
+  protected IntArraySorter createIntArraySorter() {
+    return new HeapSortArraySorter();
+  }
+
+  @Override
+  protected LongArraySorter createLongArraySorter() {
+    return new HeapSortArraySorter();
+  }
+
+  @Override
+  protected DoubleArraySorter createDoubleArraySorter() {
+    return new HeapSortArraySorter();
+  }
+}
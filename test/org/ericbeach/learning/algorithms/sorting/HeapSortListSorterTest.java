@@ -1,5 +1,10 @@
 package org.ericbeach.learning.algorithms.sorting;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 /**
  * Tests the sorting functionality of the heap sort implementation.
  */
@@ -8,4 +13,40 @@ public class HeapSortListSorterTest extends AbstractListSorterTest {
   protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
     return new HeapSortListSorter<T>();
   }
+
+  public void testSortLargeRandomList() {
+    assertSortsLikeCollectionsSort(this.<Integer>createListSorter(),
+        randomIntegers(new Random(42), 5000, 100));
+  }
+
+  public void testSortHeapShapedInputs() {
+    // Sorted input is a min-heap, the worst case for building a max-heap bottom-up, and
+    // reversed input is already a max-heap. Sizes just around powers of two give heaps whose
+    // last level is nearly empty or nearly full.
+    ListSorter<Integer> sorter = createListSorter();
+    for (int size : new int[] {2, 3, 7, 8, 9, 1023, 1024, 1025}) {
+      List<Integer> sorted = new ArrayList<Integer>();
+      List<Integer> reversed = new ArrayList<Integer>();
+      for (int i = 0; i < size; i++) {
+        sorted.add(i);
+        reversed.add(size - i);
+      }
+      assertSortsLikeCollectionsSort("size " + size, sorter, sorted);
+      assertSortsLikeCollectionsSort("size " + size, sorter, reversed);
+      assertSortsLikeCollectionsSort("size " + size, sorter,
+          new ArrayList<Integer>(Collections.nCopies(size, 7)));
+    }
+  }
+
+  public void testHeapSortRange() {
+    List<Integer> list = new ArrayList<Integer>();
+    for (int i = 9; i >= 0; i--) {
+      list.add(i);
+    }
+    new HeapSortListSorter<Integer>().heapSort(list, 2, 6);
+
+    List<Integer> expected = new ArrayList<Integer>();
+    Collections.addAll(expected, 9, 8, 3, 4, 5, 6, 7, 2, 1, 0);
+    assertEquals(expected, list);
+  }
 }
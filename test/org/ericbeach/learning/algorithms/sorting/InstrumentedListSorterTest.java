@@ -0,0 +1,150 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the sorting and measuring functionality of the instrumented sorter.
+ */
+public class InstrumentedListSorterTest extends AbstractListSorterTest {
+  private static final ListSorterFactory INSERTION_SORT_FACTORY = new ListSorterFactory() {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new InsertionsortListSorter<T>();
+    }
+  };
+
+  private static final ListSorterFactory MERGESORT_FACTORY = new ListSorterFactory() {
+    @Override
+    public <T extends Comparable<? super T>> ListSorter<T> create() {
+      return new MergesortListSorter<T>();
+    }
+  };
+
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new InstrumentedListSorter<T>("quicksort", new ListSorterFactory() {
+      @Override
+      public <E extends Comparable<? super E>> ListSorter<E> create() {
+        return new QuicksortListSorter<E>();
+      }
+    }, new SortMetricsRegistry());
+  }
+
+  public void testCountsComparisonsAndWrites() {
+    SortMetricsRegistry registry = new SortMetricsRegistry();
+    ListSorter<Integer> sorter =
+        new InstrumentedListSorter<Integer>("insertion", INSERTION_SORT_FACTORY, registry);
+
+    // Insertion sort compares and swaps every pair of a reversed list exactly once.
+    List<Integer> list = new ArrayList<Integer>(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1, 0));
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), sorter.sort(list));
+
+    SortMetrics metrics = registry.getMetrics("insertion");
+    assertEquals(1, metrics.getCalls());
+    assertEquals(10, metrics.getElements());
+    assertEquals(1, metrics.getCountedCalls());
+    assertEquals(10, metrics.getCountedElements());
+    assertEquals(45, metrics.getComparisons());
+    assertEquals(90, metrics.getWrites());
+    assertTrue(metrics.getNanos() >= 0);
+  }
+
+  public void testAccumulatesOverCalls() {
+    SortMetricsRegistry registry = new SortMetricsRegistry();
+    ListSorter<Integer> sorter =
+        new InstrumentedListSorter<Integer>("insertion", INSERTION_SORT_FACTORY, registry, 1);
+
+    sorter.sort(new ArrayList<Integer>(Arrays.asList(2, 1)));
+    sorter.sort(new ArrayList<Integer>(Arrays.asList(1, 2, 3)));
+
+    SortMetrics metrics = registry.getMetrics("insertion");
+    assertEquals(2, metrics.getCalls());
+    assertEquals(5, metrics.getElements());
+    assertEquals(3, metrics.getComparisons());
+    assertEquals(2, metrics.getWrites());
+
+    long histogramTotal = 0;
+    for (long count : metrics.getLatencyHistogram()) {
+      histogramTotal += count;
+    }
+    assertEquals(2, histogramTotal);
+    assertTrue(metrics.getLatencyPercentile(50.0) <= metrics.getLatencyPercentile(100.0));
+  }
+
+  public void testSorterThatReturnsNewList() {
+    // The list passed in is sorted and returned whether or not metrics are enabled.
+    for (boolean enabled : new boolean[] {true, false}) {
+      SortMetricsRegistry registry = new SortMetricsRegistry(enabled);
+      ListSorter<Integer> sorter =
+          new InstrumentedListSorter<Integer>("mergesort", MERGESORT_FACTORY, registry);
+
+      List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2));
+      assertSame(list, sorter.sort(list));
+      assertEquals(Arrays.asList(1, 2, 3), list);
+      assertEquals(enabled, registry.getMetrics("mergesort").getComparisons() > 0);
+    }
+  }
+
+  public void testCountsEveryIntervalCalls() {
+    SortMetricsRegistry registry = new SortMetricsRegistry();
+    ListSorter<Integer> sorter =
+        new InstrumentedListSorter<Integer>("insertion", INSERTION_SORT_FACTORY, registry, 3);
+
+    // Calls 1, 4 and 7 are counted; every call is timed.
+    for (int call = 0; call < 7; call++) {
+      assertSortsLikeCollectionsSort(sorter,
+          new ArrayList<Integer>(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1, 0)));
+    }
+    SortMetrics metrics = registry.getMetrics("insertion");
+    assertEquals(7, metrics.getCalls());
+    assertEquals(70, metrics.getElements());
+    assertEquals(3, metrics.getCountedCalls());
+    assertEquals(30, metrics.getCountedElements());
+    assertEquals(3 * 45, metrics.getComparisons());
+    assertEquals(3 * 90, metrics.getWrites());
+  }
+
+  public void testCountsSampleOfCallsByDefault() {
+    SortMetricsRegistry registry = new SortMetricsRegistry();
+    ListSorter<Integer> sorter =
+        new InstrumentedListSorter<Integer>("insertion", INSERTION_SORT_FACTORY, registry);
+
+    int calls = InstrumentedListSorter.DEFAULT_COUNTING_INTERVAL + 1;
+    for (int call = 0; call < calls; call++) {
+      sorter.sort(new ArrayList<Integer>(Arrays.asList(3, 1, 2)));
+    }
+    SortMetrics metrics = registry.getMetrics("insertion");
+    assertEquals(calls, metrics.getCalls());
+    assertEquals(2, metrics.getCountedCalls());
+  }
+
+  public void testDisabledRegistryRecordsNothing() {
+    SortMetricsRegistry registry = new SortMetricsRegistry(false);
+    ListSorter<Integer> sorter =
+        new InstrumentedListSorter<Integer>("insertion", INSERTION_SORT_FACTORY, registry);
+
+    List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2));
+    assertEquals(Arrays.asList(1, 2, 3), sorter.sort(list));
+    assertTrue(registry.getAllMetrics().isEmpty());
+
+    registry.setEnabled(true);
+    sorter.sort(new ArrayList<Integer>(Arrays.asList(3, 1, 2)));
+    assertEquals(1, registry.getMetrics("insertion").getCalls());
+  }
+
+  public void testPercentileWithNoCalls() {
+    assertEquals(0, new SortMetricsRegistry().getMetrics("none").getLatencyPercentile(99.0));
+  }
+
+  public void testInvalidPercentile() {
+    assertRejects(IllegalArgumentException.class,
+        () -> new SortMetricsRegistry().getMetrics("none").getLatencyPercentile(101.0));
+  }
+
+  public void testInvalidCountingInterval() {
+    assertRejects(IllegalArgumentException.class, () -> new InstrumentedListSorter<Integer>(
+        "insertion", INSERTION_SORT_FACTORY, new SortMetricsRegistry(), 0));
+  }
+}
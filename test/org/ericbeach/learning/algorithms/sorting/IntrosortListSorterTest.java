@@ -0,0 +1,44 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the introsort implementation.
+ */
+public class IntrosortListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new IntrosortListSorter<T>();
+  }
+
+  public void testSortLargeSortedAndReversedLists() {
+    List<Integer> sorted = new ArrayList<Integer>();
+    List<Integer> reversed = new ArrayList<Integer>();
+    for (int i = 0; i < 100000; i++) {
+      sorted.add(i);
+      reversed.add(-i);
+    }
+    ListSorter<Integer> sorter = createListSorter();
+    assertSortsLikeCollectionsSort(sorter, sorted);
+    assertSortsLikeCollectionsSort(sorter, reversed);
+    assertSortsLikeCollectionsSort(sorter, organPipeIntegers(100000));
+  }
+
+  public void testSortLargeRandomAndFewUniqueLists() {
+    ListSorter<Integer> sorter = createListSorter();
+    assertSortsLikeCollectionsSort(sorter,
+        randomIntegers(new Random(42), 50000, Integer.MAX_VALUE));
+    assertSortsLikeCollectionsSort(sorter, randomIntegers(new Random(42), 50000, 3));
+  }
+
+  public void testSortAroundInsertionSortAndNintherThresholds() {
+    Random random = new Random(42);
+    ListSorter<Integer> sorter = createListSorter();
+    for (int size : new int[] {15, 16, 17, 18, 39, 40, 41, 42}) {
+      assertSortsLikeCollectionsSort("size " + size, sorter, randomIntegers(random, size, 10));
+      assertSortsLikeCollectionsSort("size " + size, sorter, organPipeIntegers(size));
+    }
+  }
+}
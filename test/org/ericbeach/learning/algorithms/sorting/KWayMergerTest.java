@@ -0,0 +1,99 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Tests the loser tree k-way merge.
+ */
+public class KWayMergerTest extends TestCase {
+  public void testMergeNoInputs() {
+    final KWayMerger<Integer> merger =
+        new KWayMerger<Integer>(new ArrayList<Iterator<Integer>>());
+    assertFalse(merger.hasNext());
+    AbstractListSorterTest.assertRejects(NoSuchElementException.class, () -> merger.next());
+  }
+
+  public void testMergeSingleInput() {
+    List<Iterator<Integer>> inputs = new ArrayList<Iterator<Integer>>();
+    inputs.add(Arrays.asList(1, 2, 2, 5).iterator());
+    assertEquals(Arrays.asList(1, 2, 2, 5), drain(new KWayMerger<Integer>(inputs)));
+  }
+
+  public void testMergeWithEmptyInputs() {
+    List<Iterator<Integer>> inputs = new ArrayList<Iterator<Integer>>();
+    inputs.add(new ArrayList<Integer>().iterator());
+    inputs.add(Arrays.asList(3, 7).iterator());
+    inputs.add(new ArrayList<Integer>().iterator());
+    inputs.add(Arrays.asList(-1, 3, 9).iterator());
+    inputs.add(Arrays.asList(4).iterator());
+    assertEquals(Arrays.asList(-1, 3, 3, 4, 7, 9), drain(new KWayMerger<Integer>(inputs)));
+  }
+
+  public void testMergeManyRandomInputs() {
+    Random random = new Random(42);
+    for (int k = 1; k <= 37; k++) {
+      List<Integer> expected = new ArrayList<Integer>();
+      List<Iterator<Integer>> inputs = new ArrayList<Iterator<Integer>>();
+      for (int input = 0; input < k; input++) {
+        List<Integer> run = AbstractListSorterTest.randomIntegers(random, random.nextInt(50), 100);
+        Collections.sort(run);
+        expected.addAll(run);
+        inputs.add(run.iterator());
+      }
+      Collections.sort(expected);
+      assertEquals(expected, drain(new KWayMerger<Integer>(inputs)));
+    }
+  }
+
+  public void testMergeIsStable() {
+    List<Iterator<StableKey>> inputs = new ArrayList<Iterator<StableKey>>();
+    inputs.add(Arrays.asList(new StableKey(1, 0), new StableKey(2, 0)).iterator());
+    inputs.add(Arrays.asList(new StableKey(1, 1), new StableKey(2, 1)).iterator());
+    inputs.add(Arrays.asList(new StableKey(0, 2), new StableKey(1, 2)).iterator());
+
+    List<StableKey> merged = drain(new KWayMerger<StableKey>(inputs));
+    int[] expectedInputs = new int[] {2, 0, 1, 2, 0, 1};
+    for (int i = 0; i < merged.size(); i++) {
+      assertEquals(expectedInputs[i], merged.get(i).input);
+    }
+  }
+
+  public void testMergeWithDeduplication() {
+    List<Iterator<Integer>> inputs = new ArrayList<Iterator<Integer>>();
+    inputs.add(Arrays.asList(1, 1, 3, 5).iterator());
+    inputs.add(Arrays.asList(1, 3, 4).iterator());
+    inputs.add(Arrays.asList(5, 5, 6).iterator());
+    assertEquals(Arrays.asList(1, 3, 4, 5, 6), drain(new KWayMerger<Integer>(inputs, true)));
+  }
+
+  private <T extends Comparable<? super T>> List<T> drain(KWayMerger<T> merger) {
+    List<T> result = new ArrayList<T>();
+    while (merger.hasNext()) {
+      result.add(merger.next());
+    }
+    return result;
+  }
+
+  private static class StableKey implements Comparable<StableKey> {
+    private final int key;
+    private final int input;
+
+    StableKey(int key, int input) {
+      this.key = key;
+      this.input = input;
+    }
+
+    @Override
+    public int compareTo(StableKey other) {
+      return (key < other.key) ? -1 : ((key == other.key) ? 0 : 1);
+    }
+  }
+}
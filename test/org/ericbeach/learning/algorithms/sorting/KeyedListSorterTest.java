@@ -0,0 +1,70 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Tests the sorting functionality of the key caching sorter.
+ */
+public class KeyedListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new KeyedListSorter<T, T>(Function.<T>identity());
+  }
+
+  public void testEachKeyExtractedOnce() {
+    final int[] extractions = new int[1];
+    Random random = new Random(42);
+    List<Timestamp> list = new ArrayList<Timestamp>();
+    for (int i = 0; i < 1000; i++) {
+      list.add(new Timestamp(1386037880000L + random.nextInt(1000000)));
+    }
+
+    ListSorter<Timestamp> sorter = new KeyedListSorter<Timestamp, Timestamp>(
+        new Function<Timestamp, Timestamp>() {
+          @Override
+          public Timestamp apply(Timestamp timestamp) {
+            extractions[0]++;
+            return timestamp;
+          }
+        });
+    assertSortsLikeCollectionsSort(sorter, list);
+    assertEquals(1000, extractions[0]);
+  }
+
+  public void testSortOrganPipeAndDuplicateKeys() {
+    // The default index sorter is an adaptive mergesort: an organ pipe is two long runs, and few
+    // distinct keys make many equal keys that have to stay ordered by index.
+    ListSorter<Integer> sorter = createListSorter();
+    assertSortsLikeCollectionsSort(sorter, organPipeIntegers(20000));
+    assertSortsLikeCollectionsSort(sorter, randomIntegers(new Random(42), 20000, 3));
+  }
+
+  public void testSortIsStableWithUnstableIndexSorter() {
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < 200; i++) {
+      list.add((i % 7) + ":" + i);
+    }
+    // Sorting by the first character only, with Quicksort, must still keep insertion order.
+    ListSorter<String> sorter = new KeyedListSorter<String, Character>(
+        new Function<String, Character>() {
+          @Override
+          public Character apply(String value) {
+            return value.charAt(0);
+          }
+        }, new QuicksortListSorter<KeyedListSorter.KeyedIndex<Character>>());
+    List<String> sorted = sorter.sort(list);
+    for (int i = 1; i < sorted.size(); i++) {
+      String previous = sorted.get(i - 1);
+      String current = sorted.get(i);
+      assertTrue(previous.charAt(0) <= current.charAt(0));
+      if (previous.charAt(0) == current.charAt(0)) {
+        assertTrue(Integer.parseInt(previous.substring(2))
+            < Integer.parseInt(current.substring(2)));
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the lazy sorted iterator.
+ */
+public class LazySortedIteratorTest extends TestCase {
+  public void testIteratesInSortedOrder() {
+    Random random = new Random(42);
+    for (int size : new int[] {0, 1, 2, 15, 16, 17, 18, 100, 5000}) {
+      for (int bound : new int[] {1, 3, 1000000}) {
+        assertIteratesLikeCollectionsSort(AbstractListSorterTest.randomIntegers(random, size,
+            bound));
+      }
+    }
+  }
+
+  public void testIteratesDuplicateHeavyInput() {
+    // Every copy of the pivot becomes final in one partition, and the ninther copes with organ
+    // pipes, so none of these take quadratic time.
+    assertIteratesLikeCollectionsSort(new ArrayList<Integer>(Collections.nCopies(200000, 7)));
+    assertIteratesLikeCollectionsSort(
+        AbstractListSorterTest.randomIntegers(new Random(42), 200000, 4));
+    assertIteratesLikeCollectionsSort(AbstractListSorterTest.organPipeIntegers(200000));
+  }
+
+  public void testIteratesSortedAndReversedInput() {
+    List<Integer> list = new ArrayList<Integer>();
+    for (int i = 0; i < 5000; i++) {
+      list.add(i);
+    }
+    assertIteratesLikeCollectionsSort(list);
+    Collections.reverse(list);
+    assertIteratesLikeCollectionsSort(list);
+  }
+
+  public void testLeavesListUnchanged() {
+    List<Integer> list = new ArrayList<Integer>();
+    for (int i = 100; i > 0; i--) {
+      list.add(i);
+    }
+    List<Integer> original = new ArrayList<Integer>(list);
+    LazySortedIterator<Integer> iterator = new LazySortedIterator<Integer>(list);
+    while (iterator.hasNext()) {
+      iterator.next();
+    }
+    assertEquals(original, list);
+  }
+
+  public void testFirstElementsCostLinearTime() {
+    Random random = new Random(42);
+    int size = 100000;
+    long[] comparisons = new long[1];
+    List<CountedInteger> list = new ArrayList<CountedInteger>();
+    for (int i = 0; i < size; i++) {
+      list.add(new CountedInteger(random.nextInt(), comparisons));
+    }
+
+    LazySortedIterator<CountedInteger> iterator = new LazySortedIterator<CountedInteger>(list);
+    for (int i = 0; i < 10; i++) {
+      iterator.next();
+    }
+    // A full sort needs about n log2 n = 1.7 million comparisons; the first page should need a
+    // small multiple of n.
+    assertTrue("comparisons: " + comparisons[0], comparisons[0] < 6L * size);
+  }
+
+  public void testStreamIsLazyAndSorted() {
+    List<Integer> list =
+        AbstractListSorterTest.randomIntegers(new Random(42), 1000, Integer.MAX_VALUE);
+    List<Integer> expected = new ArrayList<Integer>(list);
+    Collections.sort(expected);
+
+    LazySortedIterator<Integer> iterator = new LazySortedIterator<Integer>(list);
+    assertEquals(expected.get(0), iterator.next());
+    List<Integer> page = iterator.stream().limit(20).collect(Collectors.<Integer>toList());
+    assertEquals(expected.subList(1, 21), page);
+    assertEquals(expected.get(21), iterator.next());
+  }
+
+  public void testNextPastTheEnd() {
+    LazySortedIterator<Integer> iterator =
+        new LazySortedIterator<Integer>(Collections.singletonList(7));
+    assertEquals(Integer.valueOf(7), iterator.next());
+    assertFalse(iterator.hasNext());
+    AbstractListSorterTest.assertRejects(NoSuchElementException.class, () -> iterator.next());
+  }
+
+  private void assertIteratesLikeCollectionsSort(List<Integer> list) {
+    List<Integer> expected = new ArrayList<Integer>(list);
+    Collections.sort(expected);
+
+    List<Integer> actual = new ArrayList<Integer>();
+    LazySortedIterator<Integer> iterator = new LazySortedIterator<Integer>(list);
+    while (iterator.hasNext()) {
+      actual.add(iterator.next());
+    }
+    assertEquals(expected, actual);
+  }
+
+  /**
+   * An integer that counts how often it is compared.
+   */
+  private static class CountedInteger implements Comparable<CountedInteger> {
+    private final int value;
+    private final long[] comparisons;
+
+    CountedInteger(int value, long[] comparisons) {
+      this.value = value;
+      this.comparisons = comparisons;
+    }
+
+    @Override
+    public int compareTo(CountedInteger other) {
+      comparisons[0]++;
+      return Integer.compare(value, other.value);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the selection and partial sorting functionality of the list selector.
+ */
+public class ListSelectorTest extends TestCase {
+  private Random random;
+
+  protected void setUp() throws Exception {
+    random = new Random(42);
+  }
+
+  protected void tearDown() throws Exception {
+    random = null;
+  }
+
+  public void testSelectEveryIndex() {
+    List<Integer> list = randomList(100, 50);
+    List<Integer> sorted = new ArrayList<Integer>(list);
+    Collections.sort(sorted);
+
+    ListSelector<Integer> selector = new ListSelector<Integer>();
+    for (int n = 0; n < list.size(); n++) {
+      assertEquals(sorted.get(n), selector.select(list, n));
+      for (int i = 0; i < n; i++) {
+        assertTrue(list.get(i) <= list.get(n));
+      }
+      for (int i = n + 1; i < list.size(); i++) {
+        assertTrue(list.get(i) >= list.get(n));
+      }
+    }
+  }
+
+  public void testSelectFromLargeLists() {
+    ListSelector<Integer> selector = new ListSelector<Integer>();
+    for (int bound : new int[] {2, 100, Integer.MAX_VALUE}) {
+      List<Integer> list = randomList(10000, bound);
+      List<Integer> sorted = new ArrayList<Integer>(list);
+      Collections.sort(sorted);
+      assertEquals(sorted.get(5000), selector.select(list, 5000));
+      assertEquals(sorted.get(0), selector.select(list, 0));
+      assertEquals(sorted.get(9999), selector.select(list, 9999));
+    }
+  }
+
+  public void testSelectFromSortedAndReversedLists() {
+    // Organ pipe and sorted input defeat median of three often enough to exercise the median
+    // of medians fallback.
+    List<Integer> list = AbstractListSorterTest.organPipeIntegers(10000);
+    List<Integer> sorted = new ArrayList<Integer>(list);
+    Collections.sort(sorted);
+    assertEquals(sorted.get(1234), new ListSelector<Integer>().select(list, 1234));
+  }
+
+  public void testSelectFromDuplicateHeavyLists() {
+    ListSelector<Integer> selector = new ListSelector<Integer>();
+    for (int bound : new int[] {1, 2, 5}) {
+      List<Integer> list = randomList(20000, bound);
+      List<Integer> sorted = new ArrayList<Integer>(list);
+      Collections.sort(sorted);
+      for (int k : new int[] {0, 9999, 10000, 19999}) {
+        assertEquals(sorted.get(k), selector.select(list, k));
+      }
+    }
+  }
+
+  public void testSelectInvalidIndex() {
+    final List<Integer> list = randomList(10, 10);
+    AbstractListSorterTest.assertRejects(IndexOutOfBoundsException.class,
+        () -> new ListSelector<Integer>().select(list, 10));
+  }
+
+  public void testPartialSort() {
+    List<Integer> list = randomList(1000, 300);
+    List<Integer> sorted = new ArrayList<Integer>(list);
+    Collections.sort(sorted);
+
+    ListSelector<Integer> selector = new ListSelector<Integer>();
+    for (int k : new int[] {0, 1, 2, 100, 999, 1000}) {
+      Collections.shuffle(list, random);
+      selector.partialSort(list, k);
+      assertEquals(sorted.subList(0, k), list.subList(0, k));
+    }
+  }
+
+  private List<Integer> randomList(int size, int bound) {
+    return AbstractListSorterTest.randomIntegers(random, size, bound);
+  }
+}
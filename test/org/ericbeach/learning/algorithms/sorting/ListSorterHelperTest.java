@@ -4,7 +4,10 @@ import junit.framework.TestCase;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Tests the list sorter helper to make sure it swaps elements properly.
@@ -50,4 +53,24 @@ public class ListSorterHelperTest extends TestCase {
     helper.swap(timestampList, 2, 3);
     assertEquals(new Timestamp(1386037881000L), timestampList.get(2));
   }
+
+  public void testStageRandomAccessList() {
+    ListSorterHelper<String> helper = new ListSorterHelper<String>();
+    List<String> list = new ArrayList<String>(Arrays.asList("b", "a"));
+    assertSame(list, helper.stage(list));
+  }
+
+  public void testStageAndUnstageLinkedList() {
+    ListSorterHelper<String> helper = new ListSorterHelper<String>();
+    List<String> list = new LinkedList<String>(Arrays.asList("b", "a", "c"));
+
+    List<String> staged = helper.stage(list);
+    assertTrue(staged instanceof RandomAccess);
+    assertEquals(list, staged);
+
+    helper.swap(staged, 0, 1);
+    assertEquals(Arrays.asList("b", "a", "c"), list);
+    helper.unstage(staged, list);
+    assertEquals(Arrays.asList("a", "b", "c"), list);
+  }
 }
@@ -0,0 +1,72 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tests the sorting functionality of the primitive long key sorter.
+ */
+public class LongKeyedListSorterTest extends TestCase {
+  public void testSortTimestamps() {
+    Random random = new Random(42);
+    List<Timestamp> list = new ArrayList<Timestamp>();
+    for (int i = 0; i < 1000; i++) {
+      list.add(new Timestamp(1386037880000L + random.nextInt(2000000) - 1000000));
+    }
+
+    ListSorter<Timestamp> sorter = new LongKeyedListSorter<Timestamp>(
+        new ToLongFunction<Timestamp>() {
+          @Override
+          public long applyAsLong(Timestamp timestamp) {
+            return timestamp.getTime();
+          }
+        });
+    AbstractListSorterTest.assertSortsLikeCollectionsSort(sorter, list);
+  }
+
+  public void testSortKeysAcrossTheSignBit() {
+    // The radix sort has to order negative keys before positive ones and keep equal keys
+    // together, so mix extreme values with a few heavily repeated ones.
+    Random random = new Random(42);
+    List<Long> list = new ArrayList<Long>();
+    for (int i = 0; i < 5000; i++) {
+      switch (random.nextInt(4)) {
+        case 0:
+          list.add(random.nextLong());
+          break;
+        case 1:
+          list.add((long) random.nextInt(3) - 1);
+          break;
+        default:
+          list.add(random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE);
+      }
+    }
+    ListSorter<Long> sorter = new LongKeyedListSorter<Long>(new ToLongFunction<Long>() {
+      @Override
+      public long applyAsLong(Long value) {
+        return value;
+      }
+    });
+    AbstractListSorterTest.assertSortsLikeCollectionsSort(sorter, list);
+  }
+
+  public void testSortIsStable() {
+    List<String> list = new LinkedList<String>(
+        Arrays.asList("b1", "a1", "c1", "b2", "a2", "c2", "a3"));
+    ListSorter<String> sorter = new LongKeyedListSorter<String>(new ToLongFunction<String>() {
+      @Override
+      public long applyAsLong(String value) {
+        // Put "c" first by giving it a negative key.
+        return (value.charAt(0) == 'c') ? -1L : value.charAt(0);
+      }
+    });
+    assertEquals(Arrays.asList("c1", "c2", "a1", "a2", "a3", "b1", "b2"), sorter.sort(list));
+  }
+}
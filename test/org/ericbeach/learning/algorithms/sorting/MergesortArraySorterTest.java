@@ -0,0 +1,21 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Tests the sorting functionality of the primitive array merge sort implementation.
+ */
+public class MergesortArraySorterTest extends AbstractArraySorterTest {
+  @Override
+  protected IntArraySorter createIntArraySorter() {
+    return new MergesortArraySorter();
+  }
+
+  @Override
+  protected LongArraySorter createLongArraySorter() {
+    return new MergesortArraySorter();
+  }
+
+  @Override
+  protected DoubleArraySorter createDoubleArraySorter() {
+    return new MergesortArraySorter();
+  }
+}
@@ -1,5 +1,9 @@
 package org.ericbeach.learning.algorithms.sorting;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 /**
  * Tests the sorting functionality of the Mergesort implementation.
  */
@@ -8,4 +12,43 @@ public class MergesortListSorterTest extends AbstractListSorterTest {
   protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
     return new MergesortListSorter<T>();
   }
+
+  public void testSortIsStable() {
+    Random random = new Random(11);
+    List<StableKey> list = new ArrayList<StableKey>();
+    for (int i = 0; i < 5000; i++) {
+      list.add(new StableKey(random.nextInt(20), i));
+    }
+
+    ListSorter<StableKey> sorter = createListSorter();
+    List<StableKey> result = sorter.sort(list);
+
+    for (int i = 1; i < result.size(); i++) {
+      StableKey previous = result.get(i - 1);
+      StableKey current = result.get(i);
+      assertTrue(previous.key <= current.key);
+      if (previous.key == current.key) {
+        assertTrue(previous.originalPosition < current.originalPosition);
+      }
+    }
+  }
+
+  /**
+   * An element that compares only on its key, remembering where it started so that the test
+   * can check that equal keys keep their original order.
+   */
+  private static class StableKey implements Comparable<StableKey> {
+    private final int key;
+    private final int originalPosition;
+
+    StableKey(int key, int originalPosition) {
+      this.key = key;
+      this.originalPosition = originalPosition;
+    }
+
+    @Override
+    public int compareTo(StableKey other) {
+      return Integer.compare(key, other.key);
+    }
+  }
 }
@@ -0,0 +1,116 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the MSD radix string sort implementation.
+ */
+public class MsdRadixStringListSorterTest extends TestCase {
+  private List<String> unsortedStringList;
+  private List<String> sortedStringList;
+  private MsdRadixStringListSorter sorter;
+
+  protected void setUp() {
+    unsortedStringList = new ArrayList<String>();
+    unsortedStringList.add("my string");
+    unsortedStringList.add("my String");
+    unsortedStringList.add("My String");
+    unsortedStringList.add("A");
+    unsortedStringList.add("A123");
+    unsortedStringList.add("123");
+
+    sortedStringList = new ArrayList<String>();
+    sortedStringList.add("123");
+    sortedStringList.add("A");
+    sortedStringList.add("A123");
+    sortedStringList.add("My String");
+    sortedStringList.add("my String");
+    sortedStringList.add("my string");
+
+    sorter = new MsdRadixStringListSorter();
+  }
+
+  protected void tearDown() {
+    unsortedStringList = null;
+    sortedStringList = null;
+    sorter = null;
+  }
+
+  public void testSortSimpleStrings() {
+    assertEquals(sortedStringList, sorter.sort(unsortedStringList));
+  }
+
+  public void testSortEmptyAndOneString() {
+    assertEquals(0, sorter.sort(new ArrayList<String>()).size());
+
+    List<String> one = new ArrayList<String>();
+    one.add("only");
+    assertEquals("only", sorter.sort(one).get(0));
+  }
+
+  public void testSortStringsWithSharedPrefixes() {
+    Random random = new Random(42);
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < 5000; i++) {
+      StringBuilder path = new StringBuilder("https://example.com/tenants/");
+      path.append(random.nextInt(20)).append("/logs/");
+      for (int j = random.nextInt(4); j > 0; j--) {
+        path.append((char) ('a' + random.nextInt(3)));
+      }
+      list.add(path.toString());
+    }
+    // Duplicates and strings that are prefixes of each other.
+    list.add("https://example.com/tenants/");
+    list.add("https://example.com/tenants/");
+    list.add("https://example.com");
+    list.add("");
+    AbstractListSorterTest.assertSortsLikeCollectionsSort(sorter, list);
+  }
+
+  public void testSortStringsWithNonAsciiChars() {
+    Random random = new Random(7);
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < 5000; i++) {
+      char[] chars = new char[random.nextInt(6)];
+      for (int j = 0; j < chars.length; j++) {
+        // Mix chars that differ in the high byte, the low byte, or both.
+        chars[j] = (char) (random.nextBoolean() ? random.nextInt(0x300) : random.nextInt(0xFFFF));
+      }
+      list.add(new String(chars));
+    }
+    AbstractListSorterTest.assertSortsLikeCollectionsSort(sorter, list);
+  }
+
+  public void testSortManyIdenticalLongStrings() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      builder.append('x');
+    }
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < 100; i++) {
+      list.add(builder.toString() + (i % 3));
+    }
+    AbstractListSorterTest.assertSortsLikeCollectionsSort(sorter, list);
+  }
+
+  public void testSortAroundBucketThresholds() {
+    // Sizes around the multikey quicksort and insertion sort thresholds, for whole lists and for
+    // the single bucket that every string with the shared prefix falls into.
+    Random random = new Random(42);
+    for (int size : new int[] {7, 8, 9, 31, 32, 33, 34, 65}) {
+      List<String> list = new ArrayList<String>();
+      for (int i = 0; i < size; i++) {
+        StringBuilder value = new StringBuilder("shared/");
+        for (int j = random.nextInt(4); j > 0; j--) {
+          value.append((char) ('a' + random.nextInt(2)));
+        }
+        list.add(value.toString());
+      }
+      AbstractListSorterTest.assertSortsLikeCollectionsSort("size " + size, sorter, list);
+    }
+  }
+}
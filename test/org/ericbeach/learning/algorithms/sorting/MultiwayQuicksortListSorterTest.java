@@ -0,0 +1,86 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the three-way and dual-pivot quick sort implementation.
+ */
+public class MultiwayQuicksortListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new MultiwayQuicksortListSorter<T>();
+  }
+
+  public void testDualPivotSortSimpleInts() {
+    List<Integer> list = new ArrayList<Integer>();
+    Collections.addAll(list, 100, 50, -120, 9000, 14, -200, 60);
+
+    List<Integer> expected = new ArrayList<Integer>();
+    Collections.addAll(expected, -200, -120, 14, 50, 60, 100, 9000);
+
+    MultiwayQuicksortListSorter<Integer> sorter = new MultiwayQuicksortListSorter<Integer>();
+    assertEquals(expected,
+        sorter.sort(list, MultiwayQuicksortListSorter.PartitionScheme.DUAL_PIVOT));
+  }
+
+  public void testSortFewUniqueKeys() {
+    for (MultiwayQuicksortListSorter.PartitionScheme scheme
+        : MultiwayQuicksortListSorter.PartitionScheme.values()) {
+      assertSortsLikeCollectionsSort(scheme.name(), createListSorter(scheme),
+          randomIntegers(new Random(42), 50000, 5));
+    }
+  }
+
+  public void testSortRandomSortedAndReversedKeys() {
+    for (MultiwayQuicksortListSorter.PartitionScheme scheme
+        : MultiwayQuicksortListSorter.PartitionScheme.values()) {
+      List<Integer> sorted = new ArrayList<Integer>();
+      List<Integer> reversed = new ArrayList<Integer>();
+      for (int i = 0; i < 20000; i++) {
+        sorted.add(i);
+        reversed.add(-i);
+      }
+      ListSorter<Integer> sorter = createListSorter(scheme);
+      assertSortsLikeCollectionsSort(scheme.name(), sorter,
+          randomIntegers(new Random(42), 20000, Integer.MAX_VALUE));
+      assertSortsLikeCollectionsSort(scheme.name(), sorter, sorted);
+      assertSortsLikeCollectionsSort(scheme.name(), sorter, reversed);
+    }
+  }
+
+  public void testSortOrganPipe() {
+    // Organ pipes defeat a median of the first, middle and last elements, which without the
+    // ninther and the depth limit made this quadratic.
+    for (MultiwayQuicksortListSorter.PartitionScheme scheme
+        : MultiwayQuicksortListSorter.PartitionScheme.values()) {
+      assertSortsLikeCollectionsSort(scheme.name(), createListSorter(scheme),
+          organPipeIntegers(200000));
+    }
+  }
+
+  public void testSortAllEqualKeys() {
+    for (MultiwayQuicksortListSorter.PartitionScheme scheme
+        : MultiwayQuicksortListSorter.PartitionScheme.values()) {
+      assertSortsLikeCollectionsSort(scheme.name(), createListSorter(scheme),
+          new ArrayList<Integer>(Collections.nCopies(10000, 7)));
+    }
+  }
+
+  public void testSortAroundInsertionSortThreshold() {
+    Random random = new Random(42);
+    for (MultiwayQuicksortListSorter.PartitionScheme scheme
+        : MultiwayQuicksortListSorter.PartitionScheme.values()) {
+      for (int size = 14; size <= 19; size++) {
+        assertSortsLikeCollectionsSort(scheme.name(), createListSorter(scheme),
+            randomIntegers(random, size, 10));
+      }
+    }
+  }
+
+  private ListSorter<Integer> createListSorter(MultiwayQuicksortListSorter.PartitionScheme scheme) {
+    return new MultiwayQuicksortListSorter<Integer>(scheme);
+  }
+}
@@ -0,0 +1,80 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Tests the sorting functionality of the normalized key radix sort implementation.
+ */
+public class NormalizedKeyListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new NormalizedKeyListSorter<T>();
+  }
+
+  public void testSortLargeStringList() {
+    // Long shared prefixes and many duplicates exercise both the skipped bytes and the buckets.
+    Random random = new Random(42);
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < 20000; i++) {
+      list.add("https://example.com/" + random.nextInt(3) + "/" + random.nextInt(5000));
+    }
+    assertSortsLikeCollectionsSort(new NormalizedKeyListSorter<String>(), list);
+  }
+
+  public void testSortAroundInsertionSortThreshold() {
+    // Every key shares its first bytes, so the sizes of the whole list and of the bucket that the
+    // last distinct byte splits off both fall around the insertion sort threshold.
+    Random random = new Random(42);
+    ListSorter<String> sorter = new NormalizedKeyListSorter<String>();
+    for (int size : new int[] {15, 16, 17, 18, 32, 33}) {
+      List<String> list = new ArrayList<String>();
+      for (int i = 0; i < size; i++) {
+        list.add("tenant/" + random.nextInt(2) + "/" + random.nextInt(size));
+      }
+      assertSortsLikeCollectionsSort("size " + size, sorter, list);
+    }
+  }
+
+  public void testSortLargeDoubleList() {
+    Random random = new Random(42);
+    List<Double> list = new ArrayList<Double>();
+    for (int i = 0; i < 20000; i++) {
+      list.add(random.nextGaussian());
+    }
+    list.add(-0.0);
+    list.add(0.0);
+    list.add(Double.NaN);
+    assertSortsLikeCollectionsSort(new NormalizedKeyListSorter<Double>(), list);
+  }
+
+  public void testSortByTupleKeyIsStable() {
+    Random random = new Random(42);
+    List<int[]> list = new ArrayList<int[]>();
+    for (int i = 0; i < 20000; i++) {
+      list.add(new int[] {random.nextInt(10) - 5, random.nextInt(10), i});
+    }
+    List<int[]> expected = new ArrayList<int[]>(list);
+    Collections.sort(expected, new Comparator<int[]>() {
+      @Override
+      public int compare(int[] left, int[] right) {
+        if (left[0] != right[0]) {
+          return Integer.compare(left[0], right[0]);
+        }
+        return Long.compare(left[1], right[1]);
+      }
+    });
+
+    ListSorter<int[]> sorter = new NormalizedKeyListSorter<int[]>(new Function<int[], Object>() {
+      @Override
+      public Object apply(int[] element) {
+        return new Object[] {element[0], (long) element[1]};
+      }
+    });
+    assertEquals(expected, sorter.sort(list));
+  }
+}
@@ -0,0 +1,124 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests that normalized keys are ordered as the values they encode.
+ */
+public class NormalizedKeyTest extends TestCase {
+  /**
+   * Chars at which the encoded width of a char changes, plus both ends of the range.
+   */
+  private static final int[] BOUNDARIES = new int[] {1, 0x7F, 0x407F, 0xFFFE};
+
+  private Random random;
+
+  protected void setUp() throws Exception {
+    random = new Random(42);
+  }
+
+  public void testIntegers() {
+    List<Integer> values = new ArrayList<Integer>(Arrays.asList(Integer.MIN_VALUE,
+        Integer.MIN_VALUE + 1, -256, -1, 0, 1, 255, 256, Integer.MAX_VALUE));
+    for (int i = 0; i < 200; i++) {
+      values.add(random.nextInt());
+    }
+    assertOrderedLikeCompareTo(values);
+  }
+
+  public void testLongs() {
+    List<Long> values = new ArrayList<Long>(Arrays.asList(Long.MIN_VALUE, -1L, 0L, 1L,
+        Long.MAX_VALUE, 1386037880000L));
+    for (int i = 0; i < 200; i++) {
+      values.add(random.nextLong());
+    }
+    assertOrderedLikeCompareTo(values);
+  }
+
+  public void testDoubles() {
+    List<Double> values = new ArrayList<Double>(Arrays.asList(Double.NEGATIVE_INFINITY,
+        -Double.MAX_VALUE, -1.0, -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, 1.0,
+        Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN));
+    for (int i = 0; i < 200; i++) {
+      values.add(random.nextGaussian() * 1e6);
+    }
+    assertOrderedLikeCompareTo(values);
+  }
+
+  public void testStrings() {
+    List<String> values = new ArrayList<String>(Arrays.asList("", "\u0000", "\u0000\u0000",
+        "\u0001", "a", "a\u0000", "a\u0000b", "ab", "b", "\u0100", "\u00ff", "\uffff",
+        "\ud83d\ude00", "\ud7ff", "\u007e", "\u007f", "\u0080", "\u407e", "\u407f", "\u4080",
+        "\u007e\u007f", "\u007f\u007e"));
+    for (int i = 0; i < 200; i++) {
+      char[] chars = new char[random.nextInt(4)];
+      for (int j = 0; j < chars.length; j++) {
+        // Chars of every encoded width, mostly around the boundaries between widths.
+        chars[j] = (char) (BOUNDARIES[random.nextInt(BOUNDARIES.length)] + random.nextInt(3) - 1);
+      }
+      values.add(new String(chars));
+    }
+    assertOrderedLikeCompareTo(values);
+  }
+
+  public void testTimestamps() {
+    List<Timestamp> values = new ArrayList<Timestamp>();
+    for (int i = 0; i < 200; i++) {
+      Timestamp timestamp = new Timestamp(1386037880000L + (random.nextInt(5) * 1000L));
+      timestamp.setNanos(random.nextInt(3) * 500000);
+      values.add(timestamp);
+    }
+    values.add(new Timestamp(-1000L));
+    assertOrderedLikeCompareTo(values);
+  }
+
+  public void testTuplesOrderElementByElement() {
+    List<Object[]> tuples = new ArrayList<Object[]>();
+    for (int i = 0; i < 300; i++) {
+      char[] chars = new char[random.nextInt(3)];
+      for (int j = 0; j < chars.length; j++) {
+        chars[j] = (char) random.nextInt(2);
+      }
+      tuples.add(new Object[] {new String(chars), random.nextInt(3) - 1});
+    }
+    for (Object[] left : tuples) {
+      for (Object[] right : tuples) {
+        int expected = ((String) left[0]).compareTo((String) right[0]);
+        if (expected == 0) {
+          expected = ((Integer) left[1]).compareTo((Integer) right[1]);
+        }
+        assertEquals(Integer.signum(expected),
+            Integer.signum(Arrays.compareUnsigned(NormalizedKey.encode(left),
+                NormalizedKey.encode(right))));
+      }
+    }
+    assertTrue(Arrays.equals(NormalizedKey.encode(new Object[] {"a", 1L}),
+        NormalizedKey.encode(Arrays.<Object>asList("a", 1L))));
+  }
+
+  public void testUnsupportedType() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> NormalizedKey.encode(new Object()));
+  }
+
+  public void testNullValue() {
+    AbstractListSorterTest.assertRejects(NullPointerException.class,
+        () -> NormalizedKey.encode(new Object[] {1, null}));
+  }
+
+  private <T extends Comparable<? super T>> void assertOrderedLikeCompareTo(List<T> values) {
+    for (T left : values) {
+      byte[] leftKey = NormalizedKey.encode(left);
+      for (T right : values) {
+        assertEquals(left + " vs " + right, Integer.signum(left.compareTo(right)),
+            Integer.signum(Arrays.compareUnsigned(leftKey, NormalizedKey.encode(right))));
+      }
+    }
+  }
+}
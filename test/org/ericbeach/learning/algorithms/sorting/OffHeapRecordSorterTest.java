@@ -0,0 +1,223 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the off-heap fixed-width record sorter.
+ */
+public class OffHeapRecordSorterTest extends TestCase {
+  /**
+   * Each test record is a 4-byte sequence number, a 6-byte key and 2 bytes of padding.
+   */
+  private static final int RECORD_LENGTH = 12;
+  private static final int KEY_OFFSET = 4;
+  private static final int KEY_LENGTH = 6;
+
+  private static final Comparator<byte[]> KEY_ORDER = new Comparator<byte[]>() {
+    @Override
+    public int compare(byte[] left, byte[] right) {
+      for (int i = KEY_OFFSET; i < KEY_OFFSET + KEY_LENGTH; i++) {
+        int difference = (left[i] & 0xFF) - (right[i] & 0xFF);
+        if (difference != 0) {
+          return difference;
+        }
+      }
+      return 0;
+    }
+  };
+
+  private static final Comparator<byte[]> SEQUENCE_ORDER = new Comparator<byte[]>() {
+    @Override
+    public int compare(byte[] left, byte[] right) {
+      return Integer.compare(ByteBuffer.wrap(left).getInt(), ByteBuffer.wrap(right).getInt());
+    }
+  };
+
+  private OffHeapRecordSorter sorter;
+  private Random random;
+
+  protected void setUp() throws Exception {
+    sorter = new OffHeapRecordSorter(RECORD_LENGTH, KEY_OFFSET, KEY_LENGTH);
+    random = new Random(42);
+  }
+
+  public void testSortRandomRecords() {
+    for (int count : new int[] {0, 1, 2, 17, 1000, 20000}) {
+      for (int keyByteBound : new int[] {2, 256}) {
+        ByteBuffer buffer = randomRecords(count, keyByteBound);
+        List<byte[]> original = records(buffer);
+        assertSortedPermutation(original, records(sorter.sort(buffer)), KEY_ORDER);
+      }
+    }
+  }
+
+  public void testRadixSortIsStable() {
+    for (int count : new int[] {0, 1, 2, 17, 1000, 20000}) {
+      ByteBuffer buffer = randomRecords(count, 3);
+      List<byte[]> expected = sortedRecords(buffer);
+      assertRecordsEqual(expected, records(sorter.radixSort(buffer)));
+    }
+  }
+
+  public void testRadixSortWithSkippedPasses() {
+    // Only the last key byte varies, so a single pass runs and its output has to be copied back
+    // from the scratch buffer.
+    ByteBuffer buffer = randomRecords(1000, 256);
+    for (int record = 0; record < 1000; record++) {
+      for (int i = 0; i < KEY_LENGTH - 1; i++) {
+        buffer.put((record * RECORD_LENGTH) + KEY_OFFSET + i, (byte) 0x7F);
+      }
+    }
+    List<byte[]> expected = sortedRecords(buffer);
+    assertRecordsEqual(expected, records(sorter.radixSort(buffer)));
+  }
+
+  public void testSortRecordsBetweenPositionAndLimit() {
+    ByteBuffer records = randomRecords(500, 256);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(records.capacity() + 10);
+    ByteBuffer scratch = ByteBuffer.allocate(records.capacity() + 3);
+    for (int i = 0; i < 5; i++) {
+      buffer.put((byte) -1);
+    }
+    buffer.put(records);
+    buffer.put((byte) -2);
+    buffer.position(5).limit(5 + records.capacity());
+    scratch.position(3);
+    List<byte[]> expected = sortedRecords(buffer);
+
+    sorter.radixSort(buffer, scratch);
+    assertEquals(5, buffer.position());
+    assertEquals(5 + records.capacity(), buffer.limit());
+    assertRecordsEqual(expected, records(buffer));
+    assertEquals(-1, buffer.get(4));
+    assertEquals(-2, buffer.duplicate().clear().get(5 + records.capacity()));
+
+    // Reversing the sorted records and sorting them again through a little-endian buffer must
+    // still compare keys most significant byte first.
+    List<byte[]> reversed = new ArrayList<byte[]>(expected);
+    Collections.reverse(reversed);
+    for (int i = 0; i < reversed.size(); i++) {
+      buffer.put(5 + (i * RECORD_LENGTH), reversed.get(i));
+    }
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    sorter.sort(buffer);
+    assertSortedPermutation(expected, records(buffer), KEY_ORDER);
+    assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+    assertEquals(5, buffer.position());
+  }
+
+  public void testSortWithComparator() {
+    ByteBuffer buffer = randomRecords(5000, 256);
+    List<byte[]> original = records(buffer);
+    sorter.sort(buffer, new RecordKeyComparator() {
+      @Override
+      public int compare(ByteBuffer records, int leftKeyIndex, int rightKeyIndex, int keyLength) {
+        // Descending order of the first two key bytes as a big-endian short.
+        return Short.compare(records.getShort(rightKeyIndex), records.getShort(leftKeyIndex));
+      }
+    });
+    assertSortedPermutation(original, records(buffer), new Comparator<byte[]>() {
+      @Override
+      public int compare(byte[] left, byte[] right) {
+        return Short.compare(ByteBuffer.wrap(right).getShort(KEY_OFFSET),
+            ByteBuffer.wrap(left).getShort(KEY_OFFSET));
+      }
+    });
+  }
+
+  public void testPartialRecord() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> sorter.sort(ByteBuffer.allocate(RECORD_LENGTH + 1)));
+  }
+
+  public void testScratchTooSmall() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> sorter.radixSort(ByteBuffer.allocate(RECORD_LENGTH * 2),
+            ByteBuffer.allocate(RECORD_LENGTH)));
+  }
+
+  public void testKeyOutsideRecord() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> new OffHeapRecordSorter(8, 4, 5));
+  }
+
+  /**
+   * Create a direct buffer of records with random keys, numbered in order.
+   * @param count The number of records.
+   * @param keyByteBound The bound on every key byte.
+   * @return The buffer, positioned at 0 with its limit at the end of the records.
+   */
+  private ByteBuffer randomRecords(int count, int keyByteBound) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(count * RECORD_LENGTH);
+    for (int record = 0; record < count; record++) {
+      buffer.putInt(record);
+      for (int i = 0; i < KEY_LENGTH; i++) {
+        buffer.put((byte) random.nextInt(keyByteBound));
+      }
+      buffer.putShort((short) 0);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Copy the records of a buffer out in a stable sort order of their keys.
+   * @param buffer The buffer.
+   * @return The sorted records.
+   */
+  private List<byte[]> sortedRecords(ByteBuffer buffer) {
+    List<byte[]> records = records(buffer);
+    Collections.sort(records, KEY_ORDER);
+    return records;
+  }
+
+  /**
+   * Copy the records between a buffer's position and limit out.
+   * @param buffer The buffer.
+   * @return The records.
+   */
+  private List<byte[]> records(ByteBuffer buffer) {
+    List<byte[]> records = new ArrayList<byte[]>();
+    for (int index = buffer.position(); index < buffer.limit(); index += RECORD_LENGTH) {
+      byte[] record = new byte[RECORD_LENGTH];
+      buffer.get(index, record);
+      records.add(record);
+    }
+    return records;
+  }
+
+  private void assertRecordsEqual(List<byte[]> expected, List<byte[]> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertTrue("record " + i, Arrays.equals(expected.get(i), actual.get(i)));
+    }
+  }
+
+  /**
+   * Check that the actual records are in order and are the original records rearranged.
+   * @param original The records before sorting.
+   * @param actual The records after sorting.
+   * @param order The order the records should be in.
+   */
+  private void assertSortedPermutation(List<byte[]> original, List<byte[]> actual,
+      Comparator<byte[]> order) {
+    for (int i = 1; i < actual.size(); i++) {
+      assertTrue("record " + i, order.compare(actual.get(i - 1), actual.get(i)) <= 0);
+    }
+    // Every record carries a distinct sequence number, so sorting by it lines them up.
+    List<byte[]> expected = new ArrayList<byte[]>(original);
+    List<byte[]> sortedActual = new ArrayList<byte[]>(actual);
+    Collections.sort(expected, SEQUENCE_ORDER);
+    Collections.sort(sortedActual, SEQUENCE_ORDER);
+    assertRecordsEqual(expected, sortedActual);
+  }
+}
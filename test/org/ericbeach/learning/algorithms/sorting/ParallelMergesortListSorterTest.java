@@ -0,0 +1,45 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests the sorting functionality of the parallel Mergesort implementation.
+ */
+public class ParallelMergesortListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new ParallelMergesortListSorter<T>();
+  }
+
+  public void testSortLargeListOnSuppliedPool() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ListSorter<Integer> sorter = new ParallelMergesortListSorter<Integer>(pool, 64);
+      assertSortsLikeCollectionsSort(sorter, randomIntegers(new Random(42), 20000, 1000));
+      assertSortsLikeCollectionsSort(sorter, organPipeIntegers(20000));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testSortAroundSequentialThreshold() {
+    // Sizes on either side of the threshold, and of twice it, change how many times the list is
+    // split before the halves are sorted sequentially.
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Random random = new Random(42);
+      ListSorter<Integer> sorter = new ParallelMergesortListSorter<Integer>(pool, 64);
+      for (int size : new int[] {63, 64, 65, 127, 128, 129}) {
+        assertSortsLikeCollectionsSort("size " + size, sorter, randomIntegers(random, size, 10));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testInvalidSequentialThreshold() {
+    assertRejects(IllegalArgumentException.class,
+        () -> new ParallelMergesortListSorter<Integer>(ForkJoinPool.commonPool(), 0));
+  }
+}
@@ -0,0 +1,91 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests the sorting functionality of the parallel primitive array radix sort implementation.
+ */
+public class ParallelRadixArraySorterTest extends TestCase {
+  private ForkJoinPool pool;
+  private Random random;
+
+  protected void setUp() throws Exception {
+    pool = new ForkJoinPool(4);
+    random = new Random(42);
+  }
+
+  protected void tearDown() throws Exception {
+    pool.shutdown();
+    pool = null;
+    random = null;
+  }
+
+  public void testSortSmallIntsSequentially() {
+    int[] input = new int[] {100, 50, -120, 9000, 14, -200, Integer.MIN_VALUE,
+        Integer.MAX_VALUE, 0, 14};
+    int[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new ParallelRadixArraySorter(pool).sort(input)));
+  }
+
+  public void testSortLargeInts() {
+    int[] input = new int[50000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = random.nextInt();
+    }
+    int[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new ParallelRadixArraySorter(pool, 1).sort(input)));
+  }
+
+  public void testSortLargeIntRangeWithSkippedPasses() {
+    // Only the lowest byte varies, so a single pass runs and its output has to be copied back
+    // from the buffer. The elements outside the range have to survive.
+    int[] input = new int[50002];
+    for (int i = 1; i < input.length - 1; i++) {
+      input[i] = -0x12345600 | random.nextInt(256);
+    }
+    input[0] = 99;
+    input[input.length - 1] = -99;
+
+    int[] expected = input.clone();
+    Arrays.sort(expected, 1, expected.length - 1);
+    assertTrue(Arrays.equals(expected,
+        new ParallelRadixArraySorter(pool, 1).sort(input, 1, input.length - 1)));
+  }
+
+  public void testSortLargeLongs() {
+    long[] input = new long[50000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (i % 3 == 0) ? random.nextLong() : 1386037880000L + random.nextInt(100000);
+    }
+    long[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new ParallelRadixArraySorter(pool, 1).sort(input)));
+  }
+
+  public void testSortLargeLongRange() {
+    long[] input = new long[50000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = random.nextLong();
+    }
+    long[] expected = input.clone();
+    Arrays.sort(expected, 100, 40000);
+    assertTrue(Arrays.equals(expected,
+        new ParallelRadixArraySorter(pool, 1).sort(input, 100, 40000)));
+  }
+
+  public void testSortInvalidRange() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> new ParallelRadixArraySorter(pool).sort(new int[5], 3, 2));
+  }
+
+  public void testInvalidSequentialThreshold() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> new ParallelRadixArraySorter(pool, 0));
+  }
+}
@@ -0,0 +1,21 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+/**
+ * Tests the sorting functionality of the primitive array quick sort implementation.
+ */
+public class QuicksortArraySorterTest extends AbstractArraySorterTest {
+  @Override
+  protected IntArraySorter createIntArraySorter() {
+    return new QuicksortArraySorter();
+  }
+
+  @Override
+  protected LongArraySorter createLongArraySorter() {
+    return new QuicksortArraySorter();
+  }
+
+  @Override
+  protected DoubleArraySorter createDoubleArraySorter() {
+    return new QuicksortArraySorter();
+  }
+}
@@ -0,0 +1,80 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the primitive array radix sort implementation.
+ */
+public class RadixArraySorterTest extends AbstractArraySorterTest {
+  @Override
+  protected IntArraySorter createIntArraySorter() {
+    return new RadixArraySorter();
+  }
+
+  @Override
+  protected LongArraySorter createLongArraySorter() {
+    return new RadixArraySorter();
+  }
+
+  @Override
+  protected DoubleArraySorter createDoubleArraySorter() {
+    return new RadixArraySorter();
+  }
+
+  public void testSortIntsWithSkippedPasses() {
+    // Only the lowest byte varies, so a single pass runs and its output has to be copied back
+    // from the buffer. The range check makes sure the elements outside the range survive.
+    Random random = new Random(42);
+    int[] input = new int[1002];
+    for (int i = 1; i < input.length - 1; i++) {
+      input[i] = 0x12345600 | random.nextInt(256);
+    }
+    input[0] = 99;
+    input[input.length - 1] = -99;
+
+    int[] expected = input.clone();
+    Arrays.sort(expected, 1, expected.length - 1);
+    assertTrue(Arrays.equals(expected,
+        new RadixArraySorter().sort(input, 1, input.length - 1)));
+  }
+
+  public void testSortLongsWithSkippedPasses() {
+    Random random = new Random(42);
+    long[] input = new long[1000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = 1386037880000L + random.nextInt(100000) - 50000;
+    }
+    long[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new RadixArraySorter().sort(input)));
+  }
+
+  public void testSortIndices() {
+    long[] keys = new long[] {5L, -3L, Long.MAX_VALUE, 5L, Long.MIN_VALUE, 0L, -3L};
+    long[] original = keys.clone();
+    int[] indices = new RadixArraySorter().sortIndices(keys);
+    assertTrue(Arrays.equals(new int[] {4, 1, 6, 5, 0, 3, 2}, indices));
+    assertTrue(Arrays.equals(original, keys));
+    assertEquals(0, new RadixArraySorter().sortIndices(new long[0]).length);
+  }
+
+  public void testSortSimpleFloats() {
+    float[] input = new float[] {3.5f, Float.NaN, -0.0f, 0.0f, -2.25f,
+        Float.NEGATIVE_INFINITY, 1e-30f, Float.POSITIVE_INFINITY, -1e30f, 3.5f};
+    float[] expected = new float[] {Float.NEGATIVE_INFINITY, -1e30f, -2.25f, -0.0f, 0.0f,
+        1e-30f, 3.5f, 3.5f, Float.POSITIVE_INFINITY, Float.NaN};
+    assertTrue(Arrays.equals(expected, new RadixArraySorter().sort(input)));
+  }
+
+  public void testSortLargeFloats() {
+    Random random = new Random(42);
+    float[] input = new float[5000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (float) random.nextGaussian() * 1000;
+    }
+    float[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new RadixArraySorter().sort(input)));
+  }
+}
@@ -3,6 +3,9 @@ package org.ericbeach.learning.algorithms.sorting;
 import junit.framework.TestCase;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Tests the sorting functionality of the BubbleSort implementation.
@@ -36,6 +39,7 @@ public class RadixIntegerSorterTest extends TestCase {
     sorter = null;
   }
 
+  @SuppressWarnings("deprecation")
   public void testCanIntegersBeSortedCorrectly() {
     ArrayList<Integer> sorted = sorter.sortIntegers(unsortedIntegers, 4);
 
@@ -47,4 +51,19 @@ public class RadixIntegerSorterTest extends TestCase {
       assertEquals(sortedIntegers.get(i), sorted.get(i));
     }
   }
+
+  public void testNegativeIntegersSortBelowPositiveOnes() {
+    List<Integer> list = new ArrayList<Integer>();
+    Collections.addAll(list, 100, -50, -120, 9000, 14, -200, 60, Integer.MIN_VALUE, 0);
+
+    List<Integer> expected = new ArrayList<Integer>();
+    Collections.addAll(expected, Integer.MIN_VALUE, -200, -120, -50, 0, 14, 60, 100, 9000);
+
+    assertEquals(expected, sorter.sortIntegers(list));
+  }
+
+  public void testSortIntegersWithoutMaxDigits() {
+    List<Integer> list = new LinkedList<Integer>(unsortedIntegers);
+    assertEquals(sortedIntegers, sorter.sortIntegers(list));
+  }
 }
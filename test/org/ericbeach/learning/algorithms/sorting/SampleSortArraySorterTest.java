@@ -0,0 +1,102 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests the sorting functionality of the parallel primitive array sample sort implementation.
+ */
+public class SampleSortArraySorterTest extends TestCase {
+  private ForkJoinPool pool;
+  private Random random;
+
+  protected void setUp() throws Exception {
+    pool = new ForkJoinPool(4);
+    random = new Random(42);
+  }
+
+  protected void tearDown() throws Exception {
+    pool.shutdown();
+    pool = null;
+    random = null;
+  }
+
+  public void testSortSmallIntsSequentially() {
+    int[] input = new int[] {100, 50, -120, 9000, 14, -200, Integer.MIN_VALUE,
+        Integer.MAX_VALUE, 0, 14};
+    int[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new SampleSortArraySorter(pool).sort(input)));
+  }
+
+  public void testSortLargeInts() {
+    int[] input = new int[100000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = random.nextInt();
+    }
+    int[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new SampleSortArraySorter(pool, 1).sort(input)));
+  }
+
+  public void testSortLargeIntsWithFewDistinctValues() {
+    for (int bound : new int[] {1, 2, 5, 100}) {
+      int[] input = new int[100000];
+      for (int i = 0; i < input.length; i++) {
+        input[i] = random.nextInt(bound);
+      }
+      int[] expected = input.clone();
+      Arrays.sort(expected);
+      assertTrue(Arrays.equals(expected, new SampleSortArraySorter(pool, 1).sort(input)));
+    }
+  }
+
+  public void testSortSmallIntsInParallel() {
+    // Fewer elements than there are sample slots, so many splitters repeat.
+    for (int size = 2; size < 200; size++) {
+      int[] input = new int[size];
+      for (int i = 0; i < size; i++) {
+        input[i] = random.nextInt(50);
+      }
+      int[] expected = input.clone();
+      Arrays.sort(expected);
+      assertTrue(Arrays.equals(expected, new SampleSortArraySorter(pool, 1).sort(input)));
+    }
+  }
+
+  public void testSortLargeIntRange() {
+    int[] input = new int[100000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = random.nextInt();
+    }
+    int[] expected = input.clone();
+    Arrays.sort(expected, 100, 90000);
+    assertTrue(Arrays.equals(expected,
+        new SampleSortArraySorter(pool, 1).sort(input, 100, 90000)));
+  }
+
+  public void testSortLargeLongs() {
+    long[] input = new long[100000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (i % 3 == 0) ? random.nextLong() : 1386037880000L + random.nextInt(100000);
+    }
+    input[7] = Long.MIN_VALUE;
+    input[8] = Long.MAX_VALUE;
+    long[] expected = input.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, new SampleSortArraySorter(pool, 1).sort(input)));
+  }
+
+  public void testSortInvalidRange() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> new SampleSortArraySorter(pool).sort(new int[5], 3, 2));
+  }
+
+  public void testInvalidSequentialThreshold() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> new SampleSortArraySorter(pool, 0));
+  }
+}
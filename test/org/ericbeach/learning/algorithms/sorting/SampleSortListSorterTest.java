@@ -0,0 +1,118 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests the sorting functionality of the parallel Sample sort implementation.
+ */
+public class SampleSortListSorterTest extends AbstractListSorterTest {
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new SampleSortListSorter<T>();
+  }
+
+  public void testSortLargeListOnSuppliedPool() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ListSorter<Integer> sorter = new SampleSortListSorter<Integer>(pool, 64);
+      assertSortsLikeCollectionsSort(sorter, randomIntegers(new Random(42), 20000, 1000));
+      assertSortsLikeCollectionsSort(sorter, organPipeIntegers(20000));
+      // A handful of distinct keys leaves most splitters equal, so most elements land in the
+      // twin buckets of equal elements.
+      assertSortsLikeCollectionsSort(sorter, randomIntegers(new Random(42), 20000, 3));
+      assertSortsLikeCollectionsSort(sorter,
+          new ArrayList<Integer>(Collections.nCopies(20000, 7)));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testSortsListInPlaceAroundSequentialThreshold() {
+    // The default bucket sorter returns a new list, but the list passed in must be sorted and
+    // returned on both sides of the threshold.
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Random random = new Random(42);
+      ListSorter<Integer> sorter = new SampleSortListSorter<Integer>(pool, 2000);
+      for (int size : new int[] {2, 1999, 2000, 2001, 4000}) {
+        List<Integer> list = randomIntegers(random, size, 1000);
+        List<Integer> expected = new ArrayList<Integer>(list);
+        Collections.sort(expected);
+        assertSame(list, sorter.sort(list));
+        assertEquals("size " + size, expected, list);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testSortIsStable() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Random random = new Random(42);
+      List<StableKey> list = new ArrayList<StableKey>();
+      for (int i = 0; i < 20000; i++) {
+        list.add(new StableKey(random.nextInt(50), i));
+      }
+
+      new SampleSortListSorter<StableKey>(pool, 64).sort(list);
+      for (int i = 1; i < list.size(); i++) {
+        StableKey previous = list.get(i - 1);
+        StableKey current = list.get(i);
+        assertTrue(previous.key < current.key
+            || (previous.key == current.key && previous.position < current.position));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testSortBucketsWithSuppliedSorter() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Random random = new Random(42);
+      List<String> list = new ArrayList<String>();
+      for (int i = 0; i < 20000; i++) {
+        list.add(Integer.toString(random.nextInt()));
+      }
+
+      ListSorter<String> sorter = new SampleSortListSorter<String>(pool, 64,
+          new ListSorterFactory() {
+            @Override
+            public <E extends Comparable<? super E>> ListSorter<E> create() {
+              return new QuicksortListSorter<E>();
+            }
+          });
+      assertSortsLikeCollectionsSort(sorter, list);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testInvalidSequentialThreshold() {
+    assertRejects(IllegalArgumentException.class,
+        () -> new SampleSortListSorter<Integer>(ForkJoinPool.commonPool(), 0));
+  }
+
+  /**
+   * A key that remembers where it started, so that the order of equal keys can be checked.
+   */
+  private static class StableKey implements Comparable<StableKey> {
+    private final int key;
+    private final int position;
+
+    StableKey(int key, int position) {
+      this.key = key;
+      this.position = position;
+    }
+
+    @Override
+    public int compareTo(StableKey other) {
+      return Integer.compare(key, other.key);
+    }
+  }
+}
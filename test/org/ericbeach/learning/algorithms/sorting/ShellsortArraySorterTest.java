@@ -0,0 +1,38 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the primitive array shell sort implementation.
+ */
+public class ShellsortArraySorterTest extends AbstractArraySorterTest {
+  @Override
+  protected IntArraySorter createIntArraySorter() {
+    return new ShellsortArraySorter();
+  }
+
+  @Override
+  protected LongArraySorter createLongArraySorter() {
+    return new ShellsortArraySorter();
+  }
+
+  @Override
+  protected DoubleArraySorter createDoubleArraySorter() {
+    return new ShellsortArraySorter();
+  }
+
+  public void testSortWithEveryGapSequence() {
+    Random random = new Random(42);
+    for (StandardGapSequence gapSequence : StandardGapSequence.values()) {
+      int[] input = new int[5000];
+      for (int i = 0; i < input.length; i++) {
+        input[i] = random.nextInt();
+      }
+      int[] expected = input.clone();
+      Arrays.sort(expected, 10, 4990);
+      new ShellsortArraySorter(gapSequence).sort(input, 10, 4990);
+      assertTrue(gapSequence.name(), Arrays.equals(expected, input));
+    }
+  }
+}
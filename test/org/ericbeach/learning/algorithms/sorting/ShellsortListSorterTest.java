@@ -1,5 +1,7 @@
 package org.ericbeach.learning.algorithms.sorting;
 
+import java.util.Random;
+
 /**
  * Tests the sorting functionality of the shell sort implementation.
  */
@@ -8,4 +10,29 @@ public class ShellsortListSorterTest extends AbstractListSorterTest {
   protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
     return new ShellsortListSorter<T>();
   }
+
+  public void testSortWithEveryGapSequence() {
+    Random random = new Random(42);
+    for (StandardGapSequence gapSequence : StandardGapSequence.values()) {
+      ListSorter<Integer> sorter = new ShellsortListSorter<Integer>(gapSequence);
+      for (int size : new int[] {2, 3, 10, 100, 5000}) {
+        assertSortsLikeCollectionsSort(gapSequence.name(), sorter,
+            randomIntegers(random, size, 1000));
+      }
+    }
+  }
+
+  public void testSortShapedInputsAroundGaps() {
+    // Sizes just around Ciura's gaps make the largest gap used change, and organ pipes and
+    // few distinct keys stress the passes with large gaps.
+    Random random = new Random(42);
+    for (StandardGapSequence gapSequence : StandardGapSequence.values()) {
+      ListSorter<Integer> sorter = new ShellsortListSorter<Integer>(gapSequence);
+      for (int size : new int[] {4, 5, 23, 24, 57, 58, 701, 702, 20000}) {
+        String message = gapSequence.name() + ", size " + size;
+        assertSortsLikeCollectionsSort(message, sorter, organPipeIntegers(size));
+        assertSortsLikeCollectionsSort(message, sorter, randomIntegers(random, size, 3));
+      }
+    }
+  }
 }
@@ -0,0 +1,151 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the algorithm choices and the sorting functionality of the sorting engine.
+ */
+public class SortingEngineTest extends AbstractListSorterTest {
+  private Random random;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    random = new Random(42);
+  }
+
+  protected void tearDown() throws Exception {
+    super.tearDown();
+    random = null;
+  }
+
+  @Override
+  protected <T extends Comparable<? super T>> ListSorter<T> createListSorter() {
+    return new ListSorter<T>() {
+      @Override
+      public List<T> sort(List<T> list) {
+        return new SortingEngine().sort(list);
+      }
+    };
+  }
+
+  public void testSortedAndReversedFastPaths() {
+    List<Integer> list = new ArrayList<Integer>();
+    for (int i = 0; i < 1000; i++) {
+      list.add(i);
+    }
+    assertPlanAndSort(list, true, SortingEngine.Algorithm.ALREADY_SORTED);
+
+    Collections.reverse(list);
+    assertPlanAndSort(list, true, SortingEngine.Algorithm.REVERSE);
+
+    // Reversing would reorder equal neighbours, so a stable sort cannot use it.
+    Collections.reverse(list);
+    list.add(0);
+    assertEquals(SortingEngine.Algorithm.INTEGER_RADIX_SORT,
+        new SortingEngine().plan(list, true).getAlgorithm());
+    assertPlanAndSort(list, false, SortingEngine.Algorithm.REVERSE);
+  }
+
+  public void testRadixSortsForKnownTypes() {
+    List<Integer> integers = new ArrayList<Integer>();
+    List<Long> longs = new ArrayList<Long>();
+    List<String> strings = new ArrayList<String>();
+    for (int i = 0; i < 1000; i++) {
+      integers.add(random.nextInt());
+      longs.add(random.nextLong());
+      strings.add("key-" + random.nextInt(100));
+    }
+    assertPlanAndSort(integers, true, SortingEngine.Algorithm.INTEGER_RADIX_SORT);
+    assertPlanAndSort(longs, true, SortingEngine.Algorithm.LONG_RADIX_SORT);
+    assertPlanAndSort(strings, true, SortingEngine.Algorithm.STRING_RADIX_SORT);
+  }
+
+  public void testComparisonSortChoices() {
+    List<Timestamp> small = new ArrayList<Timestamp>();
+    for (int i = 0; i < 20; i++) {
+      small.add(new Timestamp(random.nextInt(1000000)));
+    }
+    assertPlanAndSort(small, false, SortingEngine.Algorithm.INSERTION_SORT);
+
+    List<Timestamp> distinct = new ArrayList<Timestamp>();
+    List<Timestamp> duplicates = new ArrayList<Timestamp>();
+    List<Timestamp> nearlySorted = new ArrayList<Timestamp>();
+    for (int i = 0; i < 5000; i++) {
+      distinct.add(new Timestamp(random.nextInt()));
+      duplicates.add(new Timestamp(random.nextInt(10)));
+      nearlySorted.add(new Timestamp((i % 1000) * 1000L));
+    }
+    assertPlanAndSort(distinct, false, SortingEngine.Algorithm.INTROSORT);
+    assertPlanAndSort(duplicates, false, SortingEngine.Algorithm.THREE_WAY_QUICKSORT);
+    assertPlanAndSort(nearlySorted, false, SortingEngine.Algorithm.ADAPTIVE_MERGESORT);
+
+    Collections.shuffle(duplicates, random);
+    assertPlanAndSort(duplicates, true, SortingEngine.Algorithm.ADAPTIVE_MERGESORT);
+  }
+
+  public void testPlanDoesNotModifyLinkedList() {
+    List<Integer> list = new LinkedList<Integer>();
+    for (int i = 0; i < 100; i++) {
+      list.add(random.nextInt(50));
+    }
+    List<Integer> original = new ArrayList<Integer>(list);
+
+    SortingEngine.Decision decision = new SortingEngine().plan(list, true);
+    assertEquals(original, list);
+    assertEquals(100, decision.getSize());
+    assertTrue(decision.getRunCount() > 1);
+    assertTrue(decision.getDuplicateRatio() > 0.0);
+    assertTrue(decision.isStable());
+  }
+
+  public void testPlanAndSortLinkedList() {
+    List<Integer> list = new LinkedList<Integer>(randomIntegers(random, 5000, 100));
+    assertPlanAndSort(list, true, SortingEngine.Algorithm.INTEGER_RADIX_SORT);
+
+    List<Timestamp> timestamps = new LinkedList<Timestamp>();
+    for (int i = 0; i < 5000; i++) {
+      timestamps.add(new Timestamp(random.nextInt(10)));
+    }
+    assertPlanAndSort(timestamps, false, SortingEngine.Algorithm.THREE_WAY_QUICKSORT);
+  }
+
+  public void testIntegerRadixSortKeepsElementObjects() {
+    List<Integer> list = new ArrayList<Integer>();
+    for (int i = 0; i < 1000; i++) {
+      // Values outside the Integer cache, so that equal elements are distinct objects.
+      list.add(Integer.valueOf(1000000 + random.nextInt(100)));
+    }
+    List<Integer> expected = new ArrayList<Integer>(list);
+    Collections.sort(expected);
+
+    assertPlanAndSort(list, true, SortingEngine.Algorithm.INTEGER_RADIX_SORT);
+    for (int i = 0; i < list.size(); i++) {
+      assertSame(expected.get(i), list.get(i));
+    }
+  }
+
+  public void testSortWithMismatchedDecision() {
+    List<Integer> list = new ArrayList<Integer>();
+    list.add(1);
+    SortingEngine.Decision decision = new SortingEngine().plan(list, true);
+    list.add(0);
+    assertRejects(IllegalArgumentException.class,
+        () -> new SortingEngine().sort(list, decision));
+  }
+
+  private <T extends Comparable<? super T>> void assertPlanAndSort(List<T> list, boolean stable,
+      SortingEngine.Algorithm expectedAlgorithm) {
+    List<T> expected = new ArrayList<T>(list);
+    Collections.sort(expected);
+
+    SortingEngine engine = new SortingEngine();
+    SortingEngine.Decision decision = engine.plan(list, stable);
+    assertEquals(decision.toString(), expectedAlgorithm, decision.getAlgorithm());
+    assertEquals(expected, engine.sort(list, decision));
+  }
+}
@@ -0,0 +1,135 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the sorting networks.
+ */
+public class SortingNetworkTest extends TestCase {
+  private static final int[] BEST_KNOWN_COMPARATOR_COUNTS = new int[] {0, 0, 1, 3, 5, 9, 12, 16,
+      19, 25, 29, 35, 39, 45, 51, 56, 60};
+
+  public void testComparatorCounts() {
+    for (int size = 0; size <= SortingNetwork.MAX_SIZE; size++) {
+      SortingNetwork network = SortingNetwork.forSize(size);
+      assertEquals(size, network.size());
+      assertEquals(BEST_KNOWN_COMPARATOR_COUNTS[size], network.comparatorCount());
+    }
+  }
+
+  public void testSortsEveryZeroOneSequence() {
+    // By the 0-1 principle, sorting every sequence of 0s and 1s proves a network sorts anything.
+    for (int size = 0; size <= SortingNetwork.MAX_SIZE; size++) {
+      SortingNetwork network = SortingNetwork.forSize(size);
+      int[] array = new int[size];
+      for (int bits = 0; bits < (1 << size); bits++) {
+        int ones = 0;
+        for (int i = 0; i < size; i++) {
+          array[i] = (bits >>> i) & 1;
+          ones += array[i];
+        }
+        network.sort(array, 0);
+        for (int i = 0; i < size; i++) {
+          assertEquals(i < size - ones ? 0 : 1, array[i]);
+        }
+      }
+    }
+  }
+
+  public void testSortRandomPrimitivesAtAnOffset() {
+    Random random = new Random(42);
+    for (int size = 0; size <= SortingNetwork.MAX_SIZE; size++) {
+      SortingNetwork network = SortingNetwork.forSize(size);
+      for (int trial = 0; trial < 100; trial++) {
+        long[] longs = new long[size + 4];
+        for (int i = 0; i < longs.length; i++) {
+          longs[i] = random.nextLong();
+        }
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs, 2, 2 + size);
+        network.sort(longs, 2);
+        assertTrue(Arrays.equals(expectedLongs, longs));
+      }
+    }
+  }
+
+  public void testSortDoublesLikeDoubleCompare() {
+    double[] array = new double[] {Double.NaN, 0.0, 3.5, -0.0, Double.NEGATIVE_INFINITY, -1.0,
+        Double.POSITIVE_INFINITY, 0.0, -0.0};
+    double[] expected = array.clone();
+    Arrays.sort(expected);
+    SortingNetwork.forSize(array.length).sort(array, 0);
+    assertTrue(Arrays.equals(expected, array));
+  }
+
+  public void testSortList() {
+    Random random = new Random(42);
+    for (int size = 0; size <= SortingNetwork.MAX_SIZE; size++) {
+      List<Integer> list = new ArrayList<Integer>();
+      for (int i = 0; i < size + 3; i++) {
+        list.add(random.nextInt(10));
+      }
+      List<Integer> expected = new ArrayList<Integer>(list);
+      Collections.sort(expected.subList(1, 1 + size));
+      SortingNetwork.forSize(size).sort(list, 1);
+      assertEquals(expected, list);
+    }
+  }
+
+  public void testSortListStably() {
+    Random random = new Random(42);
+    for (int size = 0; size <= SortingNetwork.MAX_SIZE; size++) {
+      for (int trial = 0; trial < 100; trial++) {
+        // The elements before the range, which is sorted at an offset, must be left alone.
+        Key first = new Key(9, -2);
+        Key second = new Key(-9, -1);
+        List<Key> list = new ArrayList<Key>();
+        list.add(first);
+        list.add(second);
+        for (int i = 0; i < size; i++) {
+          list.add(new Key(random.nextInt(3), i));
+        }
+        SortingNetwork.forSize(size).sortStably(list, 2);
+        assertSame(first, list.get(0));
+        assertSame(second, list.get(1));
+        for (int i = 3; i < list.size(); i++) {
+          assertTrue(list.get(i - 1).value <= list.get(i).value);
+          if (list.get(i - 1).value == list.get(i).value) {
+            assertTrue(list.get(i - 1).originalPosition < list.get(i).originalPosition);
+          }
+        }
+      }
+    }
+  }
+
+  public void testInvalidSize() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> SortingNetwork.forSize(SortingNetwork.MAX_SIZE + 1));
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> SortingNetwork.forSize(-1));
+  }
+
+  /**
+   * An element that compares only on its value, remembering where it started.
+   */
+  private static class Key implements Comparable<Key> {
+    private final int value;
+    private final int originalPosition;
+
+    Key(int value, int originalPosition) {
+      this.value = value;
+      this.originalPosition = originalPosition;
+    }
+
+    @Override
+    public int compareTo(Key other) {
+      return Integer.compare(value, other.value);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+/**
+ * Tests the standard shell sort gap sequences.
+ */
+public class StandardGapSequenceTest extends TestCase {
+  public void testKnownPrefixes() {
+    assertTrue(Arrays.equals(new int[] {500, 250, 125, 62, 31, 15, 7, 3, 1},
+        StandardGapSequence.SHELL.gaps(1000)));
+    assertTrue(Arrays.equals(new int[] {121, 40, 13, 4, 1},
+        StandardGapSequence.KNUTH.gaps(1000)));
+    assertTrue(Arrays.equals(new int[] {281, 77, 23, 8, 1},
+        StandardGapSequence.SEDGEWICK.gaps(1000)));
+    assertTrue(Arrays.equals(new int[] {525, 233, 103, 46, 20, 9, 4, 1},
+        StandardGapSequence.TOKUDA.gaps(1000)));
+    assertTrue(Arrays.equals(new int[] {701, 301, 132, 57, 23, 10, 4, 1},
+        StandardGapSequence.CIURA.gaps(1000)));
+    assertTrue(Arrays.equals(new int[] {9, 8, 6, 4, 3, 2, 1},
+        StandardGapSequence.PRATT.gaps(10)));
+  }
+
+  public void testCiuraExtendsBeyondKnownGaps() {
+    int[] gaps = StandardGapSequence.CIURA.gaps(10000);
+    assertEquals(8858, gaps[0]);
+    assertEquals(3937, gaps[1]);
+    assertEquals(1750, gaps[2]);
+  }
+
+  public void testEveryGapSequenceIsValid() {
+    for (StandardGapSequence gapSequence : StandardGapSequence.values()) {
+      assertEquals(0, gapSequence.gaps(0).length);
+      assertEquals(0, gapSequence.gaps(1).length);
+      for (int size : new int[] {2, 3, 17, 1000, Integer.MAX_VALUE}) {
+        int[] gaps = gapSequence.gaps(size);
+        assertEquals(gapSequence.name(), 1, gaps[gaps.length - 1]);
+        assertTrue(gapSequence.name(), gaps[0] < size);
+        for (int i = 1; i < gaps.length; i++) {
+          assertTrue(gapSequence.name(), gaps[i] < gaps[i - 1]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the bounded heap top-k collector.
+ */
+public class TopKCollectorTest extends TestCase {
+  public void testCollectSmallestOfLargeStream() {
+    Random random = new Random(42);
+    List<Integer> all = new ArrayList<Integer>();
+    TopKCollector<Integer> collector = new TopKCollector<Integer>(100);
+    for (int i = 0; i < 100000; i++) {
+      int value = random.nextInt(1000000);
+      all.add(value);
+      collector.offer(value);
+    }
+    Collections.sort(all);
+    assertEquals(100, collector.size());
+    assertEquals(all.subList(0, 100), collector.toSortedList());
+  }
+
+  public void testCollectFewerThanK() {
+    TopKCollector<String> collector = new TopKCollector<String>(5);
+    collector.offerAll(Arrays.asList("c", "a", "b"));
+    assertEquals(Arrays.asList("a", "b", "c"), collector.toSortedList());
+
+    collector.offerAll(Arrays.asList("a", "e", "d", "f"));
+    assertEquals(Arrays.asList("a", "a", "b", "c", "d"), collector.toSortedList());
+  }
+
+  public void testCollectNone() {
+    TopKCollector<Integer> collector = new TopKCollector<Integer>(0);
+    collector.offerAll(Arrays.asList(3, 1, 2));
+    assertTrue(collector.toSortedList().isEmpty());
+  }
+
+  public void testInvalidK() {
+    AbstractListSorterTest.assertRejects(IllegalArgumentException.class,
+        () -> new TopKCollector<Integer>(-1));
+  }
+}
@@ -0,0 +1,149 @@
+package org.ericbeach.learning.algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests the sorting functionality of the vectorized primitive array sorter, both with the Vector
+ * API and with its scalar fallback.
+ */
+public class VectorizedArraySorterTest extends AbstractArraySorterTest {
+  @Override
+  protected IntArraySorter createIntArraySorter() {
+    return new VectorizedArraySorter();
+  }
+
+  @Override
+  protected LongArraySorter createLongArraySorter() {
+    return new VectorizedArraySorter();
+  }
+
+  @Override
+  protected DoubleArraySorter createDoubleArraySorter() {
+    return new VectorizedArraySorter();
+  }
+
+  public void testUsesVectorApiWhenAvailable() {
+    assertEquals(VectorizedArraySorter.isVectorApiAvailable(),
+        new VectorizedArraySorter().isVectorized());
+    assertFalse(new VectorizedArraySorter(false).isVectorized());
+  }
+
+  public void testSortIntsOfEveryShape() {
+    Random random = new Random(42);
+    for (VectorizedArraySorter sorter : sorters()) {
+      for (int size = 0; size <= 200; size++) {
+        assertSortsInts(sorter, randomInts(random, size, Integer.MAX_VALUE));
+      }
+      for (int size : new int[] {1000, 4096, 100000}) {
+        assertSortsInts(sorter, randomInts(random, size, Integer.MAX_VALUE));
+        assertSortsInts(sorter, randomInts(random, size, 3));
+        assertSortsInts(sorter, randomInts(random, size, 1));
+
+        int[] sorted = randomInts(random, size, Integer.MAX_VALUE);
+        Arrays.sort(sorted);
+        assertSortsInts(sorter, sorted);
+
+        int[] reversed = new int[size];
+        for (int i = 0; i < size; i++) {
+          reversed[i] = sorted[size - 1 - i];
+        }
+        assertSortsInts(sorter, reversed);
+      }
+    }
+  }
+
+  public void testSortLongsOfEveryShape() {
+    Random random = new Random(42);
+    for (VectorizedArraySorter sorter : sorters()) {
+      for (int size = 0; size <= 100; size++) {
+        assertSortsLongs(sorter, randomLongs(random, size, 0));
+      }
+      for (int size : new int[] {1000, 4096, 100000}) {
+        assertSortsLongs(sorter, randomLongs(random, size, 0));
+        assertSortsLongs(sorter, randomLongs(random, size, 5));
+        assertSortsLongs(sorter, randomLongs(random, size, 1));
+      }
+    }
+  }
+
+  public void testSortIntRangeLeavesTheRestAlone() {
+    Random random = new Random(42);
+    for (VectorizedArraySorter sorter : sorters()) {
+      int[] array = randomInts(random, 10000, 1000);
+      int[] expected = array.clone();
+      Arrays.sort(expected, 1234, 8765);
+      assertTrue(Arrays.equals(expected, sorter.sort(array, 1234, 8765)));
+    }
+  }
+
+  public void testSortFloats() {
+    Random random = new Random(42);
+    for (VectorizedArraySorter sorter : sorters()) {
+      float[] array = new float[5000];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = (float) random.nextGaussian();
+      }
+      array[10] = Float.NaN;
+      array[20] = -0.0f;
+      array[30] = 0.0f;
+      array[40] = Float.NEGATIVE_INFINITY;
+      array[50] = Float.POSITIVE_INFINITY;
+      float[] expected = array.clone();
+      Arrays.sort(expected);
+      assertTrue(Arrays.equals(expected, sorter.sort(array)));
+    }
+  }
+
+  public void testSortLargeDoublesWithVectors() {
+    Random random = new Random(42);
+    for (VectorizedArraySorter sorter : sorters()) {
+      double[] array = new double[5000];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = random.nextGaussian() * 1e6;
+      }
+      double[] expected = array.clone();
+      Arrays.sort(expected);
+      assertTrue(Arrays.equals(expected, sorter.sort(array)));
+    }
+  }
+
+  /**
+   * @return A vectorized sorter, if the Vector API is available, and a scalar one.
+   */
+  private VectorizedArraySorter[] sorters() {
+    if (VectorizedArraySorter.isVectorApiAvailable()) {
+      return new VectorizedArraySorter[] {new VectorizedArraySorter(true),
+          new VectorizedArraySorter(false)};
+    }
+    return new VectorizedArraySorter[] {new VectorizedArraySorter(false)};
+  }
+
+  private int[] randomInts(Random random, int size, int bound) {
+    int[] array = new int[size];
+    for (int i = 0; i < size; i++) {
+      array[i] = (bound == Integer.MAX_VALUE) ? random.nextInt() : random.nextInt(bound);
+    }
+    return array;
+  }
+
+  private long[] randomLongs(Random random, int size, int bound) {
+    long[] array = new long[size];
+    for (int i = 0; i < size; i++) {
+      array[i] = (bound == 0) ? random.nextLong() : random.nextInt(bound);
+    }
+    return array;
+  }
+
+  private void assertSortsInts(IntArraySorter sorter, int[] array) {
+    int[] expected = array.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, sorter.sort(array)));
+  }
+
+  private void assertSortsLongs(LongArraySorter sorter, long[] array) {
+    long[] expected = array.clone();
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, sorter.sort(array)));
+  }
+}